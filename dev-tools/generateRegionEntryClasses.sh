@@ -29,16 +29,28 @@ for VERTYPE in VM Versioned
 do
   for RETYPE in Thin Stats ThinLRU StatsLRU ThinDisk StatsDisk ThinDiskLRU StatsDiskLRU
   do
-    for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2'
+    for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2' 'OffHeapStringKey KEY_OFFHEAP_STRING' 'UnchainedIntKey KEY_INT UNCHAINED' 'UnchainedLongKey KEY_LONG UNCHAINED'
     do
       for MEMTYPE in Heap OffHeap
       do
       declare -a KEY_ARRAY=($KEY_INFO)
       KEY_CLASS=${KEY_ARRAY[0]}
       KEY_TYPE=${KEY_ARRAY[1]}
+      KEY_OPTION=${KEY_ARRAY[2]}
+      if [ "$KEY_TYPE" = "KEY_OFFHEAP_STRING" -a "$MEMTYPE" = "Heap" ]; then
+        # keys are only stored off-heap by entries whose values are off-heap
+        continue
+      fi
+      if [ "$KEY_OPTION" = "UNCHAINED" -a "$MEMTYPE" = "OffHeap" ]; then
+        # unchained entries are only used by heap regions whose map is a PrimitiveKeyConcurrentHashMap
+        continue
+      fi
       BASE=${VERTYPE}${RETYPE}RegionEntry${MEMTYPE}
       OUT=${BASE}${KEY_CLASS}
       WP_ARGS=-Wp,-C,-P,-D${KEY_TYPE},-DPARENT_CLASS=$BASE,-DLEAF_CLASS=$OUT
+      if [ -n "$KEY_OPTION" ]; then
+        WP_ARGS=${WP_ARGS},-D${KEY_OPTION}
+      fi
       if [ "$VERTYPE" = "Versioned" ]; then
         WP_ARGS=${WP_ARGS},-DVERSIONED
       fi
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.TypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many new pdx types per second a peer can register one at a time compared to
+ * registering them in batches with {@link TypeRegistry#defineTypes}.
+ * <p>
+ * Every trial starts a new two member cluster, so each trial begins with an empty pdx type region.
+ * The other member runs in its own JVM and defines a type first, so it is the grantor of the pdx
+ * lock; the benchmarked member has to ask it for the lock and distribute every type to it.
+ */
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+public class PdxTypeRegistrationBenchmark {
+
+  private static final int BATCH_SIZE = 100;
+
+  private static final String READY = "ready";
+
+  @State(Scope.Benchmark)
+  public static class CacheState {
+    private Process peer;
+    private GemFireCacheImpl cache;
+    private TypeRegistry registry;
+    private final AtomicInteger typeCount = new AtomicInteger();
+    private List<PdxType> types;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      int port = AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET);
+      peer = startPeer(port);
+      cache = (GemFireCacheImpl) new CacheFactory().set("mcast-port", "0")
+          .set("locators", "localhost[" + port + "]").set("log-level", "warning").create();
+      registry = cache.getPdxRegistry();
+    }
+
+    @Setup(Level.Invocation)
+    public void createTypes() {
+      types = new ArrayList<PdxType>(BATCH_SIZE);
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        types.add(createType("benchmark.Type" + typeCount.incrementAndGet()));
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+      try {
+        cache.close();
+      } finally {
+        peer.destroy();
+        peer.waitFor();
+      }
+    }
+  }
+
+  @Benchmark
+  @Warmup(iterations = 5)
+  @Measurement(iterations = 10)
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void defineTypeOneAtATime(CacheState state) {
+    for (PdxType type : state.types) {
+      state.registry.defineType(type);
+    }
+  }
+
+  @Benchmark
+  @Warmup(iterations = 5)
+  @Measurement(iterations = 10)
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void defineTypesInBatch(CacheState state) {
+    state.registry.defineTypes(state.types);
+  }
+
+  private static PdxType createType(String className) {
+    PdxType type = new PdxType(className, false);
+    type.addField(new PdxField("field", 0, 0, FieldType.INT, false));
+    return type;
+  }
+
+  /**
+   * Starts a {@link Peer} that runs a locator on the given port and returns once it has joined the
+   * cluster and holds the pdx lock grant.
+   */
+  private static Process startPeer(int port) throws IOException {
+    String java =
+        System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+        Peer.class.getName(), String.valueOf(port)).redirectErrorStream(true).start();
+    BufferedReader output =
+        new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+    String line;
+    while ((line = output.readLine()) != null) {
+      if (line.equals(READY)) {
+        // keep draining the output so the peer never blocks writing to it
+        Thread drainer = new Thread(() -> {
+          try {
+            while (output.readLine() != null) {
+            }
+          } catch (IOException ignore) {
+          }
+        }, "PdxTypeRegistrationBenchmark peer output");
+        drainer.setDaemon(true);
+        drainer.start();
+        return process;
+      }
+    }
+    throw new IllegalStateException("The peer exited before joining the cluster");
+  }
+
+  /**
+   * The second member of the cluster. It is run in its own JVM so that the pdx type region and lock
+   * messages go over the network.
+   */
+  public static class Peer {
+    public static void main(String[] args) throws IOException {
+      String locator = "localhost[" + args[0] + "]";
+      GemFireCacheImpl cache = (GemFireCacheImpl) new CacheFactory().set("mcast-port", "0")
+          .set("locators", locator).set("start-locator", locator).set("log-level", "warning")
+          .create();
+      cache.getPdxRegistry().defineType(createType("benchmark.PeerType"));
+      System.out.println(READY);
+      System.out.flush();
+      // run until the benchmark destroys this process
+      while (System.in.read() != -1) {
+      }
+      cache.close();
+    }
+  }
+}
@@ -63,12 +63,33 @@ public final class EvictionAlgorithm extends EnumSyntax {
    */
   public static final EvictionAlgorithm LIFO_MEMORY = new EvictionAlgorithm(5);
 
+  /**
+   * An algorithm that considers the number of Entries in the Region before invoking its
+   * {@link EvictionAction}. Entries are chosen by a frequency based admission policy instead of by
+   * recency alone, which keeps frequently used entries in memory when a scan reads many entries
+   * only once.
+   *
+   * @since Geode 1.2
+   */
+  public static final EvictionAlgorithm TINYLFU_ENTRY = new EvictionAlgorithm(6);
+
+  /**
+   * An algorithm that considers the amount of bytes consumed by the Region before invoking its
+   * {@link EvictionAction}. Entries are chosen by a frequency based admission policy instead of by
+   * recency alone, which keeps frequently used entries in memory when a scan reads many entries
+   * only once.
+   *
+   * @since Geode 1.2
+   */
+  public static final EvictionAlgorithm TINYLFU_MEMORY = new EvictionAlgorithm(7);
+
   private EvictionAlgorithm(int val) {
     super(val);
   }
 
   private static final String[] stringTable = {"none", "lru-entry-count", "lru-heap-percentage",
-      "lru-memory-size", "lifo-entry-count", "lifo-memory-size"};
+      "lru-memory-size", "lifo-entry-count", "lifo-memory-size", "tinylfu-entry-count",
+      "tinylfu-memory-size"};
 
   @Override
   final protected String[] getStringTable() {
@@ -77,7 +98,8 @@ public final class EvictionAlgorithm extends EnumSyntax {
 
   // TODO post Java 1.8.0u45 uncomment final flag, see JDK-8076152
   private static /* final */ EvictionAlgorithm[] enumValueTable =
-      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY,};
+      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY, TINYLFU_ENTRY,
+          TINYLFU_MEMORY,};
 
   @Override
   final protected EnumSyntax[] getEnumValueTable() {
@@ -138,4 +160,23 @@ public final class EvictionAlgorithm extends EnumSyntax {
   public boolean isLIFO() {
     return this == LIFO_ENTRY || this == LIFO_MEMORY;
   }
+
+  /**
+   * returns true if this object uses the frequency based TinyLFU algorithm
+   *
+   * @since Geode 1.2
+   */
+  public boolean isTinyLFU() {
+    return this == TINYLFU_ENTRY || this == TINYLFU_MEMORY;
+  }
+
+  /**
+   * returns true if this object limits the bytes held by a region, using either the
+   * least-recently-used or the TinyLFU algorithm
+   *
+   * @since Geode 1.2
+   */
+  public boolean isMemoryEviction() {
+    return this == LRU_MEMORY || this == TINYLFU_MEMORY;
+  }
 }
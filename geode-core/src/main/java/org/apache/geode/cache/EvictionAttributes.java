@@ -499,4 +499,35 @@ public abstract class EvictionAttributes implements DataSerializable {
         .setAction(evictionAction).internalSetMaximum(maximumMegabytes).setObjectSizer(null);
   }
 
+  /**
+   * Creates and returns {@linkplain EvictionAlgorithm#TINYLFU_ENTRY entry TinyLFU} eviction
+   * attributes with the given <code>evictionAction</code> and given <code>maximumEntries</code>.
+   *
+   * @param maximumEntries the number of entries to keep in the Region
+   * @param evictionAction the action to perform when evicting an entry
+   * @return {@linkplain EvictionAlgorithm#TINYLFU_ENTRY entry TinyLFU} eviction attributes
+   * @since Geode 1.2
+   */
+  public static EvictionAttributes createTinyLFUEntryAttributes(int maximumEntries,
+      EvictionAction evictionAction) {
+    return new EvictionAttributesImpl().setAlgorithm(EvictionAlgorithm.TINYLFU_ENTRY)
+        .setAction(evictionAction).internalSetMaximum(maximumEntries);
+  }
+
+  /**
+   * Creates and returns {@linkplain EvictionAlgorithm#TINYLFU_MEMORY memory TinyLFU} eviction
+   * attributes with the given <code>evictionAction</code>, given <code>maximumMegabytes</code> and
+   * the default {@linkplain ObjectSizer sizer}.
+   *
+   * @param maximumMegabytes the maximum allowed bytes in the Region
+   * @param evictionAction the action to perform when evicting an entry
+   * @return {@linkplain EvictionAlgorithm#TINYLFU_MEMORY memory TinyLFU} eviction attributes
+   * @since Geode 1.2
+   */
+  public static EvictionAttributes createTinyLFUMemoryAttributes(int maximumMegabytes,
+      EvictionAction evictionAction) {
+    return new EvictionAttributesImpl().setAlgorithm(EvictionAlgorithm.TINYLFU_MEMORY)
+        .setAction(evictionAction).internalSetMaximum(maximumMegabytes).setObjectSizer(null);
+  }
+
 }
@@ -38,6 +38,7 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.internal.FieldNotFoundInPdxVersion;
+import org.apache.geode.pdx.internal.PdxField;
 import org.apache.geode.pdx.internal.PdxInstanceImpl;
 import org.apache.geode.pdx.JSONFormatter;
 
@@ -255,9 +256,10 @@ public class AttributeDescriptor {
     if (target instanceof PdxInstanceImpl) {
       PdxInstanceImpl pdxInstance = (PdxInstanceImpl) target;
       // if the field is present in the pdxinstance
-      if (pdxInstance.hasField(_name)) {
+      PdxField field = pdxInstance.getPdxType().getPdxField(_name);
+      if (field != null) {
         // return PdxString if field is a String otherwise invoke readField
-        return pdxInstance.getRawField(_name);
+        return pdxInstance.getRawField(field);
       } else {
         // field not found in the pdx instance, look for the field in any of the
         // PdxTypes (versions of the pdxinstance) in the type registry
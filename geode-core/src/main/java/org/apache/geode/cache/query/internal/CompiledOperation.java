@@ -36,6 +36,7 @@ import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.PdxSerializationException;
+import org.apache.geode.pdx.internal.PdxField;
 import org.apache.geode.pdx.internal.PdxInstanceImpl;
 import org.apache.geode.pdx.internal.PdxString;
 
@@ -140,6 +141,17 @@ public class CompiledOperation extends AbstractCompiledValue {
       }
     }
 
+    // a getter on a serialized pdx instance can be answered from the bytes of its field
+    // without deserializing the instance or loading its class
+    if (DefaultQueryService.PDX_GETTERS_READ_FIELDS && evalRcvr instanceof PdxInstanceImpl
+        && this.args.isEmpty() && context.getCache().getPdxReadSerialized()) {
+      PdxInstanceImpl pdxInstance = (PdxInstanceImpl) evalRcvr;
+      PdxField field = pdxInstance.getPdxType().getPdxFieldForGetter(this.methodName);
+      if (field != null) {
+        return pdxInstance.getRawField(field);
+      }
+    }
+
     // check if the receiver is the iterator, in which
     // case we resolve the method on the constraint rather
     // than the runtime type of the receiver
@@ -63,6 +63,15 @@ public class DefaultQueryService implements QueryService {
       .booleanValue();
 
 
+  /**
+   * System property to evaluate a no-arg getter method, like getName(), on a serialized PdxInstance
+   * by reading the field the getter names instead of deserializing the instance. Only applies when
+   * pdx read-serialized is true. By default its set to false. Not final so that tests can change
+   * it.
+   */
+  public static boolean PDX_GETTERS_READ_FIELDS = Boolean.getBoolean(
+      DistributionConfig.GEMFIRE_PREFIX + "QueryService.PdxGettersReadFields");
+
   /** Test purpose only */
   public static boolean TEST_QUERY_HETEROGENEOUS_OBJECTS = false;
 
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.DiskRegion;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * Saves the contents of the {@link CompactRangeIndex}es of a persistent region to its disk store
+ * when the region is closed, and loads them back when the region is recovered so they do not have
+ * to be rebuilt by evaluating every entry.
+ * <p>
+ * A snapshot holds the index key and region key of every mapping. It is only used if the region's
+ * disk region id, the index definition and the disk region version vector are the same at recovery
+ * as when the snapshot was written; otherwise the index is rebuilt as before. A snapshot is deleted
+ * when it is read so it can never be applied to a later incarnation of the region's data.
+ *
+ * @since Geode 1.2
+ */
+public class IndexSnapshot {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * System property to save and load index snapshots for persistent regions. Not final so that
+   * tests can change it.
+   */
+  public static boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.PERSIST_SNAPSHOTS");
+
+  private static final String FILE_PREFIX = "INDEX";
+  private static final String FILE_SUFFIX = ".idx";
+  private static final int FORMAT_VERSION = 1;
+
+  private static final byte END = 0;
+  private static final byte OBJECT_KEY = 1;
+  private static final byte NULL_KEY = 2;
+  private static final byte UNDEFINED_KEY = 3;
+  private static final byte PDX_STRING_KEY = 4;
+
+  private IndexSnapshot() {
+    // no instances
+  }
+
+  /**
+   * Returns true if snapshots are used for the indexes of the given region. Only non-bucket
+   * regions that persist their data with concurrency checks, and so have a disk region version
+   * vector to validate a snapshot against, qualify.
+   */
+  public static boolean isSupported(LocalRegion region) {
+    DiskRegion dr = region.getDiskRegion();
+    return ENABLED && dr != null && dr.isBackup() && !region.isUsedForPartitionedRegionBucket()
+        && dr.getRegionVersionVector() != null;
+  }
+
+  /**
+   * Writes a snapshot of each compact range index among the given indexes of the given region.
+   * Failures are logged and leave no snapshot behind.
+   */
+  public static void save(LocalRegion region, Collection<?> indexes) {
+    if (!isSupported(region)) {
+      return;
+    }
+    DiskRegion dr = region.getDiskRegion();
+    for (Object index : indexes) {
+      if (index.getClass() != CompactRangeIndex.class) {
+        continue;
+      }
+      CompactRangeIndex crIndex = (CompactRangeIndex) index;
+      if (!crIndex.isPopulated() || !(crIndex.getIndexStorage() instanceof MemoryIndexStore)) {
+        continue;
+      }
+      File file = getFile(dr, crIndex);
+      File tmpFile = new File(file.getPath() + ".tmp");
+      boolean saved = false;
+      try {
+        saved = write(dr, crIndex, tmpFile) && tmpFile.renameTo(file);
+      } catch (IOException | RuntimeException e) {
+        logger.info("Unable to save a snapshot of index {} on region {}: {}", crIndex.getName(),
+            region.getFullPath(), e.toString());
+      } finally {
+        if (!saved) {
+          tmpFile.delete();
+          file.delete();
+        }
+      }
+    }
+  }
+
+  /**
+   * Populates the given index from its snapshot. The index must be empty.
+   *
+   * @return true if the index was populated; false if it has no valid snapshot and must be built
+   *         by evaluating the region's entries
+   */
+  public static boolean load(LocalRegion region, Index index) {
+    if (!isSupported(region) || index.getClass() != CompactRangeIndex.class) {
+      return false;
+    }
+    CompactRangeIndex crIndex = (CompactRangeIndex) index;
+    if (!(crIndex.getIndexStorage() instanceof MemoryIndexStore)) {
+      return false;
+    }
+    DiskRegion dr = region.getDiskRegion();
+    File file = getFile(dr, index);
+    if (!file.exists()) {
+      return false;
+    }
+    boolean loaded = false;
+    try {
+      loaded = read(region, dr, crIndex, file);
+    } catch (IOException | ClassNotFoundException | IMQException | RuntimeException e) {
+      logger.info("Unable to load the snapshot of index {} on region {}: {}", index.getName(),
+          region.getFullPath(), e.toString());
+    } finally {
+      file.delete();
+      if (!loaded) {
+        crIndex.clear();
+      }
+    }
+    if (loaded && logger.isDebugEnabled()) {
+      logger.debug("Loaded index {} on region {} from {}", index.getName(), region.getFullPath(),
+          file);
+    }
+    return loaded;
+  }
+
+  static File getFile(DiskRegion dr, Index index) {
+    String name = FILE_PREFIX + dr.getDiskStore().getName() + "_" + dr.getId() + "_"
+        + sanitize(index.getName()) + FILE_SUFFIX;
+    return new File(dr.getDiskStore().getDiskDirs()[0], name);
+  }
+
+  private static String sanitize(String name) {
+    return name.replaceAll("[^A-Za-z0-9_\\-]", "_");
+  }
+
+  private static boolean write(DiskRegion dr, CompactRangeIndex index, File file)
+      throws IOException {
+    RegionVersionVector rvv = dr.getRegionVersionVector().getCloneForTransmission();
+    DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    try {
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(dr.getId());
+      DataSerializer.writeString(index.getName(), out);
+      DataSerializer.writeString(index.getCanonicalizedFromClause(), out);
+      DataSerializer.writeString(index.getCanonicalizedIndexedExpression(), out);
+      DataSerializer.writeObject(rvv, out);
+      MemoryIndexStore store = (MemoryIndexStore) index.getIndexStorage();
+      for (Object o : store.valueToEntriesMap.entrySet()) {
+        Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) o;
+        Object regionEntries = mapEntry.getValue();
+        Collection<?> entries;
+        if (regionEntries instanceof RegionEntry) {
+          entries = Collections.singleton(regionEntries);
+        } else if (regionEntries instanceof Collection) {
+          entries = (Collection<?>) regionEntries;
+        } else {
+          // a concurrent update is changing the collection for this key
+          return false;
+        }
+        for (Object entry : entries) {
+          writeIndexKey(mapEntry.getKey(), out);
+          DataSerializer.writeObject(((RegionEntry) entry).getKey(), out);
+        }
+      }
+      out.writeByte(END);
+    } finally {
+      out.close();
+    }
+    // anything that changed the region while the index was being read also changed its version
+    // vector
+    return rvv.sameAs(dr.getRegionVersionVector().getCloneForTransmission());
+  }
+
+  private static boolean read(LocalRegion region, DiskRegion dr, CompactRangeIndex index,
+      File file) throws IOException, ClassNotFoundException, IMQException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    try {
+      if (in.readInt() != FORMAT_VERSION || in.readLong() != dr.getId()
+          || !index.getName().equals(DataSerializer.readString(in))
+          || !index.getCanonicalizedFromClause().equals(DataSerializer.readString(in))
+          || !index.getCanonicalizedIndexedExpression().equals(DataSerializer.readString(in))) {
+        return false;
+      }
+      RegionVersionVector rvv = DataSerializer.readObject(in);
+      if (!rvv.sameAs(dr.getRegionVersionVector().getCloneForTransmission())) {
+        return false;
+      }
+      MemoryIndexStore store = (MemoryIndexStore) index.getIndexStorage();
+      for (;;) {
+        byte keyType = in.readByte();
+        if (keyType == END) {
+          return true;
+        }
+        Object indexKey = readIndexKey(keyType, in);
+        Object regionKey = DataSerializer.readObject(in);
+        RegionEntry entry = region.getRegionMap().getEntry(regionKey);
+        if (entry == null || entry.isRemoved()) {
+          return false;
+        }
+        store.addMapping(indexKey, entry);
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  private static void writeIndexKey(Object indexKey, DataOutputStream out) throws IOException {
+    if (indexKey == IndexManager.NULL) {
+      out.writeByte(NULL_KEY);
+    } else if (indexKey == QueryService.UNDEFINED) {
+      out.writeByte(UNDEFINED_KEY);
+    } else if (indexKey instanceof PdxString) {
+      out.writeByte(PDX_STRING_KEY);
+      DataSerializer.writeString(indexKey.toString(), out);
+    } else {
+      out.writeByte(OBJECT_KEY);
+      DataSerializer.writeObject(indexKey, out);
+    }
+  }
+
+  private static Object readIndexKey(byte keyType, DataInputStream in)
+      throws IOException, ClassNotFoundException {
+    switch (keyType) {
+      case NULL_KEY:
+        return IndexManager.NULL;
+      case UNDEFINED_KEY:
+        return QueryService.UNDEFINED;
+      case PDX_STRING_KEY:
+        return new PdxString(DataSerializer.readString(in));
+      case OBJECT_KEY:
+        return DataSerializer.readObject(in);
+      default:
+        throw new IOException("Unknown index key type " + keyType);
+    }
+  }
+}
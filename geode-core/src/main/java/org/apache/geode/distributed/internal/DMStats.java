@@ -538,6 +538,21 @@ public interface DMStats {
    */
   public void incSenderBufferSize(int inc, boolean direct);
 
+  /**
+   * @since Geode 1.2
+   */
+  public void incOutputBufferPoolHits();
+
+  /**
+   * @since Geode 1.2
+   */
+  public void incOutputBufferPoolMisses();
+
+  /**
+   * @since Geode 1.2
+   */
+  public void incOutputBufferBytesRecycled(int bytes);
+
   /**
    * @since GemFire 5.0.2.4
    */
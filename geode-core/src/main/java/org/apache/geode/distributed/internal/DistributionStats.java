@@ -188,6 +188,9 @@ public class DistributionStats implements DMStats {
   private static final int receiverHeapBufferSizeId;
   private static final int senderDirectBufferSizeId;
   private static final int senderHeapBufferSizeId;
+  private static final int outputBufferPoolHitsId;
+  private static final int outputBufferPoolMissesId;
+  private static final int outputBufferBytesRecycledId;
 
   private static final int messagesBeingReceivedId;
   private static final int messageBytesBeingReceivedId;
@@ -648,6 +651,15 @@ public class DistributionStats implements DMStats {
         f.createLongGauge("receiverHeapBufferSize", receiverHeapBufferSizeDesc, "bytes"),
         f.createLongGauge("senderDirectBufferSize", senderDirectBufferSizeDesc, "bytes"),
         f.createLongGauge("senderHeapBufferSize", senderHeapBufferSizeDesc, "bytes"),
+        f.createLongCounter("outputBufferPoolHits",
+            "Total number of serialization output buffers that were reused from the pool.",
+            "operations"),
+        f.createLongCounter("outputBufferPoolMisses",
+            "Total number of serialization output buffers allocated because the pool had none.",
+            "operations"),
+        f.createLongCounter("outputBufferBytesRecycled",
+            "Total number of bytes of serialization output buffers returned to the pool for reuse.",
+            "bytes"),
         f.createIntGauge("socketLocksInProgress",
             "Current number of threads waiting to lock a socket", "threads", false),
         f.createIntCounter("socketLocks", "Total number of times a socket has been locked.",
@@ -875,6 +887,9 @@ public class DistributionStats implements DMStats {
     receiverHeapBufferSizeId = type.nameToId("receiverHeapBufferSize");
     senderDirectBufferSizeId = type.nameToId("senderDirectBufferSize");
     senderHeapBufferSizeId = type.nameToId("senderHeapBufferSize");
+    outputBufferPoolHitsId = type.nameToId("outputBufferPoolHits");
+    outputBufferPoolMissesId = type.nameToId("outputBufferPoolMisses");
+    outputBufferBytesRecycledId = type.nameToId("outputBufferBytesRecycled");
 
     socketLocksInProgressId = type.nameToId("socketLocksInProgress");
     socketLocksId = type.nameToId("socketLocks");
@@ -2114,6 +2129,18 @@ public class DistributionStats implements DMStats {
     }
   }
 
+  public void incOutputBufferPoolHits() {
+    stats.incLong(outputBufferPoolHitsId, 1);
+  }
+
+  public void incOutputBufferPoolMisses() {
+    stats.incLong(outputBufferPoolMissesId, 1);
+  }
+
+  public void incOutputBufferBytesRecycled(int bytes) {
+    stats.incLong(outputBufferBytesRecycledId, bytes);
+  }
+
   public void incMessagesBeingReceived(boolean newMsg, int bytes) {
     if (newMsg) {
       stats.incInt(messagesBeingReceivedId, 1);
@@ -774,6 +774,15 @@ public class LonerDistributionManager implements DM {
     @Override
     public void incSenderBufferSize(int inc, boolean direct) {}
 
+    @Override
+    public void incOutputBufferPoolHits() {}
+
+    @Override
+    public void incOutputBufferPoolMisses() {}
+
+    @Override
+    public void incOutputBufferBytesRecycled(int bytes) {}
+
     @Override
     public long startSocketLock() {
       return 0;
@@ -15,6 +15,7 @@
 package org.apache.geode.internal;
 
 import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.DMStats;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.cache.BytesAndBitsForCompactor;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -26,8 +27,10 @@ import java.io.*;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 
 /**
  * HeapDataOutputStream is an OutputStream that also implements DataOutput and stores all data
@@ -65,6 +68,16 @@ public class HeapDataOutputStream extends OutputStream
   private int memoPosition;
   private Version version;
   private boolean doNotCopy;
+  /**
+   * If not null then this stream allocates its buffers from the {@link OutputBufferPool} and
+   * records pool statistics here.
+   */
+  private DMStats bufferPoolStats;
+  /**
+   * The buffers acquired from the pool that have not been handed out to callers. They are returned
+   * to the pool by {@link #close()}.
+   */
+  private List<ByteBuffer> pooledBuffers;
 
   private static final int INITIAL_CAPACITY = 1024;
 
@@ -108,6 +121,34 @@ public class HeapDataOutputStream extends OutputStream
     this.doNotCopy = doNotCopy;
   }
 
+  private HeapDataOutputStream(int allocSize, Version version, boolean doNotCopy,
+      DMStats bufferPoolStats) {
+    if (allocSize < 32) {
+      this.MIN_CHUNK_SIZE = 32;
+    } else {
+      this.MIN_CHUNK_SIZE = allocSize;
+    }
+    this.bufferPoolStats = bufferPoolStats;
+    this.buffer = allocateBuffer(allocSize);
+    this.version = version;
+    this.doNotCopy = doNotCopy;
+  }
+
+  /**
+   * Creates a HeapDataOutputStream whose buffers are taken from the {@link OutputBufferPool} and
+   * given back to it when the stream is closed. The stream must not be used after it is closed.
+   * Buffers that are handed out to callers, for example by {@link #toByteArray()}, are never given
+   * back.
+   * 
+   * @param doNotCopy if true then byte arrays/buffers/sources will not be copied to this hdos but
+   *        instead referenced.
+   * @param stats the stats to record the pool's hits, misses and recycled bytes in
+   */
+  public static HeapDataOutputStream createPooled(int allocSize, Version version,
+      boolean doNotCopy, DMStats stats) {
+    return new HeapDataOutputStream(allocSize, version, doNotCopy, stats);
+  }
+
   /**
    * @param doNotCopy if true then byte arrays/buffers/sources will not be copied to this hdos but
    *        instead referenced.
@@ -214,7 +255,37 @@ public class HeapDataOutputStream extends OutputStream
     if (amount < MIN_CHUNK_SIZE) {
       amount = MIN_CHUNK_SIZE;
     }
-    this.buffer = ByteBuffer.allocate(amount);
+    this.buffer = allocateBuffer(amount);
+  }
+
+  private ByteBuffer allocateBuffer(int capacity) {
+    if (this.bufferPoolStats == null) {
+      return ByteBuffer.allocate(capacity);
+    }
+    ByteBuffer result = OutputBufferPool.acquire(capacity, this.bufferPoolStats);
+    if (this.pooledBuffers == null) {
+      this.pooledBuffers = new ArrayList<ByteBuffer>();
+    }
+    this.pooledBuffers.add(result);
+    return result;
+  }
+
+  /**
+   * Called when buffers of this stream are about to be referenced by a caller. None of the buffers
+   * acquired so far will be returned to the pool.
+   */
+  private void exposeBuffers() {
+    this.pooledBuffers = null;
+  }
+
+  private void releasePooledBuffers() {
+    if (this.pooledBuffers != null) {
+      for (ByteBuffer bb : this.pooledBuffers) {
+        OutputBufferPool.release(bb, this.bufferPoolStats);
+      }
+      this.pooledBuffers = null;
+      this.buffer = ByteBuffer.allocate(0);
+    }
   }
 
   private final void checkIfWritable() {
@@ -277,6 +348,7 @@ public class HeapDataOutputStream extends OutputStream
   }
 
   public void fillByteBufferArray(ByteBuffer[] bbArray, int offset) {
+    exposeBuffers();
     if (this.chunks != null) {
       for (ByteBuffer bb : this.chunks) {
         bbArray[offset++] = bb;
@@ -303,7 +375,7 @@ public class HeapDataOutputStream extends OutputStream
     this.chunks.add(bufToAdd);
     int newPos = oldBuffer.limit();
     if ((oldBuffer.capacity() - newPos) <= 0) {
-      this.buffer = ByteBuffer.allocate(MIN_CHUNK_SIZE);
+      this.buffer = allocateBuffer(MIN_CHUNK_SIZE);
     } else {
       oldBuffer.limit(oldBuffer.capacity());
       oldBuffer.position(newPos);
@@ -400,6 +472,7 @@ public class HeapDataOutputStream extends OutputStream
    */
   public ByteBuffer finishWritingAndReturnUnusedBuffer() {
     finishWriting();
+    exposeBuffers();
     ByteBuffer result = this.buffer.duplicate();
     if (result.remaining() == 0) {
       // buffer was never used.
@@ -419,6 +492,7 @@ public class HeapDataOutputStream extends OutputStream
   @Override
   public void close() {
     reset();
+    releasePooledBuffers();
   }
 
   /**
@@ -427,6 +501,7 @@ public class HeapDataOutputStream extends OutputStream
    */
   public final ByteBuffer toByteBuffer() {
     finishWriting();
+    exposeBuffers();
     consolidateChunks();
     return this.buffer;
   }
@@ -678,6 +753,7 @@ public class HeapDataOutputStream extends OutputStream
    * stream.
    */
   public final InputStream getInputStream() {
+    exposeBuffers();
     return new HDInputStream();
   }
 
@@ -1281,6 +1357,8 @@ public class HeapDataOutputStream extends OutputStream
       other.finishWriting();
       InternalDataSerializer.writeArrayLength(other.size(), this);
       if (this.doNotCopy) {
+        // other's buffers are now referenced by this stream
+        other.exposeBuffers();
         if (other.chunks != null) {
           for (ByteBuffer bb : other.chunks) {
             write(bb);
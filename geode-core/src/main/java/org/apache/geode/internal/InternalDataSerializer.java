@@ -2389,8 +2389,8 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
           for (int i = 0; i < versions.length; i++) {
             // if peer version is less than the greatest upgraded version
             if (v.compareTo(versions[i]) < 0) {
-              ds.getClass().getMethod("toDataPre_" + versions[i].getMethodSuffix(),
-                  new Class[] {DataOutput.class}).invoke(ds, out);
+              SerializationHandles.invokeVersioned(ds,
+                  "toDataPre_" + versions[i].getMethodSuffix(), DataOutput.class, out);
               invoked = true;
               break;
             }
@@ -2465,8 +2465,8 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
           for (int i = 0; i < versions.length; i++) {
             // if peer version is less than the greatest upgraded version
             if (v.compareTo(versions[i]) < 0) {
-              ds.getClass().getMethod("fromDataPre" + "_" + versions[i].getMethodSuffix(),
-                  new Class[] {DataInput.class}).invoke(ds, in);
+              SerializationHandles.invokeVersioned(ds,
+                  "fromDataPre" + "_" + versions[i].getMethodSuffix(), DataInput.class, in);
               invoked = true;
               break;
             }
@@ -2501,9 +2501,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       throws IOException, ClassNotFoundException {
     Class c = readClass(in);
     try {
-      Constructor init = c.getConstructor(new Class[0]);
-      init.setAccessible(true);
-      Object o = init.newInstance(new Object[0]);
+      Object o = SerializationHandles.newInstance(c);
       Assert.assertTrue(o instanceof DataSerializable);
       invokeFromData(o, in);
 
@@ -2529,9 +2527,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       throws IOException, ClassNotFoundException {
     Class c = readClass(in);
     try {
-      Constructor init = c.getConstructor(new Class[0]);
-      init.setAccessible(true);
-      Object o = init.newInstance(new Object[0]);
+      Object o = SerializationHandles.newInstance(c);
 
       invokeFromData(o, in);
 
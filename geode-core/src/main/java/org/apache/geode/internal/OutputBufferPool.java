@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * A pool of the buffers that a {@link HeapDataOutputStream} writes to when its contents are
+ * discarded once they have been sent, like the parts of a client/server message or the overflow of
+ * a MsgStreamer. Buffers are pooled in size classes that are the powers of two from
+ * {@link #MIN_SIZE} to {@link #MAX_SIZE}. Each thread keeps one buffer of each of the smaller
+ * classes for itself and all other released buffers go to a global queue per class, up to
+ * {@link #MAX_POOLED_BYTES} in total.
+ * <p>
+ * Nothing needs to be released. A buffer that is acquired but never released is garbage collected
+ * like any other.
+ * 
+ * @since Geode 1.2
+ */
+public class OutputBufferPool {
+
+  /**
+   * If true then the output streams of client/server messages and of MsgStreamer overflow reuse
+   * their buffers through this pool.
+   */
+  public static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OutputBufferPool.ENABLED");
+
+  /**
+   * If true then the pool allocates direct buffers instead of heap buffers.
+   */
+  public static final boolean DIRECT =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OutputBufferPool.DIRECT");
+
+  /**
+   * The maximum number of bytes of buffers kept in the global queues.
+   */
+  public static final long MAX_POOLED_BYTES = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "OutputBufferPool.MAX_POOLED_BYTES", 32 * 1024 * 1024);
+
+  private static final int MIN_SIZE_SHIFT = 10;
+  private static final int MAX_SIZE_SHIFT = 20;
+  /**
+   * Size classes larger than this are not kept by threads so that an idle thread holds on to at
+   * most about 128K.
+   */
+  private static final int MAX_THREAD_SIZE_SHIFT = 16;
+
+  public static final int MIN_SIZE = 1 << MIN_SIZE_SHIFT;
+  public static final int MAX_SIZE = 1 << MAX_SIZE_SHIFT;
+
+  private static final int SIZE_CLASSES = MAX_SIZE_SHIFT - MIN_SIZE_SHIFT + 1;
+
+  @SuppressWarnings("unchecked")
+  private static final ConcurrentLinkedQueue<ByteBuffer>[] globalQueues =
+      new ConcurrentLinkedQueue[SIZE_CLASSES];
+  static {
+    for (int i = 0; i < SIZE_CLASSES; i++) {
+      globalQueues[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+    }
+  }
+
+  private static final AtomicLong globalPooledBytes = new AtomicLong();
+
+  private static final ThreadLocal<ByteBuffer[]> threadBuffers = new ThreadLocal<ByteBuffer[]>() {
+    @Override
+    protected ByteBuffer[] initialValue() {
+      return new ByteBuffer[MAX_THREAD_SIZE_SHIFT - MIN_SIZE_SHIFT + 1];
+    }
+  };
+
+  private OutputBufferPool() {
+    // no instances
+  }
+
+  /**
+   * Returns the index of the smallest size class that can hold size bytes or -1 if size is larger
+   * than {@link #MAX_SIZE}.
+   */
+  static int getSizeClass(int size) {
+    if (size <= MIN_SIZE) {
+      return 0;
+    }
+    if (size > MAX_SIZE) {
+      return -1;
+    }
+    return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_SHIFT;
+  }
+
+  /**
+   * Returns a cleared buffer whose capacity is at least size.
+   */
+  public static ByteBuffer acquire(int size, DMStats stats) {
+    int sizeClass = getSizeClass(size);
+    if (sizeClass == -1) {
+      stats.incOutputBufferPoolMisses();
+      return allocate(size);
+    }
+    ByteBuffer result = null;
+    if (sizeClass <= MAX_THREAD_SIZE_SHIFT - MIN_SIZE_SHIFT) {
+      ByteBuffer[] local = threadBuffers.get();
+      result = local[sizeClass];
+      local[sizeClass] = null;
+    }
+    if (result == null) {
+      result = globalQueues[sizeClass].poll();
+      if (result != null) {
+        globalPooledBytes.addAndGet(-result.capacity());
+      }
+    }
+    if (result == null) {
+      stats.incOutputBufferPoolMisses();
+      return allocate(MIN_SIZE << sizeClass);
+    }
+    stats.incOutputBufferPoolHits();
+    result.clear();
+    return result;
+  }
+
+  /**
+   * Gives a buffer obtained from {@link #acquire} back to the pool. The caller must not use the
+   * buffer, or any view of it, after this call.
+   */
+  public static void release(ByteBuffer bb, DMStats stats) {
+    int capacity = bb.capacity();
+    int sizeClass = getSizeClass(capacity);
+    if (sizeClass == -1 || (MIN_SIZE << sizeClass) != capacity || bb.isDirect() != DIRECT
+        || bb.isReadOnly()) {
+      // not one of ours
+      return;
+    }
+    if (sizeClass <= MAX_THREAD_SIZE_SHIFT - MIN_SIZE_SHIFT) {
+      ByteBuffer[] local = threadBuffers.get();
+      if (local[sizeClass] == null) {
+        local[sizeClass] = bb;
+        stats.incOutputBufferBytesRecycled(capacity);
+        return;
+      }
+    }
+    if (globalPooledBytes.addAndGet(capacity) > MAX_POOLED_BYTES) {
+      globalPooledBytes.addAndGet(-capacity);
+      return;
+    }
+    globalQueues[sizeClass].offer(bb);
+    stats.incOutputBufferBytesRecycled(capacity);
+  }
+
+  private static ByteBuffer allocate(int size) {
+    if (DIRECT) {
+      return ByteBuffer.allocateDirect(size);
+    } else {
+      return ByteBuffer.allocate(size);
+    }
+  }
+
+  /**
+   * Drops all the buffers kept in the global queues and in the calling thread. For tests.
+   */
+  static void clear() {
+    for (ConcurrentLinkedQueue<ByteBuffer> queue : globalQueues) {
+      queue.clear();
+    }
+    globalPooledBytes.set(0);
+    threadBuffers.remove();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per class method handles for the reflective calls made while serializing and deserializing
+ * objects: the public no-arg constructor used to create DataSerializable and auto-serialized
+ * instances, and the toDataPre_/fromDataPre_ methods used to talk to older versions. The handles
+ * are looked up once per class and kept with the class, so each call no longer pays for the
+ * reflective lookup, the access check and the argument array of java.lang.reflect.
+ * <p>
+ * Failures are reported the same way reflection reports them: a class that can not be
+ * instantiated throws the exception of Class.getConstructor or Constructor.newInstance, and a
+ * throwable thrown by the constructor or method itself is wrapped in an
+ * InvocationTargetException.
+ * 
+ * @since Geode 1.2
+ */
+public final class SerializationHandles {
+
+  private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class);
+
+  private static final MethodType VERSIONED_METHOD_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  /**
+   * The public no-arg constructor of each class, as a ()Object handle, or null if the class can
+   * not be instantiated through one.
+   */
+  private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<MethodHandle>() {
+    @Override
+    protected MethodHandle computeValue(Class<?> c) {
+      try {
+        Constructor<?> init = c.getConstructor();
+        init.setAccessible(true);
+        return MethodHandles.lookup().unreflectConstructor(init).asType(FACTORY_TYPE);
+      } catch (NoSuchMethodException e) {
+        return null;
+      } catch (IllegalAccessException e) {
+        return null;
+      } catch (SecurityException e) {
+        return null;
+      }
+    }
+  };
+
+  /**
+   * The public versioned toData and fromData methods of each class, by method name, as
+   * (Object,Object)void handles.
+   */
+  private static final ClassValue<ConcurrentMap<String, MethodHandle>> VERSIONED_METHODS =
+      new ClassValue<ConcurrentMap<String, MethodHandle>>() {
+        @Override
+        protected ConcurrentMap<String, MethodHandle> computeValue(Class<?> c) {
+          return new ConcurrentHashMap<String, MethodHandle>();
+        }
+      };
+
+  private SerializationHandles() {
+    // no instances
+  }
+
+  /**
+   * Creates an instance of the given class with its public no-arg constructor.
+   */
+  public static Object newInstance(Class<?> c) throws Exception {
+    MethodHandle init = CONSTRUCTORS.get(c);
+    if (init == null) {
+      // let reflection report why the class can not be instantiated
+      Constructor<?> constructor = c.getConstructor();
+      constructor.setAccessible(true);
+      return constructor.newInstance();
+    }
+    try {
+      return (Object) init.invokeExact();
+    } catch (VirtualMachineError err) {
+      throw err;
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  /**
+   * Invokes the public method of the given name that takes a single stream argument, such as
+   * toDataPre_GFE_7_1_0_0(DataOutput), on the given object.
+   * 
+   * @param streamType DataOutput.class or DataInput.class
+   */
+  public static void invokeVersioned(Object ds, String methodName, Class<?> streamType,
+      Object stream) throws Exception {
+    Class<?> c = ds.getClass();
+    ConcurrentMap<String, MethodHandle> methods = VERSIONED_METHODS.get(c);
+    MethodHandle handle = methods.get(methodName);
+    if (handle == null) {
+      Method m = c.getMethod(methodName, streamType);
+      try {
+        handle = MethodHandles.lookup().unreflect(m).asType(VERSIONED_METHOD_TYPE);
+      } catch (IllegalAccessException e) {
+        // let reflection report the problem
+        m.invoke(ds, stream);
+        return;
+      }
+      methods.putIfAbsent(methodName, handle);
+    }
+    try {
+      handle.invokeExact(ds, stream);
+    } catch (VirtualMachineError err) {
+      throw err;
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+}
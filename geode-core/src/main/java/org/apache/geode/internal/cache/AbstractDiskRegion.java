@@ -41,7 +41,6 @@ import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LogMarker;
-import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
 import joptsimple.internal.Strings;
 
 /**
@@ -581,9 +580,8 @@ public abstract class AbstractDiskRegion implements DiskRegionView {
       ds.updateDiskRegion(this);
       this.entriesMapIncompatible = false;
       if (this.entries != null) {
-        CustomEntryConcurrentHashMap<Object, Object> other =
-            ((AbstractRegionMap) this.entries)._getMap();
-        Iterator<Map.Entry<Object, Object>> it = other.entrySetWithReusableEntries().iterator();
+        Iterator<Map.Entry<Object, Object>> it =
+            ((AbstractRegionMap) this.entries)._getMapEntriesWithReusableEntries().iterator();
         while (it.hasNext()) {
           Map.Entry<Object, Object> me = it.next();
           RegionEntry oldRe = (RegionEntry) me.getValue();
@@ -36,6 +36,8 @@ import org.apache.geode.internal.cache.lru.LRUStatistics;
 import org.apache.geode.internal.cache.lru.MemLRUCapacityController;
 import org.apache.geode.internal.cache.lru.NewLIFOClockHand;
 import org.apache.geode.internal.cache.lru.NewLRUClockHand;
+import org.apache.geode.internal.cache.lru.NewTinyLFUClockHand;
+import org.apache.geode.internal.cache.lru.StripedLRUClockHand;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -88,7 +90,7 @@ public abstract class AbstractLRURegionMap extends AbstractRegionMap {
     }
     this.evictionController = ec;
 
-    if (ea.isLRUMemory()) {
+    if (ea.isMemoryEviction()) {
       ((MemLRUCapacityController) ec).setEntryOverHead(getEntryOverHead());
     }
     if (ea.isLRUHeap()) {
@@ -102,6 +104,11 @@ public abstract class AbstractLRURegionMap extends AbstractRegionMap {
      */
     if (ea == EvictionAlgorithm.LIFO_ENTRY || ea == EvictionAlgorithm.LIFO_MEMORY) {
       _setLruList(new NewLIFOClockHand(owner, _getCCHelper(), internalRegionArgs));
+    } else if (ea.isTinyLFU()) {
+      _setLruList(new NewTinyLFUClockHand(owner, _getCCHelper(), internalRegionArgs));
+    } else if (StripedLRUClockHand.STRIPES > 1) {
+      _setLruList(new StripedLRUClockHand(owner, _getCCHelper(), internalRegionArgs,
+          StripedLRUClockHand.STRIPES));
     } else {
       _setLruList(new NewLRUClockHand(owner, _getCCHelper(), internalRegionArgs));
     }
@@ -584,6 +591,16 @@ public abstract class AbstractLRURegionMap extends AbstractRegionMap {
   }
 
   public final int centralizedLruUpdateCallback() {
+    return centralizedLruUpdateCallback(false);
+  }
+
+  /**
+   * Evicts one entry if the resource monitor is in its eviction state.
+   *
+   * @param evictAhead true to evict even though the eviction threshold has not been reached yet
+   * @return the number of bytes evicted
+   */
+  public final int centralizedLruUpdateCallback(boolean evictAhead) {
     final boolean isDebugEnabled_LRU = logger.isTraceEnabled(LogMarker.LRU);
 
     int evictedBytes = 0;
@@ -598,7 +615,7 @@ public abstract class AbstractLRURegionMap extends AbstractRegionMap {
     }
     LRUStatistics stats = _getLruList().stats();
     try {
-      while (mustEvict() && evictedBytes == 0) {
+      while ((evictAhead ? this.sizeInVM() > 0 : mustEvict()) && evictedBytes == 0) {
         LRUEntry removalEntry = (LRUEntry) _getLruList().getLRUEntry();
         if (removalEntry != null) {
           evictedBytes = evictEntry(removalEntry, stats);
@@ -846,6 +863,11 @@ public abstract class AbstractLRURegionMap extends AbstractRegionMap {
     }
   }
 
+  @Override
+  public final void lruEntryAccessed(RegionEntry re) {
+    _getLruList().recordAccess((LRUEntry) re);
+  }
+
   @Override
   public final void decTxRefCount(RegionEntry re) {
     LocalRegion lr = null;
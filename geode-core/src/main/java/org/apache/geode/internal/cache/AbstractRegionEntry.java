@@ -1178,6 +1178,10 @@ public abstract class AbstractRegionEntry implements RegionEntry, HashEntry<Obje
       }
       entry.setEntryHash(hash);
       entry.setNextEntry(next);
+      if (entry instanceof OffHeapKeyRegionEntry) {
+        // only entries that make it into the map store their key off-heap
+        OffHeapKeyHelper.moveKeyOffHeap((OffHeapKeyRegionEntry) entry);
+      }
       return entry;
     }
 
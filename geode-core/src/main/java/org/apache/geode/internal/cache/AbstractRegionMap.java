@@ -52,10 +52,12 @@ import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.sequencelog.EntryLogger;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
 
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -70,8 +72,25 @@ public abstract class AbstractRegionMap implements RegionMap {
 
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * If true then heap regions whose key constraint is Long or Integer keep their entries in a
+   * {@link PrimitiveKeyConcurrentHashMap} that stores the keys unboxed. Off by default. Not final
+   * so that tests can change it.
+   */
+  public static boolean PRIMITIVE_KEY_REGION_MAPS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PRIMITIVE_KEY_REGION_MAPS");
+
+  /**
+   * Returns true if a region with the given key constraint keeps its entries in a
+   * {@link PrimitiveKeyConcurrentHashMap}.
+   */
+  static boolean usesPrimitiveKeyMap(Class<?> keyConstraint, boolean offHeap) {
+    return PRIMITIVE_KEY_REGION_MAPS && !offHeap && InlineKeyHelper.INLINE_REGION_KEYS
+        && PrimitiveKeyConcurrentHashMap.getPrimitiveKeyType(keyConstraint) != null;
+  }
+
   /** The underlying map for this region. */
-  protected CustomEntryConcurrentHashMap<Object, Object> map;
+  protected ConcurrentMap<Object, Object> map;
 
   /**
    * This test hook is used to force the conditions for defect 48182. This hook is used by
@@ -89,9 +108,6 @@ public abstract class AbstractRegionMap implements RegionMap {
       InternalRegionArguments internalRegionArgs, boolean isLRU) {
     _setAttributes(attr);
     setOwner(owner);
-    _setMap(createConcurrentMap(attr.initialCapacity, attr.loadFactor, attr.concurrencyLevel, false,
-        new AbstractRegionEntry.HashRegionEntryCreator()));
-
     final GemFireCacheImpl cache;
     boolean isDisk;
     boolean withVersioning = false;
@@ -112,8 +128,29 @@ public abstract class AbstractRegionMap implements RegionMap {
       throw new IllegalStateException("expected LocalRegion or PlaceHolderDiskRegion");
     }
 
-    setEntryFactory(new RegionEntryFactoryBuilder().getRegionEntryFactoryOrNull(
-        attr.statisticsEnabled, isLRU, isDisk, withVersioning, offHeap));
+    // the primitive key map reads the keys back from the unchained entries that hold them inline
+    final boolean primitiveKeys =
+        attr.primitiveKeyType != null && !offHeap && InlineKeyHelper.INLINE_REGION_KEYS;
+    if (primitiveKeys) {
+      _setMap(new PrimitiveKeyConcurrentHashMap<Object>(attr.primitiveKeyType,
+          attr.initialCapacity, attr.loadFactor, attr.concurrencyLevel,
+          new AbstractRegionEntry.HashRegionEntryCreator()));
+    } else {
+      _setMap(createConcurrentMap(attr.initialCapacity, attr.loadFactor, attr.concurrencyLevel,
+          false, new AbstractRegionEntry.HashRegionEntryCreator()));
+    }
+
+    RegionEntryFactoryBuilder factoryBuilder = new RegionEntryFactoryBuilder();
+    RegionEntryFactory factory = null;
+    if (primitiveKeys) {
+      factory = factoryBuilder.getUnchainedRegionEntryFactoryOrNull(attr.statisticsEnabled, isLRU,
+          isDisk, withVersioning, attr.primitiveKeyType);
+    }
+    if (factory == null) {
+      factory = factoryBuilder.getRegionEntryFactoryOrNull(attr.statisticsEnabled, isLRU, isDisk,
+          withVersioning, offHeap);
+    }
+    setEntryFactory(factory);
   }
 
   protected CustomEntryConcurrentHashMap<Object, Object> createConcurrentMap(int initialCapacity,
@@ -168,14 +205,26 @@ public abstract class AbstractRegionMap implements RegionMap {
     this.owner = r;
   }
 
-  protected final CustomEntryConcurrentHashMap<Object, Object> _getMap() {
+  protected final ConcurrentMap<Object, Object> _getMap() {
     return this.map;
   }
 
-  protected final void _setMap(CustomEntryConcurrentHashMap<Object, Object> m) {
+  protected final void _setMap(ConcurrentMap<Object, Object> m) {
     this.map = m;
   }
 
+  /**
+   * Returns the entries of the underlying map. If the map supports it the returned Map.Entry
+   * instances are reused by the iterator so they must not be kept.
+   */
+  protected final Set<Map.Entry<Object, Object>> _getMapEntriesWithReusableEntries() {
+    ConcurrentMap<Object, Object> m = _getMap();
+    if (m instanceof CustomEntryConcurrentHashMap) {
+      return ((CustomEntryConcurrentHashMap<Object, Object>) m).entrySetWithReusableEntries();
+    }
+    return m.entrySet();
+  }
+
   public int size() {
     return _getMap().size();
   }
@@ -490,6 +539,10 @@ public abstract class AbstractRegionMap implements RegionMap {
     // do nothing by default
   }
 
+  public void lruEntryAccessed(RegionEntry entry) {
+    // do nothing by default
+  }
+
   /**
    * Process an incoming version tag for concurrent operation detection. This must be done before
    * modifying the region entry.
@@ -531,8 +584,8 @@ public abstract class AbstractRegionMap implements RegionMap {
     // so that they will be in the correct order.
     OrderedTombstoneMap<RegionEntry> tombstones = new OrderedTombstoneMap<RegionEntry>();
     if (rm != null) {
-      CustomEntryConcurrentHashMap<Object, Object> other = ((AbstractRegionMap) rm)._getMap();
-      Iterator<Map.Entry<Object, Object>> it = other.entrySetWithReusableEntries().iterator();
+      Iterator<Map.Entry<Object, Object>> it =
+          ((AbstractRegionMap) rm)._getMapEntriesWithReusableEntries().iterator();
       while (it.hasNext()) {
         Map.Entry<Object, Object> me = it.next();
         it.remove(); // This removes the RegionEntry from "rm" but it does not decrement its
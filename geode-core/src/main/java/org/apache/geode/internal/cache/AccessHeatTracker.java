@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Keeps an estimate of how often the keys of each persistent region of a disk store are read, so
+ * that value recovery can load the values of the hottest keys first. The estimates are saved to a
+ * file in the disk store's info directory when the disk store is closed and loaded back when it is
+ * next opened.
+ * <p>
+ * Each region has a count-min sketch of byte counters with at least as many counters per row as
+ * the region has entries, up to {@link #MAX_SKETCH_WIDTH}. A region that outgrows its sketch gets
+ * a wider one the next time the counters are halved. Counters are halved once the number of
+ * accesses recorded since the last halving reaches ten times the sketch width, so the estimates
+ * favor recent accesses. Counters are updated without synchronization; concurrent readers of the
+ * same key may lose an increment, which only makes the estimate less exact.
+ * <p>
+ * A sketch can only tell apart the heat of a small fraction of as many keys as it has counters;
+ * beyond that the ranking is mostly collisions. {@link #getRankableKeyCount(long)} is the number of
+ * keys of a region that value recovery should rank by their heat.
+ *
+ * @since Geode 1.2
+ */
+class AccessHeatTracker {
+  private static final Logger logger = LogService.getLogger();
+
+  static final String FILE_EXT = ".hsk";
+
+  private static final int FORMAT_VERSION = 2;
+
+  /**
+   * The fewest counters in each row of a sketch. Widths are powers of two.
+   */
+  static final int MIN_SKETCH_WIDTH = 4096;
+
+  /**
+   * The most counters in each row of a sketch, which makes a sketch take 8 MB.
+   */
+  static final int MAX_SKETCH_WIDTH = 1 << 21;
+
+  /**
+   * The heat of at most one key in this many counters of a row is used to rank keys.
+   */
+  static final int COUNTERS_PER_RANKED_KEY = 16;
+
+  private final File file;
+
+  private final ConcurrentHashMap<Long, Sketch> sketches = new ConcurrentHashMap<Long, Sketch>();
+
+  /**
+   * Creates a tracker that saves to and loads its estimates from the given file. If the file exists
+   * its estimates are loaded; if it can not be read the tracker starts with no estimates.
+   */
+  AccessHeatTracker(File file) {
+    this.file = file;
+    if (file.exists()) {
+      try {
+        load();
+      } catch (IOException e) {
+        logger.info("Ignoring access heat file {}: {}", file, e.toString());
+        this.sketches.clear();
+      }
+    }
+  }
+
+  File getFile() {
+    return this.file;
+  }
+
+  /**
+   * Records a read of the given key of the disk region with the given id.
+   *
+   * @param entries the entries of the region, whose number sizes the region's sketch. Only read
+   *        when a sketch is created or halved.
+   */
+  void recordAccess(long drId, Object key, RegionMap entries) {
+    Sketch sketch = this.sketches.get(drId);
+    if (sketch == null) {
+      sketch = new Sketch(widthFor(entries.size()));
+      Sketch existing = this.sketches.putIfAbsent(drId, sketch);
+      if (existing != null) {
+        sketch = existing;
+      }
+    }
+    if (sketch.increment(key)) {
+      int width = widthFor(entries.size());
+      if (width > sketch.width) {
+        // the region outgrew its sketch; the estimates were just halved so little is lost
+        this.sketches.replace(drId, sketch, new Sketch(width));
+      }
+    }
+  }
+
+  /**
+   * Returns the sketch width for a region with the given number of entries
+   */
+  static int widthFor(int entryCount) {
+    if (entryCount <= MIN_SKETCH_WIDTH) {
+      return MIN_SKETCH_WIDTH;
+    }
+    if (entryCount >= MAX_SKETCH_WIDTH) {
+      return MAX_SKETCH_WIDTH;
+    }
+    return Integer.highestOneBit(entryCount - 1) << 1;
+  }
+
+  /**
+   * Returns how many of the hottest keys of the disk region with the given id can be told apart
+   * from the others by their estimated heat; 0 if none of its keys were read.
+   */
+  int getRankableKeyCount(long drId) {
+    Sketch sketch = this.sketches.get(drId);
+    return sketch == null ? 0 : sketch.width / COUNTERS_PER_RANKED_KEY;
+  }
+
+  /**
+   * Returns the estimated number of recent reads of the given key of the disk region with the given
+   * id.
+   */
+  int getHeat(long drId, Object key) {
+    Sketch sketch = this.sketches.get(drId);
+    if (sketch == null) {
+      return 0;
+    }
+    return sketch.estimate(key);
+  }
+
+  boolean hasHeat(long drId) {
+    return this.sketches.containsKey(drId);
+  }
+
+  void removeRegion(long drId) {
+    this.sketches.remove(drId);
+  }
+
+  void save() throws IOException {
+    File tmpFile = new File(this.file.getPath() + ".tmp");
+    DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+    try {
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(this.sketches.size());
+      for (Map.Entry<Long, Sketch> entry : this.sketches.entrySet()) {
+        out.writeLong(entry.getKey());
+        out.writeInt(entry.getValue().width);
+        out.write(entry.getValue().counters);
+      }
+    } finally {
+      out.close();
+    }
+    if (!tmpFile.renameTo(this.file)) {
+      this.file.delete();
+      if (!tmpFile.renameTo(this.file)) {
+        tmpFile.delete();
+        throw new IOException("Could not rename " + tmpFile + " to " + this.file);
+      }
+    }
+  }
+
+  void delete() {
+    this.sketches.clear();
+    this.file.delete();
+  }
+
+  private void load() throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    try {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("unsupported format");
+      }
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        long drId = in.readLong();
+        int width = in.readInt();
+        if (width < MIN_SKETCH_WIDTH || width > MAX_SKETCH_WIDTH || Integer.bitCount(width) != 1) {
+          throw new IOException("invalid sketch width " + width);
+        }
+        Sketch sketch = new Sketch(width);
+        in.readFully(sketch.counters);
+        this.sketches.put(drId, sketch);
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * A count-min sketch of DEPTH rows of width saturating unsigned byte counters.
+   */
+  static class Sketch {
+    private static final int DEPTH = 4;
+
+    private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+
+    final int width;
+
+    private final int shift;
+
+    private final int resetSize;
+
+    final byte[] counters;
+
+    private int additions;
+
+    Sketch(int width) {
+      this.width = width;
+      this.shift = 32 - Integer.numberOfTrailingZeros(width);
+      this.resetSize = 10 * width;
+      this.counters = new byte[DEPTH * width];
+    }
+
+    /**
+     * Counts an access to the given key.
+     *
+     * @return true if the counters were halved
+     */
+    boolean increment(Object key) {
+      int hash = spread(key.hashCode());
+      for (int row = 0; row < DEPTH; row++) {
+        int i = index(hash, row);
+        if (this.counters[i] != (byte) 0xFF) {
+          this.counters[i]++;
+        }
+      }
+      if (++this.additions >= this.resetSize) {
+        return halve();
+      }
+      return false;
+    }
+
+    int estimate(Object key) {
+      int hash = spread(key.hashCode());
+      int result = Integer.MAX_VALUE;
+      for (int row = 0; row < DEPTH; row++) {
+        result = Math.min(result, this.counters[index(hash, row)] & 0xFF);
+      }
+      return result;
+    }
+
+    private synchronized boolean halve() {
+      if (this.additions < this.resetSize) {
+        return false;
+      }
+      this.additions = 0;
+      for (int i = 0; i < this.counters.length; i++) {
+        this.counters[i] = (byte) ((this.counters[i] & 0xFF) >>> 1);
+      }
+      return true;
+    }
+
+    private int index(int hash, int row) {
+      return row * this.width + ((hash * SEEDS[row]) >>> this.shift);
+    }
+
+    private static int spread(int h) {
+      return h ^ (h >>> 16);
+    }
+  }
+}
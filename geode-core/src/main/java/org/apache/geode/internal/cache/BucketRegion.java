@@ -31,6 +31,7 @@ import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.BucketAdvisor.BucketProfile;
 import org.apache.geode.internal.cache.FilterRoutingInfo.FilterInfo;
 import org.apache.geode.internal.cache.control.MemoryEvent;
+import org.apache.geode.internal.cache.ha.ThreadIdentifier;
 import org.apache.geode.internal.cache.partitioned.Bucket;
 import org.apache.geode.internal.cache.partitioned.DestroyMessage;
 import org.apache.geode.internal.cache.partitioned.InvalidateMessage;
@@ -44,6 +45,8 @@ import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
 import org.apache.geode.internal.cache.tier.sockets.ClientTombstoneMessage;
 import org.apache.geode.internal.cache.tier.sockets.ClientUpdateMessage;
+import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
+import org.apache.geode.internal.cache.versions.ConcurrentCacheModificationException;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.cache.versions.VersionTag;
@@ -187,6 +190,18 @@ public class BucketRegion extends DistributedRegion implements Bucket {
       .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "BucketRegion.alwaysFireLocalListeners");
   // gemfire.BucktRegion.alwaysFireLocalListeners=true
 
+  /**
+   * If true, the entry expiration destroys done by one tick of the expiration timing wheel are
+   * applied per bucket as a single bulk operation and sent to the redundant copies in one
+   * RemoveAllMessage. Only has an effect if the timing wheel is in use.
+   * <p>
+   * Not final so that tests can change it.
+   *
+   * @see ExpirationScheduler#USE_TIMING_WHEEL
+   */
+  static boolean BULK_EXPIRE_DESTROY =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "BucketRegion.bulkExpireDestroy");
+
   private volatile AtomicLong5 eventSeqNum = null;
 
   public AtomicLong5 getEventSeqNum() {
@@ -811,9 +826,10 @@ public class BucketRegion extends DistributedRegion implements Bucket {
   }
 
   protected boolean needWriteLock(EntryEventImpl event) {
+    // bulkExpireDestroy holds the locks for the whole batch
     return !(event.isOriginRemote() || event.isNetSearch() || event.getOperation().isLocal()
         || event.getOperation().isPutAll() || event.getOperation().isRemoveAll()
-        || (event.isExpiration() && isEntryEvictDestroyEnabled()
+        || (event.isExpiration() && (isEntryEvictDestroyEnabled() || event.isBulkOpInProgress())
             || event.isPendingSecondaryExpireDestroy()));
   }
 
@@ -960,6 +976,154 @@ public class BucketRegion extends DistributedRegion implements Bucket {
     }
   }
 
+  /**
+   * Returns true if an expired entry of this bucket can be destroyed as part of a
+   * {@link #bulkExpireDestroy(List) bulk expiration}.
+   */
+  boolean canBulkExpireDestroy() {
+    // expiration is local to each copy if eviction does local destroys; see bug 41096
+    return getBucketAdvisor().isPrimary() && !isEntryEvictDestroyEnabled();
+  }
+
+  /**
+   * Destroys the entries of the given expiration tasks as one bulk operation. Like
+   * RemoveAllPRMessage#doLocalRemoveAll the keys are locked for the whole batch, which is recorded
+   * as a bulk operation, and the destroys are distributed to the redundant copies in a single
+   * RemoveAllMessage, with one version tag per entry. Listener and client notification is done once
+   * the whole batch has been applied. Each event keeps the EXPIRE_DESTROY operation.
+   * <p>
+   * Tasks whose entry has been modified or accessed since the task fired, and so is no longer
+   * expired, are rescheduled instead.
+   */
+  void bulkExpireDestroy(List<EntryExpiryTask> tasks) {
+    /* Early out before we throw a PrimaryBucketException because we're not primary */
+    if (!getBucketAdvisor().isPrimary()) {
+      return;
+    }
+    List<EntryExpiryTask> liveTasks = new ArrayList<EntryExpiryTask>(tasks.size());
+    List<Object> keyList = new ArrayList<Object>(tasks.size());
+    for (EntryExpiryTask task : tasks) {
+      try {
+        keyList.add(task.getCheckedRegionEntry().getKey());
+        liveTasks.add(task);
+      } catch (EntryNotFoundException ignore) {
+        // the entry was destroyed after the task fired
+      }
+    }
+    if (keyList.isEmpty()) {
+      return;
+    }
+    Object[] keys = keyList.toArray();
+
+    @Released
+    final EntryEventImpl baseEvent = EntryEventImpl.create(this, Operation.REMOVEALL_DESTROY,
+        null, null/* newValue */, null, false, getMyId());
+    baseEvent.disallowOffHeapValues();
+    if (generateEventID()) {
+      baseEvent.reserveNewEventId(getCache().getDistributedSystem(), keys.length);
+    }
+    DistributedRemoveAllOperation op =
+        new DistributedRemoveAllOperation(baseEvent, keys.length, false);
+    VersionedObjectList succeeded =
+        new VersionedObjectList(keys.length, true, getConcurrencyChecksEnabled());
+    List<EntryExpiryTask> expired = new ArrayList<EntryExpiryTask>(keys.length);
+    List<EntryExpiryTask> unexpired = new ArrayList<EntryExpiryTask>();
+    try {
+      EventID eventID = baseEvent.getEventId();
+      if (eventID != null) {
+        recordBulkOpStart(new ThreadIdentifier(eventID.getMembershipID(), eventID.getThreadID()));
+      }
+      waitUntilLocked(keys);
+      try {
+        try {
+          doLockForPrimary(false);
+        } catch (PrimaryBucketException e) {
+          // must have concurrently removed the primary
+          return;
+        }
+        try {
+          for (int i = 0; i < keys.length; i++) {
+            expireDestroyIfExpired(liveTasks.get(i), keys[i], i, baseEvent, op, succeeded,
+                expired, unexpired);
+          }
+        } finally {
+          try {
+            getDataView().postRemoveAll(op, succeeded, this);
+          } finally {
+            doUnlockForPrimary();
+          }
+        }
+      } finally {
+        removeAndNotifyKeys(keys);
+      }
+    } finally {
+      baseEvent.release();
+      op.freeOffHeapResources();
+    }
+    for (EntryExpiryTask task : unexpired) {
+      try {
+        task.reschedule();
+      } catch (EntryNotFoundException ignore) {
+        // the entry was destroyed after it was checked
+      }
+    }
+    if (ExpiryTask.expiryTaskListener != null) {
+      for (EntryExpiryTask task : expired) {
+        ExpiryTask.expiryTaskListener.afterExpire(task);
+      }
+    }
+  }
+
+  /**
+   * Destroys the entry of the given expiration task as part of a bulk expiration if, checked while
+   * synchronized on the entry, it is still the entry mapped to the key and is still expired. The
+   * task is added to expired if the entry was destroyed, or to unexpired if it needs to be
+   * rescheduled.
+   */
+  private void expireDestroyIfExpired(EntryExpiryTask task, Object key, int index,
+      EntryEventImpl baseEvent, DistributedRemoveAllOperation op, VersionedObjectList succeeded,
+      List<EntryExpiryTask> expired, List<EntryExpiryTask> unexpired) {
+    RegionEntry re;
+    try {
+      re = task.getCheckedRegionEntry();
+    } catch (EntryNotFoundException ignore) {
+      return;
+    }
+    synchronized (re) {
+      if (re.isDestroyedOrRemoved() || getRegionMap().getEntry(key) != re) {
+        return;
+      }
+      long expTime;
+      try {
+        expTime = task.getExpirationTime();
+      } catch (EntryNotFoundException ignore) {
+        return;
+      }
+      if (expTime == 0L || ExpiryTask.getNow() < expTime) {
+        unexpired.add(task);
+        return;
+      }
+      @Released
+      EntryEventImpl event = EntryEventImpl.create(this, Operation.EXPIRE_DESTROY, key, null,
+          null, false, getMyId());
+      try {
+        event.setRemoveAllOperation(op);
+        if (generateEventID()) {
+          event.setEventId(new EventID(baseEvent.getEventId(), index));
+        }
+        basicDestroy(event, true, null);
+        succeeded.addKeyAndVersion(key, event.getVersionTag());
+        expired.add(task);
+      } catch (EntryNotFoundException ignore) {
+        // destroyed concurrently
+      } catch (ConcurrentCacheModificationException ignore) {
+        // a newer change to the entry wins
+      } finally {
+        event.release();
+      }
+    }
+  }
+
   @Override
   void expireInvalidate(EntryEventImpl event) {
     if (!getBucketAdvisor().isPrimary()) {
@@ -1147,7 +1311,8 @@ public class BucketRegion extends DistributedRegion implements Bucket {
       }
     }
 
-    if (!event.getOperation().isRemoveAll()) { // removeAll will invoke listeners later
+    if (!event.getOperation().isRemoveAll() && !event.isBulkOpInProgress()) {
+      // removeAll and bulk expiration will invoke listeners later
       event.invokeCallbacks(this, true, false);
     }
   }
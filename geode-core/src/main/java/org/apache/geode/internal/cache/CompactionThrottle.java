@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the rate at which the oplog compactor copies live values forward. The compactor takes
+ * bytes from a budget that refills at a configured number of bytes per second and holds at most one
+ * second worth of bytes. When the budget is used up the compactor stops its current pass and waits
+ * for it to refill before starting the next one.
+ * <p>
+ * If a target foreground write latency is configured, the refill rate is lowered in proportion to
+ * how far the recent average latency of synchronous disk writes is above the target, down to a
+ * tenth of the configured rate.
+ *
+ * @since Geode 1.2
+ */
+class CompactionThrottle {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * The refill rate is never lowered below the configured rate divided by this.
+   */
+  private static final int MIN_RATE_DIVISOR = 10;
+
+  private final long bytesPerSecond;
+
+  private final long targetWriteLatency;
+
+  private final LongSupplier nanoClock;
+
+  /**
+   * Bytes that can be copied before the compactor must pause. May be negative after a large value
+   * is copied. Guarded by this.
+   */
+  private long availableBytes;
+
+  /**
+   * Time of the last refill of availableBytes. Guarded by this.
+   */
+  private long lastRefill;
+
+  /**
+   * Exponentially weighted average of recent foreground write latencies in nanoseconds. Updated
+   * without synchronization so concurrent writers may lose a sample.
+   */
+  private volatile long averageWriteLatency;
+
+  /**
+   * @param bytesPerSecond the rate at which the compactor may copy bytes forward
+   * @param targetWriteLatency the foreground write latency, in nanoseconds, above which the rate is
+   *        lowered or zero to never lower it
+   */
+  CompactionThrottle(long bytesPerSecond, long targetWriteLatency) {
+    this(bytesPerSecond, targetWriteLatency, System::nanoTime);
+  }
+
+  CompactionThrottle(long bytesPerSecond, long targetWriteLatency, LongSupplier nanoClock) {
+    if (bytesPerSecond <= 0) {
+      throw new IllegalArgumentException("bytesPerSecond must be > 0 but was " + bytesPerSecond);
+    }
+    this.bytesPerSecond = bytesPerSecond;
+    this.targetWriteLatency = targetWriteLatency;
+    this.nanoClock = nanoClock;
+    this.availableBytes = bytesPerSecond;
+    this.lastRefill = nanoClock.getAsLong();
+  }
+
+  /**
+   * Records the latency of a foreground write to the disk store.
+   */
+  void recordForegroundWrite(long latencyNanos) {
+    long average = this.averageWriteLatency;
+    this.averageWriteLatency = average + ((latencyNanos - average) >> 3);
+  }
+
+  long getAverageWriteLatency() {
+    return this.averageWriteLatency;
+  }
+
+  /**
+   * Returns the rate at which the budget currently refills.
+   */
+  long getEffectiveBytesPerSecond() {
+    long average = this.averageWriteLatency;
+    if (this.targetWriteLatency <= 0 || average <= this.targetWriteLatency) {
+      return this.bytesPerSecond;
+    }
+    long lowered = (long) (this.bytesPerSecond * ((double) this.targetWriteLatency / average));
+    return Math.max(lowered, Math.max(1L, this.bytesPerSecond / MIN_RATE_DIVISOR));
+  }
+
+  /**
+   * Takes the given number of copied bytes from the budget.
+   */
+  synchronized void consume(long bytes) {
+    refill();
+    this.availableBytes -= bytes;
+  }
+
+  /**
+   * Returns true if the compactor may copy more bytes without waiting.
+   */
+  synchronized boolean hasBudget() {
+    refill();
+    return this.availableBytes > 0;
+  }
+
+  /**
+   * Returns how many nanoseconds the compactor needs to wait for the budget to refill, at the
+   * current rate, or zero if it does not need to wait.
+   */
+  synchronized long getWaitTime() {
+    refill();
+    if (this.availableBytes > 0) {
+      return 0L;
+    }
+    double neededBytes = 1L - this.availableBytes;
+    long waitTime = (long) (neededBytes * NANOS_PER_SECOND / getEffectiveBytesPerSecond());
+    return Math.max(1L, waitTime);
+  }
+
+  private void refill() {
+    long now = this.nanoClock.getAsLong();
+    long elapsed = now - this.lastRefill;
+    if (elapsed <= 0) {
+      return;
+    }
+    long rate = getEffectiveBytesPerSecond();
+    double added = (double) elapsed * rate / NANOS_PER_SECOND;
+    if (added < 1.0) {
+      // wait until enough time has passed to add at least one byte
+      return;
+    }
+    this.availableBytes = (long) Math.min(rate, this.availableBytes + added);
+    this.lastRefill = now;
+  }
+}
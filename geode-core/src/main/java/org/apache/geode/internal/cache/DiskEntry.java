@@ -613,6 +613,21 @@ public interface DiskEntry extends RegionEntry {
       }
     }
 
+    /**
+     * Wraps the compressed form of a value that an oplog writes in place of the original bytes. Its
+     * user bits are those of the original value with the compressed bit set.
+     */
+    public static class CompressedValueWrapper extends ByteArrayValueWrapper {
+      public CompressedValueWrapper(boolean isSerializedObject, byte[] compressedBytes) {
+        super(isSerializedObject, compressedBytes);
+      }
+
+      @Override
+      public byte getUserBits() {
+        return EntryBits.setCompressed(super.getUserBits(), true);
+      }
+    }
+
     /**
      * Note that the StoredObject this ValueWrapper is created with is unretained so it must be used
      * before the owner of the StoredObject releases it. Since the RegionEntry that has the value we
@@ -290,6 +290,14 @@ public class DiskInitFile implements DiskInitFileInterpreter {
    */
   public static final byte IFREC_CLEAR_REGION_WITH_RVV_ID = 83;
 
+  /**
+   * Written to IF. Used to record the compressor the crf value records are compressed with Byte
+   * Format: variable: compressorClassName (utf) 1: EndOfRecord
+   * 
+   * @since Geode 1.2
+   */
+  public static final byte IFREC_RECORD_COMPRESSOR = 84;
+
   /**
    * Written to IF. Used to record regions config Byte Format: RegionId 1: lruAlgorithm 1: lruAction
    * 4: lruLimit (int) // no need to ObjectSize during recovery since all data is in blob form 4:
@@ -355,6 +363,8 @@ public class DiskInitFile implements DiskInitFileInterpreter {
   private boolean compactInProgress;
   // the recovered version
   private Version gfversion;
+  // the compressor of crf value records, null if they are not compressed
+  private String recordCompressorClassName;
 
 
   /**
@@ -409,6 +419,28 @@ public class DiskInitFile implements DiskInitFileInterpreter {
     return this.gfversion;
   }
 
+  /**
+   * Returns the class name of the compressor the crf value records of this disk store are
+   * compressed with, or null if none has been saved.
+   */
+  String getRecordCompressorClassName() {
+    return this.recordCompressorClassName;
+  }
+
+  /**
+   * Saves the compressor that crf value records are compressed with from now on. Once saved it is
+   * used to read the records whatever the disk store is later configured with.
+   */
+  void saveRecordCompressor(String compressorClassName) {
+    lock.lock();
+    try {
+      this.recordCompressorClassName = compressorClassName;
+      writeRecordCompressor(compressorClassName);
+    } finally {
+      lock.unlock();
+    }
+  }
+
   DiskStoreID recover() {
     recoverFromFailedCompaction();
     if (!this.ifFile.exists()) {
@@ -594,6 +626,10 @@ public class DiskInitFile implements DiskInitFileInterpreter {
     this.gfversion = version;
   }
 
+  public void cmnRecordCompressor(String compressorClassName) {
+    this.recordCompressorClassName = compressorClassName;
+  }
+
   public boolean cmnPRDestroy(String name) {
     if (this.prMap.remove(name) != null) {
       this.ifLiveRecordCount--;
@@ -1573,6 +1609,9 @@ public class DiskInitFile implements DiskInitFileInterpreter {
       this.ifTotalRecordCount = 0;
       writeDiskStoreId();
       saveGemfireVersion();
+      if (this.recordCompressorClassName != null) {
+        writeRecordCompressor(this.recordCompressorClassName);
+      }
       saveInstantiators();
       saveDataSerializers();
       saveCrfIds();
@@ -2780,6 +2819,28 @@ public class DiskInitFile implements DiskInitFileInterpreter {
     lock.setBackupThread(thread);
   }
 
+  private void writeRecordCompressor(String compressorClassName) {
+    lock.lock();
+    try {
+      HeapDataOutputStream hdos =
+          new HeapDataOutputStream(1 + estimateByteSize(compressorClassName) + 1, Version.CURRENT);
+      hdos.write(IFREC_RECORD_COMPRESSOR);
+      hdos.writeUTF(compressorClassName);
+      hdos.write(END_OF_RECORD_ID);
+      writeIFRecord(hdos, false); // don't do stats for these small records
+    } catch (IOException ex) {
+      DiskAccessException dae = new DiskAccessException(
+          LocalizedStrings.DiskInitFile_FAILED_INIT_FILE_WRITE_BECAUSE_0.toLocalizedString(ex),
+          this.parent);
+      if (!this.compactInProgress) {
+        this.parent.handleDiskAccessException(dae);
+      }
+      throw dae;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   private void writeGemfireVersion(Version version) {
     lock.lock();
     try {
@@ -158,6 +158,12 @@ public class DiskRegion extends AbstractDiskRegion {
 
           setEntriesMapIncompatible(true);
           setConfigChanged(true);
+        } else if (getRecoveredEntryMap() != null
+            && AbstractRegionMap.usesPrimitiveKeyMap(ra.getKeyConstraint(), offHeap)) {
+          // the entries were recovered, before the key constraint was known, into a chained map;
+          // have the region copy them into its primitive-key map
+          getRecoveredEntryMap().lruCloseStats();
+          setEntriesMapIncompatible(true);
         }
       }
       setConfig(raLruAlgorithm, raLruAction, raLruLimit, ra.getConcurrencyLevel(),
@@ -838,6 +844,21 @@ public class DiskRegion extends AbstractDiskRegion {
     }
   }
 
+  /**
+   * Records a read of the given key so that its value can be recovered ahead of others the next
+   * time this region is recovered.
+   *
+   * @param entries the entries of the region
+   */
+  public void recordAccess(Object key, RegionMap entries) {
+    if (isBackup()) {
+      AccessHeatTracker tracker = getDiskStore().getAccessHeatTracker();
+      if (tracker != null) {
+        tracker.recordAccess(getId(), key, entries);
+      }
+    }
+  }
+
   public void replaceIncompatibleEntry(DiskEntry old, DiskEntry repl) {
     acquireReadLock();
     try {
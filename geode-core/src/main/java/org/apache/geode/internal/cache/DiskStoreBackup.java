@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.apache.geode.internal.cache.persistence.BackupBlockStore;
 import org.apache.geode.internal.cache.persistence.BackupInspector;
 
 /**
@@ -35,10 +36,20 @@ public class DiskStoreBackup {
   private final Set<Oplog> deferredCrfDeletes = new HashSet<Oplog>();
   private final Set<Oplog> deferredDrfDeletes = new HashSet<Oplog>();
   private final File targetDir;
+  private final BackupBlockStore blockStore;
 
   public DiskStoreBackup(Oplog[] allOplogs, File targetDir) {
+    this(allOplogs, targetDir, null);
+  }
+
+  /**
+   * @param blockStore if not null the oplogs are backed up as blocks to this store instead of
+   *        being copied
+   */
+  public DiskStoreBackup(Oplog[] allOplogs, File targetDir, BackupBlockStore blockStore) {
     this.pendingBackup = new HashSet<Oplog>(Arrays.asList(allOplogs));
     this.targetDir = targetDir;
+    this.blockStore = blockStore;
   }
 
   /**
@@ -89,6 +100,10 @@ public class DiskStoreBackup {
     return targetDir;
   }
 
+  public BackupBlockStore getBlockStore() {
+    return blockStore;
+  }
+
   public synchronized void cleanup() {
     for (Oplog oplog : getPendingBackup()) {
       backupFinished(oplog);
@@ -20,11 +20,13 @@ import org.apache.geode.StatisticsFactory;
 import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.*;
 import org.apache.geode.cache.persistence.PersistentID;
+import org.apache.geode.compression.Compressor;
 import org.apache.geode.distributed.DistributedSystem;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.i18n.StringId;
+import org.apache.geode.internal.ClassPathLoader;
 import org.apache.geode.internal.FileUtil;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.DiskEntry.Helper.ValueWrapper;
@@ -177,6 +179,55 @@ public class DiskStoreImpl implements DiskStore {
    */
   public static final int MAX_PENDING_TASKS =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.MAX_PENDING_TASKS", 6);
+
+  /**
+   * This system property limits the number of bytes per second the compactor copies forward. When
+   * set, compaction is done in passes that stop once the byte budget is used up, and oplogs with
+   * the most garbage are compacted first. Ignored if set to <= 0.
+   */
+  static final long COMPACTION_BYTES_PER_SECOND =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.COMPACTION_BYTES_PER_SECOND", 0L);
+
+  /**
+   * This system property is the average synchronous write latency, in microseconds, above which a
+   * throttled compactor lowers its byte rate. Ignored if set to <= 0 or if
+   * COMPACTION_BYTES_PER_SECOND is not set.
+   */
+  static final long COMPACTION_TARGET_WRITE_LATENCY_MICROS = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "disk.COMPACTION_TARGET_WRITE_LATENCY_MICROS", 0L);
+
+  /**
+   * This system property is the class name of a {@link Compressor} used to compress the value of
+   * each record written to a crf. The first time a disk store is opened with it set, the compressor
+   * is saved in the init file, and from then on the saved compressor is used whether or not this
+   * property is set. Records written before it was saved stay readable.
+   * <p>
+   * Not final so that tests can change it.
+   */
+  static String RECORD_COMPRESSOR =
+      System.getProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.RECORD_COMPRESSOR");
+
+  /**
+   * This system property is the smallest value, in bytes, that RECORD_COMPRESSOR is tried on.
+   */
+  static final int RECORD_COMPRESSION_THRESHOLD = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.RECORD_COMPRESSION_THRESHOLD", 256);
+
+  /**
+   * This system property causes reads of persistent regions to be tracked so that asynchronous
+   * value recovery loads the values of the most read keys first. With lazy value recovery only
+   * those values are loaded.
+   */
+  static final boolean RECOVER_HOT_VALUES_FIRST =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.RECOVER_HOT_VALUES_FIRST");
+
+  /**
+   * This system property is the most values that are recovered ahead of the others because their
+   * keys were read often. Only used if RECOVER_HOT_VALUES_FIRST is set. Fewer are recovered if the
+   * access counts of the regions can not rank this many keys.
+   */
+  static final int HOT_VALUE_RECOVERY_LIMIT = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.HOT_VALUE_RECOVERY_LIMIT", 100000);
   /**
    * This system property indicates that IF should also be preallocated. This property will be used
    * in conjunction with the PREALLOCATE_OPLOGS property. If PREALLOCATE_OPLOGS is ON the below will
@@ -220,6 +271,26 @@ public class DiskStoreImpl implements DiskStore {
   /** The stats for this store */
   private final DiskStoreStats stats;
 
+  /**
+   * Null unless compaction is throttled by COMPACTION_BYTES_PER_SECOND.
+   */
+  private final CompactionThrottle compactionThrottle = COMPACTION_BYTES_PER_SECOND > 0
+      ? new CompactionThrottle(COMPACTION_BYTES_PER_SECOND,
+          TimeUnit.MICROSECONDS.toNanos(Math.max(0L, COMPACTION_TARGET_WRITE_LATENCY_MICROS)))
+      : null;
+
+  /**
+   * Null unless oplog value records are compressed. Set from the init file, before any oplog is
+   * created, by initRecordCompressor.
+   */
+  private Compressor recordCompressor;
+
+  /**
+   * Null unless RECOVER_HOT_VALUES_FIRST is set. Created on first use since it is stored in the
+   * directory of the init file. Only set while synchronized on this.
+   */
+  private volatile AccessHeatTracker accessHeatTracker;
+
   /**
    * Asif:Added as stop gap arrangement to fix bug 39380. It is not a clean fix as keeping track of
    * the threads acquiring read lock, etc is not a good idea to solve the issue
@@ -311,6 +382,14 @@ public class DiskStoreImpl implements DiskStore {
   private final Map<Long, DiskRecoveryStore> currentAsyncValueRecoveryMap =
       new HashMap<Long, DiskRecoveryStore>();
 
+  /**
+   * The ids of the disk recovery stores in currentAsyncValueRecoveryMap that only have the values
+   * of their most read keys recovered. Nothing waits for those; any other value is faulted in when
+   * it is read, as it would be without the hot value recovery. Guarded by
+   * currentAsyncValueRecoveryMap.
+   */
+  private final Set<Long> hotValueRecoveryIds = new HashSet<Long>();
+
   private final Object asyncValueRecoveryLock = new Object();
 
   /**
@@ -669,6 +748,8 @@ public class DiskStoreImpl implements DiskStore {
     if (!async) {
       dr.getStats().startWrite();
     }
+    final long throttleStart =
+        (!async && this.compactionThrottle != null) ? System.nanoTime() : 0L;
     try {
       if (!async) {
         acquireReadLock(dr);
@@ -725,8 +806,89 @@ public class DiskStoreImpl implements DiskStore {
       } else {
         dr.getStats().endWrite(start, this.stats.endWrite(start));
         dr.getStats().incWrittenBytes(id.getValueLength());
+        if (this.compactionThrottle != null) {
+          this.compactionThrottle.recordForegroundWrite(System.nanoTime() - throttleStart);
+        }
+      }
+    }
+  }
+
+  CompactionThrottle getCompactionThrottle() {
+    return this.compactionThrottle;
+  }
+
+  Compressor getRecordCompressor() {
+    return this.recordCompressor;
+  }
+
+  AccessHeatTracker getAccessHeatTracker() {
+    if (!RECOVER_HOT_VALUES_FIRST) {
+      return null;
+    }
+    AccessHeatTracker tracker = this.accessHeatTracker;
+    if (tracker == null && !isOffline()) {
+      synchronized (this) {
+        tracker = this.accessHeatTracker;
+        if (tracker == null) {
+          tracker = new AccessHeatTracker(
+              new File(getInfoFileDir().getDir(), "HEAT" + getName() + AccessHeatTracker.FILE_EXT));
+          this.accessHeatTracker = tracker;
+        }
       }
     }
+    return tracker;
+  }
+
+  private void closeAccessHeatTracker(boolean destroy) {
+    AccessHeatTracker tracker = this.accessHeatTracker;
+    if (tracker == null) {
+      return;
+    }
+    if (destroy) {
+      tracker.delete();
+    } else {
+      try {
+        tracker.save();
+      } catch (IOException e) {
+        logger.info("Unable to save access heat to {}: {}", tracker.getFile(), e.toString());
+      }
+    }
+  }
+
+  /**
+   * Sets the compressor of oplog value records to the one saved in the init file. If none is saved
+   * and RECORD_COMPRESSOR is set, saves it so that the records it compresses can be read even if
+   * the property is later unset or changed.
+   */
+  private void initRecordCompressor() {
+    String compressorClassName = this.initFile.getRecordCompressorClassName();
+    if (compressorClassName != null) {
+      if (RECORD_COMPRESSOR != null && !RECORD_COMPRESSOR.isEmpty()
+          && !RECORD_COMPRESSOR.equals(compressorClassName)) {
+        logger.warn(
+            "Disk store {} ignores record compressor {} since its records are compressed with {}",
+            getName(), RECORD_COMPRESSOR, compressorClassName);
+      }
+      this.recordCompressor = createRecordCompressor(compressorClassName);
+    } else if (!isOffline()) {
+      this.recordCompressor = createRecordCompressor(RECORD_COMPRESSOR);
+      if (this.recordCompressor != null) {
+        this.initFile.saveRecordCompressor(RECORD_COMPRESSOR);
+      }
+    }
+  }
+
+  static Compressor createRecordCompressor(String compressorClassName) {
+    if (compressorClassName == null || compressorClassName.isEmpty()) {
+      return null;
+    }
+    try {
+      return (Compressor) ClassPathLoader.getLatest().forName(compressorClassName).newInstance();
+    } catch (ClassNotFoundException | InstantiationException | IllegalAccessException
+        | ClassCastException e) {
+      throw new IllegalArgumentException(LocalizedStrings.DiskInitFile_UNKNOWN_COMPRESSOR_0_FOUND
+          .toLocalizedString(compressorClassName), e);
+    }
   }
 
   final void putVersionTagOnly(LocalRegion region, VersionTag tag, boolean async) {
@@ -1940,6 +2102,7 @@ public class DiskStoreImpl implements DiskStore {
                     .toLocalizedString(getRecoveredGFVersionName()));
           }
         }
+        initRecordCompressor();
       }
 
       {
@@ -2016,9 +2179,26 @@ public class DiskStoreImpl implements DiskStore {
 
   void scheduleValueRecovery(Set<Oplog> oplogsNeedingValueRecovery,
       Map<Long, DiskRecoveryStore> recoveredStores) {
-    ValueRecoveryTask task = new ValueRecoveryTask(oplogsNeedingValueRecovery, recoveredStores);
+    scheduleValueRecovery(oplogsNeedingValueRecovery, recoveredStores, false);
+  }
+
+  /**
+   * Schedules the recovery of just the values of the most read keys, for disk stores that do not
+   * recover all values.
+   */
+  void scheduleHotValueRecovery(Set<Oplog> oplogs, Map<Long, DiskRecoveryStore> recoveredStores) {
+    scheduleValueRecovery(oplogs, recoveredStores, true);
+  }
+
+  private void scheduleValueRecovery(Set<Oplog> oplogsNeedingValueRecovery,
+      Map<Long, DiskRecoveryStore> recoveredStores, boolean hotValuesOnly) {
+    ValueRecoveryTask task =
+        new ValueRecoveryTask(oplogsNeedingValueRecovery, recoveredStores, hotValuesOnly);
     synchronized (currentAsyncValueRecoveryMap) {
       DiskStoreImpl.this.currentAsyncValueRecoveryMap.putAll(recoveredStores);
+      if (hotValuesOnly) {
+        hotValueRecoveryIds.addAll(recoveredStores.keySet());
+      }
     }
     executeDiskStoreTask(task);
   }
@@ -2293,12 +2473,14 @@ public class DiskStoreImpl implements DiskStore {
       }
 
       if ((!destroy && getDiskInitFile().hasLiveRegions()) || isValidating()) {
+        closeAccessHeatTracker(false);
         RuntimeException exception = persistentOplogs.close();
         if (exception != null && rte != null) {
           rte = exception;
         }
         getDiskInitFile().close();
       } else {
+        closeAccessHeatTracker(true);
         try {
           destroyAllOplogs();
         } catch (RuntimeException e) {
@@ -2901,9 +3083,8 @@ public class DiskStoreImpl implements DiskStore {
       long compactionStart = getStats().startCompaction();
       long start = System.nanoTime();
       try {
-        for (int i = 0; i < oplogs.length && keepCompactorRunning() /*
-                                                                     * @todo && !owner. isDestroyed
-                                                                     */; i++) {
+        for (int i = 0; i < oplogs.length && keepCompactorRunning()
+            && !isCompactionPaused() /* @todo && !owner. isDestroyed */; i++) {
           totalCount += oplogs[i].compact(this);
         }
 
@@ -2966,6 +3147,7 @@ public class DiskStoreImpl implements DiskStore {
           if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
             CacheObserverHolder.getInstance().beforeGoingToCompact();
           }
+          waitForCompactionBudget();
           compactedSuccessfully = compact();
           if (compactedSuccessfully) {
             if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
@@ -3033,8 +3215,55 @@ public class DiskStoreImpl implements DiskStore {
     boolean keepCompactorRunning() {
       return this.compactorEnabled || this.compactionCompletionRequired;
     }
+
+    /**
+     * Returns true if compaction is throttled and the current pass has used up its byte budget.
+     */
+    boolean isCompactionPaused() {
+      return compactionThrottle != null && !compactionThrottle.hasBudget();
+    }
+
+    /**
+     * Called after a value of the given size has been copied forward.
+     */
+    void compacted(int bytes) {
+      getStats().incCompactedBytes(bytes);
+      if (compactionThrottle != null) {
+        compactionThrottle.consume(bytes);
+      }
+    }
+
+    /**
+     * If compaction is throttled waits, without holding any locks, until the byte budget has room
+     * for another pass.
+     */
+    private void waitForCompactionBudget() {
+      if (compactionThrottle == null) {
+        return;
+      }
+      long start = System.nanoTime();
+      try {
+        long waitTime;
+        while ((waitTime = compactionThrottle.getWaitTime()) > 0 && keepCompactorRunning()
+            && !isClosing()) {
+          try {
+            TimeUnit.NANOSECONDS.sleep(Math.min(waitTime, MAX_COMPACTION_THROTTLE_SLEEP));
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      } finally {
+        getStats().incCompactionThrottleTime(System.nanoTime() - start);
+      }
+    }
   }
 
+  /**
+   * The longest a throttled compactor sleeps before checking if it has been stopped.
+   */
+  private static final long MAX_COMPACTION_THROTTLE_SLEEP = TimeUnit.MILLISECONDS.toNanos(100);
+
   /**
    * Used by unit tests to kill the compactor operation.
    */
@@ -3201,6 +3430,10 @@ public class DiskStoreImpl implements DiskStore {
     }
     if (this.initFile != null && dr.isBackup()) {
       this.initFile.endDestroyRegion(dr);
+      AccessHeatTracker tracker = getAccessHeatTracker();
+      if (tracker != null) {
+        tracker.removeRegion(dr.getId());
+      }
     } else {
       rmById(dr.getId());
       this.overflowMap.remove(dr);
@@ -3576,6 +3809,14 @@ public class DiskStoreImpl implements DiskStore {
     public int size() {
       return this.ints.size() + this.longs.size();
     }
+
+    /**
+     * Adds every id in other to this set.
+     */
+    public void addAll(OplogEntryIdSet other) {
+      this.ints.addAll(other.ints);
+      this.longs.addAll(other.longs);
+    }
   }
 
   /**
@@ -4124,6 +4365,16 @@ public class DiskStoreImpl implements DiskStore {
     getDiskInitFile().setBackupThread(Thread.currentThread());
     boolean done = false;
     try {
+      // Read the baseline's block manifests before blocking writes to the oplogs
+      BackupBlockStore blockStore = null;
+      if (BackupBlockStore.ENABLED) {
+        File baselineDir = null;
+        if (baselineInspector != null) {
+          baselineDir = new File(baselineInspector.getBackupDir(), BackupManager.DATA_STORES);
+          baselineDir = new File(baselineDir, getBackupDirName());
+        }
+        blockStore = new BackupBlockStore(targetDir, baselineDir, restoreScript);
+      }
       for (;;) {
         Oplog childOplog = persistentOplogs.getChild();
         if (childOplog == null) {
@@ -4175,7 +4426,7 @@ public class DiskStoreImpl implements DiskStore {
 
           // mark all oplogs as being backed up. This will
           // prevent the oplogs from being deleted
-          this.diskStoreBackup = new DiskStoreBackup(allOplogs, targetDir);
+          this.diskStoreBackup = new DiskStoreBackup(allOplogs, targetDir, blockStore);
 
           // copy the init file
           File firstDir = getBackupDir(targetDir, infoFileDirIndex);
@@ -4225,11 +4476,25 @@ public class DiskStoreImpl implements DiskStore {
         File backupDir = getBackupDir(this.diskStoreBackup.getTargetDir(), index);
         // TODO prpersist - We could probably optimize this to *move* the files
         // that we know are supposed to be deleted.
-        oplog.copyTo(backupDir);
+        BackupBlockStore blockStore = this.diskStoreBackup.getBlockStore();
+        if (blockStore != null) {
+          for (File file : oplog.getFilesToBackup()) {
+            blockStore.backup(file, backupDir.getName());
+          }
+        } else {
+          oplog.copyTo(backupDir);
+        }
 
         // Allow the oplog to be deleted, and process any pending delete
         this.diskStoreBackup.backupFinished(oplog);
       }
+      BackupBlockStore blockStore = this.diskStoreBackup.getBlockStore();
+      if (blockStore != null) {
+        logger.info("Backed up disk store {} as blocks: read {} bytes, wrote {} blocks of {} bytes"
+            + " and reused {} blocks", getName(), blockStore.getBytesRead(),
+            blockStore.getBlocksWritten(), blockStore.getBytesWritten(),
+            blockStore.getBlocksReused());
+      }
     } finally {
       clearBackup();
     }
@@ -4505,18 +4770,28 @@ public class DiskStoreImpl implements DiskStore {
   private class ValueRecoveryTask implements Runnable {
     private final Set<Oplog> oplogSet;
     private final Map<Long, DiskRecoveryStore> recoveredStores;
+    private final boolean hotValuesOnly;
 
-    public ValueRecoveryTask(Set<Oplog> oplogSet, Map<Long, DiskRecoveryStore> recoveredStores) {
+    public ValueRecoveryTask(Set<Oplog> oplogSet, Map<Long, DiskRecoveryStore> recoveredStores,
+        boolean hotValuesOnly) {
       this.oplogSet = oplogSet;
       this.recoveredStores = new HashMap<Long, DiskRecoveryStore>(recoveredStores);
+      this.hotValuesOnly = hotValuesOnly;
     }
 
     public void run() {
       synchronized (asyncValueRecoveryLock) {
         DiskStoreObserver.startAsyncValueRecovery(DiskStoreImpl.this);
         try {
-          for (Oplog oplog : oplogSet) {
-            oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap);
+          AccessHeatTracker heat = getAccessHeatTracker();
+          if (heat != null) {
+            Oplog.recoverHotValues(oplogSet, currentAsyncValueRecoveryMap, heat,
+                HOT_VALUE_RECOVERY_LIMIT);
+          }
+          if (!hotValuesOnly) {
+            for (Oplog oplog : oplogSet) {
+              oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap);
+            }
           }
         } catch (CancelException ignore) {
           // do nothing
@@ -4524,6 +4799,9 @@ public class DiskStoreImpl implements DiskStore {
           synchronized (currentAsyncValueRecoveryMap) {
             DiskStoreImpl.this.currentAsyncValueRecoveryMap.keySet()
                 .removeAll(recoveredStores.keySet());
+            if (hotValuesOnly) {
+              hotValueRecoveryIds.removeAll(recoveredStores.keySet());
+            }
             currentAsyncValueRecoveryMap.notifyAll();
           }
           DiskStoreObserver.endAsyncValueRecovery(DiskStoreImpl.this);
@@ -4532,10 +4810,15 @@ public class DiskStoreImpl implements DiskStore {
     }
   }
 
+  /**
+   * Waits until the values of the given region have been recovered asynchronously. Does not wait
+   * for the recovery of just the most read values of a region that recovers values lazily.
+   */
   public void waitForAsyncRecovery(DiskRegion diskRegion) {
     synchronized (currentAsyncValueRecoveryMap) {
       boolean interrupted = false;
-      while (!isClosing() && currentAsyncValueRecoveryMap.containsKey(diskRegion.getId())) {
+      while (!isClosing() && currentAsyncValueRecoveryMap.containsKey(diskRegion.getId())
+          && !hotValueRecoveryIds.contains(diskRegion.getId())) {
         try {
           currentAsyncValueRecoveryMap.wait();
         } catch (InterruptedException e) {
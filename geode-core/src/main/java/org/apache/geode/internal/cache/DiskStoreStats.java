@@ -78,6 +78,27 @@ public class DiskStoreStats {
   private static final int backupsInProgress;
   private static final int backupsCompleted;
 
+  private static final int groupCommitsId;
+  private static final int groupCommitWritesId;
+
+  private static final int drfRecoveryTimeId;
+  private static final int crfRecoveryTimeId;
+  private static final int recoveredRegionInitTimeId;
+
+  private static final int compactedBytesId;
+  private static final int compactionDebtId;
+  private static final int compactionThrottleTimeId;
+
+  private static final int compressionsId;
+  private static final int compressTimeId;
+  private static final int preCompressedBytesId;
+  private static final int postCompressedBytesId;
+  private static final int decompressionsId;
+  private static final int decompressTimeId;
+  private static final int hotValueRecoveryTargetId;
+  private static final int hotValuesRecoveredId;
+  private static final int hotValueRecoveryTimeId;
+
   static {
     String statName = "DiskStoreStatistics";
     String statDescription = "Statistics about a Region's use of the disk";
@@ -186,7 +207,55 @@ public class DiskStoreStats {
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
             f.createIntGauge("backupsInProgress", backupsInProgressDesc, "backups"),
-            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),});
+            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),
+            f.createLongCounter("groupCommits",
+                "Total number of flushes done on behalf of a group of synchronous oplog writes",
+                "flushes"),
+            f.createLongCounter("groupCommitWrites",
+                "Total number of synchronous oplog writes made durable by group commit flushes",
+                "writes"),
+            f.createLongCounter("drfRecoveryTime",
+                "Total amount of time, in nanoseconds, spent reading drf files during recovery",
+                "nanoseconds"),
+            f.createLongCounter("crfRecoveryTime",
+                "Total amount of time, in nanoseconds, spent reading krf and crf files during recovery",
+                "nanoseconds"),
+            f.createLongCounter("recoveredRegionInitTime",
+                "Total amount of time, in nanoseconds, spent initializing oplogs and regions after their records were recovered",
+                "nanoseconds"),
+            f.createLongCounter("compactedBytes",
+                "Total number of bytes of live values copied forward by oplog compaction", "bytes"),
+            f.createLongGauge("compactionDebt",
+                "Estimated number of bytes of garbage in the oplogs that are waiting to be compacted. Only maintained when compaction is throttled.",
+                "bytes"),
+            f.createLongCounter("compactionThrottleTime",
+                "Total amount of time, in nanoseconds, the compactor spent waiting for its throttled byte budget to refill",
+                "nanoseconds"),
+            f.createLongCounter("compressions",
+                "Total number of oplog value records compressed before being written",
+                "operations"),
+            f.createLongCounter("compressTime",
+                "Total amount of time, in nanoseconds, spent compressing oplog value records",
+                "nanoseconds"),
+            f.createLongCounter("preCompressedBytes",
+                "Total number of oplog value bytes given to the record compressor", "bytes"),
+            f.createLongCounter("postCompressedBytes",
+                "Total number of oplog value bytes produced by the record compressor", "bytes"),
+            f.createLongCounter("decompressions",
+                "Total number of compressed oplog value records decompressed after being read",
+                "operations"),
+            f.createLongCounter("decompressTime",
+                "Total amount of time, in nanoseconds, spent decompressing oplog value records",
+                "nanoseconds"),
+            f.createLongGauge("hotValueRecoveryTarget",
+                "Number of values picked to be recovered first because their keys were read most",
+                "values"),
+            f.createLongCounter("hotValuesRecovered",
+                "Total number of values recovered first because their keys were read the most",
+                "values"),
+            f.createLongCounter("hotValueRecoveryTime",
+                "Total amount of time, in nanoseconds, spent recovering the most read values first",
+                "nanoseconds"),});
 
     // Initialize id fields
     writesId = type.nameToId("writes");
@@ -234,6 +303,23 @@ public class DiskStoreStats {
     uncreatedRecoveredRegionsId = type.nameToId("uncreatedRecoveredRegions");
     backupsInProgress = type.nameToId("backupsInProgress");
     backupsCompleted = type.nameToId("backupsCompleted");
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommitWritesId = type.nameToId("groupCommitWrites");
+    drfRecoveryTimeId = type.nameToId("drfRecoveryTime");
+    crfRecoveryTimeId = type.nameToId("crfRecoveryTime");
+    recoveredRegionInitTimeId = type.nameToId("recoveredRegionInitTime");
+    compactedBytesId = type.nameToId("compactedBytes");
+    compactionDebtId = type.nameToId("compactionDebt");
+    compactionThrottleTimeId = type.nameToId("compactionThrottleTime");
+    compressionsId = type.nameToId("compressions");
+    compressTimeId = type.nameToId("compressTime");
+    preCompressedBytesId = type.nameToId("preCompressedBytes");
+    postCompressedBytesId = type.nameToId("postCompressedBytes");
+    decompressionsId = type.nameToId("decompressions");
+    decompressTimeId = type.nameToId("decompressTime");
+    hotValueRecoveryTargetId = type.nameToId("hotValueRecoveryTarget");
+    hotValuesRecoveredId = type.nameToId("hotValuesRecovered");
+    hotValueRecoveryTimeId = type.nameToId("hotValueRecoveryTime");
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -376,6 +462,102 @@ public class DiskStoreStats {
     return this.stats.getLong(flushesId);
   }
 
+  /**
+   * Invoked after a group commit flush
+   *
+   * @param writes the number of synchronous writes made durable by the flush
+   */
+  public void incGroupCommits(long writes) {
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommitWritesId, writes);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommitWrites() {
+    return this.stats.getLong(groupCommitWritesId);
+  }
+
+  /**
+   * Invoked before an oplog value record is compressed.
+   *
+   * @return The timestamp that marks the start of the operation
+   */
+  public long startCompression() {
+    this.stats.incLong(compressionsId, 1);
+    return DistributionStats.getStatTime();
+  }
+
+  /**
+   * Invoked after an oplog value record has been compressed
+   *
+   * @param start The time at which the compression started
+   * @param startSize The number of bytes given to the compressor
+   * @param endSize The number of bytes the compressor produced
+   */
+  public void endCompression(long start, long startSize, long endSize) {
+    this.stats.incLong(compressTimeId, DistributionStats.getStatTime() - start);
+    this.stats.incLong(preCompressedBytesId, startSize);
+    this.stats.incLong(postCompressedBytesId, endSize);
+  }
+
+  /**
+   * Invoked before a compressed oplog value record is decompressed.
+   *
+   * @return The timestamp that marks the start of the operation
+   */
+  public long startDecompression() {
+    this.stats.incLong(decompressionsId, 1);
+    return DistributionStats.getStatTime();
+  }
+
+  public void endDecompression(long start) {
+    this.stats.incLong(decompressTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public long getCompressions() {
+    return this.stats.getLong(compressionsId);
+  }
+
+  public long getPreCompressedBytes() {
+    return this.stats.getLong(preCompressedBytesId);
+  }
+
+  public long getPostCompressedBytes() {
+    return this.stats.getLong(postCompressedBytesId);
+  }
+
+  public long getDecompressions() {
+    return this.stats.getLong(decompressionsId);
+  }
+
+  /**
+   * Invoked before the values of the most read keys are recovered.
+   *
+   * @return The timestamp that marks the start of the operation
+   */
+  public long startHotValueRecovery() {
+    return DistributionStats.getStatTime();
+  }
+
+  public void setHotValueRecoveryTarget(long values) {
+    this.stats.setLong(hotValueRecoveryTargetId, values);
+  }
+
+  public void incHotValuesRecovered() {
+    this.stats.incLong(hotValuesRecoveredId, 1);
+  }
+
+  public void endHotValueRecovery(long start) {
+    this.stats.incLong(hotValueRecoveryTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public long getHotValuesRecovered() {
+    return this.stats.getLong(hotValuesRecoveredId);
+  }
+
   /**
    * Invoked before data is read from disk.
    *
@@ -434,6 +616,26 @@ public class DiskStoreStats {
     this.stats.incLong(recoveredBytesId, bytesRead);
   }
 
+  public void incCompactedBytes(long bytes) {
+    this.stats.incLong(compactedBytesId, bytes);
+  }
+
+  public long getCompactedBytes() {
+    return this.stats.getLong(compactedBytesId);
+  }
+
+  public void setCompactionDebt(long bytes) {
+    this.stats.setLong(compactionDebtId, bytes);
+  }
+
+  public long getCompactionDebt() {
+    return this.stats.getLong(compactionDebtId);
+  }
+
+  public void incCompactionThrottleTime(long nanos) {
+    this.stats.incLong(compactionThrottleTimeId, nanos);
+  }
+
   public void endCompaction(long start) {
     this.stats.incInt(compactsInProgressId, -1);
     long end = DistributionStats.getStatTime();
@@ -441,6 +643,27 @@ public class DiskStoreStats {
     this.stats.incLong(compactTimeId, end - start);
   }
 
+  /**
+   * Invoked before a phase of recovery (drf, crf or region initialization) starts.
+   *
+   * @return The timestamp that marks the start of the phase
+   */
+  public long startRecoveryPhase() {
+    return DistributionStats.getStatTime();
+  }
+
+  public void endDrfRecovery(long start) {
+    this.stats.incLong(drfRecoveryTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public void endCrfRecovery(long start) {
+    this.stats.incLong(crfRecoveryTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public void endRecoveredRegionInit(long start) {
+    this.stats.incLong(recoveredRegionInitTimeId, DistributionStats.getStatTime() - start);
+  }
+
   public void endOplogRead(long start, long bytesRead) {
     long end = DistributionStats.getStatTime();
     this.stats.incInt(oplogRecoveriesId, 1);
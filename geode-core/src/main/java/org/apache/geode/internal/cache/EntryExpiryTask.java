@@ -108,6 +108,15 @@ public class EntryExpiryTask extends ExpiryTask {
     RegionEntry re = getCheckedRegionEntry();
     Object key = re.getKey();
     LocalRegion lr = getLocalRegion();
+    if (!isPending && !expireSendsEntryAsCallback && lr instanceof BucketRegion) {
+      ExpiryBatch batch = ExpiryBatch.getCurrent();
+      if (batch != null && ((BucketRegion) lr).canBulkExpireDestroy()) {
+        // the bucket will destroy this entry along with the others that expired in this tick
+        // and will then tell the expiryTaskListener; until then it has not expired
+        batch.addDestroy((BucketRegion) lr, this);
+        return false;
+      }
+    }
     @Released
     EntryEventImpl event = EntryEventImpl.create(lr, Operation.EXPIRE_DESTROY, key, null,
         createExpireEntryCallback(lr, key), false, lr.getMyId());
@@ -187,6 +187,11 @@ public final class EvictionAttributesImpl extends EvictionAttributes
     } else if (this.algorithm == EvictionAlgorithm.LIFO_MEMORY) {
       this.evictionController =
           new MemLRUCapacityController(this.maximum, this.sizer, this.action, region, isOffHeap);
+    } else if (this.algorithm == EvictionAlgorithm.TINYLFU_ENTRY) {
+      this.evictionController = new LRUCapacityController(this.maximum, this.action, region);
+    } else if (this.algorithm == EvictionAlgorithm.TINYLFU_MEMORY) {
+      this.evictionController =
+          new MemLRUCapacityController(this.maximum, this.sizer, this.action, region, isOffHeap);
     } else {
       // for all other algorithms, return null
       this.evictionController = null;
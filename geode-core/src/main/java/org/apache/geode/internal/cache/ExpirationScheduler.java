@@ -23,11 +23,17 @@ import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ExpirationScheduler uses a single instance of java.util.Timer (and therefore a single thread) per
  * VM to schedule and execute region and entry expiration tasks.
+ * <p>
+ * If {@link #USE_TIMING_WHEEL} is set then entry expiration tasks are instead tracked in an
+ * {@link ExpirationTimingWheel} that the timer thread advances once per tick, running all the
+ * tasks that have come due in one batch.
  */
 
 public class ExpirationScheduler {
@@ -38,8 +44,41 @@ public class ExpirationScheduler {
   private static final int MAX_PENDING_CANCELS = Integer
       .getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_PENDING_CANCELS", 10000).intValue();
 
+  /**
+   * If true entry expiration tasks are scheduled on a timing wheel instead of individually on the
+   * timer. Read when an ExpirationScheduler is created.
+   * <p>
+   * Not final so that tests can change it.
+   */
+  static boolean USE_TIMING_WHEEL =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL");
+
+  /**
+   * The resolution, in milliseconds, of the timing wheel.
+   */
+  private static final long TIMING_WHEEL_TICK = Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL_TICK", 10).longValue();
+
+  /** the wheel entry expiration tasks are scheduled on; null if {@link #USE_TIMING_WHEEL} is false */
+  private final ExpirationTimingWheel wheel;
+
   public ExpirationScheduler(InternalDistributedSystem ds) {
     this.timer = new SystemTimer(ds, true);
+    if (USE_TIMING_WHEEL) {
+      this.wheel = new ExpirationTimingWheel(TIMING_WHEEL_TICK, currentTimeMillis());
+      this.timer.schedule(new TimingWheelTask(), TIMING_WHEEL_TICK, TIMING_WHEEL_TICK);
+    } else {
+      this.wheel = null;
+    }
+  }
+
+  /**
+   * Returns a monotonic clock, in milliseconds, for the timing wheel. Unlike
+   * {@link ExpiryTask#getNow()} this is not affected by cache time or by tests changing the time
+   * since the wheel, like the timer, only deals in relative delays.
+   */
+  private static long currentTimeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
   }
 
   public void forcePurge() {
@@ -93,11 +132,64 @@ public class ExpirationScheduler {
 
   /** schedules the given entry expiration task and returns true; returns false if not scheduled */
   public boolean addEntryExpiryTask(EntryExpiryTask task) {
+    if (this.wheel != null) {
+      return addToWheel(task) != null;
+    }
     return addExpiryTask(task) != null;
   }
 
+  private ExpiryTask addToWheel(ExpiryTask task) {
+    try {
+      long delay = task.getExpiryMillis();
+      if (logger.isTraceEnabled()) {
+        logger.trace(LocalizedMessage.create(
+            LocalizedStrings.ExpirationScheduler_SCHEDULING__0__TO_FIRE_IN__1__MS,
+            new Object[] {task, Long.valueOf(delay)}));
+      }
+      if (!this.wheel.add(task, delay, currentTimeMillis())) {
+        // already due; let the next tick run it so the caller is not held up
+        this.timer.schedule(task, 0L);
+      }
+    } catch (EntryNotFoundException e) {
+      // ignore - there are unsynchronized paths that allow an entry to
+      // be destroyed out from under us.
+      return null;
+    } catch (IllegalStateException e) {
+      // task must have been cancelled by another thread so don't schedule it
+      return null;
+    }
+    return task;
+  }
+
   /** @see java.util.Timer#cancel() */
   public void cancel() {
     timer.cancel();
+    if (this.wheel != null) {
+      this.wheel.clear();
+    }
+  }
+
+  /**
+   * Advances the timing wheel and runs, on the timer thread, the batch of entry expiration tasks
+   * that have come due.
+   */
+  private class TimingWheelTask extends SystemTimer.SystemTimerTask {
+    @Override
+    public void run2() {
+      List<ExpiryTask> expired = wheel.advance(currentTimeMillis());
+      if (expired.isEmpty()) {
+        return;
+      }
+      ExpiryBatch batch = BucketRegion.BULK_EXPIRE_DESTROY ? ExpiryBatch.begin() : null;
+      try {
+        for (ExpiryTask task : expired) {
+          task.run();
+        }
+      } finally {
+        if (batch != null) {
+          batch.flush();
+        }
+      }
+    }
   }
 }
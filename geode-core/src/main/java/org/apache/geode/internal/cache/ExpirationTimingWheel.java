@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A hashed hierarchical timing wheel used by {@link ExpirationScheduler} to track entry expiration
+ * deadlines. Instead of putting every {@link EntryExpiryTask} on the heap based queue of a
+ * java.util.Timer, tasks are linked into the bucket covering their deadline. Adding and cancelling
+ * a task is constant time and the timer thread advances the wheel once per tick, expiring whole
+ * buckets at a time.
+ * <p>
+ * The first level has {@link #WHEEL_SIZE} buckets of one tick each. Each additional level is
+ * created on demand and has buckets that span the whole of the level below it. Tasks in a higher
+ * level bucket are cascaded down when the wheel reaches that bucket. Deadlines are rounded up to a
+ * tick so a task never fires before its deadline.
+ * <p>
+ * The scheduling state of a task lives in the task itself (see {@link ExpiryTask#wheelBucket}) so
+ * the wheel allocates nothing per task.
+ *
+ * @since Geode 1.2
+ */
+class ExpirationTimingWheel {
+
+  /** number of buckets in each level of the wheel; must be a power of two */
+  static final int WHEEL_SIZE = 512;
+
+  /**
+   * Marks a task that can no longer be scheduled on a wheel because it was cancelled or has already
+   * been fired.
+   */
+  static final Bucket DONE = new Bucket(null);
+
+  private static final AtomicReferenceFieldUpdater<ExpiryTask, Bucket> bucketUpdater =
+      AtomicReferenceFieldUpdater.newUpdater(ExpiryTask.class, Bucket.class, "wheelBucket");
+
+  private final long tickMillis;
+
+  /** the first level of the wheel; higher levels are chained from it */
+  private final Level wheel;
+
+  /** number of tasks currently in the wheel */
+  private int size;
+
+  /**
+   * @param tickMillis the duration of a tick of the first level of the wheel
+   * @param now the current time in milliseconds
+   */
+  ExpirationTimingWheel(long tickMillis, long now) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("tickMillis must be positive but was " + tickMillis);
+    }
+    this.tickMillis = tickMillis;
+    this.wheel = new Level(this, tickMillis, now);
+  }
+
+  long getTickMillis() {
+    return this.tickMillis;
+  }
+
+  synchronized int size() {
+    return this.size;
+  }
+
+  /**
+   * Schedules the given task to expire after the given delay.
+   *
+   * @return true if the task was added to the wheel; false if its deadline has already been reached
+   *         in which case the caller should run it now.
+   * @throws IllegalStateException if the task has been cancelled or was already scheduled
+   */
+  synchronized boolean add(ExpiryTask task, long delayMillis, long now) {
+    // round up so that the task never fires early
+    long deadline = now + delayMillis + this.tickMillis - 1;
+    deadline -= deadline % this.tickMillis;
+    task.wheelDeadline = deadline;
+    if (deadline <= this.wheel.currentTime) {
+      if (!bucketUpdater.compareAndSet(task, null, DONE)) {
+        throw new IllegalStateException("expiry task already scheduled or cancelled");
+      }
+      return false;
+    }
+    Bucket bucket = this.wheel.bucketFor(deadline);
+    if (!bucketUpdater.compareAndSet(task, null, bucket)) {
+      throw new IllegalStateException("expiry task already scheduled or cancelled");
+    }
+    bucket.link(task);
+    this.size++;
+    return true;
+  }
+
+  /**
+   * Marks the given task as cancelled, removing it from the wheel it is scheduled on, if any. A task
+   * that was cancelled before it was added can not be added later.
+   *
+   * @return true if the task was removed from a wheel
+   */
+  static boolean cancel(ExpiryTask task) {
+    for (;;) {
+      Bucket bucket = task.wheelBucket;
+      if (bucket == DONE) {
+        return false;
+      }
+      if (bucket == null) {
+        if (bucketUpdater.compareAndSet(task, null, DONE)) {
+          return false;
+        }
+      } else if (bucket.level.owner.remove(task)) {
+        return true;
+      }
+    }
+  }
+
+  private synchronized boolean remove(ExpiryTask task) {
+    Bucket bucket = task.wheelBucket;
+    if (bucket == null || bucket == DONE || bucket.level.owner != this) {
+      // the task was fired or moved to another state; let the caller look again
+      return false;
+    }
+    bucket.unlink(task);
+    task.wheelBucket = DONE;
+    this.size--;
+    return true;
+  }
+
+  /**
+   * Advances the wheel to the given time.
+   *
+   * @return the tasks whose deadline has been reached, earliest deadline first. The caller is expected to
+   *         run them.
+   */
+  synchronized List<ExpiryTask> advance(long now) {
+    List<ExpiryTask> expired = null;
+    if (this.size == 0) {
+      // nothing to cascade so jump straight to the current time
+      this.wheel.setCurrentTime(now);
+      return Collections.emptyList();
+    }
+    while (this.wheel.currentTime + this.tickMillis <= now) {
+      long time = this.wheel.currentTime + this.tickMillis;
+      this.wheel.currentTime = time;
+      // cascade the higher levels first so their tasks land in the buckets we are about to expire
+      for (Level level = this.wheel.overflow; level != null; level = level.overflow) {
+        long levelTime = time - (time % level.tickMillis);
+        if (levelTime == level.currentTime) {
+          break;
+        }
+        level.currentTime = levelTime;
+        Bucket bucket = level.buckets[level.indexOf(levelTime)];
+        if (bucket != null) {
+          expired = cascade(bucket, time, expired);
+        }
+      }
+      Bucket bucket = this.wheel.buckets[this.wheel.indexOf(time)];
+      if (bucket != null) {
+        expired = expire(bucket, expired);
+      }
+      if (this.size == 0) {
+        this.wheel.setCurrentTime(now);
+        break;
+      }
+    }
+    if (expired == null) {
+      return Collections.emptyList();
+    }
+    return expired;
+  }
+
+  private List<ExpiryTask> cascade(Bucket bucket, long time, List<ExpiryTask> expired) {
+    ExpiryTask task = bucket.head;
+    bucket.head = null;
+    while (task != null) {
+      ExpiryTask next = task.wheelNext;
+      task.wheelNext = null;
+      task.wheelPrev = null;
+      if (task.wheelDeadline <= time) {
+        task.wheelBucket = DONE;
+        this.size--;
+        if (expired == null) {
+          expired = new ArrayList<ExpiryTask>();
+        }
+        expired.add(task);
+      } else {
+        Bucket lower = this.wheel.bucketFor(task.wheelDeadline);
+        task.wheelBucket = lower;
+        lower.link(task);
+      }
+      task = next;
+    }
+    return expired;
+  }
+
+  private List<ExpiryTask> expire(Bucket bucket, List<ExpiryTask> expired) {
+    ExpiryTask task = bucket.head;
+    bucket.head = null;
+    while (task != null) {
+      ExpiryTask next = task.wheelNext;
+      task.wheelNext = null;
+      task.wheelPrev = null;
+      task.wheelBucket = DONE;
+      this.size--;
+      if (expired == null) {
+        expired = new ArrayList<ExpiryTask>();
+      }
+      expired.add(task);
+      task = next;
+    }
+    return expired;
+  }
+
+  /**
+   * Removes every task from the wheel. The removed tasks are not run and can not be rescheduled.
+   */
+  synchronized void clear() {
+    for (Level level = this.wheel; level != null; level = level.overflow) {
+      for (Bucket bucket : level.buckets) {
+        if (bucket != null) {
+          ExpiryTask task = bucket.head;
+          bucket.head = null;
+          while (task != null) {
+            ExpiryTask next = task.wheelNext;
+            task.wheelNext = null;
+            task.wheelPrev = null;
+            task.wheelBucket = DONE;
+            task = next;
+          }
+        }
+      }
+    }
+    this.size = 0;
+  }
+
+  /**
+   * One level of the wheel. All fields are guarded by the owning wheel.
+   */
+  private static final class Level {
+    final ExpirationTimingWheel owner;
+    final long tickMillis;
+    /** the span of time covered by all the buckets of this level */
+    final long interval;
+    final Bucket[] buckets = new Bucket[WHEEL_SIZE];
+    /** the start of the current tick, always a multiple of tickMillis */
+    long currentTime;
+    Level overflow;
+
+    Level(ExpirationTimingWheel owner, long tickMillis, long now) {
+      this.owner = owner;
+      this.tickMillis = tickMillis;
+      this.interval = tickMillis * WHEEL_SIZE;
+      this.currentTime = now - (now % tickMillis);
+    }
+
+    int indexOf(long time) {
+      return (int) ((time / this.tickMillis) & (WHEEL_SIZE - 1));
+    }
+
+    /**
+     * Returns the bucket, on this level or a higher one, that covers the given deadline. The
+     * deadline must be after the current tick.
+     */
+    Bucket bucketFor(long deadline) {
+      Level level = this;
+      while (deadline >= level.currentTime + level.interval) {
+        if (level.overflow == null) {
+          level.overflow = new Level(this.owner, level.interval, level.currentTime);
+        }
+        level = level.overflow;
+      }
+      int index = level.indexOf(deadline);
+      Bucket bucket = level.buckets[index];
+      if (bucket == null) {
+        bucket = new Bucket(level);
+        level.buckets[index] = bucket;
+      }
+      return bucket;
+    }
+
+    void setCurrentTime(long now) {
+      for (Level level = this; level != null; level = level.overflow) {
+        long time = now - (now % level.tickMillis);
+        if (time > level.currentTime) {
+          level.currentTime = time;
+        }
+      }
+    }
+  }
+
+  /**
+   * A doubly linked list of the tasks that expire in one tick of a level. The links are stored in
+   * the tasks themselves.
+   */
+  static final class Bucket {
+    final Level level;
+    ExpiryTask head;
+
+    Bucket(Level level) {
+      this.level = level;
+    }
+
+    void link(ExpiryTask task) {
+      task.wheelPrev = null;
+      task.wheelNext = this.head;
+      if (this.head != null) {
+        this.head.wheelPrev = task;
+      }
+      this.head = task;
+    }
+
+    void unlink(ExpiryTask task) {
+      ExpiryTask prev = task.wheelPrev;
+      ExpiryTask next = task.wheelNext;
+      if (prev == null) {
+        this.head = next;
+      } else {
+        prev.wheelNext = next;
+      }
+      if (next != null) {
+        next.wheelPrev = prev;
+      }
+      task.wheelPrev = null;
+      task.wheelNext = null;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.SystemFailure;
+import org.apache.geode.cache.RegionDestroyedException;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+
+/**
+ * Collects the entry expiration destroys done by the expiration thread during one tick of the
+ * {@link ExpirationTimingWheel} so that each {@link BucketRegion} can apply its share as a single
+ * bulk operation. See {@link BucketRegion#bulkExpireDestroy(List)}.
+ * <p>
+ * A batch is only open on the thread that is running the tick so tasks that run on the expiration
+ * thread pool, or on the plain timer, destroy their entry immediately as before.
+ *
+ * @since Geode 1.2
+ */
+class ExpiryBatch {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final ThreadLocal<ExpiryBatch> current = new ThreadLocal<ExpiryBatch>();
+
+  private final Map<BucketRegion, List<EntryExpiryTask>> destroys =
+      new IdentityHashMap<BucketRegion, List<EntryExpiryTask>>();
+
+  /**
+   * Opens a batch on the calling thread. It must be closed with {@link #flush()}.
+   */
+  static ExpiryBatch begin() {
+    ExpiryBatch batch = new ExpiryBatch();
+    current.set(batch);
+    return batch;
+  }
+
+  /**
+   * Returns the batch open on the calling thread, or null if there is none.
+   */
+  static ExpiryBatch getCurrent() {
+    return current.get();
+  }
+
+  /**
+   * Defers the destroy of the given task's entry until the batch is flushed.
+   */
+  void addDestroy(BucketRegion bucket, EntryExpiryTask task) {
+    List<EntryExpiryTask> tasks = this.destroys.get(bucket);
+    if (tasks == null) {
+      tasks = new ArrayList<EntryExpiryTask>();
+      this.destroys.put(bucket, tasks);
+    }
+    tasks.add(task);
+  }
+
+  /**
+   * Closes this batch and performs the deferred destroys, one bulk operation per bucket.
+   */
+  void flush() {
+    current.remove();
+    for (Map.Entry<BucketRegion, List<EntryExpiryTask>> entry : this.destroys.entrySet()) {
+      try {
+        entry.getKey().bulkExpireDestroy(entry.getValue());
+      } catch (RegionDestroyedException ignore) {
+        // Ignore - our job is done
+      } catch (CancelException ignore) {
+        // ignore
+      } catch (VirtualMachineError err) {
+        SystemFailure.initiateFailure(err);
+        // If this ever returns, rethrow the error. We're poisoned
+        // now, so don't let this thread continue.
+        throw err;
+      } catch (Throwable ex) {
+        SystemFailure.checkFailure();
+        logger.fatal(
+            LocalizedMessage.create(LocalizedStrings.ExpiryTask_EXCEPTION_IN_EXPIRATION_TASK), ex);
+      }
+    }
+    this.destroys.clear();
+  }
+}
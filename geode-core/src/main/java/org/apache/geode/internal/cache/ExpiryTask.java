@@ -45,6 +45,16 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
 
   private LocalRegion region; // no longer final so cancel can null it out see bug 37574
 
+  /**
+   * The bucket of the {@link ExpirationTimingWheel} this task is scheduled in, null if it has never
+   * been added to a wheel, or {@link ExpirationTimingWheel#DONE} once it has been fired or
+   * cancelled. The remaining wheel fields are guarded by the wheel.
+   */
+  volatile ExpirationTimingWheel.Bucket wheelBucket;
+  ExpiryTask wheelPrev;
+  ExpiryTask wheelNext;
+  long wheelDeadline;
+
   private static final ThreadPoolExecutor executor;
 
   static {
@@ -290,6 +300,9 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
   @Override
   public boolean cancel() {
     boolean superCancel = super.cancel();
+    if (ExpirationTimingWheel.cancel(this)) {
+      superCancel = true;
+    }
     LocalRegion lr = getLocalRegion();
     if (lr != null) {
       if (superCancel) {
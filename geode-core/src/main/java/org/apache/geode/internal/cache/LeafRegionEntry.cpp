@@ -23,7 +23,7 @@ package org.apache.geode.internal.cache;
 #define KEY_TYPE long
 #elif defined(KEY_UUID)
 #define KEY_TYPE UUID
-#elif defined(KEY_STRING1) || defined(KEY_STRING2)
+#elif defined(KEY_STRING1) || defined(KEY_STRING2) || defined(KEY_OFFHEAP_STRING)
 #define KEY_TYPE String
 #else
 #error the KEY_TYPE macro must be defined    
@@ -59,12 +59,18 @@ import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.cache.versions.VersionTag;
 #endif
 #ifdef OFFHEAP
+#ifdef KEY_OFFHEAP_STRING
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+#endif
 import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 #endif
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+#ifdef UNCHAINED
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap.PrimitiveKeyEntry;
+#endif
 
 // macros whose definition changes this class:
 // disk: DISK
@@ -79,12 +85,21 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
 // key uuid: KEY_UUID
 // key string1: KEY_STRING1
 // key string2: KEY_STRING2
+// key off-heap string: KEY_OFFHEAP_STRING (requires OFFHEAP)
+// unchained: UNCHAINED (requires KEY_INT or KEY_LONG)
 
 /**
  * Do not modify this class. It was generated. Instead modify LeafRegionEntry.cpp and then run
  * ./dev-tools/generateRegionEntryClasses.sh (it must be run from the top level directory).
  */
-public class LEAF_CLASS extends PARENT_CLASS {
+public class LEAF_CLASS extends PARENT_CLASS
+#ifdef KEY_OFFHEAP_STRING
+    implements OffHeapKeyRegionEntry
+#endif
+#ifdef UNCHAINED
+    implements PrimitiveKeyEntry
+#endif
+    {
   public LEAF_CLASS  (RegionEntryContext context, KEY_TYPE key, 
 #ifdef OFFHEAP
       @Retained
@@ -111,6 +126,9 @@ public class LEAF_CLASS extends PARENT_CLASS {
     this.key = key;
 #elif defined(KEY_LONG)
     this.key = key;
+#elif defined(KEY_OFFHEAP_STRING)
+    // the key is moved off-heap when this entry is added to the region's map
+    this.heapKey = key;
 #elif defined(KEY_UUID)
     this.keyMostSigBits = key.getMostSignificantBits();
     this.keyLeastSigBits = key.getLeastSignificantBits();
@@ -168,8 +186,10 @@ public class LEAF_CLASS extends PARENT_CLASS {
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
   
   // common code
+#ifndef UNCHAINED
   protected int hash;
   private HashEntry<Object, Object> next;
+#endif
   @SuppressWarnings("unused")
   private volatile long lastModified;
   private static final AtomicLongFieldUpdater<LEAF_CLASS> lastModifiedUpdater
@@ -264,22 +284,42 @@ public class LEAF_CLASS extends PARENT_CLASS {
    * @see HashEntry#getEntryHash()
    */
   public final int getEntryHash() {
+#ifdef UNCHAINED
+    // unchained entries do not store the hash since they are never in a hash chain
+#ifdef KEY_INT
+    return Integer.hashCode(this.key);
+#else
+    return Long.hashCode(this.key);
+#endif
+#else
     return this.hash;
+#endif
   }
   protected void setEntryHash(int v) {
+#ifndef UNCHAINED
     this.hash = v;
+#endif
   }
   /**
    * @see HashEntry#getNextEntry()
    */
   public final HashEntry<Object, Object> getNextEntry() {
+#ifdef UNCHAINED
+    return null;
+#else
     return this.next;
+#endif
   }
   /**
    * @see HashEntry#setNextEntry
    */
   public final void setNextEntry(final HashEntry<Object, Object> n) {
+#ifdef UNCHAINED
+    // only a CustomEntryConcurrentHashMap chains its entries, and it never holds unchained ones
+    throw new UnsupportedOperationException("unchained entries can not be chained");
+#else
     this.next = n;
+#endif
   }
 #ifdef DISK
 
@@ -477,6 +517,9 @@ public class LEAF_CLASS extends PARENT_CLASS {
 #ifdef KEY_OBJECT
     // default implementation.
     return getKey();
+#elif defined(KEY_OFFHEAP_STRING)
+    // off-heap keys report null for sizing since they do not use any heap beyond the entry
+    return null;
 #else
     // inline keys always report null for sizing since the size comes from the entry size
     return null;
@@ -679,6 +722,12 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#ifdef UNCHAINED
+  @Override
+  public final long getPrimitiveKey() {
+    return this.key;
+  }
+#endif
   
 #elif defined(KEY_LONG)
   private final long key;
@@ -693,6 +742,49 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#ifdef UNCHAINED
+  @Override
+  public final long getPrimitiveKey() {
+    return this.key;
+  }
+#endif
+  
+#elif defined(KEY_OFFHEAP_STRING)
+  /**
+   * The address of the off-heap copy of the key or 0 if the key is on the heap. All access done
+   * using keyAddrUpdater so it is used even though the compiler can not tell it is.
+   */
+  @SuppressWarnings("unused")
+  @Retained @Released private volatile long keyAddress;
+  private final static AtomicLongFieldUpdater<LEAF_CLASS> keyAddrUpdater = AtomicLongFieldUpdater.newUpdater(LEAF_CLASS.class, "keyAddress");
+  /**
+   * The key while it is not stored off-heap; null when keyAddress is set.
+   */
+  private volatile String heapKey;
+  @Override
+  public final Object getKey() {
+    return OffHeapKeyHelper.getKey(this);
+  }
+  @Override
+  public boolean isKeyEqual(Object k) {
+    return OffHeapKeyHelper.isKeyEqual(this, k);
+  }
+  @Override
+  public long getKeyAddress() {
+    return keyAddrUpdater.get(this);
+  }
+  @Override
+  public boolean setKeyAddress(long expectedAddr, long newAddr) {
+    return keyAddrUpdater.compareAndSet(this, expectedAddr, newAddr);
+  }
+  @Override
+  public String getHeapKey() {
+    return this.heapKey;
+  }
+  @Override
+  public void setHeapKey(String key) {
+    this.heapKey = key;
+  }
   
 #elif defined(KEY_UUID)
   private final long keyMostSigBits;
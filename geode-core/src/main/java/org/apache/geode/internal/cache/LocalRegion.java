@@ -100,6 +100,7 @@ import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.index.IndexCreationData;
 import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.cache.query.internal.index.IndexProtocol;
+import org.apache.geode.cache.query.internal.index.IndexSnapshot;
 import org.apache.geode.cache.query.internal.index.IndexUtils;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.cache.wan.GatewaySender;
@@ -173,6 +174,7 @@ import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.sequencelog.EntryLogger;
 import org.apache.geode.internal.util.concurrent.FutureResult;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
 import org.apache.geode.internal.util.concurrent.StoppableCountDownLatch;
 import org.apache.geode.internal.util.concurrent.StoppableReadWriteLock;
 import org.apache.geode.pdx.JSONFormatter;
@@ -658,6 +660,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       ma.loadFactor = this.loadFactor;
       ma.initialCapacity = this.initialCapacity;
       ma.concurrencyLevel = this.concurrencyLevel;
+      if (AbstractRegionMap.PRIMITIVE_KEY_REGION_MAPS) {
+        ma.primitiveKeyType = PrimitiveKeyConcurrentHashMap.getPrimitiveKeyType(this.keyConstraint);
+      }
       result = RegionMapFactory.createVM(this, ma, internalRegionArgs);
     }
     return result;
@@ -1173,6 +1178,10 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       if (re == null) {
         return null;
       }
+      if (this.diskRegion != null) {
+        this.diskRegion.recordAccess(re.getKey(), this.entries);
+      }
+      this.entries.lruEntryAccessed(re);
       final Object value;
       if (clientEvent != null && re.getVersionStamp() != null) {
         // defer the lruUpdateCallback to prevent a deadlock (see bug 51121).
@@ -2444,9 +2453,11 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     int initLevel = 0;
     DiskRegion dr = this.getDiskRegion();
     boolean isOverflowToDisk = false;
+    // indexes with a valid snapshot are loaded from it instead of from the recovered entries
+    final boolean useIndexSnapshots = recoverFromDisk && IndexSnapshot.isSupported(this);
     if (dr != null) {
       isOverflowToDisk = dr.isOverflowEnabled();
-      if (recoverFromDisk && !isOverflowToDisk) {
+      if (recoverFromDisk && !isOverflowToDisk && !useIndexSnapshots) {
         // Refer bug #44119
         // For disk regions, index creation should wait for async value creation to complete before
         // it starts its iteration
@@ -2488,7 +2499,8 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
             // load entries during initialization only for non overflow regions
             indexes.add(
                 qs.createIndex(icd.getIndexName(), icd.getIndexType(), icd.getIndexExpression(),
-                    fromClause, icd.getIndexImportString(), !isOverflowToDisk));
+                    fromClause, icd.getIndexImportString(),
+                    !isOverflowToDisk && !useIndexSnapshots));
           }
 
         } catch (Exception ex) {
@@ -2511,8 +2523,16 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       // Reset the initialization lock.
       LocalRegion.setThreadInitLevelRequirement(initLevel);
     }
-    // Load data into OQL indexes in case of disk recovery and disk overflow
-    if (isOverflowToDisk) {
+    if (useIndexSnapshots) {
+      indexes = loadIndexSnapshots(indexes);
+      if (!indexes.isEmpty()) {
+        if (!isOverflowToDisk) {
+          dr.waitForAsyncRecovery();
+        }
+        populateOQLIndexes(indexes);
+      }
+    } else if (isOverflowToDisk) {
+      // Load data into OQL indexes in case of disk recovery and disk overflow
       if (recoverFromDisk) {
         populateOQLIndexes(indexes);
       } else {
@@ -2528,6 +2548,42 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     getCachePerfStats().endIndexInitialization(start);
   }
 
+  /**
+   * Saves the indexes of this persistent region so they can be loaded instead of rebuilt when it
+   * is next recovered.
+   */
+  private void saveIndexSnapshots() {
+    if (!IndexSnapshot.isSupported(this)) {
+      return;
+    }
+    try {
+      // the snapshot is only valid for the region version vector of what is on disk
+      this.diskRegion.forceFlush();
+    } catch (CancelException | DiskAccessException e) {
+      return;
+    }
+    IndexSnapshot.save(this, this.indexManager.getIndexes());
+  }
+
+  /**
+   * Loads the given empty indexes from the snapshots saved when this region was last closed.
+   *
+   * @return the indexes that had no valid snapshot and still need to be populated
+   */
+  private Set<Index> loadIndexSnapshots(Set<Index> indexes) {
+    Set<Index> loaded = new HashSet<Index>();
+    Set<Index> notLoaded = new HashSet<Index>();
+    for (Index index : indexes) {
+      if (IndexSnapshot.load(this, index)) {
+        loaded.add(index);
+      } else {
+        notLoaded.add(index);
+      }
+    }
+    this.indexManager.setPopulateFlagForIndexes(loaded);
+    return notLoaded;
+  }
+
   /**
    * Populate the indexes with region entries
    */
@@ -2701,6 +2757,10 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       try {
         if (this.indexManager != null) {
           try {
+            if (event.getOperation() == Operation.REGION_CLOSE
+                || event.getOperation() == Operation.CACHE_CLOSE) {
+              saveIndexSnapshots();
+            }
             if (this instanceof BucketRegion) {
               this.indexManager.removeBucketIndexes(getPartitionedRegion());
             }
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+
+/**
+ * An {@link OffHeapRegionEntry} that also stores its String key off heap once it has been added to
+ * a region's map. The key stays on the heap until then and is copied back onto the heap when the
+ * entry is removed from the map. See {@link OffHeapKeyHelper}.
+ */
+public interface OffHeapKeyRegionEntry extends OffHeapRegionEntry {
+  /**
+   * OFF_HEAP_FIELD_READER
+   * 
+   * @return the address of the off-heap key or 0 if the key is on the heap
+   */
+  public long getKeyAddress();
+
+  /**
+   * OFF_HEAP_FIELD_WRITER
+   * 
+   * @param expectedAddr OFF_HEAP_ADDRESS
+   * @param newAddr OFF_HEAP_ADDRESS
+   * @return true if the key address was changed
+   */
+  public boolean setKeyAddress(long expectedAddr, long newAddr);
+
+  /**
+   * Returns the key if it is on the heap; null if it is currently stored off heap.
+   */
+  public String getHeapKey();
+
+  public void setHeapKey(String key);
+}
@@ -18,6 +18,7 @@ import org.apache.geode.CancelException;
 import org.apache.geode.DataSerializer;
 import org.apache.geode.SerializationException;
 import org.apache.geode.cache.*;
+import org.apache.geode.compression.Compressor;
 import org.apache.geode.distributed.OplogCancelledException;
 import org.apache.geode.distributed.internal.DM;
 import org.apache.geode.distributed.internal.DistributionConfig;
@@ -36,6 +37,7 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.offheap.AddressableMemoryManager;
 import org.apache.geode.internal.offheap.OffHeapHelper;
 import org.apache.geode.internal.offheap.ReferenceCountHelper;
 import org.apache.geode.internal.offheap.StoredObject;
@@ -58,7 +60,9 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
@@ -140,6 +144,28 @@ public final class Oplog implements CompactableOplog, Flushable {
   private static final boolean SYNC_WRITES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "syncWrites");
 
+  /**
+   * This system property makes concurrent synchronous writes share a flush (and a force if
+   * syncWrites is also set). Each writer appends its record under the oplog lock and then waits,
+   * without the lock, until a single thread has flushed the records of every waiting writer.
+   */
+  static final boolean GROUP_COMMIT =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Oplog.GROUP_COMMIT");
+
+  /**
+   * This system property makes values read from an oplog that is no longer being appended to be
+   * copied out of a read-only memory mapping of its crf instead of being read with a seek and read
+   * on the crf file. Not final so that tests can change it.
+   */
+  static boolean MAPPED_READS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Oplog.MAPPED_READS");
+
+  /**
+   * Null unless {@link #GROUP_COMMIT} is set.
+   */
+  private final OplogGroupCommitter groupCommitter =
+      GROUP_COMMIT ? new OplogGroupCommitter(this::flushAll) : null;
+
   /**
    * The HighWaterMark of recentValues.
    */
@@ -1467,6 +1493,16 @@ public final class Oplog implements CompactableOplog, Flushable {
    * Return bytes read.
    */
   long recoverDrf(OplogEntryIdSet deletedIds, boolean alreadyRecoveredOnce, boolean latestOplog) {
+    return recoverDrf(deletedIds, alreadyRecoveredOnce, latestOplog, null);
+  }
+
+  /**
+   * Return bytes read. If rvvRecords is not null the RVV records of the drf are added to it instead
+   * of being applied to the recovering regions, so that a caller reading several drfs at once can
+   * still apply them in oplog order.
+   */
+  long recoverDrf(OplogEntryIdSet deletedIds, boolean alreadyRecoveredOnce, boolean latestOplog,
+      List<Runnable> rvvRecords) {
     File drfFile = this.drf.f;
     if (drfFile == null) {
       this.haveRecoveredDrf = true;
@@ -1536,7 +1572,7 @@ public final class Oplog implements CompactableOplog, Flushable {
 
               case OPLOG_RVV:
                 long idx = dis.getCount();
-                readRVVRecord(dis, this.drf.f, true, latestOplog);
+                readRVVRecord(dis, this.drf.f, true, latestOplog, rvvRecords);
                 recordCount++;
                 break;
 
@@ -2136,6 +2172,15 @@ public final class Oplog implements CompactableOplog, Flushable {
 
   private void readRVVRecord(DataInput dis, File f, boolean gcRVV, boolean latestOplog)
       throws IOException {
+    readRVVRecord(dis, f, gcRVV, latestOplog, null);
+  }
+
+  /**
+   * Reads an RVV record. If deferred is not null the versions read are not recorded in the
+   * recovering regions right away; a task doing it is added to deferred instead.
+   */
+  private void readRVVRecord(DataInput dis, File f, boolean gcRVV, final boolean latestOplog,
+      List<Runnable> deferred) throws IOException {
     final boolean isPersistRecoveryDebugEnabled = logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY);
 
     long numRegions = InternalDataSerializer.readUnsignedVL(dis);
@@ -2162,8 +2207,13 @@ public final class Oplog implements CompactableOplog, Flushable {
 
           // if we have a recovery store, add the recovered regions
           if (drs != null) {
-            Object member = getParent().getDiskInitFile().getCanonicalObject((int) memberId);
-            drs.recordRecoveredGCVersion((VersionSource) member, gcVersion);
+            final DiskRecoveryStore store = drs;
+            final int canonicalId = (int) memberId;
+            final long version = gcVersion;
+            runOrDefer(() -> {
+              Object member = getParent().getDiskInitFile().getCanonicalObject(canonicalId);
+              store.recordRecoveredGCVersion((VersionSource) member, version);
+            }, deferred);
             if (isPersistRecoveryDebugEnabled) {
               logger.trace(LogMarker.PERSIST_RECOVERY,
                   "adding gcRVV entry drId={}, member={}, version={}", drId, memberId, gcVersion);
@@ -2180,7 +2230,8 @@ public final class Oplog implements CompactableOplog, Flushable {
         if (drs != null) {
           if (latestOplog) {
             // only set rvvtrust based on the newest oplog recovered
-            drs.setRVVTrusted(rvvTrusted);
+            final DiskRecoveryStore store = drs;
+            runOrDefer(() -> store.setRVVTrusted(rvvTrusted), deferred);
             if (isPersistRecoveryDebugEnabled) {
               logger.trace(LogMarker.PERSIST_RECOVERY, "marking RVV trusted drId={},tvvTrusted={}",
                   drId, rvvTrusted);
@@ -2195,8 +2246,13 @@ public final class Oplog implements CompactableOplog, Flushable {
           long memberId = InternalDataSerializer.readUnsignedVL(dis);
           RegionVersionHolder versionHolder = new RegionVersionHolder(dis);
           if (drs != null) {
-            Object member = getParent().getDiskInitFile().getCanonicalObject((int) memberId);
-            drs.recordRecoveredVersonHolder((VersionSource) member, versionHolder, latestOplog);
+            final DiskRecoveryStore store = drs;
+            final int canonicalId = (int) memberId;
+            runOrDefer(() -> {
+              Object member = getParent().getDiskInitFile().getCanonicalObject(canonicalId);
+              store.recordRecoveredVersonHolder((VersionSource) member, versionHolder,
+                  latestOplog);
+            }, deferred);
             if (isPersistRecoveryDebugEnabled) {
               logger.trace(LogMarker.PERSIST_RECOVERY,
                   "adding RVV entry drId={},member={},versionHolder={},latestOplog={},oplogId={}",
@@ -2215,6 +2271,14 @@ public final class Oplog implements CompactableOplog, Flushable {
     readEndOfRecord(dis);
   }
 
+  private static void runOrDefer(Runnable task, List<Runnable> deferred) {
+    if (deferred != null) {
+      deferred.add(task);
+    } else {
+      task.run();
+    }
+  }
+
   /**
    * Recovers one oplog
    * 
@@ -2327,6 +2391,10 @@ public final class Oplog implements CompactableOplog, Flushable {
     DiskEntry.RecoveredEntry re = null;
     if (recoverValue || EntryBits.isAnyInvalid(userBits) || EntryBits.isTombstone(userBits)) {
       Object value;
+      if (EntryBits.isCompressed(userBits) && EntryBits.isNeedsValue(userBits)) {
+        // the DiskId keeps the compressed length and bit since they describe the record on disk
+        valueBytes = decompressValue(valueBytes);
+      }
       if (EntryBits.isLocalInvalid(userBits)) {
         value = Token.LOCAL_INVALID;
         valueLength = 0;
@@ -3314,6 +3382,7 @@ public final class Oplog implements CompactableOplog, Flushable {
   private void basicClose(boolean forceDelete) {
     flushAll();
     synchronized (this.lock/* crf */) {
+      unmapFile(this.crf);
       unpreblow(this.crf, getMaxCrfSize());
       if (!this.crf.RAFClosed) {
         try {
@@ -3482,6 +3551,43 @@ public final class Oplog implements CompactableOplog, Flushable {
     return vw.getUserBits();
   }
 
+  /**
+   * Returns the value to write in place of the given one. If this disk store has a record
+   * compressor and the value is a heap byte array that compresses to fewer bytes then its
+   * compressed form is returned; otherwise the value itself is.
+   */
+  private ValueWrapper compressValue(ValueWrapper value) {
+    final Compressor compressor = getParent().getRecordCompressor();
+    if (compressor == null || !(value instanceof DiskEntry.Helper.ByteArrayValueWrapper)
+        || value instanceof DiskEntry.Helper.CompactorValueWrapper
+        || value.getLength() < DiskStoreImpl.RECORD_COMPRESSION_THRESHOLD
+        || !EntryBits.isNeedsValue(value.getUserBits())) {
+      return value;
+    }
+    long start = this.stats.startCompression();
+    byte[] compressed = compressor.compress(((DiskEntry.Helper.ByteArrayValueWrapper) value).bytes);
+    this.stats.endCompression(start, value.getLength(), compressed.length);
+    if (compressed.length >= value.getLength()) {
+      return value;
+    }
+    return new DiskEntry.Helper.CompressedValueWrapper(value.isSerialized(), compressed);
+  }
+
+  /**
+   * Returns the original bytes of a value record that was written with the COMPRESSED user bit.
+   */
+  private byte[] decompressValue(byte[] valueBytes) {
+    final Compressor compressor = getParent().getRecordCompressor();
+    if (compressor == null) {
+      throw new DiskAccessException("Oplog " + this.diskFile.getPath()
+          + " has compressed records but no record compressor is configured", getParent());
+    }
+    long start = this.stats.startDecompression();
+    byte[] result = compressor.decompress(valueBytes);
+    this.stats.endDecompression(start);
+    return result;
+  }
+
   /**
    * Returns true if the given entry has not yet been written to this oplog.
    */
@@ -3521,6 +3627,7 @@ public final class Oplog implements CompactableOplog, Flushable {
       try {
         // It is ok to do this outside of "lock" because
         // create records do not need to change.
+        value = compressValue(value);
         byte userBits = calcUserBits(value);
         // save versions for creates and updates even if value is bytearrary in
         // 7.0
@@ -3579,6 +3686,8 @@ public final class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    final boolean groupCommit = isGroupCommit(async);
+    long commitTicket = 0L;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicCreate KRF_DEBUG");
@@ -3645,7 +3754,10 @@ public final class Oplog implements CompactableOplog, Flushable {
         id.setOplogId(getOplogId());
         // do the io while holding lock so that switch can set doneAppending
         // Write the data to the opLog for the synch mode
-        startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+        startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+        if (groupCommit) {
+          commitTicket = this.groupCommitter.append();
+        }
         // if (this.crf.currSize != startPosForSynchOp) {
         // assert false;
         // }
@@ -3705,6 +3817,9 @@ public final class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(this != getOplogSet().getChild());
       getOplogSet().getChild().basicCreate(dr, entry, value, userBits, async);
     } else {
+      if (commitTicket != 0L) {
+        awaitGroupCommit(commitTicket);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -4446,6 +4561,7 @@ public final class Oplog implements CompactableOplog, Flushable {
       byte prevUsrBit = did.getUserBits();
       int len = did.getValueLength();
       try {
+        value = compressValue(value);
         byte userBits = calcUserBits(value);
         // save versions for creates and updates even if value is bytearrary in
         // 7.0
@@ -4483,7 +4599,8 @@ public final class Oplog implements CompactableOplog, Flushable {
   public void offlineModify(DiskRegionView drv, DiskEntry entry, byte[] value,
       boolean isSerializedObject) {
     try {
-      ValueWrapper vw = new DiskEntry.Helper.ByteArrayValueWrapper(isSerializedObject, value);
+      ValueWrapper vw =
+          compressValue(new DiskEntry.Helper.ByteArrayValueWrapper(isSerializedObject, value));
       byte userBits = calcUserBits(vw);
       // save versions for creates and updates even if value is bytearrary in 7.0
       VersionStamp vs = entry.getVersionStamp();
@@ -4617,6 +4734,8 @@ public final class Oplog implements CompactableOplog, Flushable {
     long startPosForSynchOp = -1L;
     int adjustment = 0;
     Oplog emptyOplog = null;
+    final boolean groupCommit = isGroupCommit(async);
+    long commitTicket = 0L;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicModify KRF_DEBUG");
@@ -4645,7 +4764,10 @@ public final class Oplog implements CompactableOplog, Flushable {
           long oldOplogId;
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+          if (groupCommit) {
+            commitTicket = this.groupCommitter.append();
+          }
           this.crf.currSize = temp;
           startPosForSynchOp += getOpStateValueOffset();
           if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
@@ -4720,6 +4842,10 @@ public final class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicModify(dr, entry, value, userBits, async, calledByCompactor);
     } else {
+      if (commitTicket != 0L) {
+        // the new value must be durable before an emptied oplog can be removed
+        awaitGroupCommit(commitTicket);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -5053,6 +5179,8 @@ public final class Oplog implements CompactableOplog, Flushable {
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
     Oplog emptyOplog = null;
+    final boolean groupCommit = isGroupCommit(async);
+    long commitTicket = 0L;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicRemove KRF_DEBUG");
@@ -5098,7 +5226,10 @@ public final class Oplog implements CompactableOplog, Flushable {
           // before we flush the crf.
           // However we can't have removes by async if we are doing a sync write
           // because we might be killed right after we do this write.
-          startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.drf, async, !groupCommit);
+          if (groupCommit) {
+            commitTicket = this.groupCommitter.append();
+          }
           setHasDeletes(true);
           if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
             logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5138,6 +5269,9 @@ public final class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicRemove(dr, entry, async, isClear);
     } else {
+      if (commitTicket != 0L) {
+        awaitGroupCommit(commitTicket);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -5181,6 +5315,21 @@ public final class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  private boolean isGroupCommit(boolean async) {
+    return !async && this.groupCommitter != null;
+  }
+
+  /**
+   * Waits, without holding the oplog lock, for a synchronous write appended with group commit to
+   * be flushed.
+   */
+  private void awaitGroupCommit(long commitTicket) throws InterruptedException {
+    long writes = this.groupCommitter.awaitCommit(commitTicket);
+    if (writes > 0) {
+      getStats().incGroupCommits(writes);
+    }
+  }
+
   private final void flushAndSync(OplogFile olf) throws IOException {
     flushAll(false); // @todo
     // flush(olf, true);
@@ -5372,6 +5521,75 @@ public final class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Returns the mapping of the crf if {@link #MAPPED_READS} is set, this oplog is no longer being
+   * appended to, and the given range is in the mapping. The crf is mapped the first time this is
+   * called after appending is done. Must be called while holding the oplog lock.
+   * 
+   * @return the mapping or null if the range must be read from the crf file
+   */
+  private MappedByteBuffer getMappedCrf(long position, int length) {
+    if (!MAPPED_READS || !this.doneAppending || this.closed) {
+      return null;
+    }
+    MappedByteBuffer result = this.crf.mappedBuf;
+    if (result == null) {
+      if (this.crf.mapFailed || this.crf.f == null) {
+        return null;
+      }
+      long size = this.crf.bytesFlushed;
+      if (size <= 0 || size > Integer.MAX_VALUE) {
+        this.crf.mapFailed = true;
+        return null;
+      }
+      try (RandomAccessFile raf = new RandomAccessFile(this.crf.f, "r")) {
+        // the mapping stays valid after the file is closed
+        result = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+        this.crf.mappedBuf = result;
+      } catch (IOException ex) {
+        // keep reading this oplog with seek and read
+        this.crf.mapFailed = true;
+        if (logger.isDebugEnabled()) {
+          logger.debug("Could not map {} so it will be read without a mapping", this.crf.f, ex);
+        }
+        return null;
+      }
+    }
+    if (position < 0 || position + length > result.capacity()) {
+      return null;
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if the crf of this oplog is memory mapped. Used by tests.
+   */
+  boolean isCrfMapped() {
+    synchronized (this.lock) {
+      return this.crf.mappedBuf != null;
+    }
+  }
+
+  private void readMapped(MappedByteBuffer mapped, long position, byte[] dst, int length) {
+    ByteBuffer view = mapped.duplicate();
+    view.position((int) position);
+    view.get(dst, 0, length);
+    this.stats.incOplogReads();
+  }
+
+  /**
+   * Unmaps the file now since its mapping would otherwise last until it is garbage collected and,
+   * on some platforms, keep the file from being deleted. Must be called while holding the oplog
+   * lock.
+   */
+  private void unmapFile(OplogFile olf) {
+    MappedByteBuffer mapped = olf.mappedBuf;
+    if (mapped != null) {
+      olf.mappedBuf = null;
+      AddressableMemoryManager.unmap(mapped);
+    }
+  }
+
   private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, boolean bitOnly,
       int valueLength, byte userBits) throws IOException {
     boolean didReopen = false;
@@ -5391,6 +5609,18 @@ public final class Oplog implements CompactableOplog, Flushable {
           flushAllNoSync(true); // fix for bug 41205
         }
         try {
+          MappedByteBuffer mapped = getMappedCrf(readPosition, valueLength);
+          if (mapped != null) {
+            byte[] valueBytes = new byte[valueLength];
+            readMapped(mapped, readPosition, valueBytes, valueLength);
+            BytesAndBits bb = new BytesAndBits(valueBytes, userBits);
+            // also set the product version for an older product
+            final Version version = getProductVersionIfOld();
+            if (version != null) {
+              bb.setVersion(version);
+            }
+            return bb;
+          }
           UninterruptibleRandomAccessFile myRAF = null;
           if (this.crf.RAFClosed) {
             myRAF = new UninterruptibleRandomAccessFile(this.crf.f, "r");
@@ -5500,6 +5730,12 @@ public final class Oplog implements CompactableOplog, Flushable {
           boolean interrupted = Thread.interrupted();
           try {
             bb = attemptGet(dr, offsetInOplog, bitOnly, valueLength, userBits);
+            if (EntryBits.isCompressed(userBits)) {
+              BytesAndBits compressed = bb;
+              bb = new BytesAndBits(decompressValue(compressed.getBytes()),
+                  EntryBits.setCompressed(userBits, false));
+              bb.setVersion(compressed.getVersion());
+            }
             break;
           } catch (InterruptedIOException e) { // bug 39756
             // ignore, we'll clear and retry.
@@ -5568,6 +5804,16 @@ public final class Oplog implements CompactableOplog, Flushable {
                */(readPosition + valueLength) > this.crf.bytesFlushed && !this.closed) {
             flushAllNoSync(true); // fix for bug 41205
           }
+          MappedByteBuffer mapped = getMappedCrf(readPosition, valueLength);
+          if (mapped != null) {
+            byte[] valueBytes = wrapper.getBytes();
+            if (valueBytes.length < valueLength) {
+              valueBytes = new byte[valueLength];
+            }
+            readMapped(mapped, readPosition, valueBytes, valueLength);
+            wrapper.setData(valueBytes, userBits, valueLength, true);
+            return true;
+          }
           if (!reopenFileIfClosed()) {
             return false; // fix for bug 40648
           }
@@ -5733,15 +5979,26 @@ public final class Oplog implements CompactableOplog, Flushable {
   }
 
   public void copyTo(File targetDir) throws IOException {
+    for (File file : getFilesToBackup()) {
+      FileUtil.copy(file, targetDir);
+    }
+  }
+
+  /**
+   * Returns the files of this oplog that a backup should contain.
+   */
+  List<File> getFilesToBackup() {
+    List<File> files = new ArrayList<File>(3);
     if (this.crf.f != null) { // fixes bug 43951
-      FileUtil.copy(this.crf.f, targetDir);
+      files.add(this.crf.f);
     }
-    FileUtil.copy(this.drf.f, targetDir);
+    files.add(this.drf.f);
 
     // this krf existence check fixes 45089
     if (getParent().getDiskInitFile().hasKrf(this.oplogId)) {
-      FileUtil.copy(this.getKrfFile(), targetDir);
+      files.add(this.getKrfFile());
     }
+    return files;
   }
 
   /**
@@ -5755,6 +6012,7 @@ public final class Oplog implements CompactableOplog, Flushable {
 
   private void deleteFile(final OplogFile olf) {
     synchronized (this.lock) {
+      unmapFile(olf);
       if (olf.currSize != 0) {
         this.dirHolder.decrementTotalOplogSize(olf.currSize);
         olf.currSize = 0;
@@ -5888,6 +6146,19 @@ public final class Oplog implements CompactableOplog, Flushable {
     return false;
   }
 
+  /**
+   * Returns the fraction, from 0 to 1, of the records in this oplog whose value is no longer the
+   * most recent value of their entry.
+   */
+  double getGarbageRatio() {
+    long total = this.totalCount.get();
+    if (total <= 0) {
+      return 1.0;
+    }
+    long live = Math.max(0L, this.totalLiveCount.get());
+    return Math.max(0.0, 1.0 - ((double) live / total));
+  }
+
   public boolean hadLiveEntries() {
     return this.totalCount.get() != 0;
   }
@@ -6078,7 +6349,8 @@ public final class Oplog implements CompactableOplog, Flushable {
           while ((de = dri.getNextLiveEntry()) != null) {
             if (/*
                  * getParent().getOwner().isDestroyed ||
-                 */!compactor.keepCompactorRunning()) {
+                 */!compactor.keepCompactorRunning() || compactor.isCompactionPaused()) {
+              // if paused the rest of this oplog is compacted by a later pass
               compactFailed = true;
               break;
             }
@@ -6114,6 +6386,7 @@ public final class Oplog implements CompactableOplog, Flushable {
                   getOplogSet().getChild().copyForwardModifyForCompact(dr, de, wrapper);
                   // the did's oplogId will now be set to the current active oplog
                   didCompact = true;
+                  compactor.compacted(wrapper.getValidLength());
                 }
               } // did
             } // de
@@ -6192,7 +6465,31 @@ public final class Oplog implements CompactableOplog, Flushable {
 
     List<KRFEntry> sortedLiveEntries;
 
-    HashMap<Long, DiskRegionInfo> targetRegions = new HashMap<Long, DiskRegionInfo>(this.regionMap);
+    HashMap<Long, DiskRegionInfo> targetRegions =
+        getValueRecoveryTargets(this.regionMap, diskRecoveryStores);
+    sortedLiveEntries = getSortedLiveEntries(targetRegions.values());
+    if (sortedLiveEntries == null) {
+      // There are no live entries in this oplog to recover.
+      return;
+    }
+
+    final ByteArrayDataInput in = new ByteArrayDataInput();
+    for (KRFEntry entry : sortedLiveEntries) {
+      // Early out if we start closing the parent.
+      if (getParent().isClosing()) {
+        return;
+      }
+      recoverValue(entry, diskRecoveryStores, in);
+    }
+  }
+
+  /**
+   * Removes the stores whose values should not be recovered from diskRecoveryStores and returns
+   * the regions of regionMap that are still to be recovered.
+   */
+  private HashMap<Long, DiskRegionInfo> getValueRecoveryTargets(
+      Map<Long, DiskRegionInfo> regionMap, Map<Long, DiskRecoveryStore> diskRecoveryStores) {
+    HashMap<Long, DiskRegionInfo> targetRegions = new HashMap<Long, DiskRegionInfo>(regionMap);
     synchronized (diskRecoveryStores) {
       Iterator<DiskRecoveryStore> itr = diskRecoveryStores.values().iterator();
       while (itr.hasNext()) {
@@ -6204,90 +6501,175 @@ public final class Oplog implements CompactableOplog, Flushable {
       // Get the a sorted list of live entries from the target regions
       targetRegions.keySet().retainAll(diskRecoveryStores.keySet());
     }
+    return targetRegions;
+  }
 
-    sortedLiveEntries = getSortedLiveEntries(targetRegions.values());
-    if (sortedLiveEntries == null) {
-      // There are no live entries in this oplog to recover.
-      return;
-    }
+  /**
+   * Recovers the value of a live entry of this oplog if the entry still refers to this oplog and
+   * its store can still take values.
+   */
+  private void recoverValue(KRFEntry entry, Map<Long, DiskRecoveryStore> diskRecoveryStores,
+      ByteArrayDataInput in) {
+    DiskEntry diskEntry = entry.getDiskEntry();
+    DiskRegionView diskRegionView = entry.getDiskRegionView();
+    long diskRegionId = diskRegionView.getId();
+
+    // TODO DAN ok, here's what we need to do
+    // 1) lock and obtain the correct RegionEntry that we are recovering too.
+    // this will likely mean obtaining the correct DiskRecoveryStore, since
+    // with
+    // that we can find the region entry I believe.
+    // 2) Make sure that the lru limit is not exceeded
+    // 3) Update the region entry with the value from disk, assuming the value
+    // from
+    // disk is still valid. That is going to be something like
 
-    final ByteArrayDataInput in = new ByteArrayDataInput();
-    for (KRFEntry entry : sortedLiveEntries) {
-      // Early out if we start closing the parent.
-      if (getParent().isClosing()) {
+    synchronized (diskRecoveryStores) {
+      DiskRecoveryStore diskRecoveryStore = diskRecoveryStores.get(diskRegionId);
+      if (diskRecoveryStore == null) {
         return;
       }
 
-      DiskEntry diskEntry = entry.getDiskEntry();
-      DiskRegionView diskRegionView = entry.getDiskRegionView();
-      long diskRegionId = diskRegionView.getId();
+      // Reset the disk region view because it may have changed
+      // due to the region being created.
+      diskRegionView = diskRecoveryStore.getDiskRegionView();
 
-      // TODO DAN ok, here's what we need to do
-      // 1) lock and obtain the correct RegionEntry that we are recovering too.
-      // this will likely mean obtaining the correct DiskRecoveryStore, since
-      // with
-      // that we can find the region entry I believe.
-      // 2) Make sure that the lru limit is not exceeded
-      // 3) Update the region entry with the value from disk, assuming the value
-      // from
-      // disk is still valid. That is going to be something like
+      if (diskRegionView == null) {
+        return;
+      }
+      if (diskRecoveryStore.lruLimitExceeded()) {
+        diskRecoveryStores.remove(diskRegionId);
+        return;
+      }
 
-      synchronized (diskRecoveryStores) {
-        DiskRecoveryStore diskRecoveryStore = diskRecoveryStores.get(diskRegionId);
-        if (diskRecoveryStore == null) {
-          continue;
+      if (diskRegionView.isEntriesMapIncompatible()) {
+        // Refetch the disk entry because it may have changed due to copying
+        // an incompatible region map
+        diskEntry = (DiskEntry) diskRecoveryStore.getRegionMap().getEntryInVM(diskEntry.getKey());
+        if (diskEntry == null) {
+          return;
         }
+      }
 
-        // Reset the disk region view because it may have changed
-        // due to the region being created.
-        diskRegionView = diskRecoveryStore.getDiskRegionView();
+      synchronized (diskEntry) {
+        // Make sure the entry hasn't been modified
+        if (diskEntry.getDiskId() != null && diskEntry.getDiskId().getOplogId() == oplogId) {
+          // dear lord, this goes through a lot of layers. Maybe we should
+          // skip some?
+          // * specifically, this could end up faulting in from a different
+          // oplog, causing
+          // us to seek.
+          // * Also, there may be lock ordering issues here, Really, I guess I
+          // want
+          // a flavor of faultInValue that only faults in from this oplog.
+          // * We could have some churn here, opening and closing this oplog
+          // * We also might not be buffering adjacent entries? Not sure about
+          // that one
 
-        if (diskRegionView == null) {
-          continue;
-        }
-        if (diskRecoveryStore.lruLimitExceeded()) {
-          diskRecoveryStores.remove(diskRegionId);
-          continue;
-        }
+          // * Ideally, this would fault the thing in only if it were in this
+          // oplog and the lru limit wasn't hit
+          // and it would return a status if the lru limit was hit to make us
+          // remove the store.
 
-        if (diskRegionView.isEntriesMapIncompatible()) {
-          // Refetch the disk entry because it may have changed due to copying
-          // an incompatible region map
-          diskEntry = (DiskEntry) diskRecoveryStore.getRegionMap().getEntryInVM(diskEntry.getKey());
-          if (diskEntry == null) {
-            continue;
+          try {
+            DiskEntry.Helper.recoverValue(diskEntry, getOplogId(), diskRecoveryStore, in);
+          } catch (RegionDestroyedException e) {
+            // This region has been destroyed, stop recovering from it.
+            diskRecoveryStores.remove(diskRegionId);
           }
         }
+      }
+    }
+  }
 
-        synchronized (diskEntry) {
-          // Make sure the entry hasn't been modified
-          if (diskEntry.getDiskId() != null && diskEntry.getDiskId().getOplogId() == oplogId) {
-            // dear lord, this goes through a lot of layers. Maybe we should
-            // skip some?
-            // * specifically, this could end up faulting in from a different
-            // oplog, causing
-            // us to seek.
-            // * Also, there may be lock ordering issues here, Really, I guess I
-            // want
-            // a flavor of faultInValue that only faults in from this oplog.
-            // * We could have some churn here, opening and closing this oplog
-            // * We also might not be buffering adjacent entries? Not sure about
-            // that one
-
-            // * Ideally, this would fault the thing in only if it were in this
-            // oplog and the lru limit wasn't hit
-            // and it would return a status if the lru limit was hit to make us
-            // remove the store.
-
-            try {
-              DiskEntry.Helper.recoverValue(diskEntry, getOplogId(), diskRecoveryStore, in);
-            } catch (RegionDestroyedException e) {
-              // This region has been destroyed, stop recovering from it.
-              diskRecoveryStores.remove(diskRegionId);
-            }
-          }
+  /**
+   * Called by the async value recovery task, before any other value recovery, to recover the
+   * values of the keys that were read the most before the disk store was last closed. The hottest
+   * values are recovered first, regardless of the oplog they are in. No more values are recovered
+   * than the heat tracker can rank, see {@link AccessHeatTracker#getRankableKeyCount(long)}.
+   * 
+   * @param limit the most values to recover
+   */
+  static void recoverHotValues(Collection<Oplog> oplogs,
+      Map<Long, DiskRecoveryStore> diskRecoveryStores, AccessHeatTracker heat, int limit) {
+    int rankable = 0;
+    synchronized (diskRecoveryStores) {
+      for (Long drId : diskRecoveryStores.keySet()) {
+        rankable += heat.getRankableKeyCount(drId);
+      }
+    }
+    limit = Math.min(limit, rankable);
+    if (oplogs.isEmpty() || limit <= 0) {
+      return;
+    }
+    final DiskStoreImpl parent = oplogs.iterator().next().getParent();
+    final DiskStoreStats stats = parent.getStats();
+    final long start = stats.startHotValueRecovery();
+    // a min heap of the hottest entries seen so far
+    PriorityQueue<HotEntry> hottest = new PriorityQueue<HotEntry>();
+    for (Oplog oplog : oplogs) {
+      if (parent.isClosing()) {
+        return;
+      }
+      HashMap<Long, DiskRegionInfo> targetRegions =
+          oplog.getValueRecoveryTargets(oplog.regionMap, diskRecoveryStores);
+      for (Iterator<Long> itr = targetRegions.keySet().iterator(); itr.hasNext();) {
+        if (!heat.hasHeat(itr.next())) {
+          itr.remove();
+        }
+      }
+      if (targetRegions.isEmpty()) {
+        continue;
+      }
+      List<KRFEntry> liveEntries = oplog.getSortedLiveEntries(targetRegions.values());
+      if (liveEntries == null) {
+        continue;
+      }
+      for (KRFEntry entry : liveEntries) {
+        int entryHeat =
+            heat.getHeat(entry.getDiskRegionView().getId(), entry.getDiskEntry().getKey());
+        if (entryHeat == 0) {
+          continue;
         }
+        if (hottest.size() < limit) {
+          hottest.add(new HotEntry(oplog, entry, entryHeat));
+        } else if (hottest.peek().heat < entryHeat) {
+          hottest.poll();
+          hottest.add(new HotEntry(oplog, entry, entryHeat));
+        }
+      }
+    }
+    HotEntry[] entries = hottest.toArray(new HotEntry[hottest.size()]);
+    Arrays.sort(entries, Collections.reverseOrder());
+    stats.setHotValueRecoveryTarget(entries.length);
+    final ByteArrayDataInput in = new ByteArrayDataInput();
+    for (HotEntry hotEntry : entries) {
+      // Early out if we start closing the parent.
+      if (parent.isClosing()) {
+        return;
       }
+      hotEntry.oplog.recoverValue(hotEntry.entry, diskRecoveryStores, in);
+      stats.incHotValuesRecovered();
+    }
+    stats.endHotValueRecovery(start);
+  }
+
+  /**
+   * A live entry of an oplog and how often its key was read, ordered by that heat.
+   */
+  private static class HotEntry implements Comparable<HotEntry> {
+    final Oplog oplog;
+    final KRFEntry entry;
+    final int heat;
+
+    HotEntry(Oplog oplog, KRFEntry entry, int heat) {
+      this.oplog = oplog;
+      this.entry = entry;
+      this.heat = heat;
+    }
+
+    public int compareTo(HotEntry other) {
+      return this.heat < other.heat ? -1 : (this.heat == other.heat ? 0 : 1);
     }
   }
 
@@ -6395,6 +6777,11 @@ public final class Oplog implements CompactableOplog, Flushable {
     public long currSize;
     public long bytesFlushed;
     public boolean unpreblown;
+    /**
+     * Read-only mapping of the file once it is no longer appended to. Guarded by the oplog lock.
+     */
+    public MappedByteBuffer mappedBuf;
+    public boolean mapFailed;
   }
 
   private static class KRFile {
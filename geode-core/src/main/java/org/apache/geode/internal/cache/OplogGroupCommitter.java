@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+/**
+ * Coordinates synchronous oplog writes so that concurrent writers share one flush and force.
+ * <p>
+ * A writer appends its record to the oplog write buffer while holding the oplog lock and calls
+ * {@link #append()} to get a ticket. Once it has released the oplog lock it calls
+ * {@link #awaitCommit(long)}. The first waiter becomes the leader: it flushes everything appended
+ * so far, which includes the records of writers that queued up behind it, and then releases every
+ * waiter whose ticket was covered by that flush. Writers that arrive while a flush is in progress
+ * wait for it to finish and one of them then leads the next batch.
+ * <p>
+ * The oplog lock may be held when calling {@link #append()} but must not be held when calling
+ * {@link #awaitCommit(long)}.
+ *
+ * @since Geode 1.2
+ */
+class OplogGroupCommitter {
+
+  /**
+   * Writes and forces everything that has been appended to the oplog write buffers.
+   */
+  private final Runnable flusher;
+
+  /**
+   * The ticket given to the last appended record.
+   */
+  private long appended;
+
+  /**
+   * Every record with a ticket less than or equal to this has been flushed.
+   */
+  private long committed;
+
+  /**
+   * True while a leader is flushing.
+   */
+  private boolean committing;
+
+  OplogGroupCommitter(Runnable flusher) {
+    this.flusher = flusher;
+  }
+
+  /**
+   * Must be called, with the oplog lock held, after a record has been added to the oplog write
+   * buffer.
+   *
+   * @return the ticket to pass to {@link #awaitCommit(long)}
+   */
+  synchronized long append() {
+    return ++this.appended;
+  }
+
+  /**
+   * Waits until the record with the given ticket has been flushed, flushing it and any other
+   * pending records if no other thread is doing so.
+   *
+   * @return the number of records this thread flushed or zero if another thread flushed them
+   */
+  long awaitCommit(long ticket) throws InterruptedException {
+    final long target;
+    final long previouslyCommitted;
+    synchronized (this) {
+      while (this.committing) {
+        if (this.committed >= ticket) {
+          return 0L;
+        }
+        wait();
+      }
+      if (this.committed >= ticket) {
+        return 0L;
+      }
+      this.committing = true;
+      // every ticket handed out so far belongs to a record that is already in the write buffers
+      target = this.appended;
+      previouslyCommitted = this.committed;
+    }
+    boolean flushed = false;
+    try {
+      this.flusher.run();
+      flushed = true;
+    } finally {
+      synchronized (this) {
+        if (flushed && target > this.committed) {
+          this.committed = target;
+        }
+        this.committing = false;
+        notifyAll();
+      }
+    }
+    return target - previouslyCommitted;
+  }
+
+  synchronized long getCommitted() {
+    return this.committed;
+  }
+}
@@ -28,6 +28,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -35,6 +39,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.cache.DiskAccessException;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.FileUtil;
 import org.apache.geode.internal.cache.DiskEntry.Helper.ValueWrapper;
 import org.apache.geode.internal.cache.DiskStoreImpl.OplogEntryIdSet;
@@ -45,6 +50,7 @@ import org.apache.geode.internal.cache.persistence.OplogType;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.sequencelog.EntryLogger;
@@ -52,6 +58,13 @@ import org.apache.geode.internal.sequencelog.EntryLogger;
 public class PersistentOplogSet implements OplogSet {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * The number of threads used to read the drf files of different oplogs concurrently during
+   * recovery. The default of 1 reads them one at a time. Not final so that tests can change it.
+   */
+  static int RECOVERY_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.RECOVERY_THREADS", 1);
+
   /** The active oplog * */
   protected volatile Oplog child;
 
@@ -444,17 +457,15 @@ public class PersistentOplogSet implements OplogSet {
     if (oplogSet.size() > 0) {
       long startOpLogRecovery = System.currentTimeMillis();
       // first figure out all entries that have been destroyed
-      boolean latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        byteCount += oplog.recoverDrf(deletedIds, this.alreadyRecoveredOnce.get(), latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
-        }
-      }
+      long startDrfRecovery = parent.getStats().startRecoveryPhase();
+      byteCount += recoverDrfs(oplogSet, deletedIds);
+      parent.getStats().endDrfRecovery(startDrfRecovery);
       parent.incDeadRecordCount(deletedIds.size());
       // now figure out live entries
-      latestOplog = true;
+      // This is done one oplog at a time, newest first, because whether a record is applied
+      // depends on what the newer oplogs have already put in the region maps.
+      long startCrfRecovery = parent.getStats().startRecoveryPhase();
+      boolean latestOplog = true;
       for (Oplog oplog : oplogSet) {
         long startOpLogRead = parent.getStats().startOplogRead();
         long bytesRead = oplog.recoverCrf(deletedIds,
@@ -474,12 +485,14 @@ public class PersistentOplogSet implements OplogSet {
           drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
         }
       }
+      parent.getStats().endCrfRecovery(startCrfRecovery);
       long endOpLogRecovery = System.currentTimeMillis();
       long elapsed = endOpLogRecovery - startOpLogRecovery;
       logger.info(LocalizedMessage.create(LocalizedStrings.DiskRegion_OPLOG_LOAD_TIME, elapsed));
     }
     if (!parent.isOfflineCompacting()) {
       long startRegionInit = System.currentTimeMillis();
+      long startRegionInitPhase = parent.getStats().startRecoveryPhase();
       // create the oplogs now so that loadRegionData can have them available
       // Create an array of Oplogs so that we are able to add it in a single shot
       // to the map
@@ -505,6 +518,8 @@ public class PersistentOplogSet implements OplogSet {
           // Right now, that's effectively what we're doing
           // because this uses up the compactor thread.
           parent.scheduleValueRecovery(oplogsNeedingValueRecovery, this.currentRecoveryMap);
+        } else if (!recoverValues() && parent.getAccessHeatTracker() != null) {
+          parent.scheduleHotValueRecovery(oplogSet, this.currentRecoveryMap);
         }
         if (!this.alreadyRecoveredOnce.get()) {
           // Create krfs for oplogs that are missing them
@@ -520,6 +535,102 @@ public class PersistentOplogSet implements OplogSet {
         logger.info(LocalizedMessage.create(LocalizedStrings.DiskRegion_REGION_INIT_TIME,
             endRegionInit - startRegionInit));
       }
+      parent.getStats().endRecoveredRegionInit(startRegionInitPhase);
+    }
+    return byteCount;
+  }
+
+  /**
+   * Reads the drf of every oplog in oplogSet, adding the ids of destroyed entries to deletedIds.
+   * If {@link #RECOVERY_THREADS} is greater than one the drfs are read concurrently, spreading the
+   * reads over the disk directories. Only the parsing is concurrent: the ids and the RVV records
+   * each drf held are kept per oplog and applied once the reads are done, newest oplog first as
+   * the sequential recovery does, since the recovered RVVs depend on that order.
+   * 
+   * @return the number of bytes read
+   */
+  private long recoverDrfs(TreeSet<Oplog> oplogSet, OplogEntryIdSet deletedIds) {
+    final boolean alreadyRecoveredOnce = this.alreadyRecoveredOnce.get();
+    final Oplog latest = oplogSet.first();
+    final int threads = Math.min(RECOVERY_THREADS, oplogSet.size());
+    long byteCount = 0;
+    if (threads <= 1) {
+      for (Oplog oplog : oplogSet) {
+        byteCount += oplog.recoverDrf(deletedIds, alreadyRecoveredOnce, oplog == latest);
+        if (!alreadyRecoveredOnce) {
+          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+        }
+      }
+      return byteCount;
+    }
+
+    // Submit the oplogs round robin by directory so the threads read from different disks.
+    Map<DirectoryHolder, List<Oplog>> oplogsByDir = new LinkedHashMap<>();
+    for (Oplog oplog : oplogSet) {
+      oplogsByDir.computeIfAbsent(oplog.getDirectoryHolder(), k -> new ArrayList<>()).add(oplog);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        GemfireCacheHelper.CreateThreadFactory(
+            LoggingThreadGroup.createThreadGroup("Oplog Recovery Thread Group", logger),
+            "Oplog Drf Recovery " + parent.getName()));
+    Map<Oplog, OplogEntryIdSet> idsByOplog = new HashMap<>();
+    Map<Oplog, List<Runnable>> rvvRecordsByOplog = new HashMap<>();
+    Map<Oplog, Future<Long>> futures = new HashMap<>();
+    try {
+      boolean submitted;
+      int i = 0;
+      do {
+        submitted = false;
+        for (List<Oplog> oplogs : oplogsByDir.values()) {
+          if (i < oplogs.size()) {
+            final Oplog oplog = oplogs.get(i);
+            final OplogEntryIdSet ids = new OplogEntryIdSet();
+            final List<Runnable> rvvRecords = new ArrayList<>();
+            idsByOplog.put(oplog, ids);
+            rvvRecordsByOplog.put(oplog, rvvRecords);
+            futures.put(oplog, executor.submit(
+                () -> oplog.recoverDrf(ids, alreadyRecoveredOnce, oplog == latest, rvvRecords)));
+            submitted = true;
+          }
+        }
+        i++;
+      } while (submitted);
+
+      RuntimeException failure = null;
+      for (Oplog oplog : oplogSet) {
+        try {
+          byteCount += futures.get(oplog).get();
+        } catch (ExecutionException ex) {
+          Throwable cause = ex.getCause();
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          if (failure == null) {
+            failure = cause instanceof RuntimeException ? (RuntimeException) cause
+                : new DiskAccessException(cause.getMessage(), cause, parent);
+          }
+          continue;
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          parent.getCancelCriterion().checkCancelInProgress(ex);
+          throw new DiskAccessException(
+              "Interrupted while recovering oplogs of disk store " + parent.getName(), ex, parent);
+        }
+        deletedIds.addAll(idsByOplog.get(oplog));
+        if (failure == null) {
+          for (Runnable rvvRecord : rvvRecordsByOplog.get(oplog)) {
+            rvvRecord.run();
+          }
+        }
+        if (!alreadyRecoveredOnce) {
+          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    } finally {
+      executor.shutdownNow();
     }
     return byteCount;
   }
@@ -1041,6 +1152,10 @@ public class PersistentOplogSet implements OplogSet {
    * @param max
    */
   public void getCompactableOplogs(List<CompactableOplog> l, int max) {
+    if (parent.getCompactionThrottle() != null) {
+      getCompactableOplogsByGarbage(l, max);
+      return;
+    }
     synchronized (this.oplogIdToOplog) {
       // Sort this list so we compact the oldest first instead of the one
       // that was
@@ -1061,6 +1176,37 @@ public class PersistentOplogSet implements OplogSet {
     }
   }
 
+  /**
+   * Adds the oplogs that need compaction with the most garbage first. Each throttled compaction
+   * pass copies a limited number of bytes, so it should be spent where it frees the most space.
+   * Also updates the compaction debt statistic.
+   */
+  private void getCompactableOplogsByGarbage(List<CompactableOplog> l, int max) {
+    List<Oplog> candidates = new ArrayList<Oplog>();
+    synchronized (this.oplogIdToOplog) {
+      for (Oplog oplog : this.oplogIdToOplog.values()) {
+        if (oplog.needsCompaction()) {
+          candidates.add(oplog);
+        }
+      }
+    }
+    final Map<Oplog, Double> garbageRatios = new HashMap<Oplog, Double>();
+    long debt = 0;
+    for (Oplog oplog : candidates) {
+      double garbageRatio = oplog.getGarbageRatio();
+      garbageRatios.put(oplog, garbageRatio);
+      debt += (long) (oplog.getOplogSize() * garbageRatio);
+    }
+    parent.getStats().setCompactionDebt(debt);
+    candidates.sort((o1, o2) -> Double.compare(garbageRatios.get(o2), garbageRatios.get(o1)));
+    for (Oplog oplog : candidates) {
+      if (l.size() >= max) {
+        break;
+      }
+      l.add(oplog);
+    }
+  }
+
   public void scheduleForRecovery(DiskRecoveryStore drs) {
     DiskRegionView dr = drs.getDiskRegionView();
     if (dr.isRecreated() && (dr.getMyPersistentID() != null || dr.getMyInitializingID() != null)) {
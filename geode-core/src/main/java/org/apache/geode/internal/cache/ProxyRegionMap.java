@@ -795,6 +795,10 @@ final class ProxyRegionMap implements RegionMap {
 
   }
 
+  public void lruEntryAccessed(RegionEntry entry) {
+    // do nothing.
+  }
+
   public void copyRecoveredEntries(RegionMap rm) {
     throw new IllegalStateException("copyRecoveredEntries should never be called on proxy");
   }
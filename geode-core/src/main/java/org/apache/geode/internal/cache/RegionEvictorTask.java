@@ -63,11 +63,20 @@ public class RegionEvictorTask implements Callable<Object> {
 
   private final long bytesToEvictPerTask;
 
+  /** true if this task evicts ahead of the eviction threshold being reached */
+  private final boolean evictAhead;
+
   public RegionEvictorTask(List<LocalRegion> regionSet, HeapEvictor evictor,
       long bytesToEvictPerTask) {
+    this(regionSet, evictor, bytesToEvictPerTask, false);
+  }
+
+  public RegionEvictorTask(List<LocalRegion> regionSet, HeapEvictor evictor,
+      long bytesToEvictPerTask, boolean evictAhead) {
     this.evictor = evictor;
     this.regionSet = regionSet;
     this.bytesToEvictPerTask = bytesToEvictPerTask;
+    this.evictAhead = evictAhead;
   }
 
 
@@ -103,12 +112,14 @@ public class RegionEvictorTask implements Callable<Object> {
           while (iter.hasNext()) {
             LocalRegion region = iter.next();
             try {
-              bytesEvicted = ((AbstractLRURegionMap) region.entries).centralizedLruUpdateCallback();
+              bytesEvicted = ((AbstractLRURegionMap) region.entries)
+                  .centralizedLruUpdateCallback(this.evictAhead);
               if (bytesEvicted == 0) {
                 iter.remove();
               }
               totalBytesEvicted += bytesEvicted;
-              if (totalBytesEvicted >= bytesToEvictPerTask || !getHeapEvictor().mustEvict()
+              if (totalBytesEvicted >= bytesToEvictPerTask
+                  || !(this.evictAhead || getHeapEvictor().mustEvict())
                   || this.regionSet.size() == 0) {
                 lastTaskCompletionTime = System.currentTimeMillis();
                 return null;
@@ -129,6 +140,9 @@ public class RegionEvictorTask implements Callable<Object> {
       }
     } finally {
       getGemFireCache().getCachePerfStats().incEvictorJobsCompleted();
+      if (this.evictAhead) {
+        getHeapEvictor().evictAheadTaskCompleted();
+      }
     }
   }
 
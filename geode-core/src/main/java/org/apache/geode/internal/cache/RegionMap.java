@@ -67,6 +67,12 @@ public interface RegionMap extends LRUMapCallbacks {
     /** whether "api" statistics are enabled */
     boolean statisticsEnabled = false;
 
+    /**
+     * The key class (Long or Integer) whose instances are stored unboxed by the map; null if keys
+     * are stored as objects.
+     */
+    Class<?> primitiveKeyType = null;
+
     /** whether LRU stats are required */
     // boolean lru = false;
   }
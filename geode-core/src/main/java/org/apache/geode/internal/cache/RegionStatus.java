@@ -61,7 +61,7 @@ public class RegionStatus implements Serializable {
     setNumberOfEntries(region.size());
 
     EvictionAttributes ea = region.getAttributes().getEvictionAttributes();
-    if (ea != null && ea.getAlgorithm().isLRUMemory()) {
+    if (ea != null && ea.getAlgorithm().isMemoryEviction()) {
       LocalRegion lr = (LocalRegion) region;
       LRUStatistics stats = ((AbstractLRURegionMap) lr.getRegionMap())._getLruList().stats();
       setHeapSize(stats.getCounter());
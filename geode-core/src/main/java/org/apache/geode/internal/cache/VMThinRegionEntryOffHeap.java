@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache;
 
 import java.util.UUID;
 
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+
 public abstract class VMThinRegionEntryOffHeap extends VMThinRegionEntry
     implements OffHeapRegionEntry {
 
@@ -53,6 +55,9 @@ public abstract class VMThinRegionEntryOffHeap extends VMThinRegionEntry
           return new VMThinRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.OFF_HEAP_REGION_KEYS && key.getClass() == String.class) {
+        return new VMThinRegionEntryOffHeapOffHeapStringKey(context, (String) key, value);
+      }
       return new VMThinRegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache;
 
 import java.util.UUID;
 
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+
 public abstract class VersionedStatsLRURegionEntryOffHeap extends VersionedStatsLRURegionEntry
     implements OffHeapRegionEntry {
   public VersionedStatsLRURegionEntryOffHeap(RegionEntryContext context, Object value) {
@@ -54,6 +56,10 @@ public abstract class VersionedStatsLRURegionEntryOffHeap extends VersionedStats
           return new VersionedStatsLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.OFF_HEAP_REGION_KEYS && key.getClass() == String.class) {
+        return new VersionedStatsLRURegionEntryOffHeapOffHeapStringKey(context, (String) key,
+            value);
+      }
       return new VersionedStatsLRURegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache;
 
 import java.util.UUID;
 
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+
 public abstract class VersionedThinDiskLRURegionEntryOffHeap extends VersionedThinDiskLRURegionEntry
     implements OffHeapRegionEntry {
   public VersionedThinDiskLRURegionEntryOffHeap(RegionEntryContext context, Object value) {
@@ -54,6 +56,10 @@ public abstract class VersionedThinDiskLRURegionEntryOffHeap extends VersionedTh
           return new VersionedThinDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.OFF_HEAP_REGION_KEYS && key.getClass() == String.class) {
+        return new VersionedThinDiskLRURegionEntryOffHeapOffHeapStringKey(context, (String) key,
+            value);
+      }
       return new VersionedThinDiskLRURegionEntryOffHeapObjectKey(context, key, value);
     }
 
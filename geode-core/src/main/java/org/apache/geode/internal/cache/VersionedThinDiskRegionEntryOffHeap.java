@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache;
 
 import java.util.UUID;
 
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+
 public abstract class VersionedThinDiskRegionEntryOffHeap extends VersionedThinDiskRegionEntry
     implements OffHeapRegionEntry {
   public VersionedThinDiskRegionEntryOffHeap(RegionEntryContext context, Object value) {
@@ -54,6 +56,10 @@ public abstract class VersionedThinDiskRegionEntryOffHeap extends VersionedThinD
           return new VersionedThinDiskRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.OFF_HEAP_REGION_KEYS && key.getClass() == String.class) {
+        return new VersionedThinDiskRegionEntryOffHeapOffHeapStringKey(context, (String) key,
+            value);
+      }
       return new VersionedThinDiskRegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -68,6 +68,10 @@ public class ResourceManagerStats {
   private static final int evictionThresholdId;
   private static final int offHeapEvictionThresholdId;
   private static final int tenuredHeapUsageId;
+  private static final int heapPromotionRateId;
+  private static final int heapLiveSetId;
+  private static final int heapEvictionForecastId;
+  private static final int predictiveEvictionTasksId;
   private static final int resourceEventsDeliveredId;
   private static final int resourceEventQueueSizeId;
   private static final int thresholdEventProcessorThreadJobsId;
@@ -177,6 +181,18 @@ public class ResourceManagerStats {
                 "The currently set off-heap eviction threshold value in bytes", "bytes"),
             f.createLongGauge("tenuredHeapUsed", "Total memory used in the tenured/old space",
                 "bytes"),
+            f.createLongGauge("heapPromotionRate",
+                "Estimated rate at which the tenured/old space grows between garbage collections",
+                "bytes/second"),
+            f.createLongGauge("heapLiveSet",
+                "Memory used in the tenured/old space after its most recent garbage collection",
+                "bytes"),
+            f.createLongGauge("heapEvictionForecast",
+                "Predicted time until tenured heap usage reaches the eviction threshold, or -1 if it is not growing",
+                "milliseconds"),
+            f.createIntCounter("predictiveEvictionTasks",
+                "Total number of heap eviction tasks started before the eviction threshold was reached",
+                "tasks"),
             f.createIntCounter("resourceEventsDelivered",
                 "Total number of resource events delivered to listeners", "events"),
             f.createIntGauge("resourceEventQueueSize",
@@ -222,6 +238,10 @@ public class ResourceManagerStats {
     evictionThresholdId = type.nameToId("evictionThreshold");
     offHeapEvictionThresholdId = type.nameToId("offHeapEvictionThreshold");
     tenuredHeapUsageId = type.nameToId("tenuredHeapUsed");
+    heapPromotionRateId = type.nameToId("heapPromotionRate");
+    heapLiveSetId = type.nameToId("heapLiveSet");
+    heapEvictionForecastId = type.nameToId("heapEvictionForecast");
+    predictiveEvictionTasksId = type.nameToId("predictiveEvictionTasks");
     resourceEventsDeliveredId = type.nameToId("resourceEventsDelivered");
     resourceEventQueueSizeId = type.nameToId("resourceEventQueueSize");
     thresholdEventProcessorThreadJobsId = type.nameToId("thresholdEventProcessorThreadJobs");
@@ -504,6 +524,38 @@ public class ResourceManagerStats {
     return this.stats.getLong(tenuredHeapUsageId);
   }
 
+  public void changeHeapPromotionRate(long newValue) {
+    this.stats.setLong(heapPromotionRateId, newValue);
+  }
+
+  public long getHeapPromotionRate() {
+    return this.stats.getLong(heapPromotionRateId);
+  }
+
+  public void changeHeapLiveSet(long newValue) {
+    this.stats.setLong(heapLiveSetId, newValue);
+  }
+
+  public long getHeapLiveSet() {
+    return this.stats.getLong(heapLiveSetId);
+  }
+
+  public void changeHeapEvictionForecast(long newValue) {
+    this.stats.setLong(heapEvictionForecastId, newValue);
+  }
+
+  public long getHeapEvictionForecast() {
+    return this.stats.getLong(heapEvictionForecastId);
+  }
+
+  public void incPredictiveEvictionTasks(int delta) {
+    this.stats.incInt(predictiveEvictionTasksId, delta);
+  }
+
+  public int getPredictiveEvictionTasks() {
+    return this.stats.getInt(predictiveEvictionTasksId);
+  }
+
   public void incResourceEventQueueSize(int delta) {
     this.stats.incInt(resourceEventQueueSizeId, delta);
   }
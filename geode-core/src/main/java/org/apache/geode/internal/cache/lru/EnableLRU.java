@@ -97,6 +97,13 @@ public interface EnableLRU {
    */
   public int getGreedyReturnsStatId();
 
+  /**
+   * Returns the id of the "listLockWaits" statistic for this LRU algorithm's statistics
+   *
+   * @return the id
+   */
+  public int getLockWaitsStatId();
+
   /**
    * Returns whether or not there is enough room to accommodate data of the given size based on the
    * given <code>LRUStatistics</code>.
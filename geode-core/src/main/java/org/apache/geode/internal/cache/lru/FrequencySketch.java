@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A compact count-min sketch of 4-bit counters that estimates how often a hash has been seen. Each
+ * long in the table holds sixteen counters; a hash is counted in four of them and its frequency is
+ * the smallest of the four. Once the number of increments reaches ten times the table size every
+ * counter is halved so that old popularity fades away.
+ * <p>
+ * Only {@link #increment(int)} may be called without synchronization. Counters are updated with
+ * compare-and-set, so concurrent increments and halvings never lose an update or carry into a
+ * neighbouring counter, and exactly one increment in each sample halves the table. An increment
+ * that races with {@link #ensureCapacity(int)} may land in the table being replaced and be lost,
+ * which only makes the estimates less exact.
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final int MAX_COUNT = 15;
+
+  private volatile AtomicLongArray table;
+
+  private volatile int sampleSize;
+
+  private final AtomicInteger additions = new AtomicInteger();
+
+  FrequencySketch(int expectedSize) {
+    ensureCapacity(expectedSize);
+  }
+
+  /**
+   * Grows the table so it can track at least the given number of distinct hashes. Growing discards
+   * the counts collected so far.
+   */
+  void ensureCapacity(int expectedSize) {
+    int length = 16;
+    while (length < expectedSize && length < (1 << 28)) {
+      length <<= 1;
+    }
+    if (this.table != null && this.table.length() >= length) {
+      return;
+    }
+    this.sampleSize = 10 * length;
+    this.additions.set(0);
+    this.table = new AtomicLongArray(length);
+  }
+
+  int capacity() {
+    return this.table.length();
+  }
+
+  /** Returns the estimated number of times the hash was seen, at most 15. */
+  int frequency(int hash) {
+    hash = spread(hash);
+    AtomicLongArray table = this.table;
+    int start = (hash & 3) << 2;
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(table, hash, i);
+      int count = (int) ((table.get(index) >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /** Increments the counters of the hash, halving all counters every sampleSize additions. */
+  void increment(int hash) {
+    hash = spread(hash);
+    AtomicLongArray table = this.table;
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(table, indexOf(table, hash, i), start + i);
+    }
+    // only the increment that reaches the sample size halves, so each sample is halved once
+    if (added && this.additions.incrementAndGet() == this.sampleSize) {
+      reset(table);
+    }
+  }
+
+  private static boolean incrementAt(AtomicLongArray table, int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    while (true) {
+      long value = table.get(index);
+      if ((value & mask) == mask) {
+        return false;
+      }
+      if (table.compareAndSet(index, value, value + (1L << offset))) {
+        return true;
+      }
+    }
+  }
+
+  private void reset(AtomicLongArray table) {
+    this.additions.addAndGet(-(this.sampleSize >>> 1));
+    for (int i = 0; i < table.length(); i++) {
+      while (true) {
+        long value = table.get(i);
+        if (table.compareAndSet(i, value, (value >>> 1) & RESET_MASK)) {
+          break;
+        }
+      }
+    }
+  }
+
+  /** Returns the sum of all counters. Used by tests. */
+  long totalCount() {
+    AtomicLongArray table = this.table;
+    long total = 0;
+    for (int i = 0; i < table.length(); i++) {
+      long value = table.get(i);
+      for (int counter = 0; counter < 16; counter++) {
+        total += (value >>> (counter << 2)) & 0xfL;
+      }
+    }
+    return total;
+  }
+
+  private static int indexOf(AtomicLongArray table, int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & (table.length() - 1);
+  }
+
+  /** applies a supplemental hash to defend against poor quality hash codes */
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.geode.internal.cache.control.InternalResourceManager;
 import org.apache.geode.internal.cache.control.InternalResourceManager.ResourceType;
 import org.apache.geode.internal.cache.control.MemoryEvent;
 import org.apache.geode.internal.cache.control.ResourceListener;
+import org.apache.geode.internal.cache.control.ResourceManagerStats;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingThreadGroup;
 import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
@@ -33,6 +34,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Triggers centralized eviction(asynchronously) when the ResourceManager sends an eviction event
@@ -96,9 +98,21 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
 
   private AtomicBoolean isRunning = new AtomicBoolean(true);
 
+  /** The number of evict ahead tasks that have not completed yet */
+  private final AtomicInteger evictAheadTasks = new AtomicInteger();
+
+  private PredictiveHeapEvictor predictiveEvictor = null;
+
   public HeapEvictor(Cache gemFireCache) {
     this.cache = gemFireCache;
     initializeEvictorThreadPool();
+    if (PredictiveHeapEvictor.ENABLED && !DISABLE_HEAP_EVICTIOR_THREAD_POOL
+        && getResourceType() == ResourceType.HEAP_MEMORY) {
+      InternalResourceManager irm = (InternalResourceManager) cache.getResourceManager();
+      this.predictiveEvictor =
+          new PredictiveHeapEvictor(this, irm.getHeapMonitor(), irm.getStats());
+      this.predictiveEvictor.start();
+    }
   }
 
   protected boolean includePartitionedRegion(PartitionedRegion region) {
@@ -221,24 +235,23 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     return -1;
   }
 
+  private static long getEntryCountForEviction(LocalRegion lr) {
+    if (lr instanceof BucketRegion) {
+      return ((BucketRegion) lr).getSizeForEviction();
+    } else {
+      return lr.getRegionMap().sizeInVM();
+    }
+  }
+
   private void createAndSubmitWeightedRegionEvictionTasks() {
     List<LocalRegion> allRegionList = getAllSortedRegionList();
     float numEntriesInVm = 0;
     for (LocalRegion lr : allRegionList) {
-      if (lr instanceof BucketRegion) {
-        numEntriesInVm = numEntriesInVm + ((BucketRegion) lr).getSizeForEviction();
-      } else {
-        numEntriesInVm = numEntriesInVm + lr.getRegionMap().sizeInVM();
-      }
+      numEntriesInVm = numEntriesInVm + getEntryCountForEviction(lr);
     }
     for (LocalRegion lr : allRegionList) {
       List<LocalRegion> regionsForSingleTask = new ArrayList<LocalRegion>(1);
-      float regionEntryCnt = 0;
-      if (lr instanceof BucketRegion) {
-        regionEntryCnt = ((BucketRegion) lr).getSizeForEviction();
-      } else {
-        regionEntryCnt = lr.getRegionMap().sizeInVM();
-      }
+      float regionEntryCnt = getEntryCountForEviction(lr);
       float percentage = (regionEntryCnt / numEntriesInVm);
       long bytesToEvictPerTask = (long) (getTotalBytesToEvict() * percentage);
       regionsForSingleTask.add(lr);
@@ -431,6 +444,50 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     }
   }
 
+  /**
+   * Evicts about the given number of bytes from the regions, weighted by their number of entries,
+   * although heap usage has not reached the eviction threshold yet. Does nothing while regular
+   * eviction is running or the previous evict ahead tasks are still working.
+   */
+  public void evictAhead(long bytesToEvict) {
+    if (DISABLE_HEAP_EVICTIOR_THREAD_POOL || !this.isRunning.get() || mustEvict()
+        || this.evictAheadTasks.get() > 0) {
+      return;
+    }
+    List<LocalRegion> allRegionList = getAllRegionList();
+    float numEntriesInVm = 0;
+    for (LocalRegion lr : allRegionList) {
+      numEntriesInVm = numEntriesInVm + getEntryCountForEviction(lr);
+    }
+    if (numEntriesInVm == 0) {
+      return;
+    }
+    ResourceManagerStats stats =
+        ((InternalResourceManager) cache.getResourceManager()).getStats();
+    for (LocalRegion lr : allRegionList) {
+      float percentage = getEntryCountForEviction(lr) / numEntriesInVm;
+      long bytesToEvictPerTask = (long) (bytesToEvict * percentage);
+      if (bytesToEvictPerTask > 0) {
+        List<LocalRegion> regionsForSingleTask = new ArrayList<LocalRegion>(1);
+        regionsForSingleTask.add(lr);
+        this.evictAheadTasks.incrementAndGet();
+        stats.incPredictiveEvictionTasks(1);
+        try {
+          submitRegionEvictionTask(
+              new RegionEvictorTask(regionsForSingleTask, this, bytesToEvictPerTask, true));
+        } catch (RejectedExecutionException e) {
+          this.evictAheadTasks.decrementAndGet();
+          return;
+        }
+      }
+    }
+  }
+
+  /** Called by each evict ahead {@link RegionEvictorTask} when it completes. */
+  public void evictAheadTaskCompleted() {
+    this.evictAheadTasks.decrementAndGet();
+  }
+
   protected int getEvictionLoopDelayTime() {
     int delayTime = 850; // The waiting period when running fast loops
     if ((numEvictionLoopsCompleted - numFastLoops) > 2) {
@@ -447,6 +504,9 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
   }
 
   public void close() {
+    if (this.predictiveEvictor != null) {
+      this.predictiveEvictor.stop();
+    }
     getEvictorThreadPool().shutdownNow();
     isRunning.set(false);
   }
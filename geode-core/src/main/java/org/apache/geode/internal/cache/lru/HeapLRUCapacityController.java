@@ -88,6 +88,8 @@ public class HeapLRUCapacityController extends LRUAlgorithm {
         "Maximum number of entry destroys triggered by LRU before scan occurs.";
     final String lruEvaluationsDesc = "Number of entries evaluated during LRU operations.";
     final String lruGreedyReturnsDesc = "Number of non-LRU entries evicted during LRU operations";
+    final String lruListLockWaitsDesc =
+        "Number of times an LRU list operation had to wait for a lock held by another thread.";
 
     statType = f.createType("HeapLRUStatistics",
         "Statistics about byte based Least Recently Used region entry disposal",
@@ -96,7 +98,8 @@ public class HeapLRUCapacityController extends LRUAlgorithm {
             f.createLongCounter("lruDestroys", lruDestroysDesc, "entries"),
             f.createLongGauge("lruDestroysLimit", lruDestroysLimitDesc, "entries"),
             f.createLongCounter("lruEvaluations", lruEvaluationsDesc, "entries"),
-            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),});
+            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),
+            f.createLongCounter("lruListLockWaits", lruListLockWaitsDesc, "operations"),});
   }
 
   // //////////////////// Instance Fields /////////////////////
@@ -259,6 +262,10 @@ public class HeapLRUCapacityController extends LRUAlgorithm {
         return statType.nameToId("lruGreedyReturns");
       }
 
+      public int getLockWaitsStatId() {
+        return statType.nameToId("lruListLockWaits");
+      }
+
       /**
        * Okay, deep breath. Instead of basing the LRU calculation on the number of entries in the
        * region or on their "size" (which turned out to be incorrectly estimated in the general
@@ -63,4 +63,9 @@ public interface LRUMapCallbacks {
    * Called when an entry is faulted in from disk.
    */
   public void lruEntryFaultIn(LRUEntry entry);
+
+  /**
+   * Called each time the value of an entry is read.
+   */
+  public void lruEntryAccessed(RegionEntry entry);
 }
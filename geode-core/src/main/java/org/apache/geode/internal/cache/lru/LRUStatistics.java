@@ -44,6 +44,8 @@ public class LRUStatistics {
   protected int destroysId;
   protected int evaluationsId;
   protected int greedyReturnsId;
+  /** times an LRU list operation waited for a lock held by another thread */
+  protected int lockWaitsId;
 
   // Note: the following atomics have been added so that the LRU code
   // does not depend on the value of a statistic for its operations.
@@ -74,6 +76,7 @@ public class LRUStatistics {
     destroysId = helper.getDestroysStatId();
     this.evaluationsId = helper.getEvaluationsStatId();
     this.greedyReturnsId = helper.getGreedyReturnsStatId();
+    this.lockWaitsId = helper.getLockWaitsStatId();
   }
 
   public LRUStatistics(StatisticsFactory factory, String name, StatisticsType statisticsType) {
@@ -85,6 +88,7 @@ public class LRUStatistics {
     destroysId = 0;
     this.evaluationsId = 0;
     this.greedyReturnsId = 0;
+    this.lockWaitsId = 0;
   }
 
   public void close() {
@@ -193,6 +197,10 @@ public class LRUStatistics {
     stats.incLong(greedyReturnsId, numEvals);
   }
 
+  public void incLockWaits() {
+    stats.incLong(lockWaitsId, 1);
+  }
+
 
   public Statistics getStats() {
     return this.stats;
@@ -114,6 +114,8 @@ public final class MemLRUCapacityController extends LRUAlgorithm implements Decl
         "Maximum number of entry destroys triggered by LRU before scan occurs.";
     final String lruEvaluationsDesc = "Number of entries evaluated during LRU operations.";
     final String lruGreedyReturnsDesc = "Number of non-LRU entries evicted during LRU operations";
+    final String lruListLockWaitsDesc =
+        "Number of times an LRU list operation had to wait for a lock held by another thread.";
 
     statType = f.createType("MemLRUStatistics",
         "Statistics about byte based Least Recently Used region entry disposal",
@@ -123,7 +125,8 @@ public final class MemLRUCapacityController extends LRUAlgorithm implements Decl
             f.createLongCounter("lruDestroys", lruDestroysDesc, "entries"),
             f.createLongGauge("lruDestroysLimit", lruDestroysLimitDesc, "entries"),
             f.createLongCounter("lruEvaluations", lruEvaluationsDesc, "entries"),
-            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),});
+            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),
+            f.createLongCounter("lruListLockWaits", lruListLockWaitsDesc, "operations"),});
   }
 
   //////////////////// Instance Fields ////////////////////
@@ -418,6 +421,10 @@ public final class MemLRUCapacityController extends LRUAlgorithm implements Decl
         return statType.nameToId("lruGreedyReturns");
       }
 
+      public int getLockWaitsStatId() {
+        return statType.nameToId("lruListLockWaits");
+      }
+
       public boolean mustEvict(LRUStatistics stats, Region region, int delta) {
         return stats.getCounter() + delta > stats.getLimit();
       }
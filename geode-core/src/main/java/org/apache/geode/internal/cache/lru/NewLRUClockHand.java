@@ -136,12 +136,20 @@ public class NewLRUClockHand {
     }
   }
 
+  /**
+   * Called, without holding any lock, each time the value of an entry in the list is read. The
+   * clock only relies on the entry's recently used bit, which the read already set.
+   */
+  public void recordAccess(LRUClockNode aNode) {
+    // nothing needed
+  }
+
   /**
    * Adds a new lru node for the entry between the current tail and head of the list.
    *
    * @param aNode Description of the Parameter
    */
-  public final void appendEntry(final LRUClockNode aNode) {
+  public void appendEntry(final LRUClockNode aNode) {
     synchronized (this.lock) {
       if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
         return;
@@ -164,7 +172,7 @@ public class NewLRUClockHand {
    * return the head entry in the list preserving the cupipe requirement of at least one entry left
    * in the list
    */
-  private LRUClockNode getHeadEntry() {
+  protected LRUClockNode getHeadEntry() {
     synchronized (lock) {
       LRUClockNode aNode = NewLRUClockHand.this.head.nextLRUNode();
       if (aNode == this.tail) {
@@ -318,6 +326,15 @@ public class NewLRUClockHand {
     }
     entry.setEvicted();
     stats().incDestroys();
+    return removeFromList(entry);
+  }
+
+  /**
+   * Removes the entry from the list.
+   *
+   * @return false if the entry was not in the list
+   */
+  protected boolean removeFromList(LRUClockNode entry) {
     synchronized (lock) {
       LRUClockNode next = entry.nextLRUNode();
       LRUClockNode prev = entry.prevLRUNode();
@@ -352,12 +369,7 @@ public class NewLRUClockHand {
       return; // when concurrency checks are enabled the clear operation removes entries iteratively
     }
     synchronized (this.lock) {
-      if (bucketRegion != null) {
-        this.stats.decrementCounter(bucketRegion.getCounter());
-        bucketRegion.resetCounter();
-      } else {
-        this.stats.resetCounter();
-      }
+      resetCounter();
       initHeadAndTail();
       // LRUClockNode node = this.tail;
       // node.setEvicted();
@@ -369,6 +381,16 @@ public class NewLRUClockHand {
     }
   }
 
+  /** resets the counter of the stats, or of the bucket if this list belongs to one */
+  protected final void resetCounter() {
+    if (bucketRegion != null) {
+      this.stats.decrementCounter(bucketRegion.getCounter());
+      bucketRegion.resetCounter();
+    } else {
+      this.stats.resetCounter();
+    }
+  }
+
   private void initHeadAndTail() {
     // I'm not sure, but I think it's important that we
     // drop the references to the old head and tail on a region clear
@@ -408,7 +430,7 @@ public class NewLRUClockHand {
   protected static class HeadLock extends Object {
   }
 
-  private static final class GuardNode implements LRUClockNode {
+  static final class GuardNode implements LRUClockNode {
 
     private LRUClockNode next;
     LRUClockNode prev;
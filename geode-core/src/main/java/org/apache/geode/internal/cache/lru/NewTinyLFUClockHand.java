@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.AbstractRegionEntry;
+import org.apache.geode.internal.cache.InternalRegionArguments;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * NewTinyLFUClockHand holds the behavior for the TinyLFU algorithms. New entries are appended to a
+ * small admission window instead of the main clock. Once the region has reached its limit, an
+ * entry leaving a full window only moves into the main clock if a {@link FrequencySketch} says it
+ * has been used more often than the entry the main clock would give up next; otherwise it is the
+ * one returned for eviction. Entries read once by a scan therefore do not push the working set out.
+ * <p>
+ * Frequencies are sampled when an entry is appended (created or faulted in) and each time its value
+ * is read. They are keyed by the entry's key hash so they survive eviction.
+ *
+ * @since Geode 1.2
+ */
+public class NewTinyLFUClockHand extends NewLRUClockHand {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The percentage of the list kept in the admission window */
+  static final int WINDOW_PERCENT =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "lru.tinyLFUWindowPercent", 1);
+
+  /** The first node of the admission window */
+  private LRUClockNode windowHead;
+
+  /** The last node of the admission window after which all new nodes are added */
+  private LRUClockNode windowTail;
+
+  /** The nodes currently in the window so that unlinks can keep its size */
+  private final Set<LRUClockNode> window =
+      Collections.newSetFromMap(new IdentityHashMap<LRUClockNode, Boolean>());
+
+  private final FrequencySketch sketch = new FrequencySketch(1024);
+
+  public NewTinyLFUClockHand(Object region, EnableLRU ccHelper,
+      InternalRegionArguments internalRegionArgs) {
+    super(region, ccHelper, internalRegionArgs);
+    initWindow();
+  }
+
+  public NewTinyLFUClockHand(Region region, EnableLRU ccHelper, NewLRUClockHand oldList) {
+    super(region, ccHelper, oldList);
+    initWindow();
+  }
+
+  private void initWindow() {
+    this.windowHead = new GuardNode();
+    this.windowTail = new GuardNode();
+    this.windowHead.setNextLRUNode(this.windowTail);
+    this.windowTail.setPrevLRUNode(this.windowHead);
+    this.window.clear();
+  }
+
+  private int getMaxWindowSize() {
+    return Math.max(1, (int) ((long) this.size * WINDOW_PERCENT / 100));
+  }
+
+  private static int hashOf(LRUClockNode aNode) {
+    if (aNode instanceof RegionEntry) {
+      Object key = ((RegionEntry) aNode).getKey();
+      if (key != null) {
+        return key.hashCode();
+      }
+    }
+    return System.identityHashCode(aNode);
+  }
+
+  /**
+   * Counts the read in the frequency sketch. The sketch is not locked so that reads do not contend
+   * on the list; a read that races with another may go uncounted.
+   */
+  @Override
+  public void recordAccess(LRUClockNode aNode) {
+    this.sketch.increment(hashOf(aNode));
+  }
+
+  /** links the node in front of the given guard; caller must hold the lock */
+  private static void linkBefore(LRUClockNode aNode, LRUClockNode guard) {
+    aNode.setNextLRUNode(guard);
+    guard.prevLRUNode().setNextLRUNode(aNode);
+    aNode.setPrevLRUNode(guard.prevLRUNode());
+    guard.setPrevLRUNode(aNode);
+  }
+
+  /**
+   * Adds a new node to the end of the admission window.
+   */
+  @Override
+  public void appendEntry(final LRUClockNode aNode) {
+    if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
+      return;
+    }
+    int hash = hashOf(aNode);
+    synchronized (this.lock) {
+      if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
+        return;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+            .create(LocalizedStrings.NewLRUClockHand_ADDING_ANODE_TO_LRU_LIST, aNode));
+      }
+      this.sketch.increment(hash);
+      linkBefore(aNode, this.windowTail);
+      this.window.add(aNode);
+      this.size++;
+      if (this.size > this.sketch.capacity()) {
+        this.sketch.ensureCapacity(this.size);
+      }
+      // while the region is below its limit nothing is evicted, so entries move through the
+      // window into the main clock without having to win a contest
+      if (this.window.size() > getMaxWindowSize()
+          && stats().getCounter() < stats().getLimit()) {
+        appendToMain(getWindowHeadEntry());
+      }
+    }
+  }
+
+  /** adds the node to the end of the main clock; caller must hold the lock */
+  private void appendToMain(LRUClockNode aNode) {
+    if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
+      return;
+    }
+    linkBefore(aNode, this.tail);
+    this.size++;
+  }
+
+  /** removes and returns the oldest node of the window; caller must hold the lock */
+  private LRUClockNode getWindowHeadEntry() {
+    LRUClockNode aNode = this.windowHead.nextLRUNode();
+    if (aNode == this.windowTail) {
+      return null;
+    }
+
+    LRUClockNode next = aNode.nextLRUNode();
+    this.windowHead.setNextLRUNode(next);
+    next.setPrevLRUNode(this.windowHead);
+
+    aNode.setNextLRUNode(null);
+    aNode.setPrevLRUNode(null);
+    this.window.remove(aNode);
+    this.size--;
+    return aNode;
+  }
+
+  /**
+   * Moves the candidate leaving the window into the main clock if it has been used more often than
+   * the next entry the main clock would give up.
+   *
+   * @return true if the candidate was admitted; false if it should be evicted
+   */
+  private boolean admit(LRUClockNode candidate, int candidateHash) {
+    LRUClockNode victim;
+    synchronized (this.lock) {
+      victim = this.head.nextLRUNode();
+    }
+    boolean mainIsEmpty = victim == this.tail;
+    int victimHash = mainIsEmpty ? 0 : hashOf(victim);
+    synchronized (this.lock) {
+      if (!mainIsEmpty
+          && this.sketch.frequency(candidateHash) <= this.sketch.frequency(victimHash)) {
+        return false;
+      }
+      appendToMain(candidate);
+      return true;
+    }
+  }
+
+  /**
+   * return the Entry that should be evicted: either the entry leaving a full admission window or
+   * the least recently used entry of the main clock. The entry will no longer be in the list.
+   */
+  @Override
+  public LRUClockNode getLRUEntry() {
+    long numEvals = 0;
+
+    for (;;) {
+      LRUClockNode aNode;
+      boolean windowIsFull;
+      synchronized (this.lock) {
+        windowIsFull = this.window.size() > getMaxWindowSize();
+        if (windowIsFull || this.head.nextLRUNode() == this.tail) {
+          aNode = getWindowHeadEntry();
+        } else {
+          aNode = getHeadEntry();
+        }
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, "lru considering {}", aNode);
+      }
+
+      if (aNode == null) { // hit the end of the list
+        stats().incEvaluations(numEvals);
+        return aNode;
+      } // hit the end of the list
+
+      numEvals++;
+
+      // If this Entry is part of a transaction, skip it since
+      // eviction should not cause commit conflicts
+      synchronized (aNode) {
+        if (aNode instanceof AbstractRegionEntry) {
+          if (((AbstractRegionEntry) aNode).isInUseByTransaction()) {
+            if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+              logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage.create(
+                  LocalizedStrings.NewLRUClockHand_REMOVING_TRANSACTIONAL_ENTRY_FROM_CONSIDERATION));
+            }
+            continue;
+          }
+        }
+        if (aNode.testEvicted()) {
+          if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+            logger.trace(LogMarker.LRU_CLOCK,
+                LocalizedMessage.create(LocalizedStrings.NewLRUClockHand_DISCARDING_EVICTED_ENTRY));
+          }
+          continue;
+        }
+
+        int hash = hashOf(aNode);
+        if (aNode.testRecentlyUsed()) {
+          aNode.unsetRecentlyUsed();
+          synchronized (this.lock) {
+            if (!windowIsFull) {
+              // Throw it back, it's in the working set
+              if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+                logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+                    .create(LocalizedStrings.NewLRUClockHand_SKIPPING_RECENTLY_USED_ENTRY, aNode));
+              }
+              appendToMain(aNode);
+              continue; // keep looking
+            }
+          }
+        }
+        if (windowIsFull && admit(aNode, hash)) {
+          continue; // keep looking
+        }
+
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+          logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+              .create(LocalizedStrings.NewLRUClockHand_RETURNING_UNUSED_ENTRY, aNode));
+        }
+        stats().incEvaluations(numEvals);
+        return aNode;
+      } // synchronized
+    } // for
+  }
+
+  @Override
+  protected boolean removeFromList(LRUClockNode entry) {
+    synchronized (this.lock) {
+      if (!super.removeFromList(entry)) {
+        return false;
+      }
+      this.window.remove(entry);
+    }
+    return true;
+  }
+
+  @Override
+  public void dumpList() {
+    super.dumpList();
+    if (!logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      return;
+    }
+    synchronized (this.lock) {
+      int idx = 1;
+      for (LRUClockNode aNode = this.windowHead; aNode != null; aNode = aNode.nextLRUNode()) {
+        logger.trace(LogMarker.LRU_CLOCK, "  window ({}) {}", (idx++), aNode);
+      }
+    }
+  }
+
+  @Override
+  public long getExpensiveListCount() {
+    synchronized (this.lock) {
+      long count = super.getExpensiveListCount();
+      for (LRUClockNode aNode = this.windowHead.nextLRUNode(); aNode != this.windowTail; aNode =
+          aNode.nextLRUNode()) {
+        count++;
+      }
+      return count;
+    }
+  }
+
+  @Override
+  public String getAuditReport() {
+    return super.getAuditReport() + " window = " + this.window.size();
+  }
+
+  @Override
+  public void clear(RegionVersionVector rvv) {
+    if (rvv != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+    synchronized (this.lock) {
+      super.clear(rvv);
+      initWindow();
+    }
+  }
+}
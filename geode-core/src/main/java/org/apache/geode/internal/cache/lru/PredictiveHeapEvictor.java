@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.control.HeapMemoryMonitor;
+import org.apache.geode.internal.cache.control.MemoryThresholds;
+import org.apache.geode.internal.cache.control.ResourceManagerStats;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Listens to garbage collection notifications to forecast when the tenured heap will reach the
+ * eviction threshold, and asks the {@link HeapEvictor} to evict a little at a time before it does.
+ * That spreads eviction out instead of running it in a burst after the threshold is crossed,
+ * which can otherwise overshoot into the critical threshold during allocation spikes.
+ * <p>
+ * After each collection, the growth of the tenured pool since the previous collection gives the
+ * promotion rate, smoothed with an exponentially weighted moving average. The usage left behind
+ * by the last collection of the tenured pool itself is the live set. Once the forecast time to
+ * reach the eviction threshold falls below the horizon, the evictor is asked for about as many
+ * bytes as are expected to be promoted before the next collection.
+ *
+ * @since Geode 1.2
+ */
+public class PredictiveHeapEvictor implements NotificationListener {
+  private static final Logger logger = LogService.getLogger();
+
+  public static final boolean ENABLED = Boolean.getBoolean(
+      DistributionConfig.GEMFIRE_PREFIX + "HeapLRUCapacityController.predictiveEviction");
+
+  public static final long HORIZON_MILLIS = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "HeapLRUCapacityController.predictiveEvictionHorizon",
+      10000);
+
+  /** The type of the notification a GarbageCollectorMXBean sends after each collection */
+  static final String GARBAGE_COLLECTION_NOTIFICATION = "com.sun.management.gc.notification";
+
+  /** The weight of the newest sample in the promotion rate average */
+  private static final double SMOOTHING = 0.3;
+
+  private final HeapEvictor evictor;
+
+  private final HeapMemoryMonitor monitor;
+
+  private final ResourceManagerStats stats;
+
+  private final List<NotificationEmitter> emitters = new ArrayList<NotificationEmitter>();
+
+  private long lastCollectionTime = -1;
+
+  private long lastBytesUsed;
+
+  /** bytes per millisecond */
+  private double promotionRate;
+
+  private long liveSet;
+
+  PredictiveHeapEvictor(HeapEvictor evictor, HeapMemoryMonitor monitor,
+      ResourceManagerStats stats) {
+    this.evictor = evictor;
+    this.monitor = monitor;
+    this.stats = stats;
+  }
+
+  /**
+   * Registers with every garbage collector that sends notifications.
+   */
+  public void start() {
+    if (HeapMemoryMonitor.getTenuredMemoryPoolMXBean() == null) {
+      return;
+    }
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (gc instanceof NotificationEmitter) {
+        NotificationEmitter emitter = (NotificationEmitter) gc;
+        emitter.addNotificationListener(this, null, null);
+        this.emitters.add(emitter);
+      }
+    }
+  }
+
+  public void stop() {
+    for (NotificationEmitter emitter : this.emitters) {
+      try {
+        emitter.removeNotificationListener(this);
+      } catch (ListenerNotFoundException ignore) {
+        // already removed
+      }
+    }
+    this.emitters.clear();
+  }
+
+  @Override
+  public void handleNotification(Notification notification, Object handback) {
+    if (!GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+      return;
+    }
+    MemoryThresholds thresholds = this.monitor.getThresholds();
+    if (!thresholds.isEvictionThresholdEnabled()) {
+      return;
+    }
+    MemoryPoolMXBean pool = HeapMemoryMonitor.getTenuredMemoryPoolMXBean();
+    MemoryUsage collectionUsage = pool.getCollectionUsage();
+    long bytesToEvict = recordCollection(System.currentTimeMillis(), pool.getUsage().getUsed(),
+        collectionUsage == null ? -1 : collectionUsage.getUsed(),
+        thresholds.getEvictionThresholdBytes());
+    if (bytesToEvict > 0) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Heap eviction threshold forecast to be reached in {} ms; evicting {} bytes",
+            this.stats.getHeapEvictionForecast(), bytesToEvict);
+      }
+      this.evictor.evictAhead(bytesToEvict);
+    }
+  }
+
+  /**
+   * Updates the forecast with the heap usage seen after a collection.
+   *
+   * @param now the time of the collection in milliseconds
+   * @param bytesUsed the tenured pool usage after the collection
+   * @param collectionBytesUsed the tenured pool usage after its most recent own collection, or -1
+   * @param evictionThresholdBytes the eviction threshold
+   * @return the number of bytes to evict ahead of the threshold, or 0
+   */
+  synchronized long recordCollection(long now, long bytesUsed, long collectionBytesUsed,
+      long evictionThresholdBytes) {
+    long elapsed = now - this.lastCollectionTime;
+    if (this.lastCollectionTime >= 0 && elapsed > 0 && bytesUsed >= this.lastBytesUsed) {
+      // a collection of the tenured pool itself shrinks it; those samples say nothing about
+      // promotion so only growth is averaged in
+      double rate = (double) (bytesUsed - this.lastBytesUsed) / elapsed;
+      this.promotionRate = SMOOTHING * rate + (1 - SMOOTHING) * this.promotionRate;
+    }
+    if (collectionBytesUsed >= 0) {
+      this.liveSet = collectionBytesUsed;
+    }
+    this.lastCollectionTime = now;
+    this.lastBytesUsed = bytesUsed;
+
+    long forecast = getForecast(bytesUsed, evictionThresholdBytes);
+    this.stats.changeHeapPromotionRate((long) (this.promotionRate * 1000));
+    this.stats.changeHeapLiveSet(this.liveSet);
+    this.stats.changeHeapEvictionForecast(forecast);
+
+    if (forecast <= 0 || forecast >= HORIZON_MILLIS) {
+      // not growing, already above the threshold (regular eviction handles that) or not soon
+      return 0;
+    }
+    if (this.liveSet > 0
+        && this.liveSet + (long) (this.promotionRate * HORIZON_MILLIS) < evictionThresholdBytes) {
+      // even if everything promoted over the horizon stayed live the tenured pool would remain
+      // below the threshold, so the growth is garbage the next collection of it will reclaim
+      return 0;
+    }
+    return Math.min((long) (this.promotionRate * elapsed), this.evictor.getTotalBytesToEvict());
+  }
+
+  /**
+   * Returns the milliseconds until usage reaches the threshold at the current promotion rate, 0 if
+   * it already has and -1 if usage is not growing.
+   */
+  synchronized long getForecast(long bytesUsed, long evictionThresholdBytes) {
+    if (bytesUsed >= evictionThresholdBytes) {
+      return 0;
+    }
+    if (this.promotionRate <= 0) {
+      return -1;
+    }
+    return (long) ((evictionThresholdBytes - bytesUsed) / this.promotionRate);
+  }
+
+  synchronized double getPromotionRate() {
+    return this.promotionRate;
+  }
+
+  synchronized long getLiveSet() {
+    return this.liveSet;
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.InternalRegionArguments;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * StripedLRUClockHand splits the lru list into a number of independently locked stripes so that
+ * threads appending and unlinking entries do not all serialize on the single list lock. An entry
+ * always lives in the stripe selected by its identity hash. The clock hand visits the stripes in
+ * round robin order, so the global ordering is only approximately least recently used: each
+ * stripe is exact, but an entry in one stripe may be returned before an older entry in another.
+ * <p>
+ * Enabled for the LRU algorithms by setting the gemfire.lru.stripes system property to a value
+ * greater than one. The number of stripes is rounded up to a power of two.
+ */
+public class StripedLRUClockHand extends NewLRUClockHand {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The number of stripes used by lru lists; 1 disables striping */
+  public static final int STRIPES =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "lru.stripes", 1);
+
+  private final Stripe[] stripes;
+
+  private final int stripeMask;
+
+  /** The stripe the next call to {@link #getHeadEntry()} starts from */
+  private final AtomicInteger clockHand = new AtomicInteger();
+
+  public StripedLRUClockHand(Object region, EnableLRU ccHelper,
+      InternalRegionArguments internalRegionArgs, int stripeCount) {
+    super(region, ccHelper, internalRegionArgs);
+    int n = 1;
+    while (n < stripeCount) {
+      n <<= 1;
+    }
+    this.stripes = new Stripe[n];
+    for (int i = 0; i < n; i++) {
+      this.stripes[i] = new Stripe();
+    }
+    this.stripeMask = n - 1;
+  }
+
+  public int getStripeCount() {
+    return this.stripes.length;
+  }
+
+  private Stripe getStripe(LRUClockNode aNode) {
+    int h = System.identityHashCode(aNode);
+    h ^= (h >>> 16);
+    return this.stripes[h & this.stripeMask];
+  }
+
+  /**
+   * Locks the stripe, recording a lock wait in the stats if another thread holds it.
+   */
+  private void lock(Stripe stripe) {
+    if (!stripe.lock.tryLock()) {
+      stats().incLockWaits();
+      stripe.lock.lock();
+    }
+  }
+
+  @Override
+  public void appendEntry(final LRUClockNode aNode) {
+    Stripe stripe = getStripe(aNode);
+    lock(stripe);
+    try {
+      if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
+        return;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+            .create(LocalizedStrings.NewLRUClockHand_ADDING_ANODE_TO_LRU_LIST, aNode));
+      }
+      LRUClockNode tail = stripe.tail;
+      aNode.setNextLRUNode(tail);
+      tail.prevLRUNode().setNextLRUNode(aNode);
+      aNode.setPrevLRUNode(tail.prevLRUNode());
+      tail.setPrevLRUNode(aNode);
+
+      stripe.size++;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * return the head entry of the next non-empty stripe, or null if all stripes are empty
+   */
+  @Override
+  protected LRUClockNode getHeadEntry() {
+    int start = this.clockHand.getAndIncrement();
+    for (int i = 0; i < this.stripes.length; i++) {
+      Stripe stripe = this.stripes[(start + i) & this.stripeMask];
+      if (stripe.size == 0) {
+        continue;
+      }
+      lock(stripe);
+      try {
+        LRUClockNode aNode = stripe.head.nextLRUNode();
+        if (aNode == stripe.tail) {
+          continue;
+        }
+
+        LRUClockNode next = aNode.nextLRUNode();
+        stripe.head.setNextLRUNode(next);
+        next.setPrevLRUNode(stripe.head);
+
+        aNode.setNextLRUNode(null);
+        aNode.setPrevLRUNode(null);
+        stripe.size--;
+        return aNode;
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected boolean removeFromList(LRUClockNode entry) {
+    Stripe stripe = getStripe(entry);
+    lock(stripe);
+    try {
+      LRUClockNode next = entry.nextLRUNode();
+      LRUClockNode prev = entry.prevLRUNode();
+      if (next == null || prev == null) {
+        // not in the list anymore.
+        return false;
+      }
+      next.setPrevLRUNode(prev);
+      prev.setNextLRUNode(next);
+      entry.setNextLRUNode(null);
+      entry.setPrevLRUNode(null);
+      stripe.size--;
+    } finally {
+      stripe.lock.unlock();
+    }
+    return true;
+  }
+
+  @Override
+  public void dumpList() {
+    if (!logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      return;
+    }
+    for (int i = 0; i < this.stripes.length; i++) {
+      Stripe stripe = this.stripes[i];
+      lock(stripe);
+      try {
+        int idx = 1;
+        for (LRUClockNode aNode = stripe.head; aNode != null; aNode = aNode.nextLRUNode()) {
+          logger.trace(LogMarker.LRU_CLOCK, "  [{}] ({}) {}", i, (idx++), aNode);
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public long getExpensiveListCount() {
+    long count = 0;
+    for (Stripe stripe : this.stripes) {
+      lock(stripe);
+      try {
+        for (LRUClockNode aNode = stripe.head.nextLRUNode(); aNode != stripe.tail; aNode =
+            aNode.nextLRUNode()) {
+          count++;
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public String getAuditReport() {
+    int totalNodes = 0;
+    int evictedNodes = 0;
+    int usedNodes = 0;
+    for (Stripe stripe : this.stripes) {
+      LRUClockNode h = stripe.head;
+      while (h != null) {
+        totalNodes++;
+        if (h.testEvicted())
+          evictedNodes++;
+        if (h.testRecentlyUsed())
+          usedNodes++;
+        h = h.nextLRUNode();
+      }
+    }
+    StringBuffer result = new StringBuffer(128);
+    result.append("LRUList Audit: listEntries = ").append(totalNodes).append(" evicted = ")
+        .append(evictedNodes).append(" used = ").append(usedNodes).append(" stripes = ")
+        .append(this.stripes.length);
+    return result.toString();
+  }
+
+  @Override
+  public void clear(RegionVersionVector rvv) {
+    if (rvv != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+    // stripes are always locked in index order
+    for (Stripe stripe : this.stripes) {
+      stripe.lock.lock();
+    }
+    try {
+      resetCounter();
+      for (Stripe stripe : this.stripes) {
+        stripe.initHeadAndTail();
+      }
+    } finally {
+      for (Stripe stripe : this.stripes) {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    int result = 0;
+    for (Stripe stripe : this.stripes) {
+      result += stripe.size;
+    }
+    return result;
+  }
+
+  /**
+   * One independently locked segment of the lru list.
+   */
+  private static final class Stripe {
+    final ReentrantLock lock = new ReentrantLock();
+
+    LRUClockNode head;
+
+    LRUClockNode tail;
+
+    /** written while holding the lock; read without it to skip empty stripes */
+    volatile int size;
+
+    Stripe() {
+      initHeadAndTail();
+    }
+
+    void initHeadAndTail() {
+      // drop the references to the old head and tail so cleared entries can be collected
+      this.head = new GuardNode();
+      this.tail = new GuardNode();
+      this.head.setNextLRUNode(this.tail);
+      this.tail.setPrevLRUNode(this.head);
+      this.size = 0;
+    }
+  }
+}
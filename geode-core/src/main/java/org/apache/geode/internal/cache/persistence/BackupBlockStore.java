@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.persistence;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.FileUtil;
+
+/**
+ * Backs up the oplog files of a disk store as content addressed blocks instead of whole files.
+ * Files are cut into blocks at content defined boundaries, so data that is shifted by a compaction
+ * still produces the same blocks. A block is only written if neither this backup nor its baseline
+ * already has a block with the same SHA-256 digest.
+ * <p>
+ * Each backed up file gets a manifest in the disk store's backup directory. The first line of a
+ * manifest is the length of the file and each following line is the path of one of its blocks, in
+ * order, relative to the disk store's backup directory. Blocks of the baseline are referred to by
+ * a path that leads into the baseline backup, so a backup can be moved together with its baseline.
+ * The restore script reassembles each file from its manifest. If the baseline has a manifest for a
+ * file of the same name and length, which is the case for oplogs that have not changed since the
+ * baseline, its blocks are reused without reading the file.
+ * 
+ * @since Geode 1.2
+ */
+public class BackupBlockStore {
+
+  /**
+   * This system property causes backups to deduplicate oplog files into blocks.
+   */
+  public static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "backup.DEDUPLICATE_BLOCKS");
+
+  public static final String BLOCKS = "blocks";
+  public static final String MANIFESTS = "manifests";
+  public static final String MANIFEST_EXT = ".blocks";
+
+  static final int MIN_BLOCK_SIZE = 256 * 1024;
+  static final int MAX_BLOCK_SIZE = 4 * 1024 * 1024;
+
+  /**
+   * A boundary is found where the top 20 bits of the rolling hash are zero, which gives an average
+   * block size of about 1 MB above the minimum.
+   */
+  private static final long BOUNDARY_MASK = ((1L << 20) - 1) << 44;
+
+  /**
+   * The random values of the gear rolling hash. They must be the same in every backup so that the
+   * same data is cut at the same places; java.util.Random is specified to produce the same values
+   * for a given seed.
+   */
+  private static final long[] GEAR = new long[256];
+  static {
+    Random random = new Random(0x6765617262616b75L);
+    for (int i = 0; i < GEAR.length; i++) {
+      GEAR[i] = random.nextLong();
+    }
+  }
+
+  /**
+   * The disk store's backup directory; the block paths in its manifests are relative to it
+   */
+  private final Path root;
+  /**
+   * The disk store's directory in the baseline backup; null if there is no baseline
+   */
+  private final Path baselineRoot;
+  private final File blocksDir;
+  private final File manifestsDir;
+  private final RestoreScript restoreScript;
+
+  /**
+   * The blocks of this backup and its baseline keyed by their digest
+   */
+  private final Map<String, File> knownBlocks = new HashMap<String, File>();
+
+  /**
+   * The manifests of the baseline keyed by the name of the file they were made for
+   */
+  private final Map<String, File> baselineManifests = new HashMap<String, File>();
+
+  private final MessageDigest digest;
+
+  private long bytesRead;
+  private long bytesWritten;
+  private long blocksWritten;
+  private long blocksReused;
+
+  /**
+   * @param targetDir the directory the disk store is backed up to
+   * @param baselineDir the directory the disk store was backed up to by the baseline backup. May
+   *        be null.
+   * @param restoreScript the script to add the reassembly of each backed up file to
+   */
+  public BackupBlockStore(File targetDir, File baselineDir, RestoreScript restoreScript)
+      throws IOException {
+    this.root = toPath(targetDir);
+    this.baselineRoot = baselineDir == null ? null : toPath(baselineDir);
+    this.blocksDir = new File(targetDir, BLOCKS);
+    this.manifestsDir = new File(targetDir, MANIFESTS);
+    this.restoreScript = restoreScript;
+    try {
+      this.digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+    if (baselineDir != null && baselineDir.exists()) {
+      for (File manifest : FileUtil.findAll(new File(baselineDir, MANIFESTS),
+          ".*\\" + MANIFEST_EXT + "$")) {
+        readBaselineManifest(manifest);
+      }
+    }
+  }
+
+  private static Path toPath(File dir) {
+    return dir.getAbsoluteFile().toPath().normalize();
+  }
+
+  private void readBaselineManifest(File manifest) throws IOException {
+    String name = manifest.getName();
+    this.baselineManifests.put(name.substring(0, name.length() - MANIFEST_EXT.length()), manifest);
+    for (File block : readBlocks(manifest, this.baselineRoot)) {
+      this.knownBlocks.put(block.getName(), block);
+    }
+  }
+
+  /**
+   * Returns the blocks listed by a manifest, resolving their paths against the given backup
+   * directory. Absolute paths are returned unchanged.
+   */
+  private static List<File> readBlocks(File manifest, Path root) throws IOException {
+    List<File> blocks = new ArrayList<File>();
+    BufferedReader reader = new BufferedReader(new FileReader(manifest));
+    try {
+      reader.readLine();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        blocks.add(root.resolve(line).normalize().toFile());
+      }
+    } finally {
+      reader.close();
+    }
+    return blocks;
+  }
+
+  /**
+   * Returns the path of a block relative to the disk store's backup directory
+   */
+  private String relativePath(File block) {
+    return this.root.relativize(toPath(block)).toString();
+  }
+
+  /**
+   * Backs up a file by writing its new blocks and a manifest for it.
+   * 
+   * @param original the file to back up
+   * @param dirName the name of the backup directory of the disk store directory the file is in
+   * @return the manifest of the file
+   */
+  public File backup(File original, String dirName) throws IOException {
+    File manifestDir = new File(this.manifestsDir, dirName);
+    if (!FileUtil.mkdirs(manifestDir) && !manifestDir.isDirectory()) {
+      throw new IOException("Could not create directory " + manifestDir);
+    }
+    File manifest = new File(manifestDir, original.getName() + MANIFEST_EXT);
+    File baselineManifest = this.baselineManifests.get(original.getName());
+    if (baselineManifest == null || readLength(baselineManifest) != original.length()
+        || !reuseBaselineManifest(baselineManifest, manifest)) {
+      writeBlocks(original, manifest);
+    }
+    this.restoreScript.addBlockFile(original, manifest, this.root.toFile());
+    return manifest;
+  }
+
+  /**
+   * Writes a manifest listing the blocks of a baseline manifest, if all of those blocks still
+   * exist.
+   * 
+   * @return true if the manifest was written
+   */
+  private boolean reuseBaselineManifest(File baselineManifest, File manifest) throws IOException {
+    List<File> blocks = readBlocks(baselineManifest, this.baselineRoot);
+    for (File block : blocks) {
+      if (!block.exists()) {
+        return false;
+      }
+    }
+    PrintWriter writer = new PrintWriter(manifest);
+    try {
+      writer.println(readLength(baselineManifest));
+      for (File block : blocks) {
+        writer.println(relativePath(block));
+      }
+      if (writer.checkError()) {
+        throw new IOException("Could not write " + manifest);
+      }
+    } finally {
+      writer.close();
+    }
+    this.blocksReused++;
+    return true;
+  }
+
+  private static long readLength(File manifest) throws IOException {
+    BufferedReader reader = new BufferedReader(new FileReader(manifest));
+    try {
+      String line = reader.readLine();
+      return line == null ? -1 : Long.parseLong(line.trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private void writeBlocks(File original, File manifest) throws IOException {
+    PrintWriter writer = new PrintWriter(manifest);
+    try {
+      FileInputStream in = new FileInputStream(original);
+      try {
+        writer.println(original.length());
+        byte[] buffer = new byte[64 * 1024];
+        byte[] block = new byte[MAX_BLOCK_SIZE];
+        int blockLength = 0;
+        long hash = 0;
+        int count;
+        while ((count = in.read(buffer)) > 0) {
+          this.bytesRead += count;
+          for (int i = 0; i < count; i++) {
+            byte b = buffer[i];
+            block[blockLength++] = b;
+            hash = (hash << 1) + GEAR[b & 0xFF];
+            if ((blockLength >= MIN_BLOCK_SIZE && (hash & BOUNDARY_MASK) == 0)
+                || blockLength == MAX_BLOCK_SIZE) {
+              writer.println(relativePath(writeBlock(block, blockLength)));
+              blockLength = 0;
+              hash = 0;
+            }
+          }
+        }
+        if (blockLength > 0) {
+          writer.println(relativePath(writeBlock(block, blockLength)));
+        }
+      } finally {
+        in.close();
+      }
+      if (writer.checkError()) {
+        throw new IOException("Could not write " + manifest);
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  /**
+   * Returns the block file holding the given data, writing it if there is no such block yet.
+   */
+  private File writeBlock(byte[] data, int length) throws IOException {
+    this.digest.reset();
+    this.digest.update(data, 0, length);
+    String name = toHex(this.digest.digest());
+    File block = this.knownBlocks.get(name);
+    // a baseline block may have been removed since the baseline was taken
+    if (block != null && block.exists()) {
+      this.blocksReused++;
+      return block;
+    }
+    File dir = new File(this.blocksDir, name.substring(0, 2));
+    if (!FileUtil.mkdirs(dir) && !dir.isDirectory()) {
+      throw new IOException("Could not create directory " + dir);
+    }
+    block = new File(dir, name);
+    FileOutputStream out = new FileOutputStream(block);
+    try {
+      out.write(data, 0, length);
+    } finally {
+      out.close();
+    }
+    this.knownBlocks.put(name, block);
+    this.blocksWritten++;
+    this.bytesWritten += length;
+    return block;
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+      sb.append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the number of bytes read from the files that were chunked
+   */
+  public long getBytesRead() {
+    return this.bytesRead;
+  }
+
+  /**
+   * Returns the number of bytes written to new blocks
+   */
+  public long getBytesWritten() {
+    return this.bytesWritten;
+  }
+
+  public long getBlocksWritten() {
+    return this.blocksWritten;
+  }
+
+  /**
+   * Returns the number of blocks, and whole baseline manifests, that were reused instead of
+   * written
+   */
+  public long getBlocksReused() {
+    return this.blocksReused;
+  }
+}
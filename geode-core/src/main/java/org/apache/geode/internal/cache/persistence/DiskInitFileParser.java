@@ -462,6 +462,16 @@ public class DiskInitFileParser {
           interpreter.cmnRevokeDiskStoreId(pattern);
         }
           break;
+        case DiskInitFile.IFREC_RECORD_COMPRESSOR: {
+          String compressorClassName = dis.readUTF();
+          readEndOfRecord(dis);
+          if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY)) {
+            logger.trace(LogMarker.PERSIST_RECOVERY, "IFREC_RECORD_COMPRESSOR name={}",
+                compressorClassName);
+          }
+          interpreter.cmnRecordCompressor(compressorClassName);
+          break;
+        }
         default:
           throw new DiskAccessException(
               LocalizedStrings.DiskInitFile_UNKNOWN_OPCODE_0_FOUND.toLocalizedString(opCode),
@@ -42,6 +42,8 @@ public class RestoreScript {
 
   private Map<File, File> baselineFiles = new HashMap<File, File>();
   private final Map<File, File> backedUpFiles = new LinkedHashMap<File, File>();
+  private final Map<File, File> blockFiles = new LinkedHashMap<File, File>();
+  private final Map<File, File> blockRoots = new HashMap<File, File>();
   private final List<File> existenceTests = new ArrayList<File>();
 
   public void addBaselineFiles(Map<File, File> baselineFiles) {
@@ -52,6 +54,17 @@ public class RestoreScript {
     backedUpFiles.put(backupFile, originalFile.getAbsoluteFile());
   }
 
+  /**
+   * Adds a file that was backed up as blocks. The script reassembles it from its manifest.
+   * 
+   * @param blockRoot the directory the block paths in the manifest are relative to
+   * @see BackupBlockStore
+   */
+  public void addBlockFile(File originalFile, File manifest, File blockRoot) {
+    blockFiles.put(manifest, originalFile.getAbsoluteFile());
+    blockRoots.put(manifest, blockRoot);
+  }
+
   public void addExistenceTest(File originalFile) {
     existenceTests.add(originalFile.getAbsoluteFile());
   }
@@ -109,6 +122,17 @@ public class RestoreScript {
         }
       }
 
+      if (!this.blockFiles.isEmpty()) {
+        writer.println();
+        osGenerator.writeComment(writer, "Reassemble files that were backed up as blocks");
+        for (Map.Entry<File, File> entry : this.blockFiles.entrySet()) {
+          File blockRoot = this.blockRoots.get(entry.getKey());
+          File manifest = FileUtil.removeParent(blockRoot, entry.getKey());
+          osGenerator.writeAssembleFile(writer, FileUtil.removeParent(outputDir, blockRoot),
+              manifest, entry.getValue());
+        }
+      }
+
       // Write out baseline file copies in restore script (if there are any) if this is a restore
       // for an incremental backup
       if (!this.baselineFiles.isEmpty()) {
@@ -154,6 +178,8 @@ public class RestoreScript {
     void writeCopyDirectoryContents(PrintWriter writer, File backup, File original,
         boolean backupHasFiles);
 
+    void writeAssembleFile(PrintWriter writer, File blockRoot, File manifest, File original);
+
     void writeExistenceTest(PrintWriter writer, File file);
 
     void writeComment(PrintWriter writer, String string);
@@ -188,6 +214,15 @@ public class RestoreScript {
       writer.println(ERROR_CHECK);
     }
 
+    public void writeAssembleFile(PrintWriter writer, File blockRoot, File manifest,
+        File original) {
+      writer.println("type nul > \"" + original + "\"");
+      writer.println("pushd \"" + blockRoot + "\"");
+      writer.println("for /f \"usebackq skip=1 delims=\" %%b in (\"" + manifest
+          + "\") do type \"%%b\" >> \"" + original + "\"");
+      writer.println("popd");
+    }
+
     public void writeExistenceTest(PrintWriter writer, File file) {
       writer.println("IF EXIST \"" + file + "\" echo \"Backup not restored. Refusing to overwrite "
           + file + "\" && exit /B 1 ");
@@ -221,6 +256,12 @@ public class RestoreScript {
       writer.println("cp -p '" + backup + "' '" + original + "'");
     }
 
+    public void writeAssembleFile(PrintWriter writer, File blockRoot, File manifest,
+        File original) {
+      writer.println("(cd '" + blockRoot + "' && tail -n +2 '" + manifest
+          + "' | tr '\\n' '\\0' | xargs -0 cat) > '" + original + "'");
+    }
+
     public void writeExistenceTest(PrintWriter writer, File file) {
       writer.println("test -e '" + file + "' && echo 'Backup not restored. Refusing to overwrite "
           + file + "' && exit 1 ");
@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.region.entry;
 
 import org.apache.geode.internal.cache.*;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
 
 public class RegionEntryFactoryBuilder {
   public RegionEntryFactory getRegionEntryFactoryOrNull(boolean statsEnabled, boolean isLRU,
@@ -98,4 +99,117 @@ public class RegionEntryFactoryBuilder {
         return null;
     }
   }
+
+  /**
+   * Returns a factory that creates unchained entries for keys of the given primitive key type, or
+   * null if there are no unchained entries for it. Unchained entries do not have the fields used to
+   * chain entries in a CustomEntryConcurrentHashMap so they can only be stored in a
+   * {@link PrimitiveKeyConcurrentHashMap} with the same primitive key type.
+   */
+  public RegionEntryFactory getUnchainedRegionEntryFactoryOrNull(boolean statsEnabled,
+      boolean isLRU, boolean isDisk, boolean withVersioning, Class<?> primitiveKeyType) {
+    int bitRepresentation = 0;
+    bitRepresentation |= statsEnabled ? 1 : 0;
+    bitRepresentation |= isLRU ? 2 : 0;
+    bitRepresentation |= isDisk ? 4 : 0;
+    bitRepresentation |= withVersioning ? 8 : 0;
+
+    RegionEntryFactory chainedFactory =
+        getRegionEntryFactoryOrNull(statsEnabled, isLRU, isDisk, withVersioning, false);
+    if (primitiveKeyType == Integer.class) {
+      return new UnchainedRegionEntryFactory(chainedFactory, Integer.class,
+          getUnchainedIntKeyCreator(bitRepresentation), null);
+    } else if (primitiveKeyType == Long.class) {
+      return new UnchainedRegionEntryFactory(chainedFactory, Long.class, null,
+          getUnchainedLongKeyCreator(bitRepresentation));
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * The bits represent all options |versioning|disk|lru|stats|
+   */
+  private UnchainedRegionEntryFactory.IntKeyEntryCreator getUnchainedIntKeyCreator(
+      int bitRepresentation) {
+    switch (bitRepresentation) {
+      case (0):
+        return VMThinRegionEntryHeapUnchainedIntKey::new; // Bits: 0000
+      case (1):
+        return VMStatsRegionEntryHeapUnchainedIntKey::new; // Bits: 0001
+      case (2):
+        return VMThinLRURegionEntryHeapUnchainedIntKey::new; // Bits: 0010
+      case (3):
+        return VMStatsLRURegionEntryHeapUnchainedIntKey::new; // Bits: 0011
+      case (4):
+        return VMThinDiskRegionEntryHeapUnchainedIntKey::new; // Bits: 0100
+      case (5):
+        return VMStatsDiskRegionEntryHeapUnchainedIntKey::new; // Bits: 0101
+      case (6):
+        return VMThinDiskLRURegionEntryHeapUnchainedIntKey::new; // Bits: 0110
+      case (7):
+        return VMStatsDiskLRURegionEntryHeapUnchainedIntKey::new; // Bits: 0111
+      case (8):
+        return VersionedThinRegionEntryHeapUnchainedIntKey::new; // Bits: 1000
+      case (9):
+        return VersionedStatsRegionEntryHeapUnchainedIntKey::new; // Bits: 1001
+      case (10):
+        return VersionedThinLRURegionEntryHeapUnchainedIntKey::new; // Bits: 1010
+      case (11):
+        return VersionedStatsLRURegionEntryHeapUnchainedIntKey::new; // Bits: 1011
+      case (12):
+        return VersionedThinDiskRegionEntryHeapUnchainedIntKey::new; // Bits: 1100
+      case (13):
+        return VersionedStatsDiskRegionEntryHeapUnchainedIntKey::new; // Bits: 1101
+      case (14):
+        return VersionedThinDiskLRURegionEntryHeapUnchainedIntKey::new; // Bits: 1110
+      case (15):
+        return VersionedStatsDiskLRURegionEntryHeapUnchainedIntKey::new; // Bits: 1111
+      default:
+        throw new IllegalArgumentException("unexpected options " + bitRepresentation);
+    }
+  }
+
+  /**
+   * The bits represent all options |versioning|disk|lru|stats|
+   */
+  private UnchainedRegionEntryFactory.LongKeyEntryCreator getUnchainedLongKeyCreator(
+      int bitRepresentation) {
+    switch (bitRepresentation) {
+      case (0):
+        return VMThinRegionEntryHeapUnchainedLongKey::new; // Bits: 0000
+      case (1):
+        return VMStatsRegionEntryHeapUnchainedLongKey::new; // Bits: 0001
+      case (2):
+        return VMThinLRURegionEntryHeapUnchainedLongKey::new; // Bits: 0010
+      case (3):
+        return VMStatsLRURegionEntryHeapUnchainedLongKey::new; // Bits: 0011
+      case (4):
+        return VMThinDiskRegionEntryHeapUnchainedLongKey::new; // Bits: 0100
+      case (5):
+        return VMStatsDiskRegionEntryHeapUnchainedLongKey::new; // Bits: 0101
+      case (6):
+        return VMThinDiskLRURegionEntryHeapUnchainedLongKey::new; // Bits: 0110
+      case (7):
+        return VMStatsDiskLRURegionEntryHeapUnchainedLongKey::new; // Bits: 0111
+      case (8):
+        return VersionedThinRegionEntryHeapUnchainedLongKey::new; // Bits: 1000
+      case (9):
+        return VersionedStatsRegionEntryHeapUnchainedLongKey::new; // Bits: 1001
+      case (10):
+        return VersionedThinLRURegionEntryHeapUnchainedLongKey::new; // Bits: 1010
+      case (11):
+        return VersionedStatsLRURegionEntryHeapUnchainedLongKey::new; // Bits: 1011
+      case (12):
+        return VersionedThinDiskRegionEntryHeapUnchainedLongKey::new; // Bits: 1100
+      case (13):
+        return VersionedStatsDiskRegionEntryHeapUnchainedLongKey::new; // Bits: 1101
+      case (14):
+        return VersionedThinDiskLRURegionEntryHeapUnchainedLongKey::new; // Bits: 1110
+      case (15):
+        return VersionedStatsDiskLRURegionEntryHeapUnchainedLongKey::new; // Bits: 1111
+      default:
+        throw new IllegalArgumentException("unexpected options " + bitRepresentation);
+    }
+  }
 }
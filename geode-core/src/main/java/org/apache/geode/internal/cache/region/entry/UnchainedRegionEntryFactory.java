@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.region.entry;
+
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
+
+/**
+ * A factory for region maps backed by a {@link PrimitiveKeyConcurrentHashMap}. That map stores the
+ * entries whose key is of its primitive key type in arrays instead of hash chains so those entries
+ * are created without the hash and next fields every other entry needs. All other keys are created
+ * by the chained factory.
+ */
+public class UnchainedRegionEntryFactory implements RegionEntryFactory {
+
+  interface IntKeyEntryCreator {
+    RegionEntry createEntry(RegionEntryContext context, int key, Object value);
+  }
+
+  interface LongKeyEntryCreator {
+    RegionEntry createEntry(RegionEntryContext context, long key, Object value);
+  }
+
+  private final RegionEntryFactory chainedFactory;
+  private final Class<?> primitiveKeyType;
+  private final IntKeyEntryCreator intKeyCreator;
+  private final LongKeyEntryCreator longKeyCreator;
+
+  UnchainedRegionEntryFactory(RegionEntryFactory chainedFactory, Class<?> primitiveKeyType,
+      IntKeyEntryCreator intKeyCreator, LongKeyEntryCreator longKeyCreator) {
+    this.chainedFactory = chainedFactory;
+    this.primitiveKeyType = primitiveKeyType;
+    this.intKeyCreator = intKeyCreator;
+    this.longKeyCreator = longKeyCreator;
+  }
+
+  @Override
+  public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+    if (key.getClass() == this.primitiveKeyType) {
+      if (this.intKeyCreator != null) {
+        return this.intKeyCreator.createEntry(context, (Integer) key, value);
+      } else {
+        return this.longKeyCreator.createEntry(context, (Long) key, value);
+      }
+    }
+    return this.chainedFactory.createEntry(context, key, value);
+  }
+
+  @Override
+  public Class getEntryClass() {
+    // The class returned from this method is used to estimate the memory size.
+    // This estimate will not take into account the memory saved by unchained entries.
+    return this.chainedFactory.getEntryClass();
+  }
+
+  @Override
+  public RegionEntryFactory makeVersioned() {
+    // chained entries can also be stored in a PrimitiveKeyConcurrentHashMap; they just do not
+    // save the memory of the unused chain fields
+    return this.chainedFactory.makeVersioned();
+  }
+
+  @Override
+  public RegionEntryFactory makeOnHeap() {
+    return this;
+  }
+}
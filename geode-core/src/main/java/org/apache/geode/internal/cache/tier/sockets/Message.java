@@ -18,6 +18,8 @@ import org.apache.geode.SerializationException;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.OutputBufferPool;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.tier.MessageType;
@@ -369,7 +371,7 @@ public class Message {
     }
     // create the HDOS with a flag telling it that it can keep any byte[] or ByteBuffers/ByteSources
     // passed to it.
-    hdos = new HeapDataOutputStream(chunkSize, v, true);
+    hdos = createPartStream(v, true);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -392,7 +394,7 @@ public class Message {
       if (version.equals(Version.CURRENT)) {
         v = null;
       }
-      hdos = new HeapDataOutputStream(chunkSize, v);
+      hdos = createPartStream(v, false);
       try {
         BlobHelper.serializeTo(o, hdos);
       } catch (IOException ex) {
@@ -405,6 +407,18 @@ public class Message {
     }
   }
 
+  /**
+   * Creates the stream to serialize a part into. Its buffers may come from the OutputBufferPool
+   * since the part closes the stream when it is cleared after this message is sent.
+   */
+  private HeapDataOutputStream createPartStream(Version v, boolean doNotCopy) {
+    if (OutputBufferPool.ENABLED) {
+      return HeapDataOutputStream.createPooled(chunkSize, v, doNotCopy,
+          InternalDataSerializer.getDMStats(null));
+    }
+    return new HeapDataOutputStream(chunkSize, v, doNotCopy);
+  }
+
   public void addIntPart(int v) {
     this.messageModified = true;
     Part part = partsList[this.currentPart];
@@ -608,11 +622,19 @@ public class Message {
           if (partLen <= cb.remaining()) {
             part.writeTo(cb);
           } else {
-            flushBuffer();
-            if (this.sockCh != null) {
-              part.writeTo(this.sockCh, cb);
+            final int bufferedLen = cb.position();
+            if (this.sockCh != null && part.writeGatheringTo(this.sockCh, cb)) {
+              // the buffered bytes went out in the same writes as the part
+              if (this.msgStats != null) {
+                this.msgStats.incSentBytes(bufferedLen);
+              }
             } else {
-              part.writeTo(this.os, cb);
+              flushBuffer();
+              if (this.sockCh != null) {
+                part.writeTo(this.sockCh, cb);
+              } else {
+                part.writeTo(this.os, cb);
+              }
             }
             if (this.msgStats != null) {
               this.msgStats.incSentBytes(partLen);
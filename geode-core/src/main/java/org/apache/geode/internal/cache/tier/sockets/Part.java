@@ -308,9 +308,10 @@ public class Part {
             if (buf.remaining() == 0) {
               HeapDataOutputStream.flushStream(out, buf);
             }
-            buf.put(AddressableMemoryManager.readByte(addr));
-            addr++;
-            bytesToSend--;
+            int bytesThisTime = Math.min(bytesToSend, buf.remaining());
+            AddressableMemoryManager.readBytes(addr, buf, bytesThisTime);
+            addr += bytesThisTime;
+            bytesToSend -= bytesThisTime;
           }
         }
       } else {
@@ -337,11 +338,7 @@ public class Part {
         } else {
           int bytesToSend = c.getDataSize();
           long addr = c.getAddressForReadingData(0, bytesToSend);
-          while (bytesToSend > 0) {
-            buf.put(AddressableMemoryManager.readByte(addr));
-            addr++;
-            bytesToSend--;
-          }
+          AddressableMemoryManager.readBytes(addr, buf, bytesToSend);
         }
       } else {
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
@@ -397,11 +394,8 @@ public class Part {
               bytesThisTime = BUF_MAX;
             }
             len -= bytesThisTime;
-            while (bytesThisTime > 0) {
-              buf.put(AddressableMemoryManager.readByte(addr));
-              addr++;
-              bytesThisTime--;
-            }
+            AddressableMemoryManager.readBytes(addr, buf, bytesThisTime);
+            addr += bytesThisTime;
             buf.flip();
             while (buf.remaining() > 0) {
               sc.write(buf);
@@ -417,6 +411,30 @@ public class Part {
     }
   }
 
+  /**
+   * Writes whatever has been put in the specified byte buffer followed by the contents of this
+   * part to the specified socket channel with gathering writes. This saves a separate write of the
+   * buffer when the part's bytes are in off-heap memory, which is written straight from there.
+   * Returns false, having written nothing, if the bytes of this part are not off-heap or can not be
+   * wrapped in a direct ByteBuffer. Otherwise the buffer is cleared and true is returned.
+   */
+  public final boolean writeGatheringTo(SocketChannel sc, ByteBuffer buf) throws IOException {
+    if (getLength() == 0 || !(this.part instanceof StoredObject)) {
+      return false;
+    }
+    ByteBuffer bb = ((StoredObject) this.part).createDirectByteBuffer();
+    if (bb == null) {
+      return false;
+    }
+    buf.flip();
+    ByteBuffer[] srcs = new ByteBuffer[] {buf, bb};
+    while (bb.remaining() > 0) {
+      sc.write(srcs);
+    }
+    buf.clear();
+    return true;
+  }
+
   static private String typeCodeToString(byte c) {
     switch (c) {
       case BYTE_CODE:
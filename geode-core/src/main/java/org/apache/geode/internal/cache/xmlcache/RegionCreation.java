@@ -36,6 +36,7 @@ import org.apache.geode.cache.CacheStatistics;
 import org.apache.geode.cache.CacheWriterException;
 import org.apache.geode.cache.EntryExistsException;
 import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.InterestResultPolicy;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionAttributes;
@@ -46,6 +47,7 @@ import org.apache.geode.cache.TimeoutException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.internal.index.IndexCreationData;
 import org.apache.geode.cache.snapshot.RegionSnapshotService;
+import org.apache.geode.internal.cache.EvictionAttributesImpl;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.extension.Extensible;
@@ -384,16 +386,16 @@ public class RegionCreation implements Region, Extensible<Region<?, ?>> {
       this.attrs.setRefid(getRefid());
     }
     if (attrs.getPartitionAttributes() != null && attrs.getEvictionAttributes() != null
-        && attrs.getEvictionAttributes().getAlgorithm().isLRUMemory()
+        && attrs.getEvictionAttributes().getAlgorithm().isMemoryEviction()
         && attrs.getPartitionAttributes().getLocalMaxMemory() != 0 && attrs.getEvictionAttributes()
             .getMaximum() != attrs.getPartitionAttributes().getLocalMaxMemory()) {
       getCache().getLoggerI18n().warning(LocalizedStrings.Mem_LRU_Eviction_Attribute_Reset,
           new Object[] {this.getName(), attrs.getEvictionAttributes().getMaximum(),
               attrs.getPartitionAttributes().getLocalMaxMemory()});
-      this.attrs.setEvictionAttributes(attrs.getEvictionAttributes().createLRUMemoryAttributes(
-          attrs.getPartitionAttributes().getLocalMaxMemory(),
-          attrs.getEvictionAttributes().getObjectSizer(),
-          attrs.getEvictionAttributes().getAction()));
+      EvictionAttributes ea = attrs.getEvictionAttributes();
+      this.attrs.setEvictionAttributes(new EvictionAttributesImpl().setAlgorithm(ea.getAlgorithm())
+          .setObjectSizer(ea.getObjectSizer()).setAction(ea.getAction())
+          .internalSetMaximum(attrs.getPartitionAttributes().getLocalMaxMemory()));
     }
   }
 
@@ -17,7 +17,9 @@ package org.apache.geode.internal.offheap;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 
 import org.apache.geode.internal.SharedLibrary;
 import org.apache.geode.pdx.internal.unsafe.UnsafeWrapper;
@@ -147,6 +149,37 @@ public class AddressableMemoryManager {
     unsafe.copyMemory(null, addr, bytes, ARRAY_BYTE_BASE_OFFSET + bytesOffset, size);
   }
 
+  /**
+   * Copies size bytes starting at addr to the given buffer at its current position and advances
+   * the position of the buffer by size.
+   * 
+   * @throws BufferOverflowException if the buffer has less than size bytes remaining
+   */
+  public static void readBytes(long addr, ByteBuffer dst, int size) {
+    if (size < 0) {
+      throw new AssertionError("Size=" + size + ", but size must be >= 0");
+    }
+    if (size > dst.remaining()) {
+      throw new BufferOverflowException();
+    }
+    final int position = dst.position();
+    if (dst.hasArray()) {
+      readBytes(addr, dst.array(), dst.arrayOffset() + position, size);
+    } else {
+      long dstAddr = dst.isReadOnly() ? 0L : getDirectByteBufferAddress(dst);
+      if (dstAddr == 0L) {
+        for (int i = 0; i < size; i++) {
+          dst.put(readByte(addr + i));
+        }
+        return;
+      }
+      if (size > 0) {
+        copyMemory(addr, dstAddr + position, size);
+      }
+    }
+    dst.position(position + size);
+  }
+
   public static void copyMemory(long srcAddr, long dstAddr, long size) {
     unsafe.copyMemory(srcAddr, dstAddr, size);
   }
@@ -230,6 +263,26 @@ public class AddressableMemoryManager {
     }
   }
 
+  /**
+   * Unmaps the memory of a mapped byte buffer now instead of when it is garbage collected. The
+   * buffer must not be accessed after this call. If it can not be unmapped now it will be unmapped
+   * when it is garbage collected.
+   */
+  public static void unmap(MappedByteBuffer bb) {
+    try {
+      Method cleanerMethod = bb.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(bb);
+      if (cleaner != null) {
+        Method cleanMethod = cleaner.getClass().getMethod("clean");
+        cleanMethod.setAccessible(true);
+        cleanMethod.invoke(cleaner);
+      }
+    } catch (Exception ignore) {
+      // the memory will be unmapped when the buffer is garbage collected
+    }
+  }
+
   /**
    * Create a direct byte buffer given its address and size. The returned ByteBuffer will be direct
    * and use the memory at the given address.
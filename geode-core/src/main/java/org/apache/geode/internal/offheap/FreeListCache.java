@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A small cache of free tiny chunks that sits in front of the shared tiny free lists of a
+ * {@link FreeListManager}. Each cache holds, for each of the smallest size classes, a "magazine" of
+ * free chunk addresses that can be handed out and taken back without touching the shared lists.
+ * The FreeListManager keeps a few of these and spreads threads over them so that most allocations
+ * and frees only take an uncontended lock.
+ * <p>
+ * All methods other than {@link #tryLock()} and {@link #lock()} must be called with the lock held.
+ */
+class FreeListCache {
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** the magazine of each size class; created on first use */
+  private final long[][] magazines;
+  /** the number of addresses in each magazine */
+  private final int[] counts;
+  private final int capacity;
+
+  FreeListCache(int sizeClasses, int capacity) {
+    this.magazines = new long[sizeClasses][];
+    this.counts = new int[sizeClasses];
+    this.capacity = capacity;
+  }
+
+  boolean tryLock() {
+    return this.lock.tryLock();
+  }
+
+  void lock() {
+    this.lock.lock();
+  }
+
+  void unlock() {
+    this.lock.unlock();
+  }
+
+  int getCapacity() {
+    return this.capacity;
+  }
+
+  int getSizeClassCount() {
+    return this.counts.length;
+  }
+
+  /**
+   * Removes and returns an address of the given size class, or returns {@code 0L} if there is none.
+   */
+  long poll(int sizeClass) {
+    int count = this.counts[sizeClass];
+    if (count == 0) {
+      return 0L;
+    }
+    count--;
+    this.counts[sizeClass] = count;
+    return this.magazines[sizeClass][count];
+  }
+
+  /**
+   * Adds the given address to the magazine of the given size class.
+   *
+   * @return false if the magazine is full
+   */
+  boolean offer(int sizeClass, long addr) {
+    int count = this.counts[sizeClass];
+    if (count == this.capacity) {
+      return false;
+    }
+    long[] magazine = this.magazines[sizeClass];
+    if (magazine == null) {
+      magazine = new long[this.capacity];
+      this.magazines[sizeClass] = magazine;
+    }
+    magazine[count] = addr;
+    this.counts[sizeClass] = count + 1;
+    return true;
+  }
+
+  /**
+   * Moves up to half a magazine of addresses from the given shared free list into the magazine of
+   * the given size class.
+   *
+   * @return the number of addresses moved
+   */
+  int refill(int sizeClass, OffHeapStoredObjectAddressStack freeList) {
+    int count = this.counts[sizeClass];
+    long[] magazine = this.magazines[sizeClass];
+    if (magazine == null) {
+      magazine = new long[this.capacity];
+      this.magazines[sizeClass] = magazine;
+    }
+    int target = Math.max(1, this.capacity / 2);
+    if (count >= target) {
+      return 0;
+    }
+    int moved = freeList.poll(magazine, count, target - count);
+    this.counts[sizeClass] = count + moved;
+    return moved;
+  }
+
+  /**
+   * Moves the given number of addresses, the oldest ones first, from the magazine of the given size
+   * class to the given shared free list.
+   */
+  void flush(int sizeClass, int flushCount, OffHeapStoredObjectAddressStack freeList) {
+    int count = this.counts[sizeClass];
+    if (flushCount > count) {
+      flushCount = count;
+    }
+    if (flushCount == 0) {
+      return;
+    }
+    long[] magazine = this.magazines[sizeClass];
+    freeList.offer(magazine, 0, flushCount);
+    System.arraycopy(magazine, flushCount, magazine, 0, count - flushCount);
+    this.counts[sizeClass] = count - flushCount;
+  }
+
+  /**
+   * Returns the number of addresses cached for the given size class.
+   */
+  int size(int sizeClass) {
+    return this.counts[sizeClass];
+  }
+
+  /**
+   * Returns the address at the given position in the magazine of the given size class.
+   */
+  long get(int sizeClass, int idx) {
+    return this.magazines[sizeClass][idx];
+  }
+}
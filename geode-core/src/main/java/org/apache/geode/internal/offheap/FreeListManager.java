@@ -116,6 +116,20 @@ public class FreeListManager {
         tinyFree += cl.computeTotalSize();
       }
     }
+    if (this.freeListCaches != null) {
+      for (FreeListCache cache : this.freeListCaches) {
+        cache.lock();
+        try {
+          for (int i = 0; i < cache.getSizeClassCount(); i++) {
+            for (int j = 0; j < cache.size(i); j++) {
+              tinyFree += OffHeapStoredObject.getSize(cache.get(i, j));
+            }
+          }
+        } finally {
+          cache.unlock();
+        }
+      }
+    }
     return tinyFree;
   }
 
@@ -134,7 +148,21 @@ public class FreeListManager {
   private final CopyOnWriteArrayList<Fragment> fragmentList;
   private final MemoryAllocatorImpl ma;
 
+  /**
+   * Caches of free tiny chunks in front of tinyFreeLists. Threads are spread over them by thread
+   * id. Null if {@link #FREE_LIST_CACHE_STRIPES} is zero.
+   */
+  private final FreeListCache[] freeListCaches;
+
   public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs) {
+    this(ma, slabs, FREE_LIST_CACHE_STRIPES);
+  }
+
+  /**
+   * @param freeListCacheStripes the number of free list caches to keep; rounded up to a power of
+   *        two. Zero disables the caches.
+   */
+  protected FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs, int freeListCacheStripes) {
     this.ma = ma;
     this.slabs = slabs;
     long total = 0;
@@ -145,6 +173,19 @@ public class FreeListManager {
     }
     this.fragmentList = new CopyOnWriteArrayList<Fragment>(tmp);
     this.totalSlabSize = total;
+    if (freeListCacheStripes > 0) {
+      int stripes = 1;
+      while (stripes < freeListCacheStripes) {
+        stripes <<= 1;
+      }
+      this.freeListCaches = new FreeListCache[stripes];
+      int sizeClasses = Math.min(FREE_LIST_CACHE_SIZE_CLASSES, TINY_FREE_LIST_COUNT);
+      for (int i = 0; i < stripes; i++) {
+        this.freeListCaches[i] = new FreeListCache(sizeClasses, FREE_LIST_CACHE_CAPACITY);
+      }
+    } else {
+      this.freeListCaches = null;
+    }
 
     fillFragments();
   }
@@ -226,7 +267,7 @@ public class FreeListManager {
           return result;
         }
       }
-    } while (defragment(chunkSize));
+    } while (defragmentIncrementally(chunkSize) || defragment(chunkSize));
     // We tried all the fragments and didn't find any free memory.
     logOffHeapState(chunkSize);
     final OutOfOffHeapMemoryException failure = new OutOfOffHeapMemoryException(
@@ -315,6 +356,30 @@ public class FreeListManager {
     verifyHugeMultiple(HUGE_MULTIPLE);
   }
   public final static int MAX_TINY = TINY_MULTIPLE * TINY_FREE_LIST_COUNT;
+  /**
+   * Number of caches of free tiny chunks to keep in front of the tiny free lists. Zero, the
+   * default, disables the caches. About twice the number of cores is a good starting point.
+   */
+  public final static int FREE_LIST_CACHE_STRIPES = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_FREE_LIST_CACHE_STRIPES", 0);
+  /**
+   * Number of tiny free lists, starting with the smallest chunk size, that are cached.
+   */
+  public final static int FREE_LIST_CACHE_SIZE_CLASSES = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_FREE_LIST_CACHE_SIZE_CLASSES", 64);
+  /**
+   * Maximum number of free chunks each cache keeps for each size class.
+   */
+  public final static int FREE_LIST_CACHE_CAPACITY = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_FREE_LIST_CACHE_CAPACITY", 32);
+
+  /**
+   * If true then an allocation that finds no fragment with enough free space first defragments the
+   * slabs one at a time, stopping as soon as one of them yields a big enough fragment, and only
+   * falls back to defragmenting all of off-heap memory if none of them does.
+   */
+  public final static boolean INCREMENTAL_DEFRAGMENTATION = Boolean
+      .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_INCREMENTAL_DEFRAGMENTATION");
 
   /**
    * Return true if the two chunks have been combined into one. If low and high are adjacent to each
@@ -378,6 +443,87 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * The id of the next slab to be defragmented by defragmentIncrementally.
+   */
+  private final AtomicInteger nextIncrementalDefragmentationSlab = new AtomicInteger();
+
+  /**
+   * Defragments slabs, one at a time, until one of them has a fragment of at least chunkSize bytes.
+   * Unlike defragment, allocations from the other slabs continue while a slab is being
+   * defragmented. Returns false if {@link #INCREMENTAL_DEFRAGMENTATION} is not set or if no slab
+   * produced a big enough fragment.
+   */
+  boolean defragmentIncrementally(int chunkSize) {
+    if (!INCREMENTAL_DEFRAGMENTATION) {
+      return false;
+    }
+    for (int i = 0; i < this.slabs.length; i++) {
+      int slabIdx = (this.nextIncrementalDefragmentationSlab.getAndIncrement() & Integer.MAX_VALUE)
+          % this.slabs.length;
+      if (defragmentSlab(slabIdx) >= chunkSize) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Combines the adjacent free chunks and fragments of a single slab into new fragments. Only the
+   * free memory of that slab is taken out of the free lists, and only for the duration of this
+   * call. Free chunks held by a free list cache are skipped.
+   * 
+   * @return the size of the largest fragment created
+   */
+  int defragmentSlab(int slabIdx) {
+    final long startTime = this.ma.getStats().startIncrementalDefragmentation();
+    try {
+      synchronized (this) {
+        final Slab slab = this.slabs[slabIdx];
+        final long startAddr = slab.getMemoryAddress();
+        final long endAddr = startAddr + slab.getSize();
+        ArrayList<LongStack> freeChunks = new ArrayList<LongStack>();
+        collectFreeFragmentChunks(freeChunks, startAddr, endAddr);
+        collectFreeHugeChunks(freeChunks, startAddr, endAddr);
+        collectFreeTinyChunks(freeChunks, startAddr, endAddr);
+        ResizableLongArray sorted = new ResizableLongArray();
+        long bytesRecovered = coalesceFreeChunks(freeChunks, sorted);
+
+        int result = 0;
+        ArrayList<Fragment> tmp = new ArrayList<Fragment>();
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+          long addr = sorted.get(i);
+          if (addr == 0L)
+            continue;
+          int addrSize = OffHeapStoredObject.getSize(addr);
+          Fragment f = createFragment(addr, addrSize);
+          if (this.validateMemoryWithFill) {
+            f.fill();
+          }
+          if (addrSize > result) {
+            result = addrSize;
+            tmp.add(0, f);
+          } else {
+            tmp.add(f);
+          }
+        }
+        this.fragmentList.addAll(tmp);
+
+        int largestFragment = 0;
+        for (Fragment f : this.fragmentList) {
+          largestFragment = Math.max(largestFragment, f.freeSpace());
+        }
+        this.ma.getStats().setLargestFragment(largestFragment);
+        this.ma.getStats().setFragments(this.fragmentList.size());
+        this.ma.getStats().setFragmentation(getFragmentation());
+        this.ma.getStats().incDefragmentationBytesRecovered(bytesRecovered);
+        return result;
+      } // sync
+    } finally {
+      this.ma.getStats().endIncrementalDefragmentation(startTime);
+    }
+  }
+
   /**
    * Simple interface the represents a "stack" of primitive longs. Currently this interface only
    * allows supports poll but more could be added if needed in the future. This interface was
@@ -449,6 +595,48 @@ public class FreeListManager {
     ArrayList<LongStack> freeChunks = new ArrayList<LongStack>();
     collectFreeChunks(freeChunks);
     ResizableLongArray sorted = new ResizableLongArray();
+    long bytesRecovered = coalesceFreeChunks(freeChunks, sorted);
+
+    int largestFragment = 0;
+    this.lastFragmentAllocation.set(0);
+    ArrayList<Fragment> tmp = new ArrayList<Fragment>();
+    for (int i = sorted.size() - 1; i >= 0; i--) {
+      long addr = sorted.get(i);
+      if (addr == 0L)
+        continue;
+      int addrSize = OffHeapStoredObject.getSize(addr);
+      Fragment f = createFragment(addr, addrSize);
+      if (addrSize >= chunkSize) {
+        result = true;
+      }
+      if (addrSize > largestFragment) {
+        largestFragment = addrSize;
+        // TODO it might be better to sort them biggest first
+        tmp.add(0, f);
+      } else {
+        tmp.add(f);
+      }
+    }
+    this.fragmentList.addAll(tmp);
+
+    fillFragments();
+
+    this.ma.getStats().setLargestFragment(largestFragment);
+    this.ma.getStats().setFragments(tmp.size());
+    this.ma.getStats().setFragmentation(getFragmentation());
+    this.ma.getStats().incDefragmentationBytesRecovered(bytesRecovered);
+
+    return result;
+  }
+
+  /**
+   * Drains the given free chunks into sorted, combining every pair of adjacent chunks. Chunks that
+   * were combined into a preceding one are left in sorted as 0L.
+   * 
+   * @return the number of bytes that were combined into a preceding chunk
+   */
+  private long coalesceFreeChunks(List<LongStack> freeChunks, ResizableLongArray sorted) {
+    long bytesRecovered = 0;
     for (LongStack l : freeChunks) {
       long addr = l.poll();
       while (addr != 0) {
@@ -456,22 +644,30 @@ public class FreeListManager {
         idx = -idx;
         idx--;
         int sortedSize = sorted.size();
+        int addrSize = OffHeapStoredObject.getSize(addr);
         if (idx == sortedSize) {
           // addr is > everything in the array
           if (sortedSize == 0) {
             // nothing was in the array
             sorted.add(addr);
           } else {
-            if (!combineIfAdjacentAndSmallEnough(sorted.get(idx - 1), addr)) {
+            if (combineIfAdjacentAndSmallEnough(sorted.get(idx - 1), addr)) {
+              bytesRecovered += addrSize;
+            } else {
               sorted.add(addr);
             }
           }
         } else {
-          if (combineIfAdjacentAndSmallEnough(addr, sorted.get(idx))) {
+          long higherAddr = sorted.get(idx);
+          int higherSize = OffHeapStoredObject.getSize(higherAddr);
+          if (combineIfAdjacentAndSmallEnough(addr, higherAddr)) {
             sorted.set(idx, addr);
+            bytesRecovered += higherSize;
           } else {
             if (idx == 0 || !combineIfAdjacentAndSmallEnough(sorted.get(idx - 1), addr)) {
               sorted.insert(idx, addr);
+            } else {
+              bytesRecovered += addrSize;
             }
           }
         }
@@ -479,40 +675,14 @@ public class FreeListManager {
       }
     }
     for (int i = sorted.size() - 1; i > 0; i--) {
-      if (combineIfAdjacentAndSmallEnough(sorted.get(i - 1), sorted.get(i))) {
-        sorted.set(i, 0L);
-      }
-    }
-
-    int largestFragment = 0;
-    this.lastFragmentAllocation.set(0);
-    ArrayList<Fragment> tmp = new ArrayList<Fragment>();
-    for (int i = sorted.size() - 1; i >= 0; i--) {
       long addr = sorted.get(i);
-      if (addr == 0L)
-        continue;
       int addrSize = OffHeapStoredObject.getSize(addr);
-      Fragment f = createFragment(addr, addrSize);
-      if (addrSize >= chunkSize) {
-        result = true;
-      }
-      if (addrSize > largestFragment) {
-        largestFragment = addrSize;
-        // TODO it might be better to sort them biggest first
-        tmp.add(0, f);
-      } else {
-        tmp.add(f);
+      if (combineIfAdjacentAndSmallEnough(sorted.get(i - 1), addr)) {
+        sorted.set(i, 0L);
+        bytesRecovered += addrSize;
       }
     }
-    this.fragmentList.addAll(tmp);
-
-    fillFragments();
-
-    this.ma.getStats().setLargestFragment(largestFragment);
-    this.ma.getStats().setFragments(tmp.size());
-    this.ma.getStats().setFragmentation(getFragmentation());
-
-    return result;
+    return bytesRecovered;
   }
 
   /**
@@ -589,23 +759,10 @@ public class FreeListManager {
       return;
     OffHeapStoredObjectAddressStack result = new OffHeapStoredObjectAddressStack();
     for (Fragment f : this.fragmentList) {
-      int offset;
-      int diff;
-      do {
-        offset = f.getFreeIndex();
-        diff = f.getSize() - offset;
-      } while (diff >= OffHeapStoredObject.MIN_CHUNK_SIZE && !f.allocate(offset, offset + diff));
-      if (diff < OffHeapStoredObject.MIN_CHUNK_SIZE) {
-        // If diff > 0 then that memory will be lost during defragmentation.
-        // This should never happen since we keep the sizes rounded
-        // based on MIN_CHUNK_SIZE.
-        assert diff == 0;
-        // The current fragment is completely allocated so just skip it.
-        continue;
+      long chunkAddr = allocateFreeSpaceAsChunk(f);
+      if (chunkAddr != 0L) {
+        result.offer(chunkAddr);
       }
-      long chunkAddr = f.getAddress() + offset;
-      OffHeapStoredObject.setSize(chunkAddr, diff);
-      result.offer(chunkAddr);
     }
     // All the fragments have been turned in to chunks so now clear them
     // The defragmentation will create new fragments.
@@ -615,7 +772,55 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * Like collectFreeFragmentChunks but only for the fragments whose address is >= startAddr and <
+   * endAddr. Only those fragments are removed from the fragment list.
+   */
+  private void collectFreeFragmentChunks(List<LongStack> l, long startAddr, long endAddr) {
+    OffHeapStoredObjectAddressStack result = new OffHeapStoredObjectAddressStack();
+    ArrayList<Fragment> collected = new ArrayList<Fragment>();
+    for (Fragment f : this.fragmentList) {
+      if (f.getAddress() < startAddr || f.getAddress() >= endAddr) {
+        continue;
+      }
+      long chunkAddr = allocateFreeSpaceAsChunk(f);
+      if (chunkAddr != 0L) {
+        result.offer(chunkAddr);
+      }
+      collected.add(f);
+    }
+    this.fragmentList.removeAll(collected);
+    if (!result.isEmpty()) {
+      l.add(result);
+    }
+  }
+
+  /**
+   * Allocates all the free space left in the given fragment and returns it as a chunk. Returns 0L
+   * if the fragment has no free space left.
+   */
+  private long allocateFreeSpaceAsChunk(Fragment f) {
+    int offset;
+    int diff;
+    do {
+      offset = f.getFreeIndex();
+      diff = f.getSize() - offset;
+    } while (diff >= OffHeapStoredObject.MIN_CHUNK_SIZE && !f.allocate(offset, offset + diff));
+    if (diff < OffHeapStoredObject.MIN_CHUNK_SIZE) {
+      // If diff > 0 then that memory will be lost during defragmentation.
+      // This should never happen since we keep the sizes rounded
+      // based on MIN_CHUNK_SIZE.
+      assert diff == 0;
+      // The fragment is completely allocated.
+      return 0L;
+    }
+    long chunkAddr = f.getAddress() + offset;
+    OffHeapStoredObject.setSize(chunkAddr, diff);
+    return chunkAddr;
+  }
+
   private void collectFreeTinyChunks(List<LongStack> l) {
+    flushFreeListCaches();
     for (int i = 0; i < this.tinyFreeLists.length(); i++) {
       OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
       if (cl != null) {
@@ -627,6 +832,32 @@ public class FreeListManager {
     }
   }
 
+  private void collectFreeTinyChunks(List<LongStack> l, long startAddr, long endAddr) {
+    for (int i = 0; i < this.tinyFreeLists.length(); i++) {
+      OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
+      if (cl != null) {
+        long head = cl.removeInRange(startAddr, endAddr);
+        if (head != 0L) {
+          l.add(new OffHeapStoredObjectAddressStack(head));
+        }
+      }
+    }
+  }
+
+  private void collectFreeHugeChunks(List<LongStack> l, long startAddr, long endAddr) {
+    OffHeapStoredObjectAddressStack result = null;
+    for (OffHeapStoredObject c : this.hugeChunkSet) {
+      long addr = c.getAddress();
+      if (addr >= startAddr && addr < endAddr && this.hugeChunkSet.remove(c)) {
+        if (result == null) {
+          result = new OffHeapStoredObjectAddressStack();
+          l.add(result);
+        }
+        result.offer(addr);
+      }
+    }
+  }
+
   private void collectFreeHugeChunks(List<LongStack> l) {
     OffHeapStoredObject c = this.hugeChunkSet.pollFirst();
     OffHeapStoredObjectAddressStack result = null;
@@ -692,8 +923,100 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
+    int idx = getNearestTinyMultiple(size);
+    if (useFragments && this.freeListCaches != null && idx < FREE_LIST_CACHE_SIZE_CLASSES) {
+      long memAddr = allocateFromFreeListCache(idx);
+      if (memAddr != 0L) {
+        OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
+        checkDataIntegrity(result);
+        result.readyForAllocation();
+        return result;
+      }
+    }
+    return basicAllocate(idx, TINY_MULTIPLE, 0, this.tinyFreeLists, useFragments);
+  }
+
+  private FreeListCache getFreeListCache() {
+    int hash = (int) Thread.currentThread().getId();
+    hash ^= (hash >>> 16);
+    return this.freeListCaches[hash & (this.freeListCaches.length - 1)];
+  }
+
+  /**
+   * Returns the address of a free chunk of the given tiny size class from this thread's free list
+   * cache, refilling the cache from the shared free list if needed. Returns {@code 0L} if the cache
+   * is busy or there are no free chunks of that size.
+   */
+  private long allocateFromFreeListCache(int idx) {
+    FreeListCache cache = getFreeListCache();
+    if (!cache.tryLock()) {
+      return 0L;
+    }
+    try {
+      long memAddr = cache.poll(idx);
+      if (memAddr != 0L) {
+        this.ma.getStats().incFreeListCacheHits();
+        return memAddr;
+      }
+      OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+      if (clq != null && cache.refill(idx, clq) > 0) {
+        return cache.poll(idx);
+      }
+      return 0L;
+    } finally {
+      cache.unlock();
+    }
+  }
+
+  /**
+   * Puts the given free chunk in this thread's free list cache. If the cache is full for that size
+   * class then half of it is returned to the shared free list first.
+   * 
+   * @return false if the cache is busy
+   */
+  private boolean freeToFreeListCache(long addr, int idx) {
+    FreeListCache cache = getFreeListCache();
+    if (!cache.tryLock()) {
+      return false;
+    }
+    try {
+      if (!cache.offer(idx, addr)) {
+        cache.flush(idx, Math.max(1, cache.getCapacity() / 2), getOrCreateFreeList(idx));
+        this.ma.getStats().incFreeListCacheFlushes();
+        cache.offer(idx, addr);
+      }
+      return true;
+    } finally {
+      cache.unlock();
+    }
+  }
+
+  /**
+   * Returns every chunk held by the free list caches to the shared tiny free lists so that they can
+   * be found by other threads and by defragmentation.
+   */
+  void flushFreeListCaches() {
+    if (this.freeListCaches == null) {
+      return;
+    }
+    for (FreeListCache cache : this.freeListCaches) {
+      cache.lock();
+      try {
+        boolean flushed = false;
+        for (int i = 0; i < cache.getSizeClassCount(); i++) {
+          int count = cache.size(i);
+          if (count > 0) {
+            cache.flush(i, count, getOrCreateFreeList(i));
+            flushed = true;
+          }
+        }
+        if (flushed) {
+          this.ma.getStats().incFreeListCacheFlushes();
+        }
+      } finally {
+        cache.unlock();
+      }
+    }
   }
 
   private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
@@ -790,7 +1113,23 @@ public class FreeListManager {
   }
 
   private void freeTiny(long addr, int cSize) {
-    basicFree(addr, getNearestTinyMultiple(cSize), this.tinyFreeLists);
+    int idx = getNearestTinyMultiple(cSize);
+    if (this.freeListCaches != null && idx < FREE_LIST_CACHE_SIZE_CLASSES
+        && freeToFreeListCache(addr, idx)) {
+      return;
+    }
+    basicFree(addr, idx, this.tinyFreeLists);
+  }
+
+  private OffHeapStoredObjectAddressStack getOrCreateFreeList(int idx) {
+    OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+    if (clq == null) {
+      clq = createFreeListForEmptySlot(this.tinyFreeLists, idx);
+      if (!this.tinyFreeLists.compareAndSet(idx, null, clq)) {
+        clq = this.tinyFreeLists.get(idx);
+      }
+    }
+    return clq;
   }
 
   private void basicFree(long addr, int idx,
@@ -821,6 +1160,7 @@ public class FreeListManager {
   }
 
   List<MemoryBlock> getOrderedBlocks() {
+    flushFreeListCaches();
     final List<MemoryBlock> value = new ArrayList<MemoryBlock>();
     addBlocksFromFragments(this.fragmentList, value); // unused fragments
     addBlocksFromChunks(getLiveChunks(), value); // used chunks
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.OffHeapKeyRegionEntry;
+import org.apache.geode.internal.offheap.annotations.Released;
+import org.apache.geode.internal.offheap.annotations.Retained;
+
+/**
+ * The class just has static methods that operate on instances of {@link OffHeapKeyRegionEntry}.
+ * <p>
+ * A key is stored off heap as one encoding byte followed by the characters of the String. If every
+ * character fits in a byte the encoding byte is {@link #BYTE_ENCODED} and each character takes one
+ * byte; otherwise it is {@link #CHAR_ENCODED} and each character takes two bytes.
+ * <p>
+ * A key is moved off heap when its entry is added to a region's map and is copied back to the heap
+ * and released when the entry is removed from the map. Entries that are created but never added to
+ * a map keep their key on the heap so nothing is leaked when they are discarded.
+ */
+public class OffHeapKeyHelper {
+  /**
+   * If true then String keys that can not be inlined are stored off heap by regions whose values
+   * are stored off heap.
+   */
+  public static boolean OFF_HEAP_REGION_KEYS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_REGION_KEYS");
+
+  static final byte CHAR_ENCODED = 0;
+  static final byte BYTE_ENCODED = 1;
+
+  private OffHeapKeyHelper() {
+    // no instances allowed
+  }
+
+  /**
+   * Returns the key of the given entry, reading it from off-heap memory if needed.
+   */
+  public static Object getKey(OffHeapKeyRegionEntry re) {
+    while (true) {
+      long addr = re.getKeyAddress();
+      if (addr != 0L) {
+        if (OffHeapStoredObject.retain(addr)) {
+          try {
+            if (re.getKeyAddress() == addr) {
+              return decodeKey(addr);
+            }
+          } finally {
+            OffHeapStoredObject.release(addr);
+          }
+        }
+        // the key was released or replaced; spin around and try again
+        continue;
+      }
+      String key = re.getHeapKey();
+      if (key != null) {
+        return key;
+      }
+      // the key is being moved off heap; spin around and try again
+    }
+  }
+
+  /**
+   * Returns true if k is equal to the key of the given entry. Off-heap keys are compared in place
+   * without creating a String on the heap.
+   */
+  public static boolean isKeyEqual(OffHeapKeyRegionEntry re, Object k) {
+    if (!(k instanceof String)) {
+      return false;
+    }
+    final String skey = (String) k;
+    while (true) {
+      long addr = re.getKeyAddress();
+      if (addr != 0L) {
+        if (OffHeapStoredObject.retain(addr)) {
+          try {
+            if (re.getKeyAddress() == addr) {
+              return keyEquals(addr, skey);
+            }
+          } finally {
+            OffHeapStoredObject.release(addr);
+          }
+        }
+        continue;
+      }
+      String key = re.getHeapKey();
+      if (key != null) {
+        return key.equals(skey);
+      }
+    }
+  }
+
+  /**
+   * Copies the key of the given entry off heap. Does nothing if the key is already off heap.
+   */
+  public static void moveKeyOffHeap(OffHeapKeyRegionEntry re) {
+    final String key = re.getHeapKey();
+    if (key == null || re.getKeyAddress() != 0L) {
+      return;
+    }
+    @Retained
+    final long addr = encodeKey(key);
+    if (re.setKeyAddress(0L, addr)) {
+      re.setHeapKey(null);
+    } else {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  /**
+   * Copies the key of the given entry back onto the heap and releases its off-heap memory. Does
+   * nothing if the key is not off heap.
+   */
+  @Released
+  public static void releaseKey(OffHeapKeyRegionEntry re) {
+    final long addr = re.getKeyAddress();
+    if (addr == 0L) {
+      return;
+    }
+    // readers fall back to the heap key once the address is cleared so set it first
+    re.setHeapKey(decodeKey(addr));
+    if (re.setKeyAddress(addr, 0L)) {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  @Retained
+  static long encodeKey(String key) {
+    final int len = key.length();
+    final boolean byteEncoded = isByteEncodingOk(key);
+    final byte[] bytes = new byte[1 + (byteEncoded ? len : len * 2)];
+    if (byteEncoded) {
+      bytes[0] = BYTE_ENCODED;
+      for (int i = 0; i < len; i++) {
+        bytes[1 + i] = (byte) key.charAt(i);
+      }
+    } else {
+      bytes[0] = CHAR_ENCODED;
+      for (int i = 0; i < len; i++) {
+        char c = key.charAt(i);
+        bytes[1 + i * 2] = (byte) (c >> 8);
+        bytes[2 + i * 2] = (byte) c;
+      }
+    }
+    StoredObject so = MemoryAllocatorImpl.getAllocator().allocate(bytes.length);
+    so.writeDataBytes(0, bytes);
+    return so.getAddress();
+  }
+
+  static String decodeKey(long addr) {
+    final long dataAddr = addr + OffHeapStoredObject.HEADER_SIZE;
+    final int dataSize = OffHeapStoredObject.getDataSize(addr);
+    final byte[] bytes = new byte[dataSize];
+    AddressableMemoryManager.readBytes(dataAddr, bytes, 0, dataSize);
+    if (bytes[0] == BYTE_ENCODED) {
+      final char[] chars = new char[dataSize - 1];
+      for (int i = 0; i < chars.length; i++) {
+        chars[i] = (char) bytes[1 + i];
+      }
+      return new String(chars);
+    } else {
+      final char[] chars = new char[(dataSize - 1) / 2];
+      for (int i = 0; i < chars.length; i++) {
+        chars[i] = (char) (((bytes[1 + i * 2] & 0xff) << 8) | (bytes[2 + i * 2] & 0xff));
+      }
+      return new String(chars);
+    }
+  }
+
+  static boolean keyEquals(long addr, String key) {
+    final long dataAddr = addr + OffHeapStoredObject.HEADER_SIZE;
+    final int dataSize = OffHeapStoredObject.getDataSize(addr);
+    final int len = key.length();
+    if (AddressableMemoryManager.readByte(dataAddr) == BYTE_ENCODED) {
+      if (dataSize - 1 != len) {
+        return false;
+      }
+      for (int i = 0; i < len; i++) {
+        if (AddressableMemoryManager.readByte(dataAddr + 1 + i) != (byte) key.charAt(i)
+            || key.charAt(i) > 0x7f) {
+          return false;
+        }
+      }
+    } else {
+      if (dataSize - 1 != len * 2) {
+        return false;
+      }
+      for (int i = 0; i < len; i++) {
+        char c = (char) (((AddressableMemoryManager.readByte(dataAddr + 1 + i * 2) & 0xff) << 8)
+            | (AddressableMemoryManager.readByte(dataAddr + 2 + i * 2) & 0xff));
+        if (c != key.charAt(i)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isByteEncodingOk(String key) {
+    for (int i = 0; i < key.length(); i++) {
+      if (key.charAt(i) > 0x7f) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -43,6 +43,16 @@ public interface OffHeapMemoryStats {
 
   public void setFragmentation(int value);
 
+  public void incFreeListCacheHits();
+
+  public void incFreeListCacheFlushes();
+
+  public long startIncrementalDefragmentation();
+
+  public void endIncrementalDefragmentation(long start);
+
+  public void incDefragmentationBytesRecovered(long value);
+
   public long getFreeMemory();
 
   public long getMaxMemory();
@@ -65,6 +75,16 @@ public interface OffHeapMemoryStats {
 
   public long getDefragmentationTime();
 
+  public long getFreeListCacheHits();
+
+  public long getFreeListCacheFlushes();
+
+  public int getIncrementalDefragmentations();
+
+  public long getIncrementalDefragmentationTime();
+
+  public long getDefragmentationBytesRecovered();
+
   public Statistics getStats();
 
   public void close();
@@ -56,6 +56,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
   private static final int defragmentationTimeId;
   private static final int fragmentationId;
   private static final int defragmentationsInProgressId;
+  private static final int freeListCacheHitsId;
+  private static final int freeListCacheFlushesId;
+  private static final int incrementalDefragmentationsId;
+  private static final int incrementalDefragmentationTimeId;
+  private static final int defragmentationBytesRecoveredId;
   // NOTE!!!! When adding new stats make sure and update the initialize method on this class
 
   // creates and registers the statistics type
@@ -80,6 +85,16 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String objectsDesc = "The number of objects stored in off-heap memory.";
     final String readsDesc =
         "The total number of reads of off-heap memory. Only reads of a full object increment this statistic. If only a part of the object is read this statistic is not incremented.";
+    final String freeListCacheHitsDesc =
+        "The total number of off-heap allocations satisfied by a free list cache without going to the shared free lists.";
+    final String freeListCacheFlushesDesc =
+        "The total number of times a free list cache returned free chunks to the shared free lists.";
+    final String incrementalDefragmentationsDesc =
+        "The total number of incremental defragmentation steps done on a single off-heap slab.";
+    final String incrementalDefragmentationTimeDesc =
+        "The total time spent in incremental defragmentation steps.";
+    final String defragmentationBytesRecoveredDesc =
+        "The total number of free off-heap bytes that defragmentation merged into a preceding free block.";
     final String maxMemoryDesc =
         "The maximum amount of off-heap memory, in bytes. This is the amount of memory allocated at startup and does not change.";
 
@@ -94,6 +109,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String objects = "objects";
     final String reads = "reads";
     final String maxMemory = "maxMemory";
+    final String freeListCacheHits = "freeListCacheHits";
+    final String freeListCacheFlushes = "freeListCacheFlushes";
+    final String incrementalDefragmentations = "incrementalDefragmentations";
+    final String incrementalDefragmentationTime = "incrementalDefragmentationTime";
+    final String defragmentationBytesRecovered = "defragmentationBytesRecovered";
 
     statsType = f.createType(statsTypeName, statsTypeDescription,
         new StatisticDescriptor[] {f.createLongGauge(usedMemory, usedMemoryDesc, "bytes"),
@@ -107,7 +127,15 @@ public class OffHeapStorage implements OffHeapMemoryStats {
             f.createIntGauge(largestFragment, largestFragmentDesc, "bytes"),
             f.createIntGauge(objects, objectsDesc, "objects"),
             f.createLongCounter(reads, readsDesc, "operations"),
-            f.createLongGauge(maxMemory, maxMemoryDesc, "bytes"),});
+            f.createLongGauge(maxMemory, maxMemoryDesc, "bytes"),
+            f.createLongCounter(freeListCacheHits, freeListCacheHitsDesc, "operations"),
+            f.createLongCounter(freeListCacheFlushes, freeListCacheFlushesDesc, "operations"),
+            f.createIntCounter(incrementalDefragmentations, incrementalDefragmentationsDesc,
+                "operations"),
+            f.createLongCounter(incrementalDefragmentationTime,
+                incrementalDefragmentationTimeDesc, "nanoseconds", false),
+            f.createLongCounter(defragmentationBytesRecovered,
+                defragmentationBytesRecoveredDesc, "bytes"),});
 
     usedMemoryId = statsType.nameToId(usedMemory);
     defragmentationId = statsType.nameToId(defragmentations);
@@ -120,6 +148,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     objectsId = statsType.nameToId(objects);
     readsId = statsType.nameToId(reads);
     maxMemoryId = statsType.nameToId(maxMemory);
+    freeListCacheHitsId = statsType.nameToId(freeListCacheHits);
+    freeListCacheFlushesId = statsType.nameToId(freeListCacheFlushes);
+    incrementalDefragmentationsId = statsType.nameToId(incrementalDefragmentations);
+    incrementalDefragmentationTimeId = statsType.nameToId(incrementalDefragmentationTime);
+    defragmentationBytesRecoveredId = statsType.nameToId(defragmentationBytesRecovered);
   }
 
   public static long parseOffHeapMemorySize(String value) {
@@ -370,6 +403,59 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     return this.stats.getInt(fragmentationId);
   }
 
+  @Override
+  public void incFreeListCacheHits() {
+    this.stats.incLong(freeListCacheHitsId, 1);
+  }
+
+  @Override
+  public long getFreeListCacheHits() {
+    return this.stats.getLong(freeListCacheHitsId);
+  }
+
+  @Override
+  public void incFreeListCacheFlushes() {
+    this.stats.incLong(freeListCacheFlushesId, 1);
+  }
+
+  @Override
+  public long getFreeListCacheFlushes() {
+    return this.stats.getLong(freeListCacheFlushesId);
+  }
+
+  @Override
+  public long startIncrementalDefragmentation() {
+    return DistributionStats.getStatTime();
+  }
+
+  @Override
+  public void endIncrementalDefragmentation(long start) {
+    this.stats.incInt(incrementalDefragmentationsId, 1);
+    if (DistributionStats.enableClockStats) {
+      stats.incLong(incrementalDefragmentationTimeId, DistributionStats.getStatTime() - start);
+    }
+  }
+
+  @Override
+  public int getIncrementalDefragmentations() {
+    return this.stats.getInt(incrementalDefragmentationsId);
+  }
+
+  @Override
+  public long getIncrementalDefragmentationTime() {
+    return this.stats.getLong(incrementalDefragmentationTimeId);
+  }
+
+  @Override
+  public void incDefragmentationBytesRecovered(long value) {
+    this.stats.incLong(defragmentationBytesRecoveredId, value);
+  }
+
+  @Override
+  public long getDefragmentationBytesRecovered() {
+    return this.stats.getLong(defragmentationBytesRecoveredId);
+  }
+
   public Statistics getStats() {
     return this.stats;
   }
@@ -392,6 +478,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     setLargestFragment(oldStats.getLargestFragment());
     setDefragmentationTime(oldStats.getDefragmentationTime());
     setFragmentation(oldStats.getFragmentation());
+    setFreeListCacheHits(oldStats.getFreeListCacheHits());
+    setFreeListCacheFlushes(oldStats.getFreeListCacheFlushes());
+    setIncrementalDefragmentations(oldStats.getIncrementalDefragmentations());
+    setIncrementalDefragmentationTime(oldStats.getIncrementalDefragmentationTime());
+    setDefragmentationBytesRecovered(oldStats.getDefragmentationBytesRecovered());
 
     oldStats.close();
   }
@@ -408,6 +499,26 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     this.stats.setInt(defragmentationsInProgressId, value);
   }
 
+  private void setFreeListCacheHits(long value) {
+    this.stats.setLong(freeListCacheHitsId, value);
+  }
+
+  private void setFreeListCacheFlushes(long value) {
+    this.stats.setLong(freeListCacheFlushesId, value);
+  }
+
+  private void setIncrementalDefragmentations(int value) {
+    this.stats.setInt(incrementalDefragmentationsId, value);
+  }
+
+  private void setIncrementalDefragmentationTime(long value) {
+    this.stats.setLong(incrementalDefragmentationTimeId, value);
+  }
+
+  private void setDefragmentationBytesRecovered(long value) {
+    this.stats.setLong(defragmentationBytesRecoveredId, value);
+  }
+
   private void setReads(long value) {
     this.stats.setLong(readsId, value);
   }
@@ -50,6 +50,75 @@ public class OffHeapStoredObjectAddressStack implements LongStack {
     }
   }
 
+  /**
+   * Adds the given addresses to this stack with a single synchronization.
+   */
+  public void offer(long[] addrs, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      assert addrs[i] != 0;
+      MemoryAllocatorImpl.validateAddress(addrs[i]);
+    }
+    synchronized (this) {
+      long top = this.topAddr;
+      for (int i = offset; i < offset + length; i++) {
+        OffHeapStoredObject.setNext(addrs[i], top);
+        top = addrs[i];
+      }
+      this.topAddr = top;
+    }
+  }
+
+  /**
+   * Removes up to maxCount addresses from this stack, with a single synchronization, and stores
+   * them in dest starting at offset.
+   * 
+   * @return the number of addresses removed
+   */
+  public int poll(long[] dest, int offset, int maxCount) {
+    int count = 0;
+    synchronized (this) {
+      long addr = this.topAddr;
+      while (count < maxCount && addr != 0L) {
+        dest[offset + count] = addr;
+        count++;
+        addr = OffHeapStoredObject.getNext(addr);
+      }
+      this.topAddr = addr;
+    }
+    return count;
+  }
+
+  /**
+   * Unlinks every address in this stack that is >= startAddr and < endAddr. The removed addresses
+   * are linked to each other and the top one is returned so the caller owns all of them after this
+   * call.
+   *
+   * @return the top address of the removed addresses or 0L if none were in the range
+   */
+  public long removeInRange(long startAddr, long endAddr) {
+    long removedTop = 0L;
+    synchronized (this) {
+      long prev = 0L;
+      long addr = this.topAddr;
+      while (addr != 0L) {
+        long next = OffHeapStoredObject.getNext(addr);
+        if (addr >= startAddr && addr < endAddr) {
+          if (prev == 0L) {
+            this.topAddr = next;
+          } else {
+            OffHeapStoredObject.setNext(prev, next);
+          }
+          OffHeapStoredObject.setNext(addr, removedTop);
+          removedTop = addr;
+        } else {
+          prev = addr;
+        }
+        addr = next;
+      }
+    }
+    return removedTop;
+  }
+
   @Override
   public long poll() {
     long result;
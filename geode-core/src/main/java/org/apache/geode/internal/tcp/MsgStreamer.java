@@ -292,8 +292,7 @@ public class MsgStreamer extends OutputStream
   public final void realFlush(boolean lastFlushForMessage) {
     if (isOverflowMode()) {
       if (this.overflowBuf == null) {
-        this.overflowBuf = new HeapDataOutputStream(
-            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT);
+        this.overflowBuf = createOverflowBuf();
       }
       return;
     }
@@ -906,8 +905,7 @@ public class MsgStreamer extends OutputStream
       if (remainingSpace < 5) {
         // we don't even have room to write the length field so just create
         // the overflowBuf
-        this.overflowBuf = new HeapDataOutputStream(
-            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT);
+        this.overflowBuf = createOverflowBuf();
         this.overflowBuf.writeAsSerializedByteArray(v);
         return;
       }
@@ -921,6 +919,7 @@ public class MsgStreamer extends OutputStream
     this.buffer.position(lengthPos + 5);
     enableOverflowMode();
     boolean finished = false;
+    HeapDataOutputStream overBuf = null;
     try {
       try {
         DataSerializer.writeObject(v, this);
@@ -932,7 +931,7 @@ public class MsgStreamer extends OutputStream
         throw e2;
       }
       int baLength = this.buffer.position() - (lengthPos + 5);
-      HeapDataOutputStream overBuf = this.overflowBuf;
+      overBuf = this.overflowBuf;
       if (overBuf != null) {
         baLength += overBuf.size();
       }
@@ -942,15 +941,29 @@ public class MsgStreamer extends OutputStream
       finished = true;
       if (overBuf != null && !isOverflowMode()) {
         overBuf.sendTo((ByteBufferWriter) this);
+        // its contents have been copied to this streamer
+        overBuf.close();
       }
     } finally {
       if (!finished) {
         // reset buffer and act as if we did nothing
         this.buffer.position(lengthPos);
+        overBuf = this.overflowBuf;
         disableOverflowMode();
+        if (overBuf != null && !isOverflowMode()) {
+          overBuf.close();
+        }
       }
     }
   }
 
+  private HeapDataOutputStream createOverflowBuf() {
+    int allocSize = this.buffer.capacity() - Connection.MSG_HEADER_BYTES;
+    if (OutputBufferPool.ENABLED) {
+      return HeapDataOutputStream.createPooled(allocSize, Version.CURRENT, false, this.stats);
+    }
+    return new HeapDataOutputStream(allocSize, Version.CURRENT);
+  }
+
 
 }
@@ -62,8 +62,10 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.geode.CancelException;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.cache.OffHeapKeyRegionEntry;
 import org.apache.geode.internal.cache.OffHeapRegionEntry;
 import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
 import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
 import org.apache.geode.internal.size.SingleObjectSizer;
 import org.apache.geode.internal.util.ArrayUtils;
@@ -992,6 +994,9 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
              */
             // GemStone changes END
             this.count = c; // write-volatile
+            if (e instanceof OffHeapKeyRegionEntry) {
+              OffHeapKeyHelper.releaseKey((OffHeapKeyRegionEntry) e);
+            }
           }
         }
         return oldValue;
@@ -1805,33 +1810,45 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
               for (HashEntry<?, ?> p = he; p != null; p = p.getNextEntry()) {
                 synchronized (p) {
                   ((OffHeapRegionEntry) p).release();
+                  if (p instanceof OffHeapKeyRegionEntry) {
+                    OffHeapKeyHelper.releaseKey((OffHeapKeyRegionEntry) p);
+                  }
                 }
               }
             }
           }
         };
-        boolean submitted = false;
-        InternalDistributedSystem ids = InternalDistributedSystem.getConnectedInstance();
-        if (ids != null) {
-          try {
-            ids.getDistributionManager().getWaitingThreadPool().execute(runnable);
-            submitted = true;
-          } catch (RejectedExecutionException e) {
-            // fall through with submitted false
-          } catch (CancelException e) {
-            // fall through with submitted false
-          } catch (NullPointerException e) {
-            // fall through with submitted false
-          }
-        }
-        if (!submitted) {
-          String name = this.getClass().getSimpleName() + "@" + this.hashCode() + " Clear Thread";
-          Thread thread = new Thread(runnable, name);
-          thread.setDaemon(true);
-          thread.start();
-        }
+        executeClearedEntryRelease(runnable,
+            this.getClass().getSimpleName() + "@" + this.hashCode() + " Clear Thread");
+      }
+    }
+  }
+
+  /**
+   * Runs the given release of cleared off-heap entries in the background, using the distribution
+   * manager's waiting thread pool if it is available or else a new daemon thread with the given
+   * name.
+   */
+  static void executeClearedEntryRelease(Runnable runnable, String threadName) {
+    boolean submitted = false;
+    InternalDistributedSystem ids = InternalDistributedSystem.getConnectedInstance();
+    if (ids != null) {
+      try {
+        ids.getDistributionManager().getWaitingThreadPool().execute(runnable);
+        submitted = true;
+      } catch (RejectedExecutionException e) {
+        // fall through with submitted false
+      } catch (CancelException e) {
+        // fall through with submitted false
+      } catch (NullPointerException e) {
+        // fall through with submitted false
       }
     }
+    if (!submitted) {
+      Thread thread = new Thread(runnable, threadName);
+      thread.setDaemon(true);
+      thread.start();
+    }
   }
 
   /**
@@ -0,0 +1,836 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.internal.cache.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntryCreator;
+
+/**
+ * A concurrent map specialized for {@link Long} or {@link Integer} keys. The values mapped by keys
+ * of the configured type are kept in open-addressed (linear probing) tables, one per segment, and
+ * their keys are read back from the values themselves. Such values must implement
+ * {@link PrimitiveKeyEntry}, or be a {@link HashEntry} whose key is the boxed primitive key. So a
+ * lookup never allocates a boxed key or calls a generic <code>hashCode</code>/<code>equals</code>,
+ * and the map stores neither a second copy of the key nor a chained hash entry per mapping.
+ * <p>
+ * Keys of any other type are still accepted and are kept in a small
+ * {@link CustomEntryConcurrentHashMap} so that this class is a drop in replacement for it when a
+ * region's key constraint says that all of its keys will be primitive wrappers.
+ * <p>
+ * Like {@link CustomEntryConcurrentHashMap} retrievals do not lock, updates lock the segment and
+ * <tt>null</tt> keys or values are not allowed. Iterators are weakly consistent in the same way:
+ * they never throw {@link java.util.ConcurrentModificationException}, return each mapping that
+ * existed when they were created, and was not removed before they reached it, exactly once, and may
+ * or may not reflect later modifications.
+ *
+ * @param <V> the type of mapped values
+ */
+public class PrimitiveKeyConcurrentHashMap<V> extends AbstractMap<Object, V>
+    implements ConcurrentMap<Object, V> {
+
+  /**
+   * The largest load factor used for the open-addressed tables. Linear probing degrades quickly
+   * when the tables get full so larger requested load factors are capped to this.
+   */
+  static final float MAX_LOAD_FACTOR = 0.8f;
+
+  /** The smallest table allocated for a segment. Must be a power of two. */
+  static final int MIN_SEGMENT_CAPACITY = 8;
+
+  /** The largest table allocated for a segment. Must be a power of two. */
+  static final int MAX_SEGMENT_CAPACITY = 1 << 30;
+
+  /** The maximum number of segments to allow. */
+  static final int MAX_SEGMENTS = 1 << 16;
+
+  /** Marker stored in a value slot whose mapping was removed. */
+  static final Object DELETED = new Object();
+
+  /**
+   * Implemented by values that hold their primitive key unboxed, so that the map can compare keys
+   * without storing them a second time.
+   */
+  public interface PrimitiveKeyEntry {
+    /** Returns the key of this value; an int key is returned widened to a long. */
+    long getPrimitiveKey();
+  }
+
+  /**
+   * Returns the key class that should be stored unboxed for a region with the given key
+   * constraint, or null if keys with that constraint can not be stored in this map.
+   */
+  public static Class<?> getPrimitiveKeyType(Class<?> keyConstraint) {
+    if (keyConstraint == Long.class || keyConstraint == Integer.class) {
+      return keyConstraint;
+    }
+    return null;
+  }
+
+  /** true if the unboxed keys are Integers; false if they are Longs */
+  private final boolean intKeys;
+
+  private final int segmentMask;
+
+  private final int segmentShift;
+
+  private final Segment[] segments;
+
+  /** Holds the mappings whose key is not of the primitive key type. */
+  private final CustomEntryConcurrentHashMap<Object, V> objectKeyMap;
+
+  private transient Set<Object> keySet;
+
+  private transient Collection<V> values;
+
+  private transient Set<Map.Entry<Object, V>> entrySet;
+
+  /**
+   * Creates a new, empty map.
+   *
+   * @param keyType either <code>Long.class</code> or <code>Integer.class</code>
+   * @param initialCapacity the initial capacity. The implementation performs internal sizing to
+   *        accommodate this many elements.
+   * @param loadFactor the load factor threshold, used to control resizing. Values above
+   *        {@link #MAX_LOAD_FACTOR} are capped.
+   * @param concurrencyLevel the estimated number of concurrently updating threads.
+   * @param entryCreator the {@link HashEntryCreator} used for mappings whose key is not of type
+   *        <code>keyType</code>; may be null
+   * @throws IllegalArgumentException if keyType is not supported, the initial capacity is negative
+   *         or the load factor or concurrencyLevel are nonpositive.
+   */
+  public PrimitiveKeyConcurrentHashMap(Class<?> keyType, int initialCapacity, float loadFactor,
+      int concurrencyLevel, HashEntryCreator<Object, V> entryCreator) {
+    if (getPrimitiveKeyType(keyType) == null) {
+      throw new IllegalArgumentException("Unsupported key type " + keyType);
+    }
+    if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    this.intKeys = keyType == Integer.class;
+    if (loadFactor > MAX_LOAD_FACTOR) {
+      loadFactor = MAX_LOAD_FACTOR;
+    }
+    if (concurrencyLevel > MAX_SEGMENTS) {
+      concurrencyLevel = MAX_SEGMENTS;
+    }
+    int sshift = 0;
+    int ssize = 1;
+    while (ssize < concurrencyLevel) {
+      ++sshift;
+      ssize <<= 1;
+    }
+    this.segmentShift = 32 - sshift;
+    this.segmentMask = ssize - 1;
+
+    long perSegment = ((long) initialCapacity + ssize - 1) / ssize;
+    int cap = MIN_SEGMENT_CAPACITY;
+    while (cap < MAX_SEGMENT_CAPACITY && (long) (cap * loadFactor) <= perSegment) {
+      cap <<= 1;
+    }
+    this.segments = new Segment[ssize];
+    for (int i = 0; i < ssize; i++) {
+      this.segments[i] = new Segment(cap, loadFactor);
+    }
+    if (entryCreator != null) {
+      this.objectKeyMap = new CustomEntryConcurrentHashMap<Object, V>(1, 0.75f, 1, false,
+          entryCreator);
+    } else {
+      this.objectKeyMap = new CustomEntryConcurrentHashMap<Object, V>(1, 0.75f, 1);
+    }
+  }
+
+  /**
+   * Spreads the bits of a primitive key (the finalizer of MurmurHash3) so that sequential keys
+   * are distributed over both the segments and the slots of a segment.
+   */
+  static int hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+  /** Returns the key of a value mapped by a primitive key. */
+  static long keyOf(Object value) {
+    if (value instanceof PrimitiveKeyEntry) {
+      return ((PrimitiveKeyEntry) value).getPrimitiveKey();
+    }
+    return ((Number) ((HashEntry<?, ?>) value).getKey()).longValue();
+  }
+
+  private boolean isPrimitiveKey(Object key) {
+    return this.intKeys ? key instanceof Integer : key instanceof Long;
+  }
+
+  private Object box(long key) {
+    if (this.intKeys) {
+      return Integer.valueOf((int) key);
+    } else {
+      return Long.valueOf(key);
+    }
+  }
+
+  private Segment segmentFor(int hash) {
+    return this.segments[(hash >>> this.segmentShift) & this.segmentMask];
+  }
+
+  private static void checkNotNull(Object o) {
+    if (o == null) {
+      throw new NullPointerException();
+    }
+  }
+
+  @Override
+  public int size() {
+    long sum = this.objectKeyMap.size();
+    for (Segment s : this.segments) {
+      sum += s.count;
+    }
+    return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (Segment s : this.segments) {
+      if (s.count != 0) {
+        return false;
+      }
+    }
+    return this.objectKeyMap.isEmpty();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    checkNotNull(key);
+    if (!isPrimitiveKey(key)) {
+      return this.objectKeyMap.get(key);
+    }
+    long k = ((Number) key).longValue();
+    int h = hash(k);
+    return (V) segmentFor(h).get(k, h);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(Object key, V value) {
+    checkNotNull(key);
+    checkNotNull(value);
+    if (!isPrimitiveKey(key)) {
+      return this.objectKeyMap.put(key, value);
+    }
+    long k = ((Number) key).longValue();
+    int h = hash(k);
+    assert keyOf(value) == k;
+    return (V) segmentFor(h).put(k, h, value, false);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V putIfAbsent(Object key, V value) {
+    checkNotNull(key);
+    checkNotNull(value);
+    if (!isPrimitiveKey(key)) {
+      return this.objectKeyMap.putIfAbsent(key, value);
+    }
+    long k = ((Number) key).longValue();
+    int h = hash(k);
+    assert keyOf(value) == k;
+    return (V) segmentFor(h).put(k, h, value, true);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    checkNotNull(key);
+    if (!isPrimitiveKey(key)) {
+      return this.objectKeyMap.remove(key);
+    }
+    long k = ((Number) key).longValue();
+    int h = hash(k);
+    return (V) segmentFor(h).remove(k, h, null);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    checkNotNull(key);
+    if (value == null) {
+      return false;
+    }
+    if (!isPrimitiveKey(key)) {
+      return this.objectKeyMap.remove(key, value);
+    }
+    long k = ((Number) key).longValue();
+    int h = hash(k);
+    return segmentFor(h).remove(k, h, value) != null;
+  }
+
+  @Override
+  public boolean replace(Object key, V oldValue, V newValue) {
+    checkNotNull(key);
+    checkNotNull(oldValue);
+    checkNotNull(newValue);
+    if (!isPrimitiveKey(key)) {
+      return this.objectKeyMap.replace(key, oldValue, newValue);
+    }
+    long k = ((Number) key).longValue();
+    assert keyOf(newValue) == k;
+    int h = hash(k);
+    return segmentFor(h).replace(k, h, oldValue, newValue) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V replace(Object key, V value) {
+    checkNotNull(key);
+    checkNotNull(value);
+    if (!isPrimitiveKey(key)) {
+      return this.objectKeyMap.replace(key, value);
+    }
+    long k = ((Number) key).longValue();
+    assert keyOf(value) == k;
+    int h = hash(k);
+    return (V) segmentFor(h).replace(k, h, null, value);
+  }
+
+  @Override
+  public void clear() {
+    ArrayList<OffHeapRegionEntry> entries = null;
+    try {
+      for (Segment s : this.segments) {
+        entries = s.clear(entries);
+      }
+    } finally {
+      if (entries != null) {
+        // release off-heap entries the same way CustomEntryConcurrentHashMap does
+        final ArrayList<OffHeapRegionEntry> clearedEntries = entries;
+        final Runnable runnable = new Runnable() {
+          public void run() {
+            for (OffHeapRegionEntry re : clearedEntries) {
+              synchronized (re) {
+                re.release();
+              }
+            }
+          }
+        };
+        CustomEntryConcurrentHashMap.executeClearedEntryRelease(runnable,
+            this.getClass().getSimpleName() + "@" + this.hashCode() + " Clear Thread");
+      }
+    }
+    this.objectKeyMap.clear();
+  }
+
+  @Override
+  public Set<Object> keySet() {
+    Set<Object> ks = this.keySet;
+    return (ks != null) ? ks : (this.keySet = new KeySet());
+  }
+
+  @Override
+  public Collection<V> values() {
+    Collection<V> vs = this.values;
+    return (vs != null) ? vs : (this.values = new Values());
+  }
+
+  @Override
+  public Set<Map.Entry<Object, V>> entrySet() {
+    Set<Map.Entry<Object, V>> es = this.entrySet;
+    return (es != null) ? es : (this.entrySet = new EntrySet());
+  }
+
+  /**
+   * The open-addressed table of one segment. Retrievals do not lock: the slots are read through an
+   * {@link AtomicReferenceArray} and a table is never rebuilt in place, a rehash or clear publishes
+   * a new one instead, so a reader always probes a complete table. Updates hold the segment lock.
+   */
+  @SuppressWarnings("serial")
+  static final class Segment extends ReentrantLock {
+
+    /** The number of live mappings in this segment. */
+    volatile int count;
+
+    /** The number of slots that are not free, that is live plus deleted ones. */
+    int used;
+
+    /** The table is rehashed when {@link #used} would exceed this. */
+    int threshold;
+
+    /**
+     * The slots of this segment. A null slot is free and {@link #DELETED} marks a slot whose mapping
+     * was removed; both are skipped by lookups but only free slots end a probe sequence.
+     */
+    volatile AtomicReferenceArray<Object> table;
+
+    final float loadFactor;
+
+    Segment(int capacity, float loadFactor) {
+      this.loadFactor = loadFactor;
+      setTable(new AtomicReferenceArray<Object>(capacity));
+    }
+
+    private void setTable(AtomicReferenceArray<Object> newTable) {
+      // always leave at least one free slot so that probing terminates
+      this.threshold =
+          Math.min((int) (newTable.length() * this.loadFactor), newTable.length() - 1);
+      this.table = newTable;
+    }
+
+    /**
+     * Returns the slot holding the given key or -1 if it is not mapped. Must be called with the
+     * lock held.
+     */
+    private int indexOf(AtomicReferenceArray<Object> tab, long key, int hash) {
+      final int mask = tab.length() - 1;
+      for (int i = hash & mask;; i = (i + 1) & mask) {
+        Object v = tab.get(i);
+        if (v == null) {
+          return -1;
+        }
+        if (v != DELETED && keyOf(v) == key) {
+          return i;
+        }
+      }
+    }
+
+    Object get(long key, int hash) {
+      if (this.count == 0) {
+        return null;
+      }
+      final AtomicReferenceArray<Object> tab = this.table;
+      final int mask = tab.length() - 1;
+      for (int i = hash & mask;; i = (i + 1) & mask) {
+        Object v = tab.get(i);
+        if (v == null) {
+          return null;
+        }
+        if (v != DELETED && keyOf(v) == key) {
+          return v;
+        }
+      }
+    }
+
+    Object put(long key, int hash, Object value, boolean onlyIfAbsent) {
+      lock();
+      try {
+        AtomicReferenceArray<Object> tab = this.table;
+        int mask = tab.length() - 1;
+        int deletedSlot = -1;
+        int i;
+        for (i = hash & mask;; i = (i + 1) & mask) {
+          Object v = tab.get(i);
+          if (v == null) {
+            break;
+          }
+          if (v == DELETED) {
+            if (deletedSlot < 0) {
+              deletedSlot = i;
+            }
+          } else if (keyOf(v) == key) {
+            if (!onlyIfAbsent) {
+              tab.set(i, value);
+            }
+            return v;
+          }
+        }
+        if (deletedSlot >= 0) {
+          i = deletedSlot;
+        } else if (this.used >= this.threshold) {
+          rehash();
+          tab = this.table;
+          mask = tab.length() - 1;
+          for (i = hash & mask; tab.get(i) != null; i = (i + 1) & mask);
+          this.used++;
+        } else {
+          this.used++;
+        }
+        tab.set(i, value);
+        this.count++;
+        return null;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Removes the mapping for the given key. If expectedValue is not null the mapping is only
+     * removed if its value is equal to it.
+     *
+     * @return the removed value or null if nothing was removed
+     */
+    Object remove(long key, int hash, Object expectedValue) {
+      lock();
+      try {
+        final AtomicReferenceArray<Object> tab = this.table;
+        int i = indexOf(tab, key, hash);
+        if (i < 0) {
+          return null;
+        }
+        Object old = tab.get(i);
+        if (expectedValue != null && expectedValue != old && !expectedValue.equals(old)) {
+          return null;
+        }
+        // the slot stays used until the next rehash so that probe sequences are not broken
+        tab.set(i, DELETED);
+        this.count--;
+        return old;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Replaces the value of an existing mapping. If expectedValue is not null the value is only
+     * replaced if it is equal to it.
+     *
+     * @return the previous value or null if nothing was replaced
+     */
+    Object replace(long key, int hash, Object expectedValue, Object newValue) {
+      lock();
+      try {
+        final AtomicReferenceArray<Object> tab = this.table;
+        int i = indexOf(tab, key, hash);
+        if (i < 0) {
+          return null;
+        }
+        Object old = tab.get(i);
+        if (expectedValue != null && expectedValue != old && !expectedValue.equals(old)) {
+          return null;
+        }
+        tab.set(i, newValue);
+        return old;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Removes all mappings from this segment. Off-heap region entries are added to clearedEntries,
+     * which is created if needed, so the caller can release them.
+     */
+    ArrayList<OffHeapRegionEntry> clear(ArrayList<OffHeapRegionEntry> clearedEntries) {
+      if (this.count == 0) {
+        return clearedEntries;
+      }
+      lock();
+      try {
+        final boolean checkForGatewaySenderEvent =
+            OffHeapRegionEntryHelper.doesClearNeedToCheckForOffHeap();
+        final AtomicReferenceArray<Object> tab = this.table;
+        for (int i = 0; i < tab.length(); i++) {
+          Object v = tab.get(i);
+          if (v == null || v == DELETED) {
+            continue;
+          }
+          if (v instanceof OffHeapRegionEntry) {
+            if (clearedEntries == null) {
+              clearedEntries = new ArrayList<OffHeapRegionEntry>();
+            }
+            clearedEntries.add((OffHeapRegionEntry) v);
+          } else if (checkForGatewaySenderEvent && v instanceof RegionEntry) {
+            // It is ok to call GatewaySenderEventImpl release without being synced
+            // on the region entry. It will not create an orphan.
+            GatewaySenderEventImpl.release(((RegionEntry) v)._getValue()); // OFFHEAP
+          }
+        }
+        // iterators that are walking the old table keep seeing it unchanged
+        setTable(new AtomicReferenceArray<Object>(tab.length()));
+        this.used = 0;
+        this.count = 0;
+        return clearedEntries;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Builds and publishes a new table, twice as large if the live mappings need the room and
+     * otherwise of the same size to reclaim the deleted slots. The old table is left unchanged for
+     * the readers and iterators still using it. Must be called with the lock held.
+     */
+    private void rehash() {
+      final AtomicReferenceArray<Object> oldTable = this.table;
+      int newCapacity = oldTable.length();
+      if (this.count >= this.threshold / 2 && newCapacity < MAX_SEGMENT_CAPACITY) {
+        newCapacity <<= 1;
+      }
+      final AtomicReferenceArray<Object> newTable = new AtomicReferenceArray<Object>(newCapacity);
+      final int mask = newCapacity - 1;
+      for (int j = 0; j < oldTable.length(); j++) {
+        Object v = oldTable.get(j);
+        if (v == null || v == DELETED) {
+          continue;
+        }
+        int i = hash(keyOf(v)) & mask;
+        while (newTable.get(i) != null) {
+          i = (i + 1) & mask;
+        }
+        newTable.lazySet(i, v);
+      }
+      // the volatile write of the table publishes the slots set above
+      setTable(newTable);
+      this.used = this.count;
+      if (this.used >= this.threshold) {
+        throw new IllegalStateException("PrimitiveKeyConcurrentHashMap segment is full");
+      }
+    }
+  }
+
+  /**
+   * Walks the table of each segment as it was when the iterator reached that segment, and then the
+   * mappings with non primitive keys. Since tables are never rebuilt in place a concurrent rehash
+   * does not make the walk skip or repeat a mapping.
+   */
+  abstract class HashIterator {
+
+    private int segmentIndex = -1;
+
+    private AtomicReferenceArray<Object> currentTable;
+
+    private int slotIndex;
+
+    /** the value of the next mapping found in the tables; null when they are done */
+    private Object nextTableValue;
+
+    private Iterator<Map.Entry<Object, V>> objectKeyIterator;
+
+    /** the key of the last mapping; null until needed if it came from a table */
+    private Object lastKey;
+
+    private Object lastValue;
+
+    HashIterator() {
+      advance();
+    }
+
+    private void advance() {
+      this.nextTableValue = null;
+      while (true) {
+        final AtomicReferenceArray<Object> tab = this.currentTable;
+        if (tab != null) {
+          while (this.slotIndex < tab.length()) {
+            Object v = tab.get(this.slotIndex++);
+            if (v != null && v != DELETED) {
+              this.nextTableValue = v;
+              return;
+            }
+          }
+          this.currentTable = null;
+        }
+        if (this.segmentIndex + 1 >= segments.length) {
+          return;
+        }
+        this.segmentIndex++;
+        this.currentTable = segments[this.segmentIndex].table;
+        this.slotIndex = 0;
+      }
+    }
+
+    private Iterator<Map.Entry<Object, V>> objectKeyIterator() {
+      if (this.objectKeyIterator == null) {
+        this.objectKeyIterator = objectKeyMap.entrySet().iterator();
+      }
+      return this.objectKeyIterator;
+    }
+
+    public boolean hasNext() {
+      return this.nextTableValue != null || objectKeyIterator().hasNext();
+    }
+
+    /** Moves to the next mapping, making it available from {@link #lastKey()} and lastValue. */
+    final void nextMapping() {
+      if (this.nextTableValue != null) {
+        this.lastKey = null;
+        this.lastValue = this.nextTableValue;
+        advance();
+      } else {
+        Map.Entry<Object, V> e = objectKeyIterator().next();
+        this.lastKey = e.getKey();
+        this.lastValue = e.getValue();
+      }
+    }
+
+    /** Moves to the next mapping and returns its value without boxing its key. */
+    @SuppressWarnings("unchecked")
+    final V nextValue() {
+      nextMapping();
+      return (V) this.lastValue;
+    }
+
+    final Object lastKey() {
+      if (this.lastKey == null) {
+        this.lastKey = box(keyOf(this.lastValue));
+      }
+      return this.lastKey;
+    }
+
+    final Object lastValue() {
+      return this.lastValue;
+    }
+
+    public void remove() {
+      if (this.lastValue == null) {
+        throw new IllegalStateException();
+      }
+      PrimitiveKeyConcurrentHashMap.this.remove(lastKey(), this.lastValue);
+      this.lastKey = null;
+      this.lastValue = null;
+    }
+  }
+
+  final class KeyIterator extends HashIterator implements Iterator<Object> {
+    public Object next() {
+      nextMapping();
+      return lastKey();
+    }
+  }
+
+  final class ValueIterator extends HashIterator implements Iterator<V> {
+    public V next() {
+      return nextValue();
+    }
+  }
+
+  final class EntryIterator extends HashIterator implements Iterator<Map.Entry<Object, V>> {
+    @SuppressWarnings("unchecked")
+    public Map.Entry<Object, V> next() {
+      nextMapping();
+      return new WriteThroughEntry(lastKey(), (V) lastValue());
+    }
+  }
+
+  final class WriteThroughEntry extends AbstractMap.SimpleEntry<Object, V> {
+    private static final long serialVersionUID = 4416009405373812658L;
+
+    WriteThroughEntry(Object key, V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(V value) {
+      checkNotNull(value);
+      V old = super.setValue(value);
+      PrimitiveKeyConcurrentHashMap.this.put(getKey(), value);
+      return old;
+    }
+  }
+
+  final class KeySet extends AbstractSet<Object> {
+    @Override
+    public Iterator<Object> iterator() {
+      return new KeyIterator();
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o != null && containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return o != null && PrimitiveKeyConcurrentHashMap.this.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+
+  final class Values extends AbstractCollection<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new ValueIterator();
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+
+  final class EntrySet extends AbstractSet<Map.Entry<Object, V>> {
+    @Override
+    public Iterator<Map.Entry<Object, V>> iterator() {
+      return new EntryIterator();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      Object k = e.getKey();
+      if (k == null) {
+        return false;
+      }
+      V v = get(k);
+      return v != null && v.equals(e.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      Object k = e.getKey();
+      return k != null && PrimitiveKeyConcurrentHashMap.this.remove(k, e.getValue());
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+}
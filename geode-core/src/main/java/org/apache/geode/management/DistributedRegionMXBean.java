@@ -290,7 +290,8 @@ public interface DistributedRegionMXBean {
 
   /**
    * Returns the aggregate entry size (in megabytes) of all entries. This will provide a correct
-   * value only if the eviction algorithm has been set to {@link EvictionAlgorithm#LRU_MEMORY}.
+   * value only if the eviction algorithm has been set to {@link EvictionAlgorithm#LRU_MEMORY} or
+   * {@link EvictionAlgorithm#TINYLFU_MEMORY}.
    */
   public long getEntrySize();
 
@@ -298,7 +298,8 @@ public interface RegionMXBean {
 
   /**
    * Returns the aggregate entry size (in bytes) of all entries. This will provide a correct value
-   * only if the eviction algorithm has been set to {@link EvictionAlgorithm#LRU_MEMORY}.
+   * only if the eviction algorithm has been set to {@link EvictionAlgorithm#LRU_MEMORY} or
+   * {@link EvictionAlgorithm#TINYLFU_MEMORY}.
    * 
    * For all partition regions it will show entry size in bytes. It will also include size of all
    * the secondary entries in the data store. So while referring to size one should take redundancy
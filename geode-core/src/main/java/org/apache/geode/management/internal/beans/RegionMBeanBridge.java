@@ -180,7 +180,7 @@ public class RegionMBeanBridge<K, V> {
       if (stats != null) {
         regionMonitor.addStatisticsToMonitor(stats.getStats());
         EvictionAttributes ea = region.getAttributes().getEvictionAttributes();
-        if (ea != null && ea.getAlgorithm().isLRUMemory()) {
+        if (ea != null && ea.getAlgorithm().isMemoryEviction()) {
           this.lruMemoryStats = stats;
         }
 
@@ -18,6 +18,7 @@ import org.apache.geode.CancelException;
 import org.apache.geode.cache.RegionService;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.CopyOnWriteHashSet;
+import org.apache.geode.internal.SerializationHandles;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.util.concurrent.CopyOnWriteWeakHashMap;
@@ -2170,7 +2171,7 @@ public class AutoSerializableManager {
         if (unsafe != null && !USE_CONSTRUCTOR) {
           result = unsafe.allocateInstance(clazz);
         } else {
-          result = clazz.newInstance();
+          result = SerializationHandles.newInstance(clazz);
         }
       } catch (Exception ex) {
         throw new PdxSerializationException(
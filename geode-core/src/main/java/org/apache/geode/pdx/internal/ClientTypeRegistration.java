@@ -69,6 +69,17 @@ public class ClientTypeRegistration implements TypeRegistration {
     throw returnCorrectExceptionForFailure(pools, newTypeId, lastException);
   }
 
+  /**
+   * The servers have no batch operation so each type is defined with its own round trip.
+   */
+  public Map<PdxType, Integer> defineTypes(Collection<PdxType> newTypes) {
+    Map<PdxType, Integer> result = new HashMap<PdxType, Integer>();
+    for (PdxType newType : newTypes) {
+      result.put(newType, defineType(newType));
+    }
+    return result;
+  }
+
   private void sendTypeToPool(PdxType type, int id, Pool pool) {
     try {
       AddPDXTypeOp.execute((ExecutablePool) pool, id, type);
@@ -187,6 +198,14 @@ public class ClientTypeRegistration implements TypeRegistration {
     return processEnumInfoForEnumId(newInfo);
   }
 
+  public Map<EnumInfo, Integer> defineEnums(Collection<EnumInfo> newInfos) {
+    Map<EnumInfo, Integer> result = new HashMap<EnumInfo, Integer>();
+    for (EnumInfo newInfo : newInfos) {
+      result.put(newInfo, defineEnum(newInfo));
+    }
+    return result;
+  }
+
   public EnumInfo getEnumById(int enumId) {
     Collection<Pool> pools = getAllPools();
 
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.pdx.internal;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.apache.geode.cache.wan.GatewaySender;
@@ -41,6 +42,11 @@ public class LonerTypeRegistration implements TypeRegistration {
     return delegate.defineType(newType);
   }
 
+  public Map<PdxType, Integer> defineTypes(Collection<PdxType> newTypes) {
+    initializeRegistry();
+    return delegate.defineTypes(newTypes);
+  }
+
   public PdxType getType(int typeId) {
     initializeRegistry();
     return delegate.getType(typeId);
@@ -128,6 +134,11 @@ public class LonerTypeRegistration implements TypeRegistration {
     return delegate.defineEnum(newInfo);
   }
 
+  public Map<EnumInfo, Integer> defineEnums(Collection<EnumInfo> newInfos) {
+    initializeRegistry();
+    return delegate.defineEnums(newInfos);
+  }
+
   public EnumInfo getEnumById(int enumId) {
     initializeRegistry();
     return delegate.getEnumById(enumId);
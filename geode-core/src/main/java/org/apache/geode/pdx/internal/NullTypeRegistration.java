@@ -14,6 +14,7 @@
  */
 package org.apache.geode.pdx.internal;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 
@@ -30,6 +31,10 @@ public class NullTypeRegistration implements TypeRegistration {
     throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
   }
 
+  public Map<PdxType, Integer> defineTypes(Collection<PdxType> newTypes) {
+    throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
+  }
+
   public PdxType getType(int typeId) {
     throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
   }
@@ -70,6 +75,10 @@ public class NullTypeRegistration implements TypeRegistration {
     throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
   }
 
+  public Map<EnumInfo, Integer> defineEnums(Collection<EnumInfo> newInfos) {
+    throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
+  }
+
   public EnumInfo getEnumById(int enumId) {
     throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
   }
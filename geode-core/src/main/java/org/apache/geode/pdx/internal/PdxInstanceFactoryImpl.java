@@ -48,6 +48,10 @@ public class PdxInstanceFactoryImpl implements PdxInstanceFactory {
     this.writer = new PdxWriterImpl(pt, tr, os);
   }
 
+  private PdxInstanceFactoryImpl(PdxWriterImpl writer) {
+    this.writer = writer;
+  }
+
   public static PdxInstanceFactory newCreator(String name, boolean expectDomainClass) {
     return new PdxInstanceFactoryImpl(name, expectDomainClass);
   }
@@ -61,6 +65,29 @@ public class PdxInstanceFactoryImpl implements PdxInstanceFactory {
     return this.writer.makePdxInstance();
   }
 
+  /**
+   * Writes an object field whose value is a new pdx instance that the returned factory writes
+   * directly into this factory's stream, instead of serializing it on its own and copying it in.
+   * The returned factory must be finished with {@link #completeNestedObject()} before any other
+   * field is written to this factory.
+   */
+  public PdxInstanceFactoryImpl writeNestedObjectField(String fieldName, String className,
+      boolean expectDomainClass) {
+    PdxType pt = new PdxType(className, expectDomainClass);
+    return new PdxInstanceFactoryImpl(this.writer.writeNestedObjectField(fieldName, pt));
+  }
+
+  /**
+   * Finishes a pdx instance started by {@link #writeNestedObjectField(String, String, boolean)}.
+   */
+  public void completeNestedObject() {
+    if (this.created) {
+      throw new IllegalStateException("The nested object can only be completed once.");
+    }
+    this.created = true;
+    this.writer.completeByteStreamGeneration();
+  }
+
   public PdxInstanceFactory writeChar(String fieldName, char value) {
     this.writer.writeChar(fieldName, value);
     return this;
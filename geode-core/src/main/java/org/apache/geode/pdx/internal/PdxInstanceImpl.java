@@ -624,6 +624,11 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return super.readField(fieldName);
   }
 
+  @Override
+  public synchronized Object readField(PdxField ft) {
+    return super.readField(ft);
+  }
+
   @Override
   protected synchronized Object basicGetObject() {
     DMStats stats = InternalDataSerializer.getDMStats(null);
@@ -663,6 +668,16 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return getUnmodifiableReader(fieldName).readRawField(fieldName);
   }
 
+  /**
+   * Returns the value of a field of this instance's type, read directly from the serialized bytes
+   * of that field. String values are returned as a {@link PdxString}. This is for use by the query
+   * engine, which resolves the field once per type with {@link PdxType#getPdxField(String)} or
+   * {@link PdxType#getPdxFieldForGetter(String)}.
+   */
+  public Object getRawField(PdxField ft) {
+    return getUnmodifiableReader(ft.getFieldName()).readRawField(ft);
+  }
+
 
   public Object getDefaultValueIfFieldExistsInAnyPdxVersions(String fieldName, String className)
       throws FieldNotFoundInPdxVersion {
@@ -626,6 +626,13 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     if (ft == null) {
       return null;
     }
+    return readField(ft);
+  }
+
+  /**
+   * Reads the given field of this reader's type without looking it up by name.
+   */
+  public Object readField(PdxField ft) {
     switch (ft.getFieldType()) {
       case CHAR:
         return readChar(ft);
@@ -875,6 +882,14 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     if (ft == null) {
       return null;
     }
+    return readRawField(ft);
+  }
+
+  /**
+   * Reads the given field of this reader's type like {@link #readRawField(String)} without looking
+   * it up by name. Only the bytes of the field are read.
+   */
+  public Object readRawField(PdxField ft) {
     if (ft.getFieldType() == FieldType.STRING) {
       return readPdxString(ft);
     } else {
@@ -882,7 +897,7 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
       if (pdxString != null)
         return pdxString;
     }
-    return readField(field);
+    return readField(ft);
   }
 
   /**
@@ -899,7 +914,8 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
       if (buffer.hasArray()) {
         bytes = buffer.array();
       } else {
-        throw new IllegalStateException();
+        // an off-heap buffer; the caller reads the field as an object instead
+        return null;
       }
       int offset = getPositionForField(ft) + buffer.arrayOffset();
       // Do not create PdxString if the field is NULL
@@ -922,7 +938,9 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     if (buffer.hasArray()) {
       bytes = buffer.array();
     } else {
-      throw new IllegalStateException();
+      // an off-heap buffer can not be referenced by a PdxString so copy the string out of it
+      String s = readString(ft);
+      return s == null ? null : new PdxString(s);
     }
     int offset = getPositionForField(ft) + buffer.arrayOffset();
     // Do not create PdxString if the field is NULL
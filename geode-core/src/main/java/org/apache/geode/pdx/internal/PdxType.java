@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.geode.DataSerializable;
@@ -37,6 +38,7 @@ import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.tier.sockets.OldClientSupportService;
 import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.pdx.FieldType;
 import org.apache.geode.pdx.PdxFieldAlreadyExistsException;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.internal.AutoSerializableManager.AutoClassInfo;
@@ -67,6 +69,14 @@ public class PdxType implements DataSerializable {
   private final transient Map<String, PdxField> fieldsMap = new HashMap<String, PdxField>();
   private transient volatile SortedSet<PdxField> sortedIdentityFields;
 
+  /**
+   * The field read by each no-arg getter method name that has been asked about, or NO_FIELD.
+   */
+  private final transient ConcurrentHashMap<String, Object> getterFields =
+      new ConcurrentHashMap<String, Object>();
+
+  private static final Object NO_FIELD = new Object();
+
   public PdxType() {
     // for deserialization
   }
@@ -334,6 +344,32 @@ public class PdxType implements DataSerializable {
     return result;
   }
 
+  /**
+   * Returns the field that the given getter method name reads by java bean convention, getXyz or
+   * isXyz for a boolean field, or null if this type has no such field.
+   */
+  public PdxField getPdxFieldForGetter(String methodName) {
+    Object result = this.getterFields.get(methodName);
+    if (result == null) {
+      PdxField field = null;
+      if (methodName.length() > 3 && methodName.startsWith("get")) {
+        field = getPdxField(decapitalize(methodName.substring(3)));
+      } else if (methodName.length() > 2 && methodName.startsWith("is")) {
+        field = getPdxField(decapitalize(methodName.substring(2)));
+        if (field != null && field.getFieldType() != FieldType.BOOLEAN) {
+          field = null;
+        }
+      }
+      result = field == null ? NO_FIELD : field;
+      this.getterFields.putIfAbsent(methodName, result);
+    }
+    return result == NO_FIELD ? null : (PdxField) result;
+  }
+
+  private static String decapitalize(String name) {
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
   public List<PdxField> getFields() {
     return Collections.unmodifiableList(this.fields);
   }
@@ -323,6 +323,17 @@ public class PdxWriterImpl implements PdxWriter {
     this.os.writeObject(object, onlyPortableObjects);
   }
 
+  /**
+   * Starts an object field whose value will be a pdx of the given new type written in place into
+   * this writer's stream by the returned writer. The returned writer must complete its byte stream
+   * before any other field is written by this writer.
+   */
+  PdxWriterImpl writeNestedObjectField(String fieldName, PdxType nestedType) {
+    markVariableField();
+    updateMetaData(fieldName, FieldType.OBJECT);
+    return new PdxWriterImpl(nestedType, this.tr, this.os);
+  }
+
   public PdxWriter writeBooleanArray(String fieldName, boolean[] array) {
     markVariableField();
     updateMetaData(fieldName, FieldType.BOOLEAN_ARRAY);
@@ -15,13 +15,17 @@
 package org.apache.geode.pdx.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.InternalGemFireException;
@@ -100,12 +104,11 @@ public class PeerTypeRegistration implements TypeRegistration {
   /**
    * This map serves two purposes. It lets us look up an id based on a type, if we previously found
    * that type in the region. And, if a type is present in this map, that means we read the type
-   * while holding the dlock, which means the type was distributed to all members.
+   * while holding the dlock, which means the type was distributed to all members. It is read
+   * without locking before the dlock is requested.
    */
-  private Map<PdxType, Integer> typeToId =
-      Collections.synchronizedMap(new HashMap<PdxType, Integer>());
-  private Map<EnumInfo, EnumId> enumToId =
-      Collections.synchronizedMap(new HashMap<EnumInfo, EnumId>());
+  private Map<PdxType, Integer> typeToId = new ConcurrentHashMap<PdxType, Integer>();
+  private Map<EnumInfo, EnumId> enumToId = new ConcurrentHashMap<EnumInfo, EnumId>();
   private final Map<String, Set<PdxType>> classToType =
       new CopyOnWriteHashMap<String, Set<PdxType>>();
 
@@ -242,7 +245,11 @@ public class PeerTypeRegistration implements TypeRegistration {
 
   private static final String LOCK_NAME = "PDX_LOCK";
 
-  private int allocateTypeId(PdxType newType) {
+  /**
+   * Finds an id for the new type that is not in the region or in reservedIds, the ids allocated to
+   * a batch of types that have not been put in the region yet.
+   */
+  private int allocateTypeId(PdxType newType, Set<Object> reservedIds) {
     TXStateProxy currentState = suspendTX();
     Region<Object, Object> r = getIdToType();
 
@@ -251,7 +258,7 @@ public class PeerTypeRegistration implements TypeRegistration {
 
     try {
       int maxTry = maxTypeId;
-      while (r.get(newTypeId) != null) {
+      while (r.get(newTypeId) != null || reservedIds.contains(newTypeId)) {
         maxTry--;
         if (maxTry == 0) {
           throw new InternalGemFireError(
@@ -273,7 +280,7 @@ public class PeerTypeRegistration implements TypeRegistration {
     }
   }
 
-  private EnumId allocateEnumId(EnumInfo ei) {
+  private EnumId allocateEnumId(EnumInfo ei, Set<Object> reservedIds) {
     TXStateProxy currentState = suspendTX();
     Region<Object, Object> r = getIdToType();
 
@@ -282,7 +289,8 @@ public class PeerTypeRegistration implements TypeRegistration {
     try {
       int maxTry = this.maxTypeId;
       // Find the next available type id.
-      while (r.get(new EnumId(newEnumId)) != null) {
+      while (r.get(new EnumId(newEnumId)) != null
+          || reservedIds.contains(new EnumId(newEnumId))) {
         maxTry--;
         if (maxTry == 0) {
           throw new InternalGemFireError(
@@ -387,7 +395,7 @@ public class PeerTypeRegistration implements TypeRegistration {
         return id;
       }
 
-      id = allocateTypeId(newType);
+      id = allocateTypeId(newType, Collections.emptySet());
       newType.setTypeId(id);
 
       updateIdToTypeRegion(newType);
@@ -401,6 +409,55 @@ public class PeerTypeRegistration implements TypeRegistration {
     }
   }
 
+  /**
+   * Defines all the types with one acquisition of the dlock, one scan of the region and one putAll
+   * of the types that are new.
+   */
+  public Map<PdxType, Integer> defineTypes(Collection<PdxType> newTypes) {
+    verifyConfiguration();
+    Map<PdxType, Integer> result = new HashMap<PdxType, Integer>();
+    List<PdxType> undefinedTypes = new ArrayList<PdxType>();
+    for (PdxType newType : newTypes) {
+      Integer existingId = typeToId.get(newType);
+      if (existingId != null) {
+        result.put(newType, existingId);
+      } else {
+        undefinedTypes.add(newType);
+      }
+    }
+    if (undefinedTypes.isEmpty()) {
+      return result;
+    }
+    lock();
+    try {
+      loadExistingIds(false);
+
+      Map<Object, Object> newEntries = new LinkedHashMap<Object, Object>();
+      for (PdxType newType : undefinedTypes) {
+        Integer id = result.get(newType);
+        if (id == null) {
+          id = typeToId.get(newType);
+        }
+        if (id == null) {
+          id = allocateTypeId(newType, newEntries.keySet());
+          newType.setTypeId(id);
+          newEntries.put(id, newType);
+        }
+        result.put(newType, id);
+      }
+
+      if (!newEntries.isEmpty()) {
+        updateRegion(newEntries);
+        for (Map.Entry<Object, Object> entry : newEntries.entrySet()) {
+          typeToId.put((PdxType) entry.getValue(), (Integer) entry.getKey());
+        }
+      }
+      return result;
+    } finally {
+      unlock();
+    }
+  }
+
   private void updateIdToTypeRegion(PdxType newType) {
     updateRegion(newType.getTypeId(), newType);
   }
@@ -410,6 +467,13 @@ public class PeerTypeRegistration implements TypeRegistration {
   }
 
   private void updateRegion(Object k, Object v) {
+    updateRegion(Collections.singletonMap(k, v));
+  }
+
+  /**
+   * Puts all the entries in the region in one transaction.
+   */
+  private void updateRegion(Map<Object, Object> entries) {
     Region<Object, Object> r = getIdToType();
     Cache c = (Cache) r.getRegionService();
 
@@ -427,7 +491,12 @@ public class PeerTypeRegistration implements TypeRegistration {
       while (true) {
         txManager.begin();
         try {
-          r.put(k, v);
+          if (entries.size() == 1) {
+            Map.Entry<Object, Object> entry = entries.entrySet().iterator().next();
+            r.put(entry.getKey(), entry.getValue());
+          } else {
+            r.putAll(entries);
+          }
           txManager.commit();
           return;
         } catch (TransactionException e) {
@@ -560,73 +629,48 @@ public class PeerTypeRegistration implements TypeRegistration {
 
   /** Should be called holding the dlock */
   private int getExistingIdForType(PdxType newType) {
-    int totalPdxTypeIdInDS = 0;
-    TXStateProxy currentState = suspendTX();
-    try {
-      int result = -1;
-      for (Map.Entry<Object, Object> entry : getIdToType().entrySet()) {
-        Object v = entry.getValue();
-        Object k = entry.getKey();
-        if (k instanceof EnumId) {
-          EnumId id = (EnumId) k;
-          EnumInfo info = (EnumInfo) v;
-          enumToId.put(info, id);
-        } else {
-          PdxType foundType = (PdxType) v;
-          Integer id = (Integer) k;
-          int tmpDsId = PLACE_HOLDER_FOR_DS_ID & id.intValue();
-          if (tmpDsId == this.dsId) {
-            totalPdxTypeIdInDS++;
-          }
-
-          typeToId.put(foundType, id);
-          if (foundType.equals(newType)) {
-            result = foundType.getTypeId();
-          }
-        }
-      }
-      if (totalPdxTypeIdInDS == this.maxTypeId) {
-        throw new InternalGemFireError(
-            "Used up all of the PDX type ids for this distributed system. The maximum number of PDX types is "
-                + this.maxTypeId);
-      }
-      return result;
-    } finally {
-      resumeTX(currentState);
-    }
+    loadExistingIds(false);
+    Integer result = typeToId.get(newType);
+    return result == null ? -1 : result.intValue();
   }
 
   /** Should be called holding the dlock */
   private EnumId getExistingIdForEnum(EnumInfo ei) {
+    loadExistingIds(true);
+    return enumToId.get(ei);
+  }
+
+  /**
+   * Should be called holding the dlock. Caches the id of every type and enum in the region and
+   * fails if this distributed system has used up all of its type ids, or enum ids if forEnums.
+   */
+  private void loadExistingIds(boolean forEnums) {
+    int totalIdsInDS = 0;
     TXStateProxy currentState = suspendTX();
-    int totalEnumIdInDS = 0;
     try {
-      EnumId result = null;
       for (Map.Entry<Object, Object> entry : getIdToType().entrySet()) {
         Object v = entry.getValue();
         Object k = entry.getKey();
+        int id;
         if (k instanceof EnumId) {
-          EnumId id = (EnumId) k;
-          EnumInfo info = (EnumInfo) v;
-          enumToId.put(info, id);
-          int tmpDsId = PLACE_HOLDER_FOR_DS_ID & id.intValue();
-          if (tmpDsId == this.dsId) {
-            totalEnumIdInDS++;
-          }
-          if (ei.equals(info)) {
-            result = id;
-          }
+          EnumId enumId = (EnumId) k;
+          enumToId.put((EnumInfo) v, enumId);
+          id = enumId.intValue();
         } else {
-          typeToId.put((PdxType) v, (Integer) k);
+          Integer typeId = (Integer) k;
+          typeToId.put((PdxType) v, typeId);
+          id = typeId.intValue();
+        }
+        if (forEnums == (k instanceof EnumId) && (PLACE_HOLDER_FOR_DS_ID & id) == this.dsId) {
+          totalIdsInDS++;
         }
       }
 
-      if (totalEnumIdInDS == this.maxTypeId) {
-        throw new InternalGemFireError(
-            "Used up all of the PDX enum ids for this distributed system. The maximum number of PDX types is "
-                + this.maxTypeId);
+      if (totalIdsInDS == this.maxTypeId) {
+        throw new InternalGemFireError("Used up all of the PDX " + (forEnums ? "enum" : "type")
+            + " ids for this distributed system. The maximum number of PDX types is "
+            + this.maxTypeId);
       }
-      return result;
     } finally {
       resumeTX(currentState);
     }
@@ -660,7 +704,7 @@ public class PeerTypeRegistration implements TypeRegistration {
         return id.intValue();
       }
 
-      id = allocateEnumId(ei);
+      id = allocateEnumId(ei, Collections.emptySet());
 
       updateIdToEnumRegion(id, ei);
 
@@ -707,7 +751,7 @@ public class PeerTypeRegistration implements TypeRegistration {
         return id.intValue();
       }
 
-      id = allocateEnumId(newInfo);
+      id = allocateEnumId(newInfo, Collections.emptySet());
 
       updateIdToEnumRegion(id, newInfo);
 
@@ -719,6 +763,54 @@ public class PeerTypeRegistration implements TypeRegistration {
     }
   }
 
+  /**
+   * Defines all the enums with one acquisition of the dlock, one scan of the region and one putAll
+   * of the enums that are new.
+   */
+  public Map<EnumInfo, Integer> defineEnums(Collection<EnumInfo> newInfos) {
+    verifyConfiguration();
+    Map<EnumInfo, Integer> result = new HashMap<EnumInfo, Integer>();
+    List<EnumInfo> undefinedInfos = new ArrayList<EnumInfo>();
+    for (EnumInfo newInfo : newInfos) {
+      EnumId existingId = enumToId.get(newInfo);
+      if (existingId != null) {
+        result.put(newInfo, existingId.intValue());
+      } else {
+        undefinedInfos.add(newInfo);
+      }
+    }
+    if (undefinedInfos.isEmpty()) {
+      return result;
+    }
+    lock();
+    try {
+      loadExistingIds(true);
+
+      Map<Object, Object> newEntries = new LinkedHashMap<Object, Object>();
+      for (EnumInfo newInfo : undefinedInfos) {
+        if (result.containsKey(newInfo)) {
+          continue;
+        }
+        EnumId id = enumToId.get(newInfo);
+        if (id == null) {
+          id = allocateEnumId(newInfo, newEntries.keySet());
+          newEntries.put(id, newInfo);
+        }
+        result.put(newInfo, id.intValue());
+      }
+
+      if (!newEntries.isEmpty()) {
+        updateRegion(newEntries);
+        for (Map.Entry<Object, Object> entry : newEntries.entrySet()) {
+          enumToId.put((EnumInfo) entry.getValue(), (EnumId) entry.getKey());
+        }
+      }
+      return result;
+    } finally {
+      unlock();
+    }
+  }
+
   public EnumInfo getEnumById(int id) {
     verifyConfiguration();
     EnumId enumId = new EnumId(id);
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.pdx.internal;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.apache.geode.cache.wan.GatewaySender;
@@ -29,6 +30,13 @@ public interface TypeRegistration {
    */
   public int defineType(PdxType newType);
 
+  /**
+   * Define all the given types in the distributed system at once.
+   * 
+   * @return the id of each of the given types
+   */
+  public Map<PdxType, Integer> defineTypes(Collection<PdxType> newTypes);
+
   /**
    * Get the type id from the distributed system
    */
@@ -62,6 +70,13 @@ public interface TypeRegistration {
 
   public int defineEnum(EnumInfo newInfo);
 
+  /**
+   * Define all the given enums in the distributed system at once.
+   * 
+   * @return the id of each of the given enums
+   */
+  public Map<EnumInfo, Integer> defineEnums(Collection<EnumInfo> newInfos);
+
   public EnumInfo getEnumById(int enumId);
 
   /**
@@ -31,6 +31,10 @@ import org.apache.geode.pdx.PdxSerializer;
 import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -210,6 +214,51 @@ public class TypeRegistry {
     return id;
   }
 
+  /**
+   * Create type ids for all of the given types. The types that are not already known to this
+   * member are defined in the distributed system together, which is much cheaper than defining
+   * them one at a time when a large number of types is introduced. The id of each type is set on
+   * it.
+   * <p>
+   * Types serialized by this member are still defined one at a time by {@link #defineType}; this
+   * is for callers that have many new types at hand together.
+   */
+  public void defineTypes(Collection<PdxType> newTypes) {
+    List<PdxType> undefinedTypes = new ArrayList<PdxType>();
+    for (PdxType newType : newTypes) {
+      Integer existingId = this.typeToId.get(newType);
+      if (existingId != null) {
+        newType.setTypeId(existingId.intValue());
+      } else {
+        undefinedTypes.add(newType);
+      }
+    }
+    if (undefinedTypes.isEmpty()) {
+      return;
+    }
+    Map<PdxType, Integer> ids = distributedTypeRegistry.defineTypes(undefinedTypes);
+    // cache the new types with a single copy of each copy-on-write map
+    Map<Integer, PdxType> newIdToType = new HashMap<Integer, PdxType>();
+    Map<PdxType, Integer> newTypeToId = new HashMap<PdxType, Integer>();
+    for (PdxType newType : undefinedTypes) {
+      int id = ids.get(newType).intValue();
+      newType.setTypeId(id);
+      PdxType oldType = this.idToType.get(id);
+      if (oldType == null) {
+        newIdToType.put(id, newType);
+        newTypeToId.put(newType, id);
+        if (logger.isInfoEnabled()) {
+          logger.info("Caching {}", newType.toFormattedString());
+        }
+      } else if (!oldType.equals(newType)) {
+        Assert.fail("Old type does not equal new type for the same id. oldType=" + oldType
+            + " new type=" + newType);
+      }
+    }
+    this.idToType.putAll(newIdToType);
+    this.typeToId.putAll(newTypeToId);
+  }
+
   public void addRemoteType(int typeId, PdxType newType) {
     PdxType oldType = this.idToType.get(typeId);
     if (oldType == null) {
@@ -402,6 +451,51 @@ public class TypeRegistry {
     return id;
   }
 
+  /**
+   * Create enum ids for all of the given enums, defining the ones that are not already known to
+   * this member in the distributed system together. Like {@link #defineTypes}, nothing in this
+   * member calls it when serializing.
+   * 
+   * @return the id of each of the given enums
+   */
+  public Map<EnumInfo, Integer> defineEnums(Collection<EnumInfo> newInfos) {
+    Map<EnumInfo, Integer> result = new HashMap<EnumInfo, Integer>();
+    List<EnumInfo> undefinedInfos = new ArrayList<EnumInfo>();
+    for (EnumInfo newInfo : newInfos) {
+      Integer existingId = this.enumInfoToId.get(newInfo);
+      if (existingId != null) {
+        result.put(newInfo, existingId);
+      } else {
+        undefinedInfos.add(newInfo);
+      }
+    }
+    if (undefinedInfos.isEmpty()) {
+      return result;
+    }
+    Map<EnumInfo, Integer> ids = distributedTypeRegistry.defineEnums(undefinedInfos);
+    Map<Integer, EnumInfo> newIdToEnum = new HashMap<Integer, EnumInfo>();
+    Map<EnumInfo, Integer> newEnumInfoToId = new HashMap<EnumInfo, Integer>();
+    for (EnumInfo newInfo : undefinedInfos) {
+      Integer id = ids.get(newInfo);
+      EnumInfo oldInfo = this.idToEnum.get(id);
+      if (oldInfo == null) {
+        newIdToEnum.put(id, newInfo);
+        newEnumInfoToId.put(newInfo, id);
+        if (logger.isInfoEnabled()) {
+          logger.info("Caching PDX Enum: {}, dsid={} typenum={}", newInfo, id >> 24,
+              id & 0xFFFFFF);
+        }
+      } else if (!oldInfo.equals(newInfo)) {
+        Assert.fail("Old enum does not equal new enum for the same id. oldEnum=" + oldInfo
+            + " newEnum=" + newInfo);
+      }
+      result.put(newInfo, id);
+    }
+    this.idToEnum.putAll(newIdToEnum);
+    this.enumInfoToId.putAll(newEnumInfoToId);
+    return result;
+  }
+
   public Object getEnumById(int enumId) {
     if (enumId == 0) {
       return null;
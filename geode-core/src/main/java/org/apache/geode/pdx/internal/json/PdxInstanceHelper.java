@@ -36,16 +36,31 @@ public class PdxInstanceHelper implements JSONToPdxMapper {
   PdxInstanceFactoryImpl m_pdxInstanceFactory;
   PdxInstance m_pdxInstance;
   String m_PdxName;// when pdx is member, else null if part of lists
+  // true when this object is written in place into its parent's pdx stream
+  boolean m_nested;
+  // set while a nested member object is being written in place into this one
+  PdxInstanceHelper m_openMember;
 
   public PdxInstanceHelper(String className, JSONToPdxMapper parent) {
-    GemFireCacheImpl gci = (GemFireCacheImpl) CacheFactory.getAnyInstance();
     if (logger.isTraceEnabled()) {
       logger.trace("ClassName {}", className);
     }
     m_PdxName = className;
     m_parent = parent;
-    m_pdxInstanceFactory =
-        (PdxInstanceFactoryImpl) gci.createPdxInstanceFactory(JSONFormatter.JSON_CLASSNAME, false);
+    if (parent instanceof PdxInstanceHelper) {
+      // a member object is streamed into its parent rather than created and then copied into it
+      if (className == null)
+        throw new IllegalStateException("addObjectField:Object should have fieldname");
+      PdxInstanceHelper parentHelper = (PdxInstanceHelper) parent;
+      m_nested = true;
+      m_pdxInstanceFactory = parentHelper.m_pdxInstanceFactory.writeNestedObjectField(className,
+          JSONFormatter.JSON_CLASSNAME, false);
+      parentHelper.m_openMember = this;
+    } else {
+      GemFireCacheImpl gci = (GemFireCacheImpl) CacheFactory.getAnyInstance();
+      m_pdxInstanceFactory = (PdxInstanceFactoryImpl) gci
+          .createPdxInstanceFactory(JSONFormatter.JSON_CLASSNAME, false);
+    }
   }
 
   public JSONToPdxMapper getParent() {
@@ -155,6 +170,11 @@ public class PdxInstanceHelper implements JSONToPdxMapper {
     }
     if (fieldName == null)
       throw new IllegalStateException("addObjectField:Object should have fieldname");
+    if (m_openMember != null) {
+      // already written in place by the member's own factory
+      m_openMember = null;
+      return;
+    }
     m_pdxInstanceFactory.writeObject(fieldName, member);
   }
 
@@ -162,7 +182,11 @@ public class PdxInstanceHelper implements JSONToPdxMapper {
     if (logger.isTraceEnabled()) {
       logger.trace("endObjectField fieldName: {}", fieldName);
     }
-    m_pdxInstance = m_pdxInstanceFactory.create();
+    if (m_nested) {
+      m_pdxInstanceFactory.completeNestedObject();
+    } else {
+      m_pdxInstance = m_pdxInstanceFactory.create();
+    }
   }
 
   public PdxInstance getPdxInstance() {
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query;
+
+import static org.apache.geode.distributed.ConfigurationProperties.*;
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.internal.DefaultQueryService;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxInstanceFactory;
+import org.apache.geode.pdx.internal.PdxInstanceFactoryImpl;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests that, with {@link DefaultQueryService#PDX_GETTERS_READ_FIELDS} set, getters called in a
+ * query on read-serialized pdx values read the fields they name. The values are of a class that
+ * does not exist, so the queries would fail if they deserialized them.
+ */
+@Category(IntegrationTest.class)
+public class PdxGetterQueryJUnitTest {
+
+  private static final String CLASS_NAME = "org.apache.geode.cache.query.NoSuchPortfolio";
+
+  private boolean originalPdxGettersReadFields;
+
+  private Cache cache;
+
+  @Before
+  public void setUp() {
+    this.originalPdxGettersReadFields = DefaultQueryService.PDX_GETTERS_READ_FIELDS;
+    DefaultQueryService.PDX_GETTERS_READ_FIELDS = true;
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(OFF_HEAP_MEMORY_SIZE, "1m")
+        .setPdxReadSerialized(true).create();
+  }
+
+  @After
+  public void tearDown() {
+    DefaultQueryService.PDX_GETTERS_READ_FIELDS = this.originalPdxGettersReadFields;
+    this.cache.close();
+  }
+
+  @Test
+  public void testGetterReadsFieldOfHeapValue() throws Exception {
+    Region<Integer, PdxInstance> region =
+        this.cache.<Integer, PdxInstance>createRegionFactory(RegionShortcut.LOCAL).create("r");
+    putPortfolios(region);
+    assertGetterQueries();
+  }
+
+  @Test
+  public void testGetterReadsFieldOfOffHeapValue() throws Exception {
+    Region<Integer, PdxInstance> region = this.cache
+        .<Integer, PdxInstance>createRegionFactory(RegionShortcut.LOCAL).setOffHeap(true)
+        .create("r");
+    putPortfolios(region);
+    assertGetterQueries();
+  }
+
+  private void putPortfolios(Region<Integer, PdxInstance> region) {
+    for (int i = 0; i < 10; i++) {
+      PdxInstanceFactory pf = PdxInstanceFactoryImpl.newCreator(CLASS_NAME, false);
+      pf.writeInt("ID", i);
+      pf.writeString("secId", i % 3 == 0 ? "abc" : "def" + i);
+      pf.writeBoolean("active", i % 2 == 0);
+      region.put(i, pf.create());
+    }
+  }
+
+  private void assertGetterQueries() throws Exception {
+    QueryService qs = this.cache.getQueryService();
+    assertEquals(ids(0, 3, 6, 9),
+        resultIds(qs.newQuery("SELECT * FROM /r WHERE getSecId() = 'abc'").execute()));
+    assertEquals(ids(0, 3, 6, 9),
+        resultIds(qs.newQuery("SELECT * FROM /r p WHERE p.getSecId() = 'abc'").execute()));
+    assertEquals(ids(0, 6),
+        resultIds(qs.newQuery("SELECT * FROM /r p WHERE p.getSecId() = 'abc' AND p.isActive()")
+            .execute()));
+    assertEquals(ids(4),
+        resultIds(qs.newQuery("SELECT * FROM /r p WHERE p.getSecId() = 'def4'").execute()));
+  }
+
+  private static Set<Integer> ids(int... ids) {
+    Set<Integer> set = new HashSet<Integer>();
+    for (int id : ids) {
+      set.add(id);
+    }
+    return set;
+  }
+
+  private static Set<Integer> resultIds(Object results) {
+    Set<Integer> set = new HashSet<Integer>();
+    for (Object result : (SelectResults<?>) results) {
+      PdxInstance pdx = (PdxInstance) result;
+      assertEquals(CLASS_NAME, pdx.getClassName());
+      set.add((Integer) pdx.getField("ID"));
+    }
+    return set;
+  }
+}
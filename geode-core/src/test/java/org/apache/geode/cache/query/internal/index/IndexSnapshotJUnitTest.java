@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.distributed.ConfigurationProperties.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.AttributesFactory;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.Scope;
+import org.apache.geode.cache.query.IndexType;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.cache.InternalRegionArguments;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests that compact range indexes of a persistent region are saved when it is closed and loaded,
+ * or rebuilt if the snapshot can not be used, when it is recovered.
+ */
+@Category(IntegrationTest.class)
+public class IndexSnapshotJUnitTest {
+
+  private static final String REGION_NAME = "region";
+
+  private static final int ENTRIES = 100;
+
+  /** counts how often the indexed expression was evaluated */
+  static final AtomicInteger evaluations = new AtomicInteger();
+
+  private boolean originalEnabled;
+
+  private GemFireCacheImpl cache;
+
+  private File diskDir;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void setUp() throws Exception {
+    this.originalEnabled = IndexSnapshot.ENABLED;
+    IndexSnapshot.ENABLED = true;
+    this.diskDir = temporaryFolder.newFolder("disk");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    IndexSnapshot.ENABLED = this.originalEnabled;
+    if (this.cache != null && !this.cache.isClosed()) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void testIndexIsLoadedFromSnapshot() throws Exception {
+    Region<Integer, Status> region = createRegion();
+    putEntries(region, 0);
+    this.cache.close();
+    assertNotNull(getSnapshotFile());
+
+    evaluations.set(0);
+    region = createRegion();
+    assertEquals(0, evaluations.get());
+    assertNull(getSnapshotFile());
+    assertEquals(ENTRIES / 2, queryActive().size());
+
+    // the loaded index is maintained like a populated one
+    region.put(0, new Status("inactive"));
+    region.put(1, new Status("active"));
+    assertEquals(ENTRIES / 2, queryActive().size());
+    region.destroy(1);
+    assertEquals(ENTRIES / 2 - 1, queryActive().size());
+  }
+
+  @Test
+  public void testCorruptSnapshotIsRebuilt() throws Exception {
+    putEntries(createRegion(), 0);
+    this.cache.close();
+    File snapshot = getSnapshotFile();
+    FileOutputStream out = new FileOutputStream(snapshot);
+    try {
+      out.write(new byte[] {0, 0, 0, 1, 42, 42, 42});
+    } finally {
+      out.close();
+    }
+
+    evaluations.set(0);
+    createRegion();
+    assertTrue(evaluations.get() >= ENTRIES);
+    assertNull(getSnapshotFile());
+    assertEquals(ENTRIES / 2, queryActive().size());
+  }
+
+  @Test
+  public void testSnapshotOfOlderDataIsRebuilt() throws Exception {
+    putEntries(createRegion(), 0);
+    this.cache.close();
+    byte[] oldSnapshot = Files.readAllBytes(getSnapshotFile().toPath());
+    String snapshotName = getSnapshotFile().getName();
+
+    // change the entries after the snapshot was saved and put the old snapshot back
+    Region<Integer, Status> region = createRegion();
+    putEntries(region, 1);
+    region.destroy(1);
+    this.cache.close();
+    Files.write(new File(this.diskDir, snapshotName).toPath(), oldSnapshot);
+
+    evaluations.set(0);
+    createRegion();
+    assertTrue(evaluations.get() >= ENTRIES - 1);
+    assertNull(getSnapshotFile());
+    assertEquals(ENTRIES / 2 - 1, queryActive().size());
+  }
+
+  private Region<Integer, Status> createRegion() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    this.cache = (GemFireCacheImpl) new CacheFactory(props).create();
+    this.cache.createDiskStoreFactory().setDiskDirs(new File[] {this.diskDir}).create("store");
+    AttributesFactory<Integer, Status> af = new AttributesFactory<Integer, Status>();
+    af.setScope(Scope.DISTRIBUTED_ACK);
+    af.setDataPolicy(DataPolicy.PERSISTENT_REPLICATE);
+    af.setDiskStoreName("store");
+    IndexCreationData index = new IndexCreationData("statusIndex");
+    index.setIndexData(IndexType.FUNCTIONAL, "/" + REGION_NAME, "status", null);
+    return this.cache.createVMRegion(REGION_NAME, af.create(),
+        new InternalRegionArguments().setIndexes(Collections.singletonList(index)));
+  }
+
+  /**
+   * Puts ENTRIES entries, every other one of them active. The offset shifts which ones are.
+   */
+  private void putEntries(Region<Integer, Status> region, int offset) {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Status((i + offset) % 2 == 0 ? "active" : "inactive"));
+    }
+  }
+
+  private SelectResults<?> queryActive() throws Exception {
+    return (SelectResults<?>) this.cache.getQueryService()
+        .newQuery("select * from /" + REGION_NAME + " where status = 'active'").execute();
+  }
+
+  private File getSnapshotFile() {
+    File[] files = this.diskDir.listFiles((dir, name) -> name.endsWith(".idx"));
+    assertTrue(files.length <= 1);
+    return files.length == 0 ? null : files[0];
+  }
+
+  public static class Status implements Serializable {
+    private final String status;
+
+    public Status(String status) {
+      this.status = status;
+    }
+
+    public String getStatus() {
+      evaluations.incrementAndGet();
+      return this.status;
+    }
+  }
+}
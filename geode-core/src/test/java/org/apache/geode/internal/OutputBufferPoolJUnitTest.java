@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OutputBufferPoolJUnitTest {
+
+  private DMStats stats;
+
+  @Before
+  public void setUp() {
+    OutputBufferPool.clear();
+    this.stats = mock(DMStats.class);
+  }
+
+  @After
+  public void tearDown() {
+    OutputBufferPool.clear();
+  }
+
+  @Test
+  public void testSizeClasses() {
+    assertEquals(0, OutputBufferPool.getSizeClass(1));
+    assertEquals(0, OutputBufferPool.getSizeClass(1024));
+    assertEquals(1, OutputBufferPool.getSizeClass(1025));
+    assertEquals(1, OutputBufferPool.getSizeClass(2048));
+    assertEquals(10, OutputBufferPool.getSizeClass(OutputBufferPool.MAX_SIZE));
+    assertEquals(-1, OutputBufferPool.getSizeClass(OutputBufferPool.MAX_SIZE + 1));
+  }
+
+  @Test
+  public void testReleasedBufferIsReused() {
+    ByteBuffer bb = OutputBufferPool.acquire(3000, this.stats);
+    assertEquals(4096, bb.capacity());
+    verify(this.stats).incOutputBufferPoolMisses();
+    bb.putInt(7);
+
+    OutputBufferPool.release(bb, this.stats);
+    verify(this.stats).incOutputBufferBytesRecycled(4096);
+    ByteBuffer reused = OutputBufferPool.acquire(4000, this.stats);
+    assertSame(bb, reused);
+    assertEquals(0, reused.position());
+    assertEquals(4096, reused.limit());
+    verify(this.stats).incOutputBufferPoolHits();
+  }
+
+  @Test
+  public void testLargeBuffersAreSharedBetweenThreads() throws Exception {
+    final ByteBuffer bb = OutputBufferPool.acquire(OutputBufferPool.MAX_SIZE, this.stats);
+    OutputBufferPool.release(bb, this.stats);
+    final ByteBuffer[] acquired = new ByteBuffer[1];
+    Thread t = new Thread(new Runnable() {
+      public void run() {
+        acquired[0] = OutputBufferPool.acquire(OutputBufferPool.MAX_SIZE, stats);
+      }
+    });
+    t.start();
+    t.join();
+    assertSame(bb, acquired[0]);
+  }
+
+  @Test
+  public void testForeignBuffersAreNotPooled() {
+    OutputBufferPool.release(ByteBuffer.allocate(1000), this.stats);
+    OutputBufferPool.release(ByteBuffer.allocate(OutputBufferPool.MAX_SIZE * 2), this.stats);
+    verify(this.stats, never()).incOutputBufferBytesRecycled(anyInt());
+  }
+
+  @Test
+  public void testClosedPooledStreamRecyclesItsBuffers() {
+    HeapDataOutputStream hdos =
+        HeapDataOutputStream.createPooled(1024, Version.CURRENT, false, this.stats);
+    byte[] bytes = new byte[1500];
+    hdos.write(bytes, 0, bytes.length);
+    assertEquals(1500, hdos.size());
+    hdos.close();
+    verify(this.stats, times(2)).incOutputBufferPoolMisses();
+    verify(this.stats, times(2)).incOutputBufferBytesRecycled(1024);
+
+    HeapDataOutputStream hdos2 =
+        HeapDataOutputStream.createPooled(1024, Version.CURRENT, false, this.stats);
+    hdos2.writeInt(5);
+    verify(this.stats).incOutputBufferPoolHits();
+    hdos2.close();
+  }
+
+  @Test
+  public void testExposedBuffersAreNotRecycled() {
+    HeapDataOutputStream hdos =
+        HeapDataOutputStream.createPooled(1024, Version.CURRENT, false, this.stats);
+    hdos.writeInt(5);
+    ByteBuffer bb = hdos.toByteBuffer();
+    hdos.close();
+    verify(this.stats, never()).incOutputBufferBytesRecycled(anyInt());
+
+    ByteBuffer other = OutputBufferPool.acquire(1024, this.stats);
+    assertNotSame(bb, other);
+  }
+}
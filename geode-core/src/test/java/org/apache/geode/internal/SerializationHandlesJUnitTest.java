@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+/**
+ * Tests SerializationHandles
+ */
+@Category(UnitTest.class)
+public class SerializationHandlesJUnitTest {
+
+  @Test
+  public void testNewInstance() throws Exception {
+    Object o = SerializationHandles.newInstance(Versioned.class);
+    assertTrue(o instanceof Versioned);
+    assertNotSame(o, SerializationHandles.newInstance(Versioned.class));
+  }
+
+  @Test(expected = NoSuchMethodException.class)
+  public void testNewInstanceWithoutNoArgConstructor() throws Exception {
+    SerializationHandles.newInstance(NoDefaultConstructor.class);
+  }
+
+  @Test
+  public void testNewInstanceWrapsConstructorException() throws Exception {
+    try {
+      SerializationHandles.newInstance(ThrowingConstructor.class);
+      fail("expected InvocationTargetException");
+    } catch (InvocationTargetException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void testInvokeVersioned() throws Exception {
+    Versioned v = new Versioned();
+    DataOutput out = new HeapDataOutputStream(Version.CURRENT);
+    SerializationHandles.invokeVersioned(v, "toDataPre_GFE_7_1_0_0", DataOutput.class, out);
+    SerializationHandles.invokeVersioned(v, "toDataPre_GFE_7_1_0_0", DataOutput.class, out);
+    assertEquals(2, v.toDataPreCalls);
+  }
+
+  @Test
+  public void testInvokeVersionedWrapsMethodException() throws Exception {
+    try {
+      SerializationHandles.invokeVersioned(new Versioned(), "fromDataPre_GFE_7_1_0_0",
+          DataInput.class, null);
+      fail("expected InvocationTargetException");
+    } catch (InvocationTargetException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+  }
+
+  @Test(expected = NoSuchMethodException.class)
+  public void testInvokeVersionedMissingMethod() throws Exception {
+    SerializationHandles.invokeVersioned(new Versioned(), "toDataPre_GFE_8_0_0_0",
+        DataOutput.class, null);
+  }
+
+  public static class Versioned {
+    int toDataPreCalls;
+
+    public void toDataPre_GFE_7_1_0_0(DataOutput out) throws IOException {
+      this.toDataPreCalls++;
+    }
+
+    public void fromDataPre_GFE_7_1_0_0(DataInput in) throws IOException {
+      throw new IOException("expected");
+    }
+  }
+
+  public static class NoDefaultConstructor {
+    public NoDefaultConstructor(int i) {}
+  }
+
+  public static class ThrowingConstructor {
+    public ThrowingConstructor() {
+      throw new IllegalStateException("expected");
+    }
+  }
+}
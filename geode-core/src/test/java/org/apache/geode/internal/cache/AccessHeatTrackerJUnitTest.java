@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+/**
+ * Tests AccessHeatTracker
+ */
+@Category(UnitTest.class)
+public class AccessHeatTrackerJUnitTest {
+
+  private static final RegionMap SMALL = entries(10);
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testHotKeysHaveMoreHeat() throws Exception {
+    AccessHeatTracker tracker =
+        new AccessHeatTracker(new File(temporaryFolder.getRoot(), "HEATtest.hsk"));
+    for (int i = 0; i < 50; i++) {
+      tracker.recordAccess(1, "hot", SMALL);
+    }
+    tracker.recordAccess(1, "warm", SMALL);
+    assertTrue(tracker.hasHeat(1));
+    assertFalse(tracker.hasHeat(2));
+    assertTrue(tracker.getHeat(1, "hot") >= 50);
+    assertTrue(tracker.getHeat(1, "hot") > tracker.getHeat(1, "warm"));
+    assertEquals(0, tracker.getHeat(2, "hot"));
+  }
+
+  @Test
+  public void testHeatSaturates() throws Exception {
+    AccessHeatTracker tracker =
+        new AccessHeatTracker(new File(temporaryFolder.getRoot(), "HEATtest.hsk"));
+    for (int i = 0; i < 1000; i++) {
+      tracker.recordAccess(1, "hot", SMALL);
+    }
+    assertEquals(255, tracker.getHeat(1, "hot"));
+  }
+
+  @Test
+  public void testSaveAndLoad() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "HEATtest.hsk");
+    AccessHeatTracker tracker = new AccessHeatTracker(file);
+    for (int i = 0; i < 20; i++) {
+      tracker.recordAccess(7, i, SMALL);
+      tracker.recordAccess(7, 3, SMALL);
+    }
+    tracker.save();
+    assertTrue(file.exists());
+
+    AccessHeatTracker loaded = new AccessHeatTracker(file);
+    assertTrue(loaded.hasHeat(7));
+    for (int i = 0; i < 20; i++) {
+      assertEquals(tracker.getHeat(7, i), loaded.getHeat(7, i));
+    }
+
+    loaded.delete();
+    assertFalse(file.exists());
+    assertFalse(loaded.hasHeat(7));
+  }
+
+  @Test
+  public void testRemoveRegion() throws Exception {
+    AccessHeatTracker tracker =
+        new AccessHeatTracker(new File(temporaryFolder.getRoot(), "HEATtest.hsk"));
+    tracker.recordAccess(1, "key", SMALL);
+    tracker.recordAccess(2, "key", SMALL);
+    tracker.removeRegion(1);
+    assertFalse(tracker.hasHeat(1));
+    assertEquals(0, tracker.getHeat(1, "key"));
+    assertTrue(tracker.getHeat(2, "key") > 0);
+  }
+
+  @Test
+  public void testSketchIsSizedFromEntryCount() throws Exception {
+    assertEquals(AccessHeatTracker.MIN_SKETCH_WIDTH, AccessHeatTracker.widthFor(0));
+    assertEquals(1 << 17, AccessHeatTracker.widthFor(100000));
+    assertEquals(1 << 17, AccessHeatTracker.widthFor(1 << 17));
+    assertEquals(AccessHeatTracker.MAX_SKETCH_WIDTH, AccessHeatTracker.widthFor(Integer.MAX_VALUE));
+
+    AccessHeatTracker tracker =
+        new AccessHeatTracker(new File(temporaryFolder.getRoot(), "HEATtest.hsk"));
+    assertEquals(0, tracker.getRankableKeyCount(1));
+    tracker.recordAccess(1, "key", SMALL);
+    tracker.recordAccess(2, "key", entries(100000));
+    assertEquals(AccessHeatTracker.MIN_SKETCH_WIDTH / AccessHeatTracker.COUNTERS_PER_RANKED_KEY,
+        tracker.getRankableKeyCount(1));
+    assertEquals((1 << 17) / AccessHeatTracker.COUNTERS_PER_RANKED_KEY,
+        tracker.getRankableKeyCount(2));
+  }
+
+  @Test
+  public void testSketchGrowsWithRegion() throws Exception {
+    AccessHeatTracker tracker =
+        new AccessHeatTracker(new File(temporaryFolder.getRoot(), "HEATtest.hsk"));
+    RegionMap entries = entries(10);
+    tracker.recordAccess(1, "key", entries);
+    int smallRankable = tracker.getRankableKeyCount(1);
+
+    // the sketch is replaced when it is halved after the region has grown
+    when(entries.size()).thenReturn(100000);
+    for (int i = 0; i < 10 * AccessHeatTracker.MIN_SKETCH_WIDTH; i++) {
+      tracker.recordAccess(1, i, entries);
+    }
+    assertEquals(smallRankable * 32, tracker.getRankableKeyCount(1));
+  }
+
+  @Test
+  public void testSaveAndLoadKeepsWidth() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "HEATtest.hsk");
+    AccessHeatTracker tracker = new AccessHeatTracker(file);
+    tracker.recordAccess(1, "key", SMALL);
+    tracker.recordAccess(2, "key", entries(100000));
+    tracker.save();
+
+    AccessHeatTracker loaded = new AccessHeatTracker(file);
+    assertEquals(tracker.getRankableKeyCount(1), loaded.getRankableKeyCount(1));
+    assertEquals(tracker.getRankableKeyCount(2), loaded.getRankableKeyCount(2));
+    assertEquals(tracker.getHeat(2, "key"), loaded.getHeat(2, "key"));
+  }
+
+  private static RegionMap entries(int size) {
+    RegionMap entries = mock(RegionMap.class);
+    when(entries.size()).thenReturn(size);
+    return entries;
+  }
+}
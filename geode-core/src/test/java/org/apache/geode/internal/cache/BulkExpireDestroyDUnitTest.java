@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.awaitility.Awaitility.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.AttributesFactory;
+import org.apache.geode.cache.ExpirationAction;
+import org.apache.geode.cache.ExpirationAttributes;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.DistributionMessageObserver;
+import org.apache.geode.internal.cache.DistributedRemoveAllOperation.RemoveAllMessage;
+import org.apache.geode.test.dunit.Host;
+import org.apache.geode.test.dunit.Invoke;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.cache.internal.JUnit4CacheTestCase;
+import org.apache.geode.test.junit.categories.DistributedTest;
+
+/**
+ * Tests that, with {@link BucketRegion#BULK_EXPIRE_DESTROY}, the entries of a bucket that expire
+ * together are destroyed on both copies of a redundant partitioned region by one
+ * RemoveAllMessage.
+ */
+@Category(DistributedTest.class)
+public class BulkExpireDestroyDUnitTest extends JUnit4CacheTestCase {
+
+  private static final String REGION_NAME = "region";
+
+  private static final int TTL_SECONDS = 1;
+
+  private static final int ENTRIES = 20;
+
+  /** the keys of each RemoveAllMessage this member has processed */
+  private static final ConcurrentLinkedQueue<Set<Object>> removeAllKeys =
+      new ConcurrentLinkedQueue<Set<Object>>();
+
+  /** the number of DestroyMessages this member has processed */
+  private static final AtomicInteger destroyMessages = new AtomicInteger();
+
+  /** the keys the expiryTaskListener was told had expired */
+  private static final ConcurrentLinkedQueue<Object> expiredKeys =
+      new ConcurrentLinkedQueue<Object>();
+
+  /** the keys the expiryTaskListener was told had expired while they were still in the bucket */
+  private static final ConcurrentLinkedQueue<Object> expiredEarlyKeys =
+      new ConcurrentLinkedQueue<Object>();
+
+  private static boolean originalUseTimingWheel;
+
+  private static boolean originalBulkExpireDestroy;
+
+  @Override
+  public final void preTearDownCacheTestCase() throws Exception {
+    Invoke.invokeInEveryVM(() -> {
+      ExpiryTask.permitExpiration();
+      ExpiryTask.expiryTaskListener = null;
+      DistributionMessageObserver.setInstance(null);
+      ExpirationScheduler.USE_TIMING_WHEEL = originalUseTimingWheel;
+      BucketRegion.BULK_EXPIRE_DESTROY = originalBulkExpireDestroy;
+    });
+  }
+
+  @Test
+  public void testExpiredBatchIsDestroyedOnBothCopiesByOneMessage() throws Exception {
+    Host host = Host.getHost(0);
+    VM vm0 = host.getVM(0);
+    VM vm1 = host.getVM(1);
+    vm0.invoke(() -> createRegion());
+    vm1.invoke(() -> createRegion());
+
+    // hold back expiration so that the batch keys are all due the next time the wheel advances
+    vm0.invoke(() -> ExpiryTask.suspendExpiration());
+    vm1.invoke(() -> ExpiryTask.suspendExpiration());
+    vm0.invoke(() -> {
+      Region<Object, Object> region = getCache().getRegion(REGION_NAME);
+      // the timer thread blocks on this entry's tick before any batch key is due
+      region.put("blocker", "value");
+      Thread.sleep(200);
+      Map<Object, Object> batch = new HashMap<Object, Object>();
+      for (int i = 0; i < ENTRIES; i++) {
+        batch.put(i, "value" + i);
+      }
+      region.putAll(batch);
+      final long due = ExpiryTask.getNow() + TimeUnit.SECONDS.toMillis(TTL_SECONDS) + 500;
+      await().atMost(30, TimeUnit.SECONDS).until(() -> ExpiryTask.getNow() > due);
+    });
+    vm0.invoke(() -> ExpiryTask.permitExpiration());
+    vm1.invoke(() -> ExpiryTask.permitExpiration());
+
+    vm0.invoke(() -> awaitBucketEmpty());
+    vm1.invoke(() -> awaitBucketEmpty());
+
+    List<Set<Object>> messages = new ArrayList<Set<Object>>();
+    messages.addAll(vm0.invoke(() -> new ArrayList<Set<Object>>(removeAllKeys)));
+    messages.addAll(vm1.invoke(() -> new ArrayList<Set<Object>>(removeAllKeys)));
+    Set<Object> batchKeys = new HashSet<Object>();
+    for (int i = 0; i < ENTRIES; i++) {
+      batchKeys.add(i);
+    }
+    int batchMessages = 0;
+    for (Set<Object> keys : messages) {
+      if (!Collections.disjoint(keys, batchKeys)) {
+        assertTrue(messages.toString(), keys.containsAll(batchKeys));
+        batchMessages++;
+      }
+    }
+    assertEquals(messages.toString(), 1, batchMessages);
+    assertEquals(0, vm0.invoke(() -> destroyMessages.get()).intValue()
+        + vm1.invoke(() -> destroyMessages.get()).intValue());
+
+    // the primary tells the listener about each entry only once it has been destroyed
+    List<Object> expired = new ArrayList<Object>();
+    expired.addAll(vm0.invoke(() -> new ArrayList<Object>(expiredKeys)));
+    expired.addAll(vm1.invoke(() -> new ArrayList<Object>(expiredKeys)));
+    assertTrue(expired.toString(), expired.containsAll(batchKeys));
+    assertEquals(0, vm0.invoke(() -> expiredEarlyKeys.size()).intValue()
+        + vm1.invoke(() -> expiredEarlyKeys.size()).intValue());
+  }
+
+  private void createRegion() {
+    originalUseTimingWheel = ExpirationScheduler.USE_TIMING_WHEEL;
+    originalBulkExpireDestroy = BucketRegion.BULK_EXPIRE_DESTROY;
+    ExpirationScheduler.USE_TIMING_WHEEL = true;
+    BucketRegion.BULK_EXPIRE_DESTROY = true;
+    removeAllKeys.clear();
+    destroyMessages.set(0);
+    expiredKeys.clear();
+    expiredEarlyKeys.clear();
+    DistributionMessageObserver.setInstance(new DistributionMessageObserver() {
+      @Override
+      public void beforeProcessMessage(DistributionManager dm, DistributionMessage message) {
+        if (message instanceof RemoveAllMessage) {
+          RemoveAllMessage removeAll = (RemoveAllMessage) message;
+          Set<Object> keys = new HashSet<Object>();
+          for (int i = 0; i < removeAll.removeAllDataSize; i++) {
+            keys.add(removeAll.removeAllData[i].getKey());
+          }
+          removeAllKeys.add(keys);
+        } else if (message instanceof DestroyOperation.DestroyMessage) {
+          destroyMessages.incrementAndGet();
+        }
+      }
+    });
+    ExpiryTask.expiryTaskListener = new ExpiryTask.ExpiryTaskListener() {
+      @Override
+      public void afterSchedule(ExpiryTask et) {}
+
+      @Override
+      public void afterTaskRan(ExpiryTask et) {}
+
+      @Override
+      public void afterReschedule(ExpiryTask et) {}
+
+      @Override
+      public void afterCancel(ExpiryTask et) {}
+
+      @Override
+      public void afterExpire(ExpiryTask et) {
+        Object key = et.getKey();
+        expiredKeys.add(key);
+        if (et.getLocalRegion().containsKey(key)) {
+          expiredEarlyKeys.add(key);
+        }
+      }
+    };
+
+    AttributesFactory<Object, Object> af = new AttributesFactory<Object, Object>();
+    af.setPartitionAttributes(new PartitionAttributesFactory<Object, Object>()
+        .setRedundantCopies(1).setTotalNumBuckets(1).create());
+    af.setStatisticsEnabled(true);
+    af.setEntryTimeToLive(new ExpirationAttributes(TTL_SECONDS, ExpirationAction.DESTROY));
+    getCache().createRegion(REGION_NAME, af.create());
+  }
+
+  private void awaitBucketEmpty() {
+    final PartitionedRegion region = (PartitionedRegion) getCache().getRegion(REGION_NAME);
+    await().atMost(30, TimeUnit.SECONDS).until(() -> {
+      BucketRegion bucket = region.getDataStore().getLocalBucketById(0);
+      return bucket != null && bucket.size() == 0;
+    });
+  }
+}
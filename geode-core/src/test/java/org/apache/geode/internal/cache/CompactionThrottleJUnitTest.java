@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompactionThrottleJUnitTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong(1000L);
+
+  @Test
+  public void rejectsNonPositiveRate() {
+    assertThatThrownBy(() -> new CompactionThrottle(0, 0, this.clock::get))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void startsWithOneSecondOfBudget() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 0, this.clock::get);
+
+    assertThat(throttle.hasBudget()).isTrue();
+    assertThat(throttle.getWaitTime()).isEqualTo(0);
+    throttle.consume(999);
+    assertThat(throttle.hasBudget()).isTrue();
+    throttle.consume(1);
+    assertThat(throttle.hasBudget()).isFalse();
+  }
+
+  @Test
+  public void budgetRefillsAtConfiguredRate() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 0, this.clock::get);
+    throttle.consume(1500);
+
+    assertThat(throttle.hasBudget()).isFalse();
+    assertThat(throttle.getWaitTime()).isEqualTo(501 * SECOND / 1000);
+
+    this.clock.addAndGet(SECOND / 2);
+    assertThat(throttle.hasBudget()).isFalse();
+
+    this.clock.addAndGet(SECOND / 100);
+    assertThat(throttle.hasBudget()).isTrue();
+    assertThat(throttle.getWaitTime()).isEqualTo(0);
+  }
+
+  @Test
+  public void budgetNeverExceedsOneSecondOfBytes() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 0, this.clock::get);
+
+    this.clock.addAndGet(60 * SECOND);
+    throttle.consume(1000);
+
+    assertThat(throttle.hasBudget()).isFalse();
+  }
+
+  @Test
+  public void slowForegroundWritesLowerTheRate() {
+    long target = TimeUnit.MILLISECONDS.toNanos(1);
+    CompactionThrottle throttle = new CompactionThrottle(1000, target, this.clock::get);
+
+    for (int i = 0; i < 100; i++) {
+      throttle.recordForegroundWrite(target / 2);
+    }
+    assertThat(throttle.getEffectiveBytesPerSecond()).isEqualTo(1000);
+
+    for (int i = 0; i < 100; i++) {
+      throttle.recordForegroundWrite(4 * target);
+    }
+    assertThat(throttle.getAverageWriteLatency()).isGreaterThan(3 * target);
+    assertThat(throttle.getEffectiveBytesPerSecond()).isBetween(250L, 333L);
+
+    for (int i = 0; i < 100; i++) {
+      throttle.recordForegroundWrite(1000 * target);
+    }
+    assertThat(throttle.getEffectiveBytesPerSecond()).isEqualTo(100);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.DiskEntry.Helper.CompressedValueWrapper;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+/**
+ * Tests DiskEntry.Helper.CompressedValueWrapper and the compressed bit of EntryBits
+ */
+@Category(UnitTest.class)
+public class CompressedValueWrapperJUnitTest {
+
+  @Test
+  public void testSerializedUserBits() {
+    CompressedValueWrapper vw = new CompressedValueWrapper(true, new byte[] {1, 2, 3});
+    byte userBits = vw.getUserBits();
+    assertTrue(EntryBits.isCompressed(userBits));
+    assertTrue(EntryBits.isSerialized(userBits));
+    assertTrue(EntryBits.isNeedsValue(userBits));
+    assertEquals(3, vw.getLength());
+  }
+
+  @Test
+  public void testByteArrayUserBits() {
+    CompressedValueWrapper vw = new CompressedValueWrapper(false, new byte[] {1, 2, 3});
+    byte userBits = vw.getUserBits();
+    assertTrue(EntryBits.isCompressed(userBits));
+    assertFalse(EntryBits.isSerialized(userBits));
+  }
+
+  @Test
+  public void testCompressedBitIsPersistent() {
+    byte userBits = EntryBits.setCompressed((byte) 0, true);
+    userBits = EntryBits.setPendingAsync(userBits, true);
+    userBits = EntryBits.setRecoveredFromDisk(userBits, true);
+    byte persistentBits = EntryBits.getPersistentBits(userBits);
+    assertTrue(EntryBits.isCompressed(persistentBits));
+    assertFalse(EntryBits.isPendingAsync(persistentBits));
+    assertFalse(EntryBits.isRecoveredFromDisk(persistentBits));
+    assertFalse(EntryBits.isCompressed(EntryBits.setCompressed(persistentBits, false)));
+  }
+}
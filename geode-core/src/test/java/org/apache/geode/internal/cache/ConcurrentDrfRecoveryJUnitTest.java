@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.DiskStore;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests that reading the drf files of a disk store concurrently recovers the same region version
+ * vectors as the sequential recovery.
+ */
+@Category(IntegrationTest.class)
+public class ConcurrentDrfRecoveryJUnitTest {
+
+  private static final String REGION_NAME = "region";
+
+  private static final int OPLOGS = 6;
+
+  private static final int ENTRIES_PER_OPLOG = 50;
+
+  private int originalRecoveryThreads;
+
+  private GemFireCacheImpl cache;
+
+  private File diskDir;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void setUp() throws Exception {
+    this.originalRecoveryThreads = PersistentOplogSet.RECOVERY_THREADS;
+    this.diskDir = temporaryFolder.newFolder("disk");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    PersistentOplogSet.RECOVERY_THREADS = this.originalRecoveryThreads;
+    if (this.cache != null && !this.cache.isClosed()) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void testConcurrentRecoveryOfSeveralOplogsRecoversRVV() throws Exception {
+    LocalRegion region = createRegion();
+    // every oplog destroys entries and reaps tombstones, so each drf holds a different gc RVV
+    for (int oplog = 0; oplog < OPLOGS; oplog++) {
+      int first = oplog * ENTRIES_PER_OPLOG;
+      for (int i = first; i < first + ENTRIES_PER_OPLOG; i++) {
+        region.put(i, "value" + i);
+      }
+      for (int i = first; i < first + ENTRIES_PER_OPLOG; i += 2) {
+        region.destroy(i);
+      }
+      assertTrue(
+          this.cache.getTombstoneService().forceBatchExpirationForTests(ENTRIES_PER_OPLOG / 4));
+      region.getDiskStore().forceRoll();
+    }
+    RegionVersionVector expectedRVV = region.getVersionVector().getCloneForTransmission();
+    RegionVersionVector expectedDiskRVV =
+        region.getDiskRegion().getRegionVersionVector().getCloneForTransmission();
+    int expectedSize = region.size();
+    this.cache.close();
+    assertTrue(this.diskDir.list((dir, name) -> name.endsWith(".drf")).length > OPLOGS);
+
+    PersistentOplogSet.RECOVERY_THREADS = 4;
+    region = createRegion();
+    assertEquals(expectedSize, region.size());
+    assertSameRVV(expectedRVV, region.getVersionVector());
+    assertSameRVV(expectedDiskRVV, region.getDiskRegion().getRegionVersionVector());
+    assertEquals(expectedDiskRVV.getGCVersion(null),
+        region.getDiskRegion().getRegionVersionVector().getGCVersion(null));
+    this.cache.close();
+
+    // the sequential recovery of the same files must agree
+    PersistentOplogSet.RECOVERY_THREADS = 1;
+    region = createRegion();
+    assertSameRVV(expectedDiskRVV, region.getDiskRegion().getRegionVersionVector());
+  }
+
+  private LocalRegion createRegion() {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    this.cache = (GemFireCacheImpl) new CacheFactory(props).create();
+    DiskStore diskStore = this.cache.createDiskStoreFactory().setAutoCompact(false)
+        .setDiskDirs(new File[] {this.diskDir}).create("store");
+    return (LocalRegion) this.cache.createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setDiskStoreName(diskStore.getName()).create(REGION_NAME);
+  }
+
+  private static void assertSameRVV(RegionVersionVector expected, RegionVersionVector actual) {
+    if (!expected.sameAs(actual)) {
+      fail("Expected " + expected + " but was " + actual);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ExpirationTimingWheelJUnitTest {
+
+  private static final long TICK = 10;
+
+  @Test
+  public void testTaskFiresOnTheTickOfItsDeadline() {
+    ExpirationTimingWheel wheel = new ExpirationTimingWheel(TICK, 1000);
+    ExpiryTask task = mock(ExpiryTask.class);
+    assertTrue(wheel.add(task, 25, 1000));
+    assertEquals(1, wheel.size());
+    assertTrue(wheel.advance(1020).isEmpty());
+    assertTrue(wheel.advance(1029).isEmpty());
+    List<ExpiryTask> expired = wheel.advance(1030);
+    assertEquals(1, expired.size());
+    assertSame(task, expired.get(0));
+    assertEquals(0, wheel.size());
+    assertTrue(wheel.advance(5000).isEmpty());
+  }
+
+  @Test
+  public void testTaskThatIsAlreadyDueIsNotAdded() {
+    ExpirationTimingWheel wheel = new ExpirationTimingWheel(TICK, 1000);
+    ExpiryTask task = mock(ExpiryTask.class);
+    assertFalse(wheel.add(task, 0, 1000));
+    assertEquals(0, wheel.size());
+    try {
+      wheel.add(task, 100, 1000);
+      fail("expected IllegalStateException");
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @Test
+  public void testCancelRemovesTask() {
+    ExpirationTimingWheel wheel = new ExpirationTimingWheel(TICK, 0);
+    ExpiryTask task = mock(ExpiryTask.class);
+    ExpiryTask other = mock(ExpiryTask.class);
+    wheel.add(task, 100, 0);
+    wheel.add(other, 100, 0);
+    assertTrue(ExpirationTimingWheel.cancel(task));
+    assertFalse(ExpirationTimingWheel.cancel(task));
+    assertEquals(1, wheel.size());
+    List<ExpiryTask> expired = wheel.advance(100);
+    assertEquals(1, expired.size());
+    assertSame(other, expired.get(0));
+    assertFalse(ExpirationTimingWheel.cancel(other));
+  }
+
+  @Test
+  public void testCancelledTaskCanNotBeAdded() {
+    ExpirationTimingWheel wheel = new ExpirationTimingWheel(TICK, 0);
+    ExpiryTask task = mock(ExpiryTask.class);
+    assertFalse(ExpirationTimingWheel.cancel(task));
+    try {
+      wheel.add(task, 100, 0);
+      fail("expected IllegalStateException");
+    } catch (IllegalStateException expected) {
+    }
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testTasksCascadeFromHigherLevels() {
+    ExpirationTimingWheel wheel = new ExpirationTimingWheel(TICK, 0);
+    long levelOne = TICK * ExpirationTimingWheel.WHEEL_SIZE;
+    long levelTwo = levelOne * ExpirationTimingWheel.WHEEL_SIZE;
+    long[] delays = {levelOne - TICK, levelOne, levelOne + TICK, 3 * levelOne + 7, levelTwo,
+        levelTwo + levelOne + 3 * TICK};
+    List<ExpiryTask> tasks = new ArrayList<ExpiryTask>();
+    for (long delay : delays) {
+      ExpiryTask task = mock(ExpiryTask.class);
+      wheel.add(task, delay, 0);
+      tasks.add(task);
+    }
+    for (int i = 0; i < delays.length; i++) {
+      long deadline = (delays[i] + TICK - 1) / TICK * TICK;
+      assertTrue("task " + i + " fired early", wheel.advance(deadline - 1).isEmpty());
+      List<ExpiryTask> expired = wheel.advance(deadline);
+      assertEquals("task " + i, 1, expired.size());
+      assertSame(tasks.get(i), expired.get(0));
+    }
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testRandomDeadlinesFireInOrder() {
+    Random random = new Random(0);
+    ExpirationTimingWheel wheel = new ExpirationTimingWheel(TICK, 0);
+    int count = 10000;
+    for (int i = 0; i < count; i++) {
+      ExpiryTask task = mock(ExpiryTask.class);
+      long delay = random.nextInt(10 * 60 * 1000);
+      wheel.add(task, delay, 0);
+    }
+    long now = 0;
+    long lastDeadline = 0;
+    int fired = 0;
+    while (wheel.size() > 0) {
+      now += random.nextInt(5000);
+      for (ExpiryTask task : wheel.advance(now)) {
+        assertTrue(task.wheelDeadline <= now);
+        assertTrue(task.wheelDeadline >= lastDeadline);
+        lastDeadline = task.wheelDeadline;
+        fired++;
+      }
+    }
+    assertEquals(count, fired);
+  }
+
+  @Test
+  public void testClearDropsAllTasks() {
+    ExpirationTimingWheel wheel = new ExpirationTimingWheel(TICK, 0);
+    ExpiryTask near = mock(ExpiryTask.class);
+    ExpiryTask far = mock(ExpiryTask.class);
+    wheel.add(near, 50, 0);
+    wheel.add(far, 24 * 60 * 60 * 1000L, 0);
+    wheel.clear();
+    assertEquals(0, wheel.size());
+    assertFalse(ExpirationTimingWheel.cancel(near));
+    assertTrue(wheel.advance(48 * 60 * 60 * 1000L).isEmpty());
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.RegionDestroyedException;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ExpiryBatchJUnitTest {
+
+  @After
+  public void tearDown() {
+    ExpiryBatch batch = ExpiryBatch.getCurrent();
+    if (batch != null) {
+      batch.flush();
+    }
+  }
+
+  @Test
+  public void testBatchIsOnlyOpenUntilFlushed() {
+    assertNull(ExpiryBatch.getCurrent());
+    ExpiryBatch batch = ExpiryBatch.begin();
+    assertSame(batch, ExpiryBatch.getCurrent());
+    batch.flush();
+    assertNull(ExpiryBatch.getCurrent());
+  }
+
+  @Test
+  public void testDestroysAreGroupedByBucket() {
+    BucketRegion bucket1 = mock(BucketRegion.class);
+    BucketRegion bucket2 = mock(BucketRegion.class);
+    EntryExpiryTask task1 = mock(EntryExpiryTask.class);
+    EntryExpiryTask task2 = mock(EntryExpiryTask.class);
+    EntryExpiryTask task3 = mock(EntryExpiryTask.class);
+
+    ExpiryBatch batch = ExpiryBatch.begin();
+    batch.addDestroy(bucket1, task1);
+    batch.addDestroy(bucket2, task2);
+    batch.addDestroy(bucket1, task3);
+    verify(bucket1, never()).bulkExpireDestroy(anyList());
+    batch.flush();
+
+    verify(bucket1, times(1)).bulkExpireDestroy(Arrays.asList(task1, task3));
+    verify(bucket2, times(1)).bulkExpireDestroy(Arrays.asList(task2));
+  }
+
+  @Test
+  public void testDestroyedBucketDoesNotStopFlush() {
+    BucketRegion bucket1 = mock(BucketRegion.class);
+    BucketRegion bucket2 = mock(BucketRegion.class);
+    doThrow(new RegionDestroyedException("destroyed", "/r")).when(bucket1)
+        .bulkExpireDestroy(anyList());
+    doThrow(new RegionDestroyedException("destroyed", "/r")).when(bucket2)
+        .bulkExpireDestroy(anyList());
+
+    ExpiryBatch batch = ExpiryBatch.begin();
+    batch.addDestroy(bucket1, mock(EntryExpiryTask.class));
+    batch.addDestroy(bucket2, mock(EntryExpiryTask.class));
+    batch.flush();
+
+    verify(bucket1, times(1)).bulkExpireDestroy(anyList());
+    verify(bucket2, times(1)).bulkExpireDestroy(anyList());
+  }
+}
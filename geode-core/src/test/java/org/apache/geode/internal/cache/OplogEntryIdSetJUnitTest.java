@@ -73,4 +73,24 @@ public class OplogEntryIdSetJUnitTest {
     s.add(Long.MIN_VALUE);
     assertEquals(true, s.contains(Long.MIN_VALUE));
   }
+
+  @Test
+  public void testAddAll() {
+    OplogEntryIdSet s = new OplogEntryIdSet();
+    s.add(1);
+    s.add(0x00000000FFFFFFFFL + 1);
+    OplogEntryIdSet other = new OplogEntryIdSet();
+    other.add(1);
+    other.add(2);
+    other.add(Long.MAX_VALUE);
+
+    s.addAll(other);
+
+    assertEquals(4, s.size());
+    assertEquals(true, s.contains(1));
+    assertEquals(true, s.contains(2));
+    assertEquals(true, s.contains(0x00000000FFFFFFFFL + 1));
+    assertEquals(true, s.contains(Long.MAX_VALUE));
+    assertEquals(3, other.size());
+  }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OplogGroupCommitterJUnitTest {
+
+  private final AtomicInteger flushes = new AtomicInteger();
+
+  private ExecutorService executor;
+
+  @After
+  public void tearDown() {
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void singleWriterFlushesItsOwnRecord() throws Exception {
+    OplogGroupCommitter committer = new OplogGroupCommitter(this.flushes::incrementAndGet);
+    long ticket = committer.append();
+
+    assertThat(committer.awaitCommit(ticket)).isEqualTo(1);
+    assertThat(this.flushes.get()).isEqualTo(1);
+    assertThat(committer.getCommitted()).isEqualTo(ticket);
+  }
+
+  @Test
+  public void alreadyCommittedTicketDoesNotFlush() throws Exception {
+    OplogGroupCommitter committer = new OplogGroupCommitter(this.flushes::incrementAndGet);
+    long first = committer.append();
+    long second = committer.append();
+
+    assertThat(committer.awaitCommit(second)).isEqualTo(2);
+    assertThat(committer.awaitCommit(first)).isEqualTo(0);
+    assertThat(this.flushes.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void writersWaitingOnAFlushShareTheNextOne() throws Exception {
+    final int waiters = 5;
+    CountDownLatch firstFlushStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstFlush = new CountDownLatch(1);
+    OplogGroupCommitter committer = new OplogGroupCommitter(() -> {
+      if (this.flushes.incrementAndGet() == 1) {
+        firstFlushStarted.countDown();
+        try {
+          releaseFirstFlush.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    this.executor = Executors.newFixedThreadPool(waiters + 1);
+
+    long leaderTicket = committer.append();
+    Future<Long> leader = this.executor.submit(() -> committer.awaitCommit(leaderTicket));
+    assertThat(firstFlushStarted.await(30, TimeUnit.SECONDS)).isTrue();
+
+    Future<?>[] followers = new Future<?>[waiters];
+    for (int i = 0; i < waiters; i++) {
+      long ticket = committer.append();
+      followers[i] = this.executor.submit(() -> committer.awaitCommit(ticket));
+    }
+    releaseFirstFlush.countDown();
+
+    assertThat(leader.get(30, TimeUnit.SECONDS)).isEqualTo(1);
+    long committedByFollowers = 0;
+    for (Future<?> follower : followers) {
+      committedByFollowers += (Long) follower.get(30, TimeUnit.SECONDS);
+    }
+    assertThat(committedByFollowers).isEqualTo(waiters);
+    assertThat(this.flushes.get()).isEqualTo(2);
+    assertThat(committer.getCommitted()).isEqualTo(waiters + 1);
+  }
+
+  @Test
+  public void failedFlushDoesNotCommitAndIsRetriedByNextWaiter() throws Exception {
+    OplogGroupCommitter committer = new OplogGroupCommitter(() -> {
+      if (this.flushes.incrementAndGet() == 1) {
+        throw new IllegalStateException("flush failed");
+      }
+    });
+    long ticket = committer.append();
+
+    assertThatThrownBy(() -> committer.awaitCommit(ticket))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(committer.getCommitted()).isEqualTo(0);
+
+    assertThat(committer.awaitCommit(ticket)).isEqualTo(1);
+    assertThat(committer.getCommitted()).isEqualTo(ticket);
+  }
+}
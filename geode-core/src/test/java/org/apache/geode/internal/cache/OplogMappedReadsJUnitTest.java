@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests reading values through a memory mapping of the crf of an oplog that is no longer being
+ * appended to, which {@link Oplog#MAPPED_READS} turns on.
+ */
+@Category(IntegrationTest.class)
+public class OplogMappedReadsJUnitTest {
+
+  private static final int ENTRIES = 200;
+
+  private boolean originalMappedReads;
+
+  private GemFireCacheImpl cache;
+
+  private File diskDir;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void setUp() throws Exception {
+    this.originalMappedReads = Oplog.MAPPED_READS;
+    Oplog.MAPPED_READS = true;
+    this.diskDir = temporaryFolder.newFolder("disk");
+    createCache();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Oplog.MAPPED_READS = this.originalMappedReads;
+    LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER = false;
+    CacheObserverHolder.setInstance(null);
+    if (this.cache != null && !this.cache.isClosed()) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void testFaultInFromRolledOplog() throws Exception {
+    LocalRegion region = createRegion();
+    Oplog rolled = putAndRoll(region);
+    assertFalse(rolled.isCrfMapped());
+
+    for (int i = 0; i < ENTRIES; i++) {
+      assertArrayEquals(valueOf(i), (byte[]) region.get(i));
+    }
+    assertTrue(rolled.isCrfMapped());
+    assertFalse(region.getDiskRegion().testHook_getChild().isCrfMapped());
+
+    // the values are evicted again as they are read, so these reads use seek and read
+    Oplog.MAPPED_READS = false;
+    for (int i = 0; i < ENTRIES; i++) {
+      assertArrayEquals(valueOf(i), (byte[]) region.get(i));
+    }
+
+    this.cache.close();
+    assertFalse(rolled.isCrfMapped());
+  }
+
+  @Test
+  public void testCompactionOfMappedOplog() throws Exception {
+    LocalRegion region = createRegion();
+    final Oplog rolled = putAndRoll(region);
+    for (int i = 0; i < ENTRIES; i += 2) {
+      region.destroy(i);
+    }
+
+    final AtomicBoolean mappedWhenCompacted = new AtomicBoolean();
+    final AtomicReference<File> compactedCrf = new AtomicReference<File>();
+    LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER = true;
+    CacheObserverHolder.setInstance(new CacheObserverAdapter() {
+      @Override
+      public void beforeDeletingCompactedOplog(Oplog compactedOplog) {
+        if (compactedOplog != rolled) {
+          return;
+        }
+        try {
+          compactedCrf.set(compactedOplog.getOplogFile());
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+        // this may be called more than once for the oplog
+        if (compactedOplog.isCrfMapped()) {
+          mappedWhenCompacted.set(true);
+        }
+      }
+    });
+    assertTrue(this.cache.findDiskStore("store").forceCompaction());
+
+    // the compactor copied the live values out of the mapping and then released it
+    assertTrue(mappedWhenCompacted.get());
+    assertFalse(rolled.isCrfMapped());
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> compactedCrf.get() != null && !compactedCrf.get().exists());
+
+    // recover with plain reads to check the compacted oplog holds the same bytes
+    this.cache.close();
+    Oplog.MAPPED_READS = false;
+    createCache();
+    region = createRegion();
+    for (int i = 0; i < ENTRIES; i++) {
+      if (i % 2 == 0) {
+        assertFalse(region.containsKey(i));
+      } else {
+        assertArrayEquals(valueOf(i), (byte[]) region.get(i));
+      }
+    }
+  }
+
+  private void createCache() {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    this.cache = (GemFireCacheImpl) new CacheFactory(props).create();
+  }
+
+  private LocalRegion createRegion() {
+    this.cache.createDiskStoreFactory().setDiskDirs(new File[] {this.diskDir})
+        .setAutoCompact(false).setAllowForceCompaction(true).setCompactionThreshold(100)
+        .create("store");
+    return (LocalRegion) this.cache
+        .<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName("store").setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(1, EvictionAction.OVERFLOW_TO_DISK))
+        .create("region");
+  }
+
+  /**
+   * Puts every value and rolls the oplog they were written to, so it is no longer appended to.
+   */
+  private Oplog putAndRoll(LocalRegion region) {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, valueOf(i));
+    }
+    Oplog oplog = region.getDiskRegion().testHook_getChild();
+    this.cache.findDiskStore("store").forceRoll();
+    assertNotSame(oplog, region.getDiskRegion().testHook_getChild());
+    return oplog;
+  }
+
+  private static byte[] valueOf(int i) {
+    byte[] value = new byte[100 + i];
+    Arrays.fill(value, (byte) i);
+    return value;
+  }
+}
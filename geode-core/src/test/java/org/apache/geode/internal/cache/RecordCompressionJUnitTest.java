@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Properties;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.compression.CompressionException;
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests that the crf value records of a disk store are compressed by
+ * {@link DiskStoreImpl#RECORD_COMPRESSOR} and are read with the compressor saved in its init file.
+ */
+@Category(IntegrationTest.class)
+public class RecordCompressionJUnitTest {
+
+  private static final int ENTRIES = 100;
+
+  private String originalRecordCompressor;
+
+  private GemFireCacheImpl cache;
+
+  private File diskDir;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void setUp() throws Exception {
+    this.originalRecordCompressor = DiskStoreImpl.RECORD_COMPRESSOR;
+    DiskStoreImpl.RECORD_COMPRESSOR = DeflaterCompressor.class.getName();
+    this.diskDir = temporaryFolder.newFolder("disk");
+    createCache();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    DiskStoreImpl.RECORD_COMPRESSOR = this.originalRecordCompressor;
+    if (this.cache != null && !this.cache.isClosed()) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void testRecoverWithSavedCompressor() throws Exception {
+    LocalRegion region = createRegion(false);
+    putValues(region);
+    assertTrue(getDiskStore().getStats().getCompressions() >= ENTRIES);
+    this.cache.close();
+
+    // a disk store that saved a compressor ignores the property
+    DiskStoreImpl.RECORD_COMPRESSOR = "org.apache.geode.NoSuchCompressor";
+    createCache();
+    region = createRegion(false);
+    assertTrue(getDiskStore().getRecordCompressor() instanceof DeflaterCompressor);
+    assertValues(region, 1);
+    this.cache.close();
+
+    DiskStoreImpl.RECORD_COMPRESSOR = null;
+    createCache();
+    region = createRegion(false);
+    assertTrue(getDiskStore().getRecordCompressor() instanceof DeflaterCompressor);
+    assertValues(region, 1);
+  }
+
+  @Test
+  public void testDiskStoreWithoutCompressedRecordsSavesNoCompressor() throws Exception {
+    DiskStoreImpl.RECORD_COMPRESSOR = null;
+    LocalRegion region = createRegion(false);
+    putValues(region);
+    assertEquals(0, getDiskStore().getStats().getCompressions());
+    this.cache.close();
+
+    // the compressor is saved the first time the disk store is opened with the property set
+    DiskStoreImpl.RECORD_COMPRESSOR = DeflaterCompressor.class.getName();
+    createCache();
+    region = createRegion(false);
+    assertValues(region, 1);
+    region.put(0, valueOf(0));
+    assertEquals(1, getDiskStore().getStats().getCompressions());
+    this.cache.close();
+
+    DiskStoreImpl.RECORD_COMPRESSOR = null;
+    createCache();
+    region = createRegion(false);
+    assertTrue(getDiskStore().getRecordCompressor() instanceof DeflaterCompressor);
+    assertValues(region, 1);
+  }
+
+  @Test
+  public void testFaultInOfOverflowedValues() throws Exception {
+    LocalRegion region = createRegion(true);
+    putValues(region);
+    DiskStoreStats stats = getDiskStore().getStats();
+    assertTrue(stats.getCompressions() >= ENTRIES);
+
+    long decompressions = stats.getDecompressions();
+    for (int i = 0; i < ENTRIES; i++) {
+      // only the most recently put entry still has its value in memory
+      if (i < ENTRIES - 1) {
+        assertNull(region.getValueInVM(i));
+      }
+      assertArrayEquals(valueOf(i), (byte[]) region.getValueOnDisk(i));
+      // faults the value in through Oplog.basicGet
+      assertArrayEquals(valueOf(i), (byte[]) region.get(i));
+    }
+    assertTrue(stats.getDecompressions() >= decompressions + ENTRIES - 1);
+  }
+
+  @Test
+  public void testCompactionOfCompressedRecords() throws Exception {
+    LocalRegion region = createRegion(true);
+    putValues(region);
+    getDiskStore().forceRoll();
+    for (int i = 0; i < ENTRIES; i += 2) {
+      region.destroy(i);
+    }
+    assertTrue(getDiskStore().forceCompaction());
+    assertValues(region, 2);
+    this.cache.close();
+
+    // the compactor copied the compressed records as they are
+    DiskStoreImpl.RECORD_COMPRESSOR = null;
+    createCache();
+    region = createRegion(true);
+    assertEquals(ENTRIES / 2, region.size());
+    assertValues(region, 2);
+  }
+
+  private void createCache() {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    this.cache = (GemFireCacheImpl) new CacheFactory(props).create();
+  }
+
+  private DiskStoreImpl getDiskStore() {
+    return (DiskStoreImpl) this.cache.findDiskStore("store");
+  }
+
+  private LocalRegion createRegion(boolean overflow) {
+    this.cache.createDiskStoreFactory().setDiskDirs(new File[] {this.diskDir})
+        .setAutoCompact(false).setAllowForceCompaction(true).setCompactionThreshold(100)
+        .create("store");
+    RegionFactory<Integer, byte[]> rf = this.cache
+        .<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName("store");
+    if (overflow) {
+      rf.setEvictionAttributes(
+          EvictionAttributes.createLRUEntryAttributes(1, EvictionAction.OVERFLOW_TO_DISK));
+    }
+    return (LocalRegion) rf.create("region");
+  }
+
+  private static void putValues(LocalRegion region) {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, valueOf(i));
+    }
+  }
+
+  /**
+   * Asserts that every step-th key, starting with step - 1, has its original value.
+   */
+  private static void assertValues(LocalRegion region, int step) {
+    for (int i = step - 1; i < ENTRIES; i += step) {
+      assertArrayEquals(valueOf(i), (byte[]) region.get(i));
+    }
+  }
+
+  private static byte[] valueOf(int i) {
+    byte[] value = new byte[DiskStoreImpl.RECORD_COMPRESSION_THRESHOLD + 100 + i];
+    for (int j = 0; j < value.length; j++) {
+      value[j] = (byte) (i + j % 8);
+    }
+    return value;
+  }
+
+  public static class DeflaterCompressor implements Compressor {
+
+    @Override
+    public byte[] compress(byte[] input) {
+      Deflater deflater = new Deflater();
+      try {
+        deflater.setInput(input);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(input.length);
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+          out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return out.toByteArray();
+      } finally {
+        deflater.end();
+      }
+    }
+
+    @Override
+    public byte[] decompress(byte[] input) {
+      Inflater inflater = new Inflater();
+      try {
+        inflater.setInput(input);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 4);
+        byte[] buffer = new byte[1024];
+        while (!inflater.finished()) {
+          int n = inflater.inflate(buffer);
+          if (n == 0 && inflater.needsInput()) {
+            throw new CompressionException("Truncated input");
+          }
+          out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+      } catch (DataFormatException e) {
+        throw new CompressionException(e);
+      } finally {
+        inflater.end();
+      }
+    }
+  }
+}
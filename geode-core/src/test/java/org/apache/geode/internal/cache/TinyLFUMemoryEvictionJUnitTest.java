@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.*;
+import static org.junit.Assert.*;
+
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests that regions with memory TinyLFU eviction are treated like memory LRU regions.
+ */
+@Category(IntegrationTest.class)
+public class TinyLFUMemoryEvictionJUnitTest {
+
+  private Cache cache;
+
+  @Before
+  public void setUp() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    this.cache = new CacheFactory(props).create();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (this.cache != null && !this.cache.isClosed()) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void testIsMemoryEviction() {
+    assertTrue(EvictionAlgorithm.LRU_MEMORY.isMemoryEviction());
+    assertTrue(EvictionAlgorithm.TINYLFU_MEMORY.isMemoryEviction());
+    assertFalse(EvictionAlgorithm.LRU_ENTRY.isMemoryEviction());
+    assertFalse(EvictionAlgorithm.TINYLFU_ENTRY.isMemoryEviction());
+    assertFalse(EvictionAlgorithm.LRU_HEAP.isMemoryEviction());
+    assertFalse(EvictionAlgorithm.NONE.isMemoryEviction());
+  }
+
+  @Test
+  public void testPartitionedRegionMaximumIsLocalMaxMemory() {
+    Region<Integer, byte[]> region = this.cache
+        .<Integer, byte[]>createRegionFactory(RegionShortcut.PARTITION)
+        .setPartitionAttributes(
+            new PartitionAttributesFactory<Integer, byte[]>().setLocalMaxMemory(5).create())
+        .setEvictionAttributes(
+            EvictionAttributes.createTinyLFUMemoryAttributes(100, EvictionAction.LOCAL_DESTROY))
+        .create("tinylfu");
+    EvictionAttributes ea = region.getAttributes().getEvictionAttributes();
+    assertEquals(EvictionAlgorithm.TINYLFU_MEMORY, ea.getAlgorithm());
+    assertEquals(5, ea.getMaximum());
+  }
+
+  @Test
+  public void testRegionStatusReportsBytes() {
+    Region<Integer, byte[]> region = this.cache
+        .<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(
+            EvictionAttributes.createTinyLFUMemoryAttributes(10, EvictionAction.LOCAL_DESTROY))
+        .create("tinylfu");
+    for (int i = 0; i < 10; i++) {
+      region.put(i, new byte[1000]);
+    }
+    assertTrue(new RegionStatus(region).getHeapSize() >= 10 * 1000);
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.CacheTransactionManager;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests that regions with primitive-key maps store their entries in unchained region entries. The
+ * unchained entries throw if they are ever chained, so every operation these tests run would fail
+ * if it called setNextEntry on one of them.
+ */
+@Category(IntegrationTest.class)
+public class UnchainedRegionEntryJUnitTest {
+
+  private static final int ENTRIES = 1000;
+
+  private boolean originalPrimitiveKeyRegionMaps;
+
+  private GemFireCacheImpl cache;
+
+  private File diskDir;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void setUp() throws Exception {
+    this.originalPrimitiveKeyRegionMaps = AbstractRegionMap.PRIMITIVE_KEY_REGION_MAPS;
+    AbstractRegionMap.PRIMITIVE_KEY_REGION_MAPS = true;
+    this.diskDir = temporaryFolder.newFolder("disk");
+    createCache();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    AbstractRegionMap.PRIMITIVE_KEY_REGION_MAPS = this.originalPrimitiveKeyRegionMaps;
+    if (this.cache != null && !this.cache.isClosed()) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void testReplicateRegionWithLongKeys() throws Exception {
+    LocalRegion region = (LocalRegion) this.cache
+        .<Long, String>createRegionFactory(RegionShortcut.REPLICATE).setKeyConstraint(Long.class)
+        .create("longs");
+    assertTrue(((AbstractRegionMap) region.getRegionMap())
+        ._getMap() instanceof PrimitiveKeyConcurrentHashMap);
+    exercise(region, i -> Long.valueOf(i));
+    assertEquals(ENTRIES, region.size());
+    assertUnchained(region);
+  }
+
+  @Test
+  public void testPersistentOverflowRegionWithIntegerKeys() throws Exception {
+    LocalRegion region = createPersistentOverflowRegion();
+    exercise(region, i -> Integer.valueOf(i));
+    assertUnchained(region);
+    this.cache.close();
+
+    // recovery copies the recovered entries into the region's map
+    createCache();
+    region = createPersistentOverflowRegion();
+    assertEquals(ENTRIES, region.size());
+    for (int i = 0; i < ENTRIES; i++) {
+      assertEquals("value" + i, region.get(i));
+    }
+    assertUnchained(region);
+  }
+
+  private void createCache() {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    this.cache = (GemFireCacheImpl) new CacheFactory(props).create();
+  }
+
+  private LocalRegion createPersistentOverflowRegion() {
+    this.cache.createDiskStoreFactory().setDiskDirs(new File[] {this.diskDir}).create("store");
+    return (LocalRegion) this.cache
+        .<Integer, String>createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setKeyConstraint(Integer.class).setDiskStoreName("store")
+        .setEvictionAttributes(EvictionAttributes.createLRUEntryAttributes(ENTRIES / 10,
+            EvictionAction.OVERFLOW_TO_DISK))
+        .create("ints");
+  }
+
+  private interface KeyMaker {
+    Object key(int i);
+  }
+
+  /**
+   * Runs the region operations that create, replace, tombstone and iterate entries. Leaves
+   * "value" + i mapped to the key of every i below ENTRIES.
+   */
+  @SuppressWarnings("unchecked")
+  private void exercise(LocalRegion region, KeyMaker keys) throws Exception {
+    Region<Object, Object> r = region;
+    for (int i = 0; i < ENTRIES; i++) {
+      r.put(keys.key(i), "old" + i);
+    }
+    for (int i = 0; i < ENTRIES; i += 2) {
+      r.invalidate(keys.key(i));
+    }
+    List<Object> removed = new ArrayList<Object>();
+    for (int i = 0; i < ENTRIES; i += 3) {
+      r.destroy(keys.key(i));
+      removed.add(keys.key(i));
+    }
+    this.cache.getTombstoneService().forceBatchExpirationForTests(removed.size() / 2);
+    Map<Object, Object> all = new HashMap<Object, Object>();
+    for (int i = 0; i < ENTRIES; i++) {
+      all.put(keys.key(i), "value" + i);
+    }
+    r.putAll(all);
+    r.removeAll(removed);
+    if (!region.getDataPolicy().withPersistence()) {
+      // transactions are not allowed on persistent regions
+      CacheTransactionManager txMgr = this.cache.getCacheTransactionManager();
+      txMgr.begin();
+      for (Object key : removed) {
+        r.create(key, "tx");
+      }
+      txMgr.commit();
+    }
+    for (Object key : removed) {
+      r.put(key, all.get(key));
+    }
+    int count = 0;
+    for (Map.Entry<Object, Object> entry : r.entrySet()) {
+      assertEquals(all.get(entry.getKey()), entry.getValue());
+      count++;
+    }
+    assertEquals(ENTRIES, count);
+  }
+
+  private static void assertUnchained(LocalRegion region) {
+    for (Object key : region.keySet()) {
+      RegionEntry entry = region.getRegionEntry(key);
+      assertTrue(entry.getClass().getName(), entry.getClass().getName().contains("Unchained"));
+    }
+  }
+}
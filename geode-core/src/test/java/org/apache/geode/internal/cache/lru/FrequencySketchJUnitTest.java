@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class FrequencySketchJUnitTest {
+
+  @Test
+  public void testUnseenHashHasNoFrequency() {
+    FrequencySketch sketch = new FrequencySketch(64);
+    assertEquals(0, sketch.frequency(42));
+  }
+
+  @Test
+  public void testIncrementCountsUpToFifteen() {
+    FrequencySketch sketch = new FrequencySketch(64);
+    for (int i = 1; i <= 20; i++) {
+      sketch.increment(42);
+      assertEquals(Math.min(i, 15), sketch.frequency(42));
+    }
+  }
+
+  @Test
+  public void testFrequentHashesAreDistinguishedFromRareOnes() {
+    FrequencySketch sketch = new FrequencySketch(1024);
+    for (int i = 0; i < 1000; i++) {
+      sketch.increment(i);
+    }
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j < 5; j++) {
+        sketch.increment(i);
+      }
+    }
+    for (int i = 0; i < 10; i++) {
+      assertTrue(sketch.frequency(i) > sketch.frequency(500 + i));
+    }
+  }
+
+  @Test
+  public void testCountersAreHalvedAfterSampleSize() {
+    FrequencySketch sketch = new FrequencySketch(16);
+    for (int i = 0; i < 8; i++) {
+      sketch.increment(7);
+    }
+    assertEquals(8, sketch.frequency(7));
+    // the table holds 16 longs, so the counters are halved on the 160th addition
+    for (int i = 0; i < 151; i++) {
+      sketch.increment(1000 + i);
+    }
+    int before = sketch.frequency(7);
+    sketch.increment(2000);
+    assertTrue(sketch.frequency(7) <= (before + 1) / 2);
+  }
+
+  @Test
+  public void testUnsynchronizedIncrementsWhileTableGrows() throws Exception {
+    final FrequencySketch sketch = new FrequencySketch(16);
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    Thread[] readers = new Thread[4];
+    for (int t = 0; t < readers.length; t++) {
+      readers[t] = new Thread(() -> {
+        try {
+          for (int i = 0; i < 200000; i++) {
+            sketch.increment(i);
+          }
+        } catch (Throwable e) {
+          failure.set(e);
+        }
+      });
+      readers[t].start();
+    }
+    for (int size = 32; size <= 1 << 16; size <<= 1) {
+      synchronized (sketch) {
+        sketch.ensureCapacity(size);
+      }
+    }
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertNull(failure.get());
+    sketch.increment(42);
+    assertTrue(sketch.frequency(42) > 0);
+  }
+
+  @Test
+  public void testConcurrentIncrementsOfOneHashSaturateExactly() throws Exception {
+    final FrequencySketch sketch = new FrequencySketch(1024);
+    runConcurrently(8, () -> {
+      for (int i = 0; i < 10000; i++) {
+        sketch.increment(42);
+      }
+    });
+    // a lost update or a carry into a neighbouring counter would change the total
+    assertEquals(15, sketch.frequency(42));
+    assertEquals(4 * 15, sketch.totalCount());
+  }
+
+  @Test
+  public void testConcurrentIncrementsAndHalvingKeepHotHashFrequent() throws Exception {
+    final FrequencySketch sketch = new FrequencySketch(16);
+    final AtomicInteger next = new AtomicInteger();
+    runConcurrently(8, () -> {
+      for (int i = 0; i < 100000; i++) {
+        sketch.increment(42);
+        sketch.increment(1000 + next.getAndIncrement());
+      }
+    });
+    // the table is halved thousands of times, but the hot hash is counted between every halving
+    assertTrue(sketch.frequency(42) >= 7);
+    for (int i = 0; i < 15; i++) {
+      sketch.increment(42);
+    }
+    assertEquals(15, sketch.frequency(42));
+  }
+
+  private static void runConcurrently(int threadCount, Runnable task) throws Exception {
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    Thread[] threads = new Thread[threadCount];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        try {
+          task.run();
+        } catch (Throwable e) {
+          failure.set(e);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(failure.get());
+  }
+
+  @Test
+  public void testEnsureCapacityGrowsToPowerOfTwo() {
+    FrequencySketch sketch = new FrequencySketch(10);
+    assertEquals(16, sketch.capacity());
+    sketch.ensureCapacity(1000);
+    assertEquals(1024, sketch.capacity());
+    sketch.ensureCapacity(100);
+    assertEquals(1024, sketch.capacity());
+  }
+}
@@ -17,7 +17,9 @@ package org.apache.geode.internal.cache.lru;
 import static org.apache.geode.distributed.ConfigurationProperties.*;
 import static org.junit.Assert.*;
 
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -240,6 +242,174 @@ public class LRUClockJUnitTest {
     assertEquals(null, clock.getLRUEntry());
   }
 
+  @Test
+  public void testStripedClockReturnsEveryEntry() throws Exception {
+    StripedLRUClockHand clock = new StripedLRUClockHand(getARegion(), new TestEnableLRU(),
+        new InternalRegionArguments(), 5);
+    assertEquals(8, clock.getStripeCount());
+    LRUTestEntry[] nodes = new LRUTestEntry[100];
+    Set<LRUTestEntry> expected = new HashSet<LRUTestEntry>();
+    for (int i = 0; i < 100; i++) {
+      nodes[i] = getANode(i);
+      clock.appendEntry(nodes[i]);
+      expected.add(nodes[i]);
+    }
+    assertEquals(100, clock.size());
+    for (int i = 0; i < 100; i += 3) {
+      assertTrue(clock.unlinkEntry(nodes[i]));
+      assertFalse(clock.unlinkEntry(nodes[i]));
+      expected.remove(nodes[i]);
+    }
+    assertEquals(expected.size(), clock.size());
+    assertEquals(expected.size(), clock.getExpensiveListCount());
+
+    Set<LRUTestEntry> found = new HashSet<LRUTestEntry>();
+    LRUTestEntry n = (LRUTestEntry) clock.getLRUEntry();
+    while (n != null) {
+      assertTrue("nodes[" + n.id() + "] returned twice", found.add(n));
+      n = (LRUTestEntry) clock.getLRUEntry();
+    }
+    assertEquals(expected, found);
+    assertEquals(0, clock.size());
+  }
+
+  @Test
+  public void testStripedClockSkipsRecentlyUsedEntries() throws Exception {
+    StripedLRUClockHand clock = new StripedLRUClockHand(getARegion(), new TestEnableLRU(),
+        new InternalRegionArguments(), 4);
+    for (int i = 0; i < 20; i++) {
+      LRUTestEntry entry = getANode(i);
+      clock.appendEntry(entry);
+      entry.setRecentlyUsed();
+    }
+
+    // every entry is thrown back once before being returned, so none is lost or returned twice
+    Set<LRUTestEntry> found = new HashSet<LRUTestEntry>();
+    LRUTestEntry n = (LRUTestEntry) clock.getLRUEntry();
+    while (n != null) {
+      assertFalse("nodes[" + n.id() + "] is still marked recently used", n.testRecentlyUsed());
+      assertTrue("nodes[" + n.id() + "] returned twice", found.add(n));
+      n = (LRUTestEntry) clock.getLRUEntry();
+    }
+    assertEquals(20, found.size());
+  }
+
+  @Test
+  public void testStripedClockConcurrentAppendAndUnlink() throws Exception {
+    final StripedLRUClockHand clock = new StripedLRUClockHand(getARegion(), new TestEnableLRU(),
+        new InternalRegionArguments(), 4);
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      final int base = t * 10000;
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 10000; i++) {
+          LRUTestEntry entry = getANode(base + i);
+          clock.appendEntry(entry);
+          if (i % 2 == 0) {
+            clock.unlinkEntry(entry);
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(20000, clock.size());
+    assertEquals(20000, clock.getExpensiveListCount());
+    clock.clear(null);
+    assertEquals(0, clock.size());
+    assertEquals(null, clock.getLRUEntry());
+  }
+
+  @Test
+  public void testTinyLFUKeepsFrequentlyUsedEntriesDuringScan() throws Exception {
+    NewTinyLFUClockHand clock =
+        new NewTinyLFUClockHand(getARegion(), new TestEnableLRU(), new InternalRegionArguments());
+    // fill the region up to its limit of 20 with 10 hot entries that are faulted in several
+    // times and 10 cold entries
+    for (int i = 0; i < 20; i++) {
+      LRUTestEntry entry = getANode(i);
+      clock.appendEntry(entry);
+      clock.stats().updateCounter(1);
+      if (i < 10) {
+        for (int j = 0; j < 3; j++) {
+          clock.unlinkEntry(entry);
+          entry.unsetEvicted();
+          clock.appendEntry(entry);
+        }
+      }
+    }
+
+    // a scan reads many entries once; none of them should displace a hot entry
+    for (int i = 20; i < 220; i++) {
+      clock.appendEntry(getANode(i));
+      clock.stats().updateCounter(1);
+      LRUTestEntry n = (LRUTestEntry) clock.getLRUEntry();
+      assertTrue("evicted hot node nodes[" + n.id() + "]", n.id() >= 10);
+      clock.stats().updateCounter(-1);
+    }
+    assertEquals(20, clock.size());
+    assertEquals(20, clock.getExpensiveListCount());
+  }
+
+  @Test
+  public void testTinyLFUAdmitsEntryReadInWindow() throws Exception {
+    NewTinyLFUClockHand clock =
+        new NewTinyLFUClockHand(getARegion(), new TestEnableLRU(), new InternalRegionArguments());
+    // fill the region up to its limit of 20 with entries that are not read again
+    for (int i = 0; i < 20; i++) {
+      clock.appendEntry(getANode(i));
+      clock.stats().updateCounter(1);
+    }
+
+    // an entry read several times while in the admission window wins against the main clock
+    LRUTestEntry read = getANode(20);
+    clock.appendEntry(read);
+    clock.stats().updateCounter(1);
+    for (int i = 0; i < 3; i++) {
+      read.setRecentlyUsed();
+      clock.recordAccess(read);
+    }
+    clock.appendEntry(getANode(21));
+    clock.stats().updateCounter(1);
+    for (int i = 0; i < 2; i++) {
+      LRUTestEntry n = (LRUTestEntry) clock.getLRUEntry();
+      assertTrue("evicted read node nodes[" + n.id() + "]", n.id() < 20);
+      clock.stats().updateCounter(-1);
+    }
+    assertEquals(20, clock.size());
+  }
+
+  @Test
+  public void testTinyLFUReturnsEveryEntry() throws Exception {
+    NewTinyLFUClockHand clock =
+        new NewTinyLFUClockHand(getARegion(), new TestEnableLRU(), new InternalRegionArguments());
+    LRUTestEntry[] nodes = new LRUTestEntry[50];
+    for (int i = 0; i < 50; i++) {
+      nodes[i] = getANode(i);
+      clock.appendEntry(nodes[i]);
+      clock.stats().updateCounter(1);
+      if (i % 5 == 0) {
+        nodes[i].setRecentlyUsed();
+      }
+    }
+    for (int i = 0; i < 50; i += 7) {
+      assertTrue(clock.unlinkEntry(nodes[i]));
+    }
+    assertEquals(42, clock.size());
+
+    Set<LRUTestEntry> found = new HashSet<LRUTestEntry>();
+    LRUTestEntry n = (LRUTestEntry) clock.getLRUEntry();
+    while (n != null) {
+      assertTrue("nodes[" + n.id() + "] returned twice", found.add(n));
+      assertTrue("unlinked nodes[" + n.id() + "] returned", n.id() % 7 != 0);
+      n = (LRUTestEntry) clock.getLRUEntry();
+    }
+    assertEquals(42, found.size());
+    assertEquals(0, clock.size());
+  }
+
   /** manufacture a node so that a shared type can be used by SharedLRUClockTest. */
   private LRUTestEntry getANode(int id) {
     return new LocalLRUTestEntry(id);
@@ -369,6 +539,8 @@ public class LRUClockJUnitTest {
       final String lruEvictionsDesc = "Number of total entry evictions triggered by LRU.";
       final String lruEvaluationsDesc = "Number of entries evaluated during LRU operations.";
       final String lruGreedyReturnsDesc = "Number of non-LRU entries evicted during LRU operations";
+      final String lruListLockWaitsDesc =
+          "Number of times an LRU list operation had to wait for a lock held by another thread.";
       final String lruDestroysDesc = "Number of entry destroys triggered by LRU.";
       final String lruDestroysLimitDesc =
           "Maximum number of entry destroys triggered by LRU before scan occurs.";
@@ -380,6 +552,7 @@ public class LRUClockJUnitTest {
               f.createLongCounter("lruEvictions", lruEvictionsDesc, "entries"),
               f.createLongCounter("lruEvaluations", lruEvaluationsDesc, "entries"),
               f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),
+              f.createLongCounter("lruListLockWaits", lruListLockWaitsDesc, "operations"),
               f.createLongCounter("lruDestroys", lruDestroysDesc, "entries"),
               f.createLongCounter("lruDestroysLimit", lruDestroysLimitDesc, "entries"),});
     }
@@ -458,6 +631,11 @@ public class LRUClockJUnitTest {
       return statType.nameToId("lruGreedyReturns");
     }
 
+    @Override
+    public int getLockWaitsStatId() {
+      return statType.nameToId("lruListLockWaits");
+    }
+
     @Override
     public boolean mustEvict(LRUStatistics stats, Region region, int delta) {
       throw new UnsupportedOperationException("Not implemented");
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.control.HeapMemoryMonitor;
+import org.apache.geode.internal.cache.control.ResourceManagerStats;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PredictiveHeapEvictorJUnitTest {
+
+  private static final long THRESHOLD = 10000000;
+
+  private ResourceManagerStats stats;
+
+  private PredictiveHeapEvictor predictiveEvictor;
+
+  @Before
+  public void setUp() {
+    HeapEvictor evictor = mock(HeapEvictor.class);
+    when(evictor.getTotalBytesToEvict()).thenReturn(1000000L);
+    this.stats = mock(ResourceManagerStats.class);
+    this.predictiveEvictor =
+        new PredictiveHeapEvictor(evictor, mock(HeapMemoryMonitor.class), this.stats);
+  }
+
+  @Test
+  public void testNoForecastWithoutGrowth() {
+    assertEquals(0, this.predictiveEvictor.recordCollection(0, 9000000, -1, THRESHOLD));
+    assertEquals(0, this.predictiveEvictor.recordCollection(1000, 8000000, -1, THRESHOLD));
+    assertEquals(0.0, this.predictiveEvictor.getPromotionRate(), 0.0);
+    assertEquals(-1, this.predictiveEvictor.getForecast(8000000, THRESHOLD));
+    verify(this.stats, times(2)).changeHeapEvictionForecast(-1);
+  }
+
+  @Test
+  public void testPromotionRateIsSmoothed() {
+    this.predictiveEvictor.recordCollection(0, 1000000, -1, THRESHOLD);
+    this.predictiveEvictor.recordCollection(1000, 2000000, -1, THRESHOLD);
+    assertEquals(300.0, this.predictiveEvictor.getPromotionRate(), 0.001);
+    this.predictiveEvictor.recordCollection(2000, 3000000, -1, THRESHOLD);
+    assertEquals(510.0, this.predictiveEvictor.getPromotionRate(), 0.001);
+    assertEquals((long) (7000000 / 510.0),
+        this.predictiveEvictor.getForecast(3000000, THRESHOLD));
+    verify(this.stats).changeHeapPromotionRate(510000);
+  }
+
+  @Test
+  public void testEvictsAheadWhenThresholdIsNear() {
+    this.predictiveEvictor.recordCollection(0, 9400000, -1, THRESHOLD);
+    // grows 500 bytes/ms, averaged to 150 bytes/ms; 100000 bytes left is less than a second
+    long bytesToEvict = this.predictiveEvictor.recordCollection(1000, 9900000, 9000000, THRESHOLD);
+    assertEquals(150000, bytesToEvict);
+    assertEquals(9000000, this.predictiveEvictor.getLiveSet());
+    verify(this.stats).changeHeapLiveSet(9000000);
+  }
+
+  @Test
+  public void testDoesNotEvictAheadForGarbage() {
+    this.predictiveEvictor.recordCollection(0, 9400000, -1, THRESHOLD);
+    // the same growth, but the last collection of the tenured pool left only 1MB live
+    assertEquals(0, this.predictiveEvictor.recordCollection(1000, 9900000, 1000000, THRESHOLD));
+  }
+
+  @Test
+  public void testLeavesUsageAboveThresholdToRegularEviction() {
+    this.predictiveEvictor.recordCollection(0, 9400000, -1, THRESHOLD);
+    assertEquals(0, this.predictiveEvictor.recordCollection(1000, 11000000, 9000000, THRESHOLD));
+    assertEquals(0, this.predictiveEvictor.getForecast(11000000, THRESHOLD));
+  }
+
+  @Test
+  public void testEvictAheadIsLimitedToEvictionBurst() {
+    this.predictiveEvictor.recordCollection(0, 1000000, -1, THRESHOLD);
+    // 8MB in 100ms averages to 24000 bytes/ms; 2400000 bytes exceed the 1000000 byte burst
+    assertEquals(1000000,
+        this.predictiveEvictor.recordCollection(100, 9000000, 9000000, THRESHOLD));
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.persistence;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.internal.FileUtil;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests for the BackupBlockStore.
+ */
+@Category(IntegrationTest.class)
+public class BackupBlockStoreJUnitTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testManifestReassemblesFile() throws Exception {
+    byte[] data = randomBytes(6 * 1024 * 1024, 1);
+    File original = writeFile("BACKUPds_1.crf", data);
+    File backupDir = temporaryFolder.newFolder("backup1");
+
+    BackupBlockStore store = new BackupBlockStore(backupDir, null, new RestoreScript());
+    File manifest = store.backup(original, "dir0");
+
+    assertEquals(new File(new File(new File(backupDir, BackupBlockStore.MANIFESTS), "dir0"),
+        "BACKUPds_1.crf" + BackupBlockStore.MANIFEST_EXT), manifest);
+    assertArrayEquals(data, reassemble(backupDir, manifest));
+    assertEquals(data.length, store.getBytesRead());
+    assertEquals(data.length, store.getBytesWritten());
+    assertTrue(store.getBlocksWritten() >= 2);
+  }
+
+  @Test
+  public void testBaselineManifestIsReused() throws Exception {
+    byte[] data = randomBytes(3 * 1024 * 1024, 2);
+    File original = writeFile("BACKUPds_1.crf", data);
+    File baselineDir = temporaryFolder.newFolder("backup1");
+    new BackupBlockStore(baselineDir, null, new RestoreScript()).backup(original, "dir0");
+
+    File backupDir = temporaryFolder.newFolder("backup2");
+    BackupBlockStore store = new BackupBlockStore(backupDir, baselineDir, new RestoreScript());
+    File manifest = store.backup(original, "dir0");
+
+    assertEquals(0, store.getBytesRead());
+    assertEquals(0, store.getBlocksWritten());
+    assertFalse(new File(backupDir, BackupBlockStore.BLOCKS).exists());
+    assertArrayEquals(data, reassemble(backupDir, manifest));
+  }
+
+  @Test
+  public void testMovedBackupCanBeReassembled() throws Exception {
+    byte[] data = randomBytes(6 * 1024 * 1024, 5);
+    File original = writeFile("BACKUPds_1.crf", data);
+    File backups = temporaryFolder.newFolder("backups");
+    File baselineDir = new File(backups, "backup1");
+    new BackupBlockStore(baselineDir, null, new RestoreScript()).backup(original, "dir0");
+    File backupDir = new File(backups, "backup2");
+    new BackupBlockStore(backupDir, baselineDir, new RestoreScript()).backup(original, "dir0");
+
+    File moved = new File(temporaryFolder.getRoot(), "moved");
+    assertTrue(backups.renameTo(moved));
+    File movedBackupDir = new File(moved, "backup2");
+    File manifest = new File(new File(new File(movedBackupDir, BackupBlockStore.MANIFESTS), "dir0"),
+        "BACKUPds_1.crf" + BackupBlockStore.MANIFEST_EXT);
+    assertArrayEquals(data, reassemble(movedBackupDir, manifest));
+  }
+
+  @Test
+  public void testMissingBaselineBlocksAreWrittenAgain() throws Exception {
+    byte[] data = randomBytes(6 * 1024 * 1024, 6);
+    File original = writeFile("BACKUPds_1.crf", data);
+    File baselineDir = temporaryFolder.newFolder("backup1");
+    new BackupBlockStore(baselineDir, null, new RestoreScript()).backup(original, "dir0");
+    FileUtil.delete(new File(baselineDir, BackupBlockStore.BLOCKS));
+
+    File backupDir = temporaryFolder.newFolder("backup2");
+    BackupBlockStore store = new BackupBlockStore(backupDir, baselineDir, new RestoreScript());
+    File manifest = store.backup(original, "dir0");
+
+    assertEquals(data.length, store.getBytesWritten());
+    assertArrayEquals(data, reassemble(backupDir, manifest));
+  }
+
+  @Test
+  public void testShiftedDataReusesBaselineBlocks() throws Exception {
+    byte[] data = randomBytes(8 * 1024 * 1024, 3);
+    File baselineDir = temporaryFolder.newFolder("backup1");
+    BackupBlockStore baseline = new BackupBlockStore(baselineDir, null, new RestoreScript());
+    baseline.backup(writeFile("BACKUPds_1.crf", data), "dir0");
+
+    // a compacted oplog holds most of the same data at a different offset
+    ByteArrayOutputStream shifted = new ByteArrayOutputStream();
+    shifted.write(randomBytes(1000, 4));
+    shifted.write(data);
+    byte[] shiftedData = shifted.toByteArray();
+    File backupDir = temporaryFolder.newFolder("backup2");
+    BackupBlockStore store = new BackupBlockStore(backupDir, baselineDir, new RestoreScript());
+    File manifest = store.backup(writeFile("BACKUPds_2.crf", shiftedData), "dir0");
+
+    assertArrayEquals(shiftedData, reassemble(backupDir, manifest));
+    assertTrue(store.getBlocksReused() > 0);
+    assertTrue(store.getBytesWritten() < baseline.getBytesWritten());
+  }
+
+  private byte[] randomBytes(int length, long seed) {
+    byte[] data = new byte[length];
+    new Random(seed).nextBytes(data);
+    return data;
+  }
+
+  private File writeFile(String name, byte[] data) throws IOException {
+    File file = new File(temporaryFolder.getRoot(), name);
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(data);
+    } finally {
+      out.close();
+    }
+    return file;
+  }
+
+  /**
+   * Reassembles a file the way the restore script does, reading the blocks relative to the disk
+   * store's backup directory
+   */
+  private byte[] reassemble(File backupDir, File manifest) throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    BufferedReader reader = new BufferedReader(new FileReader(manifest));
+    try {
+      long length = Long.parseLong(reader.readLine());
+      String line;
+      while ((line = reader.readLine()) != null) {
+        assertFalse(new File(line).isAbsolute());
+        result.write(Files.readAllBytes(new File(backupDir, line).toPath()));
+      }
+      assertEquals(length, result.size());
+    } finally {
+      reader.close();
+    }
+    return result.toByteArray();
+  }
+}
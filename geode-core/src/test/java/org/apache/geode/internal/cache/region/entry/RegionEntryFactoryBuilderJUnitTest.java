@@ -23,6 +23,9 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
 import org.apache.geode.test.junit.categories.UnitTest;
 
 @Category(UnitTest.class)
@@ -78,4 +81,45 @@ public class RegionEntryFactoryBuilderJUnitTest {
     assertEquals(factoryName, regionEntryFactoryBuilder.getRegionEntryFactoryOrNull(enableStats,
         enableLRU, enableDisk, enableVersioning, enableOffHeap).getClass().getSimpleName());
   }
+
+  @Test
+  public void unchainedFactoryCreatesUnchainedEntriesForThePrimitiveKeyType() {
+    RegionEntryFactory factory = regionEntryFactoryBuilder
+        .getUnchainedRegionEntryFactoryOrNull(false, false, false, true, Long.class);
+    RegionEntry re = factory.createEntry(null, 7L, null);
+    assertEquals("VersionedThinRegionEntryHeapUnchainedLongKey", re.getClass().getSimpleName());
+    assertEquals(7L, re.getKey());
+    HashEntry<Object, Object> he = (HashEntry<Object, Object>) re;
+    assertEquals(Long.hashCode(7L), he.getEntryHash());
+    assertNull(he.getNextEntry());
+    try {
+      he.setNextEntry(he);
+      fail("expected UnsupportedOperationException");
+    } catch (UnsupportedOperationException expected) {
+    }
+
+    re = regionEntryFactoryBuilder
+        .getUnchainedRegionEntryFactoryOrNull(false, false, false, false, Integer.class)
+        .createEntry(null, 7, null);
+    assertEquals("VMThinRegionEntryHeapUnchainedIntKey", re.getClass().getSimpleName());
+    assertEquals(7, re.getKey());
+  }
+
+  @Test
+  public void unchainedFactoryCreatesChainedEntriesForOtherKeys() {
+    RegionEntryFactory factory = regionEntryFactoryBuilder
+        .getUnchainedRegionEntryFactoryOrNull(false, false, false, false, Integer.class);
+    assertEquals("VMThinRegionEntryHeapLongKey",
+        factory.createEntry(null, 7L, null).getClass().getSimpleName());
+    assertEquals("VMThinRegionEntryHeapObjectKey",
+        factory.createEntry(null, new Object(), null).getClass().getSimpleName());
+    assertEquals("VersionedThinRegionEntryHeapFactory",
+        factory.makeVersioned().getClass().getSimpleName());
+  }
+
+  @Test
+  public void noUnchainedFactoryForNonPrimitiveKeyTypes() {
+    assertNull(regionEntryFactoryBuilder.getUnchainedRegionEntryFactoryOrNull(false, false, false,
+        false, String.class));
+  }
 }
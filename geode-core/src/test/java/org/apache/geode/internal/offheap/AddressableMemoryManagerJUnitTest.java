@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class AddressableMemoryManagerJUnitTest {
+
+  private static final int SIZE = 64;
+
+  private long address;
+
+  @Before
+  public void setUp() {
+    this.address = AddressableMemoryManager.allocate(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      AddressableMemoryManager.writeByte(this.address + i, (byte) i);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    AddressableMemoryManager.free(this.address);
+  }
+
+  @Test
+  public void readBytesIntoHeapByteBuffer() {
+    ByteBuffer bb = ByteBuffer.allocate(SIZE * 2);
+    bb.position(3);
+    ByteBuffer slice = bb.slice();
+
+    AddressableMemoryManager.readBytes(this.address + 1, slice, 10);
+
+    assertThat(slice.position()).isEqualTo(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(bb.get(3 + i)).isEqualTo((byte) (i + 1));
+    }
+    assertThat(bb.get(13)).isEqualTo((byte) 0);
+  }
+
+  @Test
+  public void readBytesIntoDirectByteBuffer() {
+    ByteBuffer bb = ByteBuffer.allocateDirect(SIZE);
+    bb.position(5);
+
+    AddressableMemoryManager.readBytes(this.address, bb, SIZE - 5);
+
+    assertThat(bb.position()).isEqualTo(SIZE);
+    for (int i = 0; i < SIZE - 5; i++) {
+      assertThat(bb.get(5 + i)).isEqualTo((byte) i);
+    }
+  }
+
+  @Test
+  public void readBytesThrowsIfBufferIsTooSmall() {
+    ByteBuffer bb = ByteBuffer.allocate(8);
+
+    assertThatThrownBy(() -> AddressableMemoryManager.readBytes(this.address, bb, 9))
+        .isInstanceOf(BufferOverflowException.class);
+    assertThat(bb.position()).isZero();
+  }
+}
@@ -131,6 +131,76 @@ public class FreeListManagerTest {
     validateChunkSizes(c, dataSize);
   }
 
+  @Test
+  public void freedTinyChunkIsReusedFromFreeListCache() {
+    FreeListManager manager =
+        new FreeListManager(ma, new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 1);
+    try {
+      int dataSize = 10;
+      OffHeapStoredObject c = manager.allocate(dataSize);
+      long addr = c.getAddress();
+      OffHeapStoredObject.release(addr, manager);
+      assertThat(manager.getFreeTinyMemory()).isEqualTo(computeExpectedSize(dataSize));
+
+      c = manager.allocate(dataSize);
+
+      assertThat(c.getAddress()).isEqualTo(addr);
+      validateChunkSizes(c, dataSize);
+      assertThat(manager.getFreeTinyMemory()).isZero();
+      verify(this.stats, times(1)).incFreeListCacheHits();
+    } finally {
+      manager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void fullFreeListCacheFlushesToSharedFreeList() {
+    FreeListManager manager =
+        new FreeListManager(ma, new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 1);
+    try {
+      int dataSize = 10;
+      int count = FreeListManager.FREE_LIST_CACHE_CAPACITY + 1;
+      ArrayList<OffHeapStoredObject> chunks = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        chunks.add(manager.allocate(dataSize));
+      }
+      for (OffHeapStoredObject c : chunks) {
+        OffHeapStoredObject.release(c.getAddress(), manager);
+      }
+
+      verify(this.stats, times(1)).incFreeListCacheFlushes();
+      assertThat(manager.getFreeTinyMemory()).isEqualTo(count * computeExpectedSize(dataSize));
+      for (int i = 0; i < count; i++) {
+        validateChunkSizes(manager.allocate(dataSize), dataSize);
+      }
+      assertThat(manager.getFreeTinyMemory()).isZero();
+    } finally {
+      manager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void defragmentRecoversChunksInFreeListCache() {
+    int slabSize = 1024;
+    FreeListManager manager = new FreeListManager(ma, new Slab[] {new SlabImpl(slabSize)}, 1);
+    try {
+      ArrayList<OffHeapStoredObject> chunks = new ArrayList<>();
+      for (int i = 0; i < slabSize / 16; i++) {
+        chunks.add(manager.allocate(8));
+      }
+      for (OffHeapStoredObject c : chunks) {
+        OffHeapStoredObject.release(c.getAddress(), manager);
+      }
+
+      assertThat(manager.defragment(slabSize)).isTrue();
+      assertThat(manager.getFreeTinyMemory()).isZero();
+      validateChunkSizes(manager.allocate(slabSize - OffHeapStoredObject.HEADER_SIZE),
+          slabSize - OffHeapStoredObject.HEADER_SIZE);
+    } finally {
+      manager.freeSlabs();
+    }
+  }
+
   @Test
   public void allocateHugeChunkHasCorrectSize() {
     setUpSingleSlabManager();
@@ -361,6 +431,46 @@ public class FreeListManagerTest {
     assertThat(this.freeListManager.defragment(DEFAULT_SLAB_SIZE / 2)).isTrue();
   }
 
+  @Test
+  public void defragmentSlabOnlyCombinesFreeChunksOfThatSlab() {
+    int slabSize = 1024;
+    this.freeListManager = createFreeListManager(ma,
+        new Slab[] {new SlabImpl(slabSize), new SlabImpl(slabSize)});
+    ArrayList<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < slabSize * 2 / 16; i++) {
+      chunks.add(this.freeListManager.allocate(8));
+    }
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+    }
+
+    assertThat(this.freeListManager.defragmentSlab(0)).isEqualTo(slabSize);
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(slabSize);
+    assertThat(this.freeListManager.getFragmentList()).hasSize(2);
+    verify(this.stats).incDefragmentationBytesRecovered(slabSize - 16);
+    verify(this.stats).endIncrementalDefragmentation(anyLong());
+    validateChunkSizes(this.freeListManager.allocate(slabSize - OffHeapStoredObject.HEADER_SIZE),
+        slabSize - OffHeapStoredObject.HEADER_SIZE);
+  }
+
+  @Test
+  public void defragmentSlabWithLiveChunkKeepsItAllocated() {
+    int slabSize = 1024;
+    setUpSingleSlabManager(slabSize);
+    OffHeapStoredObject c1 = this.freeListManager.allocate(slabSize / 4 - 8);
+    OffHeapStoredObject c2 = this.freeListManager.allocate(slabSize / 4 - 8);
+    this.freeListManager.allocate(slabSize / 4 - 8);
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.defragmentSlab(0)).isEqualTo(slabSize / 2);
+
+    assertThat(this.freeListManager.getUsedMemory()).isEqualTo(slabSize / 4);
+    assertThat(this.freeListManager.getFreeMemory()).isEqualTo(slabSize * 3 / 4);
+    assertThat(this.freeListManager.getFragmentList()).hasSize(2);
+  }
+
   @Test
   public void defragmentAfterAllocatingAll() {
     setUpSingleSlabManager();
@@ -103,6 +103,48 @@ public class NullOffHeapMemoryStats implements OffHeapMemoryStats {
     return 0;
   }
 
+  @Override
+  public void incFreeListCacheHits() {}
+
+  @Override
+  public long getFreeListCacheHits() {
+    return 0;
+  }
+
+  @Override
+  public void incFreeListCacheFlushes() {}
+
+  @Override
+  public long getFreeListCacheFlushes() {
+    return 0;
+  }
+
+  @Override
+  public long startIncrementalDefragmentation() {
+    return 0;
+  }
+
+  @Override
+  public void endIncrementalDefragmentation(long start) {}
+
+  @Override
+  public int getIncrementalDefragmentations() {
+    return 0;
+  }
+
+  @Override
+  public long getIncrementalDefragmentationTime() {
+    return 0;
+  }
+
+  @Override
+  public void incDefragmentationBytesRecovered(long value) {}
+
+  @Override
+  public long getDefragmentationBytesRecovered() {
+    return 0;
+  }
+
   @Override
   public Statistics getStats() {
     return null;
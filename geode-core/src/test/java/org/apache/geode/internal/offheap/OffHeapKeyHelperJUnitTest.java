@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.OffHeapKeyRegionEntry;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OffHeapKeyHelperJUnitTest {
+
+  @Before
+  public void setUp() {
+    OutOfOffHeapMemoryListener ooohml = mock(OutOfOffHeapMemoryListener.class);
+    OffHeapMemoryStats stats = mock(OffHeapMemoryStats.class);
+
+    MemoryAllocatorImpl.create(ooohml, stats, 1, OffHeapStorage.MIN_SLAB_SIZE * 1,
+        OffHeapStorage.MIN_SLAB_SIZE);
+  }
+
+  @After
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  private OffHeapKeyRegionEntry createEntry(String key) {
+    final AtomicLong keyAddress = new AtomicLong();
+    final AtomicReference<String> heapKey = new AtomicReference<String>(key);
+    OffHeapKeyRegionEntry re = mock(OffHeapKeyRegionEntry.class);
+    when(re.getKeyAddress()).thenAnswer(invocation -> keyAddress.get());
+    when(re.setKeyAddress(anyLong(), anyLong()))
+        .thenAnswer(invocation -> keyAddress.compareAndSet((Long) invocation.getArguments()[0],
+            (Long) invocation.getArguments()[1]));
+    when(re.getHeapKey()).thenAnswer(invocation -> heapKey.get());
+    doAnswer(invocation -> {
+      heapKey.set((String) invocation.getArguments()[0]);
+      return null;
+    }).when(re).setHeapKey(anyString());
+    return re;
+  }
+
+  private void verifyKeyRoundTrip(String key) {
+    long addr = OffHeapKeyHelper.encodeKey(key);
+    try {
+      assertEquals(key, OffHeapKeyHelper.decodeKey(addr));
+      assertTrue(OffHeapKeyHelper.keyEquals(addr, key));
+      assertFalse(OffHeapKeyHelper.keyEquals(addr, key + "x"));
+      if (key.length() > 0) {
+        assertFalse(OffHeapKeyHelper.keyEquals(addr, key.substring(1)));
+      }
+    } finally {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  @Test
+  public void byteEncodedKeysRoundTrip() {
+    verifyKeyRoundTrip("");
+    verifyKeyRoundTrip("a reasonably long ascii key that can not be inlined");
+  }
+
+  @Test
+  public void charEncodedKeysRoundTrip() {
+    verifyKeyRoundTrip("\u00e9t\u00e9 key");
+    verifyKeyRoundTrip("\u4e2d\u6587\uffff");
+  }
+
+  @Test
+  public void byteEncodedKeyDoesNotEqualWideCharacterKey() {
+    long addr = OffHeapKeyHelper.encodeKey("a");
+    try {
+      // the low byte of \u0161 is the same as 'a' so the comparison must check the char range
+      assertFalse(OffHeapKeyHelper.keyEquals(addr, "\u0161"));
+    } finally {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  @Test
+  public void keyMovesOffHeapAndBack() {
+    String key = "a key that is too long to be stored inline";
+    OffHeapKeyRegionEntry re = createEntry(key);
+
+    OffHeapKeyHelper.moveKeyOffHeap(re);
+    long addr = re.getKeyAddress();
+    assertNotEquals(0L, addr);
+    assertNull(re.getHeapKey());
+    assertEquals(1, OffHeapStoredObject.getRefCount(addr));
+    assertEquals(key, OffHeapKeyHelper.getKey(re));
+    assertTrue(OffHeapKeyHelper.isKeyEqual(re, key));
+    assertFalse(OffHeapKeyHelper.isKeyEqual(re, "another key"));
+    assertFalse(OffHeapKeyHelper.isKeyEqual(re, 1L));
+
+    // moving it again does nothing
+    OffHeapKeyHelper.moveKeyOffHeap(re);
+    assertEquals(addr, re.getKeyAddress());
+
+    OffHeapKeyHelper.releaseKey(re);
+    assertEquals(0L, re.getKeyAddress());
+    assertEquals(key, re.getHeapKey());
+    assertEquals(key, OffHeapKeyHelper.getKey(re));
+    assertTrue(OffHeapKeyHelper.isKeyEqual(re, key));
+  }
+}
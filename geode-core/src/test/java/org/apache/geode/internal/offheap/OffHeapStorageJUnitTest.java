@@ -182,6 +182,11 @@ public class OffHeapStorageJUnitTest {
       assertEquals(1024 * 1024, stats.getLargestFragment());
       assertEquals(0, stats.getObjects());
       assertEquals(0, stats.getReads());
+      assertEquals(0, stats.getFreeListCacheHits());
+      assertEquals(0, stats.getFreeListCacheFlushes());
+      assertEquals(0, stats.getIncrementalDefragmentations());
+      assertEquals(0, stats.getIncrementalDefragmentationTime());
+      assertEquals(0, stats.getDefragmentationBytesRecovered());
 
       stats.incFreeMemory(100);
       assertEquals(1024 * 1024 + 100, stats.getFreeMemory());
@@ -206,6 +211,18 @@ public class OffHeapStorageJUnitTest {
       stats.incReads();
       assertEquals(1, stats.getReads());
 
+      stats.incFreeListCacheHits();
+      assertEquals(1, stats.getFreeListCacheHits());
+
+      stats.incFreeListCacheFlushes();
+      assertEquals(1, stats.getFreeListCacheFlushes());
+
+      stats.endIncrementalDefragmentation(stats.startIncrementalDefragmentation());
+      assertEquals(1, stats.getIncrementalDefragmentations());
+
+      stats.incDefragmentationBytesRecovered(64);
+      assertEquals(64, stats.getDefragmentationBytesRecovered());
+
       stats.setFragmentation(100);
       assertEquals(100, stats.getFragmentation());
       stats.setFragmentation(0);
@@ -253,6 +270,8 @@ public class OffHeapStorageJUnitTest {
       assertEquals(0, stats.getLargestFragment());
       assertEquals(0, stats.getObjects());
       assertEquals(0, stats.getReads());
+      assertEquals(0, stats.getFreeListCacheHits());
+      assertEquals(0, stats.getFreeListCacheFlushes());
 
       OutOfOffHeapMemoryException ex = null;
       try {
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PrimitiveKeyConcurrentHashMapJUnitTest {
+
+  @Test
+  public void testGetPrimitiveKeyType() {
+    assertEquals(Long.class, PrimitiveKeyConcurrentHashMap.getPrimitiveKeyType(Long.class));
+    assertEquals(Integer.class, PrimitiveKeyConcurrentHashMap.getPrimitiveKeyType(Integer.class));
+    assertNull(PrimitiveKeyConcurrentHashMap.getPrimitiveKeyType(String.class));
+    assertNull(PrimitiveKeyConcurrentHashMap.getPrimitiveKeyType(null));
+  }
+
+  @Test
+  public void testBasicOperations() {
+    PrimitiveKeyConcurrentHashMap<Object> map =
+        new PrimitiveKeyConcurrentHashMap<Object>(Long.class, 0, 0.75f, 4, null);
+    assertTrue(map.isEmpty());
+    assertNull(map.put(1L, value(1, "one")));
+    assertEquals(value(1, "one"), map.put(1L, value(1, "uno")));
+    assertEquals(value(1, "uno"), map.putIfAbsent(1L, value(1, "one")));
+    assertNull(map.putIfAbsent(2L, value(2, "two")));
+    assertNull(map.put("three", "three"));
+    assertEquals(3, map.size());
+    assertEquals(value(1, "uno"), map.get(1L));
+    assertNull(map.get(1));
+    assertEquals("three", map.get("three"));
+    assertFalse(map.remove(2L, value(2, "deux")));
+    assertTrue(map.remove(2L, value(2, "two")));
+    assertFalse(map.replace(1L, value(1, "one"), value(1, "eins")));
+    assertTrue(map.replace(1L, value(1, "uno"), value(1, "eins")));
+    assertEquals(value(1, "eins"), map.replace(1L, value(1, "one")));
+    assertEquals(value(1, "one"), map.remove(1L));
+    assertEquals(1, map.size());
+    map.clear();
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void testIntegerKeysAreNotConfusedWithLongKeys() {
+    PrimitiveKeyConcurrentHashMap<Object> map =
+        new PrimitiveKeyConcurrentHashMap<Object>(Integer.class, 0, 0.75f, 1, null);
+    map.put(7, value(7, "int"));
+    map.put(7L, "long");
+    assertEquals(2, map.size());
+    assertEquals(value(7, "int"), map.get(7));
+    assertEquals("long", map.get(7L));
+  }
+
+  @Test
+  public void testMatchesHashMapUnderRandomOperations() {
+    Random random = new Random(0);
+    PrimitiveKeyConcurrentHashMap<Object> map =
+        new PrimitiveKeyConcurrentHashMap<Object>(Long.class, 16, 0.75f, 4, null);
+    Map<Object, Object> expected = new HashMap<Object, Object>();
+    for (int i = 0; i < 100000; i++) {
+      long k = random.nextInt(2000) - 1000;
+      Long key = k;
+      Object value = value(k, "v" + random.nextInt(5));
+      switch (random.nextInt(4)) {
+        case 0:
+          assertEquals(expected.put(key, value), map.put(key, value));
+          break;
+        case 1:
+          assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+          break;
+        case 2:
+          assertEquals(expected.remove(key), map.remove(key));
+          break;
+        default:
+          assertEquals(expected.get(key), map.get(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    assertEquals(expected, map);
+    assertEquals(map, expected);
+  }
+
+  @Test
+  public void testIteratorRemove() {
+    PrimitiveKeyConcurrentHashMap<Object> map =
+        new PrimitiveKeyConcurrentHashMap<Object>(Long.class, 0, 0.75f, 2, null);
+    for (long i = 0; i < 1000; i++) {
+      map.put(i, value(i, "v" + i));
+    }
+    int count = 0;
+    for (Iterator<Object> it = map.values().iterator(); it.hasNext();) {
+      Object value = it.next();
+      assertNotNull(value);
+      if (count++ % 2 == 0) {
+        it.remove();
+      }
+    }
+    assertEquals(1000, count);
+    assertEquals(500, map.size());
+    assertEquals(500, map.keySet().size());
+    for (Map.Entry<Object, Object> entry : map.entrySet()) {
+      assertEquals(value((Long) entry.getKey(), "v" + entry.getKey()), entry.getValue());
+    }
+  }
+
+  @Test
+  public void testIteratorReturnsExistingMappingsOnceWhileTableGrows() {
+    PrimitiveKeyConcurrentHashMap<Object> map =
+        new PrimitiveKeyConcurrentHashMap<Object>(Long.class, 0, 0.75f, 1, null);
+    for (long i = 0; i < 100; i++) {
+      map.put(i, value(i, "old"));
+    }
+    Set<Object> seen = new HashSet<Object>();
+    long next = 100;
+    for (Iterator<Object> it = map.keySet().iterator(); it.hasNext();) {
+      assertTrue(seen.add(it.next()));
+      // force several rehashes of the only segment while iterating
+      for (int i = 0; i < 50; i++, next++) {
+        map.put(next, value(next, "new"));
+      }
+    }
+    for (long i = 0; i < 100; i++) {
+      assertTrue(seen.contains(i));
+    }
+    assertEquals(next, map.size());
+  }
+
+  @Test
+  public void testConcurrentReadsDuringUpdates() throws Exception {
+    final PrimitiveKeyConcurrentHashMap<Object> map =
+        new PrimitiveKeyConcurrentHashMap<Object>(Long.class, 0, 0.75f, 1, null);
+    for (long i = 0; i < 1000; i++) {
+      map.put(i, value(i, "stable"));
+    }
+    final AtomicBoolean done = new AtomicBoolean();
+    Thread writer = new Thread(new Runnable() {
+      public void run() {
+        Random random = new Random(0);
+        while (!done.get()) {
+          long k = 1000 + random.nextInt(10000);
+          if (random.nextBoolean()) {
+            map.put(k, value(k, "churn"));
+          } else {
+            map.remove(k);
+          }
+        }
+      }
+    });
+    writer.start();
+    try {
+      for (int round = 0; round < 200; round++) {
+        for (long i = 0; i < 1000; i++) {
+          assertEquals(value(i, "stable"), map.get(i));
+        }
+      }
+    } finally {
+      done.set(true);
+      writer.join();
+    }
+  }
+
+  private static TestValue value(long key, String name) {
+    return new TestValue(key, name);
+  }
+
+  private static class TestValue implements PrimitiveKeyConcurrentHashMap.PrimitiveKeyEntry {
+    private final long key;
+    private final String name;
+
+    TestValue(long key, String name) {
+      this.key = key;
+      this.name = name;
+    }
+
+    @Override
+    public long getPrimitiveKey() {
+      return this.key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof TestValue)) {
+        return false;
+      }
+      TestValue other = (TestValue) o;
+      return this.key == other.key && this.name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) this.key * 31 + this.name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return this.key + "=" + this.name;
+    }
+  }
+}
@@ -277,6 +277,42 @@ public class JSONFormatterJUnitTest {
     assertEquals(pdxTypes + 1, c.getRegion(PeerTypeRegistration.REGION_FULL_PATH).keys().size());
   }
 
+  /**
+   * this test validates json document with nested objects, which are written in place into the
+   * pdx of the object that contains them, and then converts it back to json
+   */
+  @Test
+  public void testJSONStringWithNestedObjects() throws Exception {
+    String js = "{name:\"outer\", inner:{id:7, deep:{flag:true, tags:[\"a\", \"b\"]}, "
+        + "empty:{}}, list:[{x:1}, 2], after:\"end\"}";
+
+    PdxInstance pi = JSONFormatter.fromJSON(js);
+
+    assertEquals("outer", pi.getField("name"));
+    assertEquals("end", pi.getField("after"));
+    PdxInstance inner = (PdxInstance) pi.getField("inner");
+    assertEquals(JSONFormatter.JSON_CLASSNAME, inner.getClassName());
+    assertEquals((byte) 7, inner.getField("id"));
+    PdxInstance deep = (PdxInstance) inner.getField("deep");
+    assertEquals(true, deep.getField("flag"));
+    assertEquals(2, ((List<?>) deep.getField("tags")).size());
+    assertTrue(((PdxInstance) inner.getField("empty")).getFieldNames().isEmpty());
+    List<?> list = (List<?>) pi.getField("list");
+    assertEquals((byte) 1, ((PdxInstance) list.get(0)).getField("x"));
+
+    Region region = c.getRegion("primitiveKVStore");
+    region.put(1, pi);
+    PdxInstance ret = (PdxInstance) region.get(1);
+    assertEquals(pi, ret);
+
+    JSONObject json = new JSONObject(JSONFormatter.toJSON(ret));
+    assertEquals("outer", json.getString("name"));
+    assertEquals(7, json.getJSONObject("inner").getInt("id"));
+    assertTrue(json.getJSONObject("inner").getJSONObject("deep").getBoolean("flag"));
+    assertEquals(1, json.getJSONArray("list").getJSONObject(0).getInt("x"));
+    assertEquals("end", json.getString("after"));
+  }
+
   @Test
   public void testJSONStringSortedFields() {
 
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.geode.test.junit.categories.SerializationTest;
@@ -60,6 +61,8 @@ import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSourceFactory;
 import org.apache.geode.internal.util.ArrayUtils;
 import org.apache.geode.pdx.internal.DataSize;
+import org.apache.geode.pdx.internal.EnumInfo;
+import org.apache.geode.pdx.internal.PdxField;
 import org.apache.geode.pdx.internal.PdxReaderImpl;
 import org.apache.geode.pdx.internal.PdxType;
 import org.apache.geode.pdx.internal.PdxWriterImpl;
@@ -97,6 +100,45 @@ public class PdxSerializableJUnitTest {
     return this.c.getPdxRegistry().typeMap().size();
   }
 
+  private PdxType createType(String className, String fieldName) {
+    PdxType type = new PdxType(className, false);
+    type.addField(new PdxField(fieldName, 0, 0, FieldType.INT, false));
+    return type;
+  }
+
+  @Test
+  public void testDefineTypesInBatch() throws Exception {
+    TypeRegistry tr = this.c.getPdxRegistry();
+    PdxType existing = createType("batch.Existing", "f");
+    int existingId = tr.defineType(existing);
+
+    List<PdxType> types = new ArrayList<PdxType>();
+    types.add(createType("batch.One", "f"));
+    types.add(createType("batch.Two", "f"));
+    types.add(createType("batch.One", "f"));
+    types.add(createType("batch.Existing", "f"));
+    tr.defineTypes(types);
+
+    assertEquals(existingId, types.get(3).getTypeId());
+    assertEquals(types.get(0).getTypeId(), types.get(2).getTypeId());
+    assertTrue(types.get(0).getTypeId() != types.get(1).getTypeId());
+    assertEquals(3, getNumPdxTypes());
+    for (PdxType type : types) {
+      assertEquals(type, tr.getType(type.getTypeId()));
+      assertEquals(type.getTypeId(), tr.defineType(createType(type.getClassName(), "f")));
+    }
+
+    List<EnumInfo> enums = new ArrayList<EnumInfo>();
+    enums.add(new EnumInfo("batch.Color", "RED", 0));
+    enums.add(new EnumInfo("batch.Color", "GREEN", 1));
+    Map<EnumInfo, Integer> enumIds = tr.defineEnums(enums);
+    assertEquals(2, enumIds.size());
+    for (EnumInfo ei : enums) {
+      assertEquals(ei, tr.getEnumInfoById(enumIds.get(ei)));
+      assertEquals(enumIds.get(ei).intValue(), tr.defineEnum(ei));
+    }
+  }
+
   @Test
   public void testNoDiskStore() throws Exception {
     this.c.close();
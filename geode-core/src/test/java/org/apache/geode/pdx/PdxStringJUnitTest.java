@@ -28,9 +28,19 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.DataSerializer;
 import org.apache.geode.cache.CacheFactory;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.internal.offheap.NullOffHeapMemoryStats;
+import org.apache.geode.internal.offheap.NullOutOfOffHeapMemoryListener;
+import org.apache.geode.internal.offheap.OffHeapStoredObject;
+import org.apache.geode.internal.offheap.SlabImpl;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.internal.PdxField;
 import org.apache.geode.pdx.internal.PdxInstanceFactoryImpl;
+import org.apache.geode.pdx.internal.PdxInputStream;
 import org.apache.geode.pdx.internal.PdxInstanceImpl;
 import org.apache.geode.pdx.internal.PdxString;
 import org.apache.geode.test.junit.categories.IntegrationTest;
@@ -185,5 +195,56 @@ public class PdxStringJUnitTest {
     assertEquals(verifyString, pdx);
   }
 
+  @Test
+  public void testGetRawFieldOfGetter() throws Exception {
+    PdxInstanceFactory pf = PdxInstanceFactoryImpl.newCreator("Portfolio", false);
+    pf.writeString("secId", "abc");
+    pf.writeInt("qty", 5);
+    pf.writeBoolean("active", true);
+    pf.writeString("isin", "XYZ");
+    PdxInstanceImpl pi = (PdxInstanceImpl) pf.create();
+
+    PdxField secId = pi.getPdxType().getPdxFieldForGetter("getSecId");
+    assertEquals("secId", secId.getFieldName());
+    assertEquals(new PdxString("abc"), pi.getRawField(secId));
+    assertEquals(5, pi.getRawField(pi.getPdxType().getPdxFieldForGetter("getQty")));
+    assertEquals(true, pi.getRawField(pi.getPdxType().getPdxFieldForGetter("isActive")));
+    // is prefix is only a getter of boolean fields
+    assertNull(pi.getPdxType().getPdxFieldForGetter("isIn"));
+    assertNull(pi.getPdxType().getPdxFieldForGetter("getPrice"));
+    assertNull(pi.getPdxType().getPdxFieldForGetter("get"));
+    assertNull(pi.getPdxType().getPdxFieldForGetter("secId"));
+  }
+
+  @Test
+  public void testGetRawFieldOfOffHeapInstance() throws Exception {
+    MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+        new NullOffHeapMemoryStats(), new SlabImpl[] {new SlabImpl(1024 * 1024)});
+    try {
+      PdxInstanceFactory pf = PdxInstanceFactoryImpl.newCreator("Portfolio", false);
+      pf.writeString("secId", "abc");
+      pf.writeString("nullId", null);
+      pf.writeObject("description", "xyz");
+      pf.writeInt("qty", 5);
+      byte[] bytes = BlobHelper.serializeToBlob(pf.create());
+      StoredObject so =
+          MemoryAllocatorImpl.getAllocator().allocateAndInitialize(bytes, false, false);
+      assertTrue(so instanceof OffHeapStoredObject);
+      try {
+        // the instance reads its fields straight from the off-heap memory
+        PdxInstanceImpl pi = (PdxInstanceImpl) DataSerializer.readObject(new PdxInputStream(so));
+        assertEquals(new PdxString("abc"), pi.getRawField("secId"));
+        assertEquals(new PdxString("abc"),
+            pi.getRawField(pi.getPdxType().getPdxFieldForGetter("getSecId")));
+        assertNull(pi.getRawField("nullId"));
+        assertEquals("xyz", pi.getRawField("description"));
+        assertEquals(5, pi.getRawField("qty"));
+      } finally {
+        so.release();
+      }
+    } finally {
+      MemoryAllocatorImpl.freeOffHeapMemory();
+    }
+  }
 
 }